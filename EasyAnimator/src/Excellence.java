@@ -1,12 +1,26 @@
 import cs3500.animator.controller.AnimationController;
+import cs3500.animator.util.BinaryAnimationReader;
+import cs3500.animator.view.ViewOptions;
 
-import java.io.FileWriter;
+import java.awt.GraphicsEnvironment;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 import javax.swing.JDialog;
 import javax.swing.JOptionPane;
 
@@ -15,10 +29,44 @@ import javax.swing.JOptionPane;
  * svg. Takes command-line arguments from the user to determine the type of view to display the
  * animation, input file, the speed of the animation, and the output file of the animation (svg).
  * Only the input file and view inputs are mandatory: the default speed is 1 tick per second, and
- * the default output is System.out.
+ * the default output is System.out.  Input files are looked for among the bundled inputs first,
+ * and then as a path.  An output file whose name ends in .svgz or .gz is compressed with gzip as
+ * it is written.  The frames view writes numbered PNG files to the directory given by -out
+ * (frames by default), and the binary view writes the animation in a binary format to the file
+ * given by -out (animation.eab by default).  An input file in that format is loaded without
+ * parsing any text.  The other options are:
+ *
+ * <ul>
+ *   <li>-model object|columnar|mapped: the model the animation is loaded into, object by default.
+ *   The mapped model reads a binary input file straight from a memory mapping, or a text input
+ *   file from its cache entry.</li>
+ *   <li>-svgmode sequential|parallel|streaming: how the svg view writes, sequential by default.
+ *   Parallel writes the shapes on several threads.  Streaming writes the SVG of a text input file
+ *   while reading it, without loading the animation, when the file lists the motions of each
+ *   shape together, and loads it as usual otherwise.</li>
+ *   <li>-svgmin on|off|report: whether the svg view joins the animations of each attribute into
+ *   as few elements as possible, off by default.  Report does the same and also prints the size
+ *   saved to System.err.</li>
+ *   <li>-step n: how many ticks apart the frames view writes a frame, 1 by default.</li>
+ *   <li>-threads n: how many threads the frames view draws and encodes frames on, 1 by
+ *   default.</li>
+ *   <li>-render timer|active: whether the visual view is drawn by a Swing timer, the default, or
+ *   by a render thread that skips ticks to keep up with the clock at high speeds.</li>
+ *   <li>-coalesce on|off: whether consecutive motions that give the same frames as a single
+ *   motion are merged before the animation is shown, off by default.  The number of motions
+ *   removed is printed to System.err.</li>
+ *   <li>-parse sequential|parallel: whether a large text input file is parsed in chunks on
+ *   several threads, sequential by default.</li>
+ *   <li>-cache directory: saves parsed text input files in the directory in the binary format,
+ *   and reads them back from it the next time the same file is loaded.</li>
+ *   <li>-cachesize n: largest size of the cache in megabytes, 256 by default.  The entries used
+ *   longest ago are deleted first.</li>
+ * </ul>
  */
 public final class Excellence {
 
+  private static final int OUTPUT_BUFFER = 1 << 16;
+
   /**
    * Helper method for main to create popup windows for errors in the command line inputs and then
    * exit the program.
@@ -26,6 +74,10 @@ public final class Excellence {
    * @param msg String error message to be displaying in popup window.
    */
   private static void popupErrorAndExit(String msg) {
+    if (GraphicsEnvironment.isHeadless()) {
+      System.err.println("Command line failed! " + msg);
+      System.exit(1);
+    }
     JOptionPane optionPane = new JOptionPane("Command line failed!", JOptionPane.ERROR_MESSAGE);
     JDialog dialog = optionPane.createDialog(msg);
     dialog.setAlwaysOnTop(true);
@@ -33,6 +85,42 @@ public final class Excellence {
     System.exit(1);
   }
 
+  /**
+   * Opens the output file for the text and svg views, with a large buffer so that the views can
+   * write small pieces of text cheaply.  Files named .svgz or .gz are compressed with gzip while
+   * they are written, so the whole output is never held in memory.
+   *
+   * @param output name of the output file.
+   * @return Writer for the file, which must be closed to finish the file.
+   * @throws IOException if the file cannot be opened.
+   */
+  private static Writer openOutput(String output) throws IOException {
+    OutputStream stream = new FileOutputStream(output);
+    if (output.endsWith(".svgz") || output.endsWith(".gz")) {
+      stream = new GZIPOutputStream(stream, OUTPUT_BUFFER);
+    }
+    return new BufferedWriter(new OutputStreamWriter(stream), OUTPUT_BUFFER);
+  }
+
+  /**
+   * Finds the input file on disk, among the bundled inputs or else at the path given.
+   *
+   * @param inputFile name of the input file.
+   * @return the file, or null if it is not a file on disk, such as when it is inside a jar.
+   */
+  private static Path findInput(String inputFile) {
+    try {
+      URL resource = Excellence.class.getResource("/inputs/" + inputFile);
+      if (resource != null && resource.getProtocol().equals("file")) {
+        return Paths.get(resource.toURI());
+      }
+      Path path = Paths.get(inputFile);
+      return Files.isRegularFile(path) ? path : null;
+    } catch (URISyntaxException | InvalidPathException exp) {
+      return null;
+    }
+  }
+
   /**
    * Main method used to run animations.
    *
@@ -50,6 +138,13 @@ public final class Excellence {
     String output = null;
     String viewName = null;
     String slomoFile = null;
+    String modelName = "object";
+    boolean coalesce = false;
+    boolean reportSize = false;
+    boolean parallelParse = false;
+    String cacheDirectory = null;
+    long cacheMegabytes = 256;
+    ViewOptions options = new ViewOptions();
     List<Integer> sloMoIntervals = new ArrayList<>();
     int sloMoIndex = 0;
     int speed = 1;
@@ -72,6 +167,62 @@ public final class Excellence {
           case "-slomo":
             slomoFile = args[i + 1];
             break;
+          case "-model":
+            modelName = args[i + 1];
+            if (!modelName.equals("object") && !modelName.equals("columnar")
+                && !modelName.equals("mapped")) {
+              throw new IllegalArgumentException("Unsupported model " + modelName + ".");
+            }
+            break;
+          case "-step":
+            options.setFrameStep(Integer.parseInt(args[i + 1]));
+            break;
+          case "-threads":
+            options.setFrameThreads(Integer.parseInt(args[i + 1]));
+            break;
+          case "-render":
+            if (!args[i + 1].equals("timer") && !args[i + 1].equals("active")) {
+              throw new IllegalArgumentException("Unsupported render mode " + args[i + 1] + ".");
+            }
+            options.setActiveRendering(args[i + 1].equals("active"));
+            break;
+          case "-svgmin":
+            if (!args[i + 1].equals("on") && !args[i + 1].equals("off")
+                && !args[i + 1].equals("report")) {
+              throw new IllegalArgumentException("Unsupported svgmin mode " + args[i + 1] + ".");
+            }
+            options.setMinimalSVG(!args[i + 1].equals("off"));
+            reportSize = args[i + 1].equals("report");
+            break;
+          case "-coalesce":
+            if (!args[i + 1].equals("on") && !args[i + 1].equals("off")) {
+              throw new IllegalArgumentException("Unsupported coalesce mode " + args[i + 1] + ".");
+            }
+            coalesce = args[i + 1].equals("on");
+            break;
+          case "-parse":
+            if (!args[i + 1].equals("sequential") && !args[i + 1].equals("parallel")) {
+              throw new IllegalArgumentException("Unsupported parse mode " + args[i + 1] + ".");
+            }
+            parallelParse = args[i + 1].equals("parallel");
+            break;
+          case "-cache":
+            cacheDirectory = args[i + 1];
+            break;
+          case "-cachesize":
+            cacheMegabytes = Long.parseLong(args[i + 1]);
+            if (cacheMegabytes <= 0) {
+              throw new IllegalArgumentException("Cache size must be greater than 0.");
+            }
+            break;
+          case "-svgmode":
+            if (!args[i + 1].equals("sequential") && !args[i + 1].equals("parallel")
+                && !args[i + 1].equals("streaming")) {
+              throw new IllegalArgumentException("Unsupported svg mode " + args[i + 1] + ".");
+            }
+            options.setParallelSVG(args[i + 1].equals("parallel"));
+            options.setStreamingSVG(args[i + 1].equals("streaming"));
+            break;
           default:
             throw new IllegalArgumentException("Unsupported command line option " + args[i] + ".");
         }
@@ -80,13 +231,45 @@ public final class Excellence {
         throw new IllegalArgumentException(
             "Animation file (-in) and view name (-view) must be provided.");
       }
+      if (coalesce && modelName.equals("mapped")) {
+        throw new IllegalArgumentException("The mapped model cannot coalesce motions.");
+      }
+      if (viewName.equals("frames")) {
+        // the frames view writes its own files, so -out names a directory rather than a file
+        if (output != null) {
+          options.setFramesDirectory(output);
+        }
+        output = null;
+      }
+      if (viewName.equals("binary")) {
+        // the binary view writes its file through a channel rather than an Appendable
+        if (output != null) {
+          options.setBinaryFile(output);
+        }
+        output = null;
+      }
     } catch (IllegalArgumentException exp) {
       popupErrorAndExit(exp.getMessage());
     }
 
     Appendable appendable = null;
-    InputStream in = Excellence.class.getResourceAsStream("/inputs/" + inputFile);
-    Readable readable = new InputStreamReader(in);
+    Path fileInput = null;
+    Readable readable = null;
+    try {
+      Path path = findInput(inputFile);
+      if (path != null && (parallelParse || options.isStreamingSVG() || cacheDirectory != null
+          || BinaryAnimationReader.isBinary(path))) {
+        fileInput = path;
+      } else {
+        InputStream in = Excellence.class.getResourceAsStream("/inputs/" + inputFile);
+        if (in == null && path != null) {
+          in = Files.newInputStream(path);
+        }
+        readable = new InputStreamReader(in);
+      }
+    } catch (IOException exp) {
+      popupErrorAndExit("Failed to read input file " + inputFile + ".");
+    }
 
     Readable slomoRd = null;
     try {
@@ -95,15 +278,20 @@ public final class Excellence {
     } catch (NullPointerException exp) {
     }
 
-    FileWriter writer = null;
-    try {
-      if (output != null) {
-        writer = new FileWriter(output);
-        appendable = writer;
-      } else {
-        appendable = new PrintStream(System.out);
+    // closed even when the animation fails, so that a gzip file still gets its trailer
+    try (Writer writer = output == null ? null : openOutput(output)) {
+      appendable = writer != null ? writer : new PrintStream(System.out);
+      AnimationController controller = fileInput != null
+          ? new AnimationController(fileInput, appendable, slomoRd)
+          : new AnimationController(readable, appendable, slomoRd);
+      controller.useColumnarModel(modelName.equals("columnar"));
+      controller.useMappedModel(modelName.equals("mapped"));
+      controller.setViewOptions(options);
+      controller.setCoalesce(coalesce);
+      controller.setReportSize(reportSize);
+      if (cacheDirectory != null) {
+        controller.useCache(Paths.get(cacheDirectory), cacheMegabytes << 20);
       }
-      AnimationController controller = new AnimationController(readable, appendable, slomoRd);
       if (viewName.equals("interactive") && sloMoIndex != 0) {
         for (int x : sloMoIntervals) {
           System.out.print(x + " ");
@@ -112,9 +300,6 @@ public final class Excellence {
       } else {
         controller.animate(speed, viewName);
       }
-      if (writer != null) {
-        writer.close();
-      }
     } catch (IOException ioe) {
       popupErrorAndExit("Failed to open output file " + output + ".");
     }
@@ -0,0 +1,234 @@
+package cs3500.animator.controller;
+
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.util.BinaryAnimationReader;
+import cs3500.animator.view.BinaryViewI;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache of parsed animations in a directory, saved in the binary format written by BinaryViewI so
+ * that an animation file that has been loaded before can be read back without parsing its text.
+ * Each entry is named after the SHA-256 hash of the contents of the text file and the version of
+ * the binary format, so a changed file or a new format never finds an old entry.
+ *
+ * <p>Hashing a large file takes longer than reading its entry, so the name of the entry is also
+ * noted in a stamp file for the path of the text file, along with the size and modification time
+ * the file had.  While the file keeps that size and modification time, the name is taken from the
+ * stamp instead of hashing the file again.  A file changed within a moment of writing its stamp
+ * could keep the same modification time, so the stamp is only trusted for files last modified a
+ * while before it was written.</p>
+ *
+ * <p>The modification time of an entry is set to the time it was last used, and once the entries
+ * take up more than the size limit, the ones used longest ago are deleted.  Entries are written to
+ * a temporary file and then moved into place, so an entry is never seen half written.</p>
+ */
+final class AnimationCache {
+
+  static final long DEFAULT_LIMIT = 256L << 20;
+
+  private static final String SUFFIX = ".eab";
+  private static final String STAMP = ".stamp";
+  private static final long RACY_MILLIS = 2000;
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final Path directory;
+  private final long limit;
+
+  /**
+   * Constructor for AnimationCache that takes in the directory of the cache, which is created
+   * when the first entry is saved, and the largest total size of its entries.
+   *
+   * @param directory directory that holds the entries.
+   * @param limit     largest number of bytes taken up by the entries.
+   */
+  AnimationCache(Path directory, long limit) {
+    if (directory == null) {
+      throw new IllegalArgumentException("Cache directory cannot be null.");
+    }
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Cache size must be greater than 0.");
+    }
+    this.directory = directory;
+    this.limit = limit;
+  }
+
+  /**
+   * Gets the entry for the contents of a text animation file, whether it is in the cache or not.
+   *
+   * @param file text animation file.
+   * @return path of the entry in the cache directory.
+   * @throws IOException if the file cannot be read.
+   */
+  Path entry(Path file) throws IOException {
+    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+    long size = attributes.size();
+    long modified = attributes.lastModifiedTime().toMillis();
+    String path = file.toAbsolutePath().normalize().toString();
+    Path stamp = directory.resolve(stampName(path));
+    try {
+      String[] noted = readStamp(stamp);
+      if (noted.length == 4 && noted[3].equals(path) && Long.parseLong(noted[0]) == size
+          && Long.parseLong(noted[1]) == modified
+          && modified + RACY_MILLIS <= Files.getLastModifiedTime(stamp).toMillis()) {
+        return directory.resolve(noted[2]);
+      }
+    } catch (IOException | NumberFormatException e) {
+      // no stamp that can be used, so hash the file
+    }
+
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available.", e);
+    }
+    byte[] buffer = new byte[1 << 16];
+    try (InputStream in = Files.newInputStream(file)) {
+      for (int read = in.read(buffer); read > 0; read = in.read(buffer)) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    String name = hex(digest.digest()) + "-v" + BinaryAnimationReader.VERSION + SUFFIX;
+    try {
+      Files.createDirectories(directory);
+      Files.write(stamp, (size + " " + modified + " " + name + " " + path)
+          .getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      // the file is hashed again next time
+    }
+    return directory.resolve(name);
+  }
+
+  /**
+   * Names the stamp of a path by a 64-bit FNV-1a hash of the path.  Two paths with the same hash
+   * share a stamp, which then only holds for the path that wrote it last.
+   */
+  private static String stampName(String path) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < path.length(); i++) {
+      hash = (hash ^ path.charAt(i)) * 0x100000001b3L;
+    }
+    char[] name = new char[16];
+    for (int i = 15; i >= 0; i--, hash >>>= 4) {
+      name[i] = HEX[(int) hash & 0xF];
+    }
+    return new String(name) + STAMP;
+  }
+
+  /**
+   * Reads the size, modification time, entry name and path noted in a stamp.
+   */
+  private static String[] readStamp(Path stamp) throws IOException {
+    return new String(Files.readAllBytes(stamp), StandardCharsets.UTF_8).split(" ", 4);
+  }
+
+  private static String hex(byte[] hash) {
+    StringBuilder name = new StringBuilder(2 * hash.length);
+    for (byte b : hash) {
+      name.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+    }
+    return name.toString();
+  }
+
+  /**
+   * Checks if an entry is in the cache, and marks it as used if it is.
+   *
+   * @param entry entry given by entry().
+   * @return true if the entry can be read.
+   */
+  boolean contains(Path entry) {
+    try {
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Saves an animation as an entry, then deletes the entries used longest ago until the cache
+   * fits in its size limit again, along with the stamps that name them.  The new entry is kept
+   * even if it is larger than the limit.
+   *
+   * @param entry  entry given by entry().
+   * @param model  animation to save.
+   * @param x      x coordinate of the canvas.
+   * @param y      y coordinate of the canvas.
+   * @param width  width of the canvas.
+   * @param height height of the canvas.
+   * @throws IOException if the entry cannot be written.
+   */
+  void store(Path entry, IAnimation model, int x, int y, int width, int height)
+      throws IOException {
+    Files.createDirectories(directory);
+    Path temp = Files.createTempFile(directory, "entry", ".tmp");
+    try {
+      new BinaryViewI(model, x, y, width, height, temp.toString()).render();
+      Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+    evict(entry);
+  }
+
+  /**
+   * Deletes an entry that could not be read.
+   *
+   * @param entry entry given by entry().
+   */
+  void remove(Path entry) {
+    try {
+      Files.deleteIfExists(entry);
+    } catch (IOException e) {
+      // saving the animation again replaces the entry anyway
+    }
+  }
+
+  private void evict(Path keep) throws IOException {
+    List<Path> entries = new ArrayList<>();
+    List<FileTime> used = new ArrayList<>();
+    long total = 0;
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+      for (Path file : files) {
+        entries.add(file);
+        used.add(Files.getLastModifiedTime(file));
+        total += Files.size(file);
+      }
+    }
+    while (total > limit && entries.size() > 1) {
+      int oldest = -1;
+      for (int i = 0; i < entries.size(); i++) {
+        if (!entries.get(i).equals(keep)
+            && (oldest < 0 || used.get(i).compareTo(used.get(oldest)) < 0)) {
+          oldest = i;
+        }
+      }
+      Path file = entries.remove(oldest);
+      used.remove(oldest);
+      total -= Files.size(file);
+      Files.deleteIfExists(file);
+    }
+    // stamps are tiny, but would pile up for files that are no longer used
+    try (DirectoryStream<Path> stamps = Files.newDirectoryStream(directory, "*" + STAMP)) {
+      for (Path stamp : stamps) {
+        String[] noted = readStamp(stamp);
+        if (noted.length != 4 || !Files.exists(directory.resolve(noted[2]))) {
+          Files.deleteIfExists(stamp);
+        }
+      }
+    }
+  }
+}
@@ -1,18 +1,27 @@
 package cs3500.animator.controller;
 
 import cs3500.animator.model.Animation;
+import cs3500.animator.model.ColumnarAnimation;
 import cs3500.animator.model.IAnimation;
+import cs3500.animator.model.MappedAnimation;
+import cs3500.animator.util.BinaryAnimationReader;
+import cs3500.animator.util.ParallelAnimationReader;
 import cs3500.animator.view.AbstractViews;
 import cs3500.animator.view.CompositeView;
 //import cs3500.animator.view.CompositeViewSloMo;
 import cs3500.animator.view.IAnimationView;
+import cs3500.animator.view.SVGViewI;
+import cs3500.animator.view.StreamingSVGViewI;
 import cs3500.animator.view.ViewFactory;
+import cs3500.animator.view.ViewOptions;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
 import static cs3500.animator.util.AnimationReader.parseFile;
+import static cs3500.animator.util.BinaryAnimationReader.readFile;
 
 /**
  * Controller for an animation that uses the command inputs and logic from the Animation model
@@ -21,8 +30,15 @@ import static cs3500.animator.util.AnimationReader.parseFile;
 public class AnimationController implements IAnimationController {
 
   private final Readable rd;
+  private final Path file;
   private final Readable slomoRd ;
   private final Appendable ap;
+  private boolean columnar = false;
+  private boolean mapped = false;
+  private boolean coalesce = false;
+  private boolean reportSize = false;
+  private AnimationCache cache = null;
+  private ViewOptions options = new ViewOptions();
 
   /**
    * Constructor for AnimationController that takes in a Readable and Appendable for further use in
@@ -36,6 +52,27 @@ public class AnimationController implements IAnimationController {
       throw new IllegalArgumentException("Readable and Appendable cannot be null.");
     }
     this.rd = rd;
+    this.file = null;
+    this.slomoRd = slomoRd;
+    this.ap = ap;
+  }
+
+  /**
+   * Constructor for AnimationController that loads the animation from a file instead of a
+   * Readable.  A file in the binary format written by the binary view is loaded without parsing,
+   * and a text file is parsed in chunks on several threads when it is large.
+   *
+   * @param file    file that holds the animation.
+   * @param ap      Appendable used to output text information for view types where that is
+   *                required.
+   * @param slomoRd Readable for slow motion input, or null.
+   */
+  public AnimationController(Path file, Appendable ap, Readable slomoRd) {
+    if (file == null || ap == null) {
+      throw new IllegalArgumentException("File and Appendable cannot be null.");
+    }
+    this.rd = null;
+    this.file = file;
     this.slomoRd = slomoRd;
     this.ap = ap;
   }
@@ -45,28 +82,119 @@ public class AnimationController implements IAnimationController {
       throw new IllegalArgumentException("Readable and Appendable cannot be null.");
     }
     this.rd = rd;
+    this.file = null;
     this.slomoRd = null;
     this.ap = ap;
   }
 
 
+  /**
+   * Chooses the model that the animation is loaded into.  The columnar model stores motions as
+   * packed integers, which uses far less memory for animations with many motions.
+   *
+   * @param columnar true to load into a ColumnarAnimation, false for an Animation.
+   */
+  public void useColumnarModel(boolean columnar) {
+    this.columnar = columnar;
+  }
+
+  /**
+   * Chooses whether a binary animation is read straight from a memory mapping of the file instead
+   * of being loaded into a model.  Starts almost at once and keeps the motions off the heap, so it
+   * suits animations too large to load.  Only works for binary input, or text input through the
+   * cache, which maps the cache entry.  The animation cannot be changed, so motions cannot be
+   * coalesced.
+   *
+   * @param mapped true to use a MappedAnimation over the binary file.
+   */
+  public void useMappedModel(boolean mapped) {
+    this.mapped = mapped;
+  }
+
+  /**
+   * Chooses whether redundant motions are merged once the animation is loaded.  Every frame stays
+   * the same, but the views have fewer motions to evaluate and write out.  The number of motions
+   * removed is reported on System.err.
+   *
+   * @param coalesce true to merge consecutive motions that give the same frames as one motion.
+   */
+  public void setCoalesce(boolean coalesce) {
+    this.coalesce = coalesce;
+  }
+
+  /**
+   * Chooses whether the size of a minimal SVG is reported on System.err once it is written, next
+   * to the size it would have had without minimal mode.  Measuring the second size writes the SVG
+   * again without keeping it, so it is only done when asked for.
+   *
+   * @param reportSize true to report the size of the minimal SVG.
+   */
+  public void setReportSize(boolean reportSize) {
+    this.reportSize = reportSize;
+  }
+
+  /**
+   * Chooses whether parsed text animation files are cached in a directory in the binary format,
+   * keyed by the hash of their contents.  A file that has been parsed before is then read back
+   * from its cache entry instead of being parsed again.  Once the entries take up more than the
+   * given size, the ones used longest ago are deleted.
+   *
+   * @param directory directory of the cache, or null to not use a cache.
+   * @param maxBytes  largest number of bytes taken up by the cache entries.
+   */
+  public void useCache(Path directory, long maxBytes) {
+    this.cache = directory == null ? null : new AnimationCache(directory, maxBytes);
+  }
+
+  /**
+   * Sets the optional settings passed on to the view, such as parallel SVG output.
+   *
+   * @param options optional view settings.
+   */
+  public void setViewOptions(ViewOptions options) {
+    if (options == null) {
+      throw new IllegalArgumentException("Options cannot be null.");
+    }
+    this.options = options;
+  }
+
   @Override
   public void animate(int speed, String viewName) {
     if (viewName == null) {
       throw new IllegalArgumentException("viewName cannot be null.");
     }
-    Animation.Builder builder = new Animation.Builder(speed, ap);
+    if (mapped && file == null) {
+      throw new IllegalArgumentException("The mapped model needs a binary animation file.");
+    }
+    Animation.Builder builder = builder(speed, ap);
     try {
+      if (streamsSVG(viewName)) {
+        StreamingSVGViewI view = new StreamingSVGViewI(file, ap, speed);
+        if (view.canStream()) {
+          view.render();
+          return;
+        }
+      }
 
-      IAnimation model = parseFile(rd, builder);
+      IAnimation model = file == null ? parseFile(rd, builder) : load(builder);
+      if (coalesce) {
+        System.err.println("Removed " + model.coalesceMotions() + " redundant motions.");
+      }
 
       ViewFactory factory = new ViewFactory(model, builder.getAp(), builder.getCanvasX(),
           builder.getCanvasY(), builder.getCanvasWidth(), builder.getCanvasHeight(),
           (int) builder.getSpeed(), slomoRd);
+      factory.setOptions(options);
 
       ViewFactory.ViewName name = ViewFactory.ViewName.valueOf(viewName.toUpperCase());
       IAnimationView view = factory.createView(name);
       view.render();
+      if (reportSize && options.isMinimalSVG() && view instanceof SVGViewI) {
+        long before = ((SVGViewI) view).getPlainSize();
+        long after = ((SVGViewI) view).getWrittenSize();
+        System.err.println("Minimal SVG: " + after + " characters instead of " + before + " ("
+            + (before == 0 ? 0 : Math.round(100.0 * (before - after) / before)) + "% smaller).");
+      }
     } catch (FileNotFoundException e) {
       throw new IllegalArgumentException("Invalid Readable inputted.");
     } catch (IOException e2) {
@@ -74,6 +202,94 @@ public class AnimationController implements IAnimationController {
     }
   }
 
+  /**
+   * Makes a builder for the model that was asked for.
+   */
+  private Animation.Builder builder(int speed, Appendable ap) {
+    return columnar ? new ColumnarAnimation.Builder(speed, ap) : new Animation.Builder(speed, ap);
+  }
+
+  /**
+   * Checks if the SVG view was asked to write the SVG while the text file is read.  Only the plain
+   * SVG view can, and only when the animation does not have to be loaded for anything else.  A
+   * file that cannot be streamed is loaded and written by the SVG view instead.
+   */
+  private boolean streamsSVG(String viewName) throws IOException {
+    return options.isStreamingSVG() && !options.isMinimalSVG() && viewName.equalsIgnoreCase("svg")
+        && file != null && !mapped && !coalesce && !BinaryAnimationReader.isBinary(file);
+  }
+
+  /**
+   * Loads the animation from the file.  A binary animation is read or mapped, and a mapped
+   * animation gives the builder its canvas.  A text animation goes through the cache if there is
+   * one.
+   */
+  private IAnimation load(Animation.Builder builder) {
+    try {
+      boolean binary = BinaryAnimationReader.isBinary(file);
+      if (!binary && cache != null) {
+        return loadCached(builder);
+      } else if (!binary && mapped) {
+        throw new IllegalArgumentException("The mapped model needs a binary animation file.");
+      } else if (!binary) {
+        return ParallelAnimationReader.parseFile(file, builder);
+      } else if (!mapped) {
+        return readFile(file, builder);
+      }
+      return map(file, builder);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Failed to read animation file " + file + ".");
+    }
+  }
+
+  /**
+   * Loads a text animation from its cache entry, or parses it and saves it to the cache.  An
+   * entry is read into a builder of its own, which only gives the canvas to the given builder
+   * once the whole entry has been read, so an entry that turns out to be broken part way through
+   * leaves nothing behind.  Such an entry is replaced.
+   */
+  private IAnimation loadCached(Animation.Builder builder) throws IOException {
+    Path entry = cache.entry(file);
+    if (cache.contains(entry)) {
+      try {
+        if (mapped) {
+          return map(entry, builder);
+        }
+        Animation.Builder reader = builder(1, new StringBuilder());
+        IAnimation model = readFile(entry, reader);
+        builder.setBounds(reader.getCanvasX(), reader.getCanvasY(), reader.getCanvasWidth(),
+            reader.getCanvasHeight());
+        return model;
+      } catch (IllegalStateException | IllegalArgumentException | IOException e) {
+        cache.remove(entry);
+      }
+    }
+    // a mapped animation is mapped from the new entry, so parse into the smaller model
+    Animation.Builder parser = mapped ? new ColumnarAnimation.Builder(1, new StringBuilder())
+        : builder;
+    IAnimation model = ParallelAnimationReader.parseFile(file, parser);
+    try {
+      cache.store(entry, model, parser.getCanvasX(), parser.getCanvasY(),
+          parser.getCanvasWidth(), parser.getCanvasHeight());
+    } catch (IOException e) {
+      if (mapped) {
+        throw e;
+      }
+      System.err.println("Failed to save " + file + " to the cache: " + e.getMessage());
+    }
+    return mapped ? map(entry, builder) : model;
+  }
+
+  /**
+   * Maps a binary animation file and gives the builder its canvas.
+   */
+  private static IAnimation map(Path binary, Animation.Builder builder) throws IOException {
+    MappedAnimation model = MappedAnimation.open(binary);
+    builder.setBounds(model.getCanvasX(), model.getCanvasY(), model.getCanvasWidth(),
+        model.getCanvasHeight());
+    return model;
+  }
+
   @Override
   public void animateSloMo(int speed, String viewName, List<Integer> sloMoIntervals) {
 
@@ -0,0 +1,525 @@
+package cs3500.animator.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base class for the models of an animation.  Every model can present the motions of each shape as
+ * a MotionTrack, and this class implements frame evaluation, bounds and the textual description in
+ * terms of those tracks, so that all models produce the same frames for the same input.
+ */
+abstract class AbstractAnimation implements IAnimation {
+
+  protected final Map<String, ShapeType> shapeTypes = new HashMap<>();
+  private int[] keyframes;
+  private ShapeGrid grid;
+  // only final fields, so threads that race to replace it still see a whole index
+  private FrameIndex frameIndex;
+  private boolean bounded;
+  private int minX;
+  private int minY;
+  private int maxX;
+  private int maxY;
+  private int maxT;
+
+  /**
+   * Gets the motions of every shape that has at least one motion, in description order.
+   *
+   * @return tracks of the animation.
+   */
+  abstract MotionTrack[] tracks();
+
+  /**
+   * Replaces runs of consecutive motions of a shape with one motion each, from the start of the
+   * first motion of the run to the end of the last.
+   *
+   * @param id   id of the shape.
+   * @param runs positions of the first and last motion of every run, in motion order, covering
+   *             every motion of the shape.
+   */
+  abstract void mergeMotions(String id, int[] runs);
+
+  /**
+   * Drops everything that was computed from the motions.  Called whenever a motion is added.
+   */
+  void motionsChanged() {
+    keyframes = null;
+    grid = null;
+    frameIndex = null;
+  }
+
+  /**
+   * Grows the bounds of the animation to contain a motion.  Called whenever a motion is added, so
+   * the bounds never have to be computed from all the motions.
+   *
+   * @param x1 x coordinate at the start of the motion.
+   * @param y1 y coordinate at the start of the motion.
+   * @param w1 width at the start of the motion.
+   * @param h1 height at the start of the motion.
+   * @param t2 end time of the motion.
+   * @param x2 x coordinate at the end of the motion.
+   * @param y2 y coordinate at the end of the motion.
+   * @param w2 width at the end of the motion.
+   * @param h2 height at the end of the motion.
+   */
+  void grow(int x1, int y1, int w1, int h1, int t2, int x2, int y2, int w2, int h2) {
+    if (!bounded) {
+      bounded = true;
+      minX = x1;
+      minY = y1;
+      maxX = x1 + w1;
+      maxY = y1 + h1;
+      maxT = t2;
+    }
+    minX = Math.min(minX, Math.min(x1, x2));
+    minY = Math.min(minY, Math.min(y1, y2));
+    maxX = Math.max(maxX, Math.max(x1 + w1, x2 + w2));
+    maxY = Math.max(maxY, Math.max(y1 + h1, y2 + h2));
+    maxT = Math.max(maxT, t2);
+  }
+
+  @Override
+  public void prepareForConcurrentReads() {
+    for (MotionTrack track : tracks()) {
+      track.index();
+    }
+    keyframes();
+    grid();
+  }
+
+  /**
+   * Gets the spatial index over the motions of every shape.  Built on first use and kept until a
+   * motion is added.
+   *
+   * @return grid of the shapes.
+   */
+  ShapeGrid grid() {
+    if (grid == null) {
+      grid = ShapeGrid.of(tracks());
+    }
+    return grid;
+  }
+
+  /**
+   * Gets every time at which a motion starts or ends, sorted and without duplicates.  Built once,
+   * on first use or by the builder, and kept until a motion is added.
+   *
+   * @return keyframe timeline of the animation.
+   */
+  int[] keyframes() {
+    if (keyframes == null) {
+      MotionTrack[] all = tracks();
+      int count = 0;
+      for (MotionTrack track : all) {
+        count += 2 * track.size();
+      }
+      int[] times = new int[count];
+      int i = 0;
+      for (MotionTrack track : all) {
+        for (int m = 0; m < track.size(); m++) {
+          times[i++] = track.get(m, MotionTrack.T1);
+          times[i++] = track.get(m, MotionTrack.T2);
+        }
+      }
+      Arrays.sort(times);
+      int unique = 0;
+      for (int time : times) {
+        if (unique == 0 || times[unique - 1] != time) {
+          times[unique++] = time;
+        }
+      }
+      keyframes = Arrays.copyOf(times, unique);
+    }
+    return keyframes;
+  }
+
+  @Override
+  public int nextKeyframe(int timeUnit) {
+    int[] times = keyframes();
+    int i = firstAfter(times, timeUnit);
+    return i < times.length ? times[i] : -1;
+  }
+
+  @Override
+  public int prevKeyframe(int timeUnit) {
+    int[] times = keyframes();
+    int i = firstAfter(times, timeUnit - 1);
+    return i > 0 ? times[i - 1] : -1;
+  }
+
+  @Override
+  public StaticSpan getStaticSpan(int timeUnit) {
+    MotionTrack[] all = tracks();
+    int[] runEnds = new int[all.length];
+    int[] sorted = new int[all.length];
+    int candidates = 0;
+    for (int slot = 0; slot < all.length; slot++) {
+      runEnds[slot] = runEnd(all[slot], timeUnit);
+      if (runEnds[slot] >= timeUnit) {
+        sorted[candidates++] = runEnds[slot];
+      }
+    }
+    // end the window where the number of static shapes times its length is largest
+    Arrays.sort(sorted, 0, candidates);
+    int end = timeUnit;
+    long best = 0;
+    for (int i = candidates - 1; i >= 0; i--) {
+      long score = (long) (candidates - i) * ((long) sorted[i] - timeUnit + 1);
+      if (score > best) {
+        best = score;
+        end = sorted[i];
+      }
+    }
+    StaticSpan span = new StaticSpan(timeUnit, end, all.length);
+    for (int slot = 0; slot < all.length; slot++) {
+      MotionTrack track = all[slot];
+      MotionIndex index = track.index();
+      if (candidates > 0 && runEnds[slot] >= end) {
+        span.include(slot, track, index.find(timeUnit));
+        span.markStatic(slot);
+      } else {
+        for (int pos = index.size() - 1; pos >= 0; pos--) {
+          if (index.startOf(pos) <= end && index.endOf(pos) >= timeUnit) {
+            span.include(slot, track, pos);
+          }
+        }
+      }
+    }
+    return span;
+  }
+
+  /**
+   * Finds the last tick up to which a shape stays in the state it has at the given time.  The
+   * motion that decides the state only changes when a later motion starts or the current one
+   * ends, so only those ticks are looked up.
+   *
+   * @return last tick of the run, or -1 if the shape is off screen or changing at the time.
+   */
+  private static int runEnd(MotionTrack track, int timeUnit) {
+    MotionIndex index = track.index();
+    if (!index.isSorted()) {
+      return -1;
+    }
+    int current = index.find(timeUnit);
+    if (current < 0 || !isStill(track, current)) {
+      return -1;
+    }
+    int first = current;
+    int tick = timeUnit;
+    while (true) {
+      int next = index.lastStartingBy(tick) + 1;
+      int until = index.endOf(current);
+      if (next < index.size()) {
+        until = Math.min(until, index.startOf(next) - 1);
+      }
+      if (until == Integer.MAX_VALUE) {
+        return until;
+      }
+      tick = until + 1;
+      current = index.find(tick);
+      if (current < 0 || !sameState(track, first, current)) {
+        return until;
+      }
+    }
+  }
+
+  /**
+   * Checks if a motion keeps the shape in its start state for the whole motion.
+   */
+  private static boolean isStill(MotionTrack track, int motion) {
+    if (track.get(motion, MotionTrack.T1) == track.get(motion, MotionTrack.T2)) {
+      return true;
+    }
+    return sameFields(track, motion, MotionTrack.X1, motion, MotionTrack.X2);
+  }
+
+  /**
+   * Checks if the second motion is still and keeps the shape in the same state as the first.
+   */
+  private static boolean sameState(MotionTrack track, int motion, int other) {
+    return motion == other
+        || isStill(track, other) && sameFields(track, motion, MotionTrack.X1, other, MotionTrack.X1);
+  }
+
+  /**
+   * Compares the seven state fields starting at the given fields of two motions.
+   */
+  private static boolean sameFields(MotionTrack track, int motion, int field, int other,
+      int otherField) {
+    for (int i = 0; i < MotionTrack.B1 - MotionTrack.X1 + 1; i++) {
+      if (track.get(motion, field + i) != track.get(other, otherField + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Binary search for the position of the first time that is greater than the given time.
+   */
+  private static int firstAfter(int[] times, int timeUnit) {
+    int lo = 0;
+    int hi = times.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (times[mid] <= timeUnit) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  @Override
+  public void addShape(String id, String type) {
+    String capType = type.substring(0, 1).toUpperCase() + type.substring(1);
+    this.shapeTypes.put(id, ShapeType.valueOf(capType));
+  }
+
+  @Override
+  public ShapeType getShapeType(String id) {
+    return shapeTypes.get(id);
+  }
+
+  @Override
+  public Map<String, IShape> getFrameAt(int timeUnit) {
+    FrameBuffer buffer = getFrameAt(timeUnit, null);
+    Map<String, IShape> frame = new LinkedHashMap<>();
+    for (int slot = 0; slot < buffer.size(); slot++) {
+      if (buffer.isVisible(slot)) {
+        int rgb = buffer.getRGB(slot);
+        frame.put(buffer.getName(slot), Animation.createShape(buffer.getShapeType(slot),
+            buffer.getX(slot), buffer.getY(slot), buffer.getWidth(slot), buffer.getHeight(slot),
+            (rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF));
+      }
+    }
+    return frame;
+  }
+
+  @Override
+  public FrameBuffer getFrameAt(int timeUnit, FrameBuffer reuse) {
+    FrameBuffer frame = reuse == null ? new FrameBuffer() : reuse;
+    MotionTrack[] all = tracks();
+    frame.reset(all.length, timeUnit);
+    for (int slot = 0; slot < all.length; slot++) {
+      MotionTrack track = all[slot];
+      int pos = track.index().find(timeUnit);
+      if (pos >= 0) {
+        track.tween(pos, timeUnit, frame, slot);
+      }
+    }
+    return frame;
+  }
+
+  @Override
+  public FrameBuffer getFrameAt(int timeUnit, FrameBuffer reuse, int x, int y, int width,
+      int height) {
+    FrameBuffer frame = reuse == null ? new FrameBuffer() : reuse;
+    MotionTrack[] all = tracks();
+    boolean[] inView = grid().query(x, y, width, height);
+    frame.reset(all.length, timeUnit);
+    for (int slot = 0; slot < all.length; slot++) {
+      if (inView[slot]) {
+        MotionTrack track = all[slot];
+        int pos = track.index().find(timeUnit);
+        if (pos >= 0) {
+          track.tween(pos, timeUnit, frame, slot);
+        }
+      }
+    }
+    return frame;
+  }
+
+  @Override
+  public PlaybackCursor getPlaybackCursor() {
+    return new PlaybackCursor(tracks(), this::grid);
+  }
+
+  @Override
+  public Bounds getAnimationBounds() {
+    return new Bounds(minX, minY, maxX, maxY, maxT);
+  }
+
+  @Override
+  public Bounds getBoundsDuring(int start, int end) {
+    Bounds window = null;
+    for (MotionTrack track : tracks()) {
+      MotionIndex index = track.index();
+      boolean sorted = index.isSorted();
+      int pos = sorted ? index.lastStartingBy(end) : index.size() - 1;
+      for (; pos >= 0 && (!sorted || index.maxEndUpTo(pos) >= start); pos--) {
+        if (index.startOf(pos) <= end && index.endOf(pos) >= start) {
+          window = include(window, track, pos, Math.max(start, index.startOf(pos)),
+              Math.min(end, index.endOf(pos)));
+        }
+      }
+    }
+    return window;
+  }
+
+  /**
+   * Grows bounds to contain a shape during part of a motion.  Since the motion is linear, the
+   * shape is inside the box of its states at the ends of the part.  Tweening rounds positions
+   * and truncates sizes, so a far edge can be up to half a pixel further out.
+   */
+  private static Bounds include(Bounds bounds, MotionTrack track, int motion, int from, int to) {
+    int t1 = track.get(motion, MotionTrack.T1);
+    int t2 = track.get(motion, MotionTrack.T2);
+    for (int t : new int[]{from, to}) {
+      double x = t1 == t2 ? track.get(motion, MotionTrack.X1)
+          : track.interp(motion, MotionTrack.X1, t1, t2, t);
+      double y = t1 == t2 ? track.get(motion, MotionTrack.Y1)
+          : track.interp(motion, MotionTrack.Y1, t1, t2, t);
+      double w = t1 == t2 ? track.get(motion, MotionTrack.W1)
+          : track.interp(motion, MotionTrack.W1, t1, t2, t);
+      double h = t1 == t2 ? track.get(motion, MotionTrack.H1)
+          : track.interp(motion, MotionTrack.H1, t1, t2, t);
+      int left = (int) Math.floor(x);
+      int top = (int) Math.floor(y);
+      int right = (int) Math.floor(x + w + 0.5);
+      int bottom = (int) Math.floor(y + h + 0.5);
+      if (bounds == null) {
+        bounds = new Bounds(left, top, right, bottom, to);
+      }
+      bounds.minX = Math.min(bounds.minX, left);
+      bounds.minY = Math.min(bounds.minY, top);
+      bounds.maxX = Math.max(bounds.maxX, right);
+      bounds.maxY = Math.max(bounds.maxY, bottom);
+      bounds.maxT = Math.max(bounds.maxT, to);
+    }
+    return bounds;
+  }
+
+  @Override
+  public FrameIndex getFrameIndex(int timeUnit) {
+    FrameIndex index = frameIndex;
+    if (index == null || index.getTime() != timeUnit) {
+      index = new FrameIndex(getFrameAt(timeUnit, null));
+      frameIndex = index;
+    }
+    return index;
+  }
+
+  @Override
+  public List<String> shapesAt(int x, int y, int timeUnit) {
+    FrameIndex index = getFrameIndex(timeUnit);
+    return namesOf(index, index.shapesAt(x, y));
+  }
+
+  @Override
+  public List<String> shapesInRect(int x, int y, int width, int height, int timeUnit) {
+    FrameIndex index = getFrameIndex(timeUnit);
+    return namesOf(index, index.shapesInRect(x, y, width, height));
+  }
+
+  @Override
+  public List<String[]> overlappingPairs(int timeUnit) {
+    FrameIndex index = getFrameIndex(timeUnit);
+    List<String[]> pairs = new ArrayList<>();
+    for (int[] pair : index.overlappingPairs()) {
+      pairs.add(new String[]{index.getName(pair[0]), index.getName(pair[1])});
+    }
+    return pairs;
+  }
+
+  @Override
+  public List<Collision> getCollisions() {
+    return new CollisionFinder(tracks()).find();
+  }
+
+  @Override
+  public int coalesceMotions() {
+    int removed = 0;
+    for (MotionTrack track : tracks()) {
+      int[] runs = new MotionCoalescer(track).runs();
+      if (runs.length / 2 < track.size()) {
+        removed += track.size() - runs.length / 2;
+        mergeMotions(track.getName(), runs);
+      }
+    }
+    if (removed > 0) {
+      motionsChanged();
+    }
+    return removed;
+  }
+
+  private static List<String> namesOf(FrameIndex index, int[] slots) {
+    List<String> names = new ArrayList<>(slots.length);
+    for (int slot : slots) {
+      names.add(index.getName(slot));
+    }
+    return names;
+  }
+
+  @Override
+  public boolean overlapWith(IShape shape1, IShape shape2) {
+    return shape1.overlapWith(shape2);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder str = new StringBuilder();
+
+    int linecount = 0;
+    Map<String, List<Motion>> descriptions = getAnimationDescription();
+    for (String id : descriptions.keySet()) {
+      List<Motion> listMotion = descriptions.get(id);
+      if (linecount++ != 0) {
+        str.append("\n");
+      }
+
+      str.append("shape ").append(id).append(" ")
+          .append(listMotion.get(0).getStartShape().getShapeType().toString().toLowerCase())
+          .append("\n");
+      for (int j = 0; j < listMotion.size(); j++) {
+        Motion motion = listMotion.get(j);
+        str.append("motion");
+        str.append(" ");
+        str.append(id);
+        str.append(" ");
+        str.append(motion.getStartTime());
+        str.append(" ");
+        str.append(motion.getStartShape().getX());
+        str.append(" ");
+        str.append(motion.getStartShape().getY());
+        str.append(" ");
+        str.append(motion.getStartShape().getWidth());
+        str.append(" ");
+        str.append(motion.getStartShape().getHeight());
+        str.append(" ");
+        str.append(motion.getStartShape().getColor().getRed());
+        str.append(" ");
+        str.append(motion.getStartShape().getColor().getGreen());
+        str.append(" ");
+        str.append(motion.getStartShape().getColor().getBlue());
+
+        str.append("  ");
+
+        str.append(motion.getEndTime());
+        str.append(" ");
+        str.append(motion.getEndShape().getX());
+        str.append(" ");
+        str.append(motion.getEndShape().getY());
+        str.append(" ");
+        str.append(motion.getEndShape().getWidth());
+        str.append(" ");
+        str.append(motion.getEndShape().getHeight());
+        str.append(" ");
+        str.append(motion.getEndShape().getColor().getRed());
+        str.append(" ");
+        str.append(motion.getEndShape().getColor().getGreen());
+        str.append(" ");
+        str.append(motion.getEndShape().getColor().getBlue());
+        if (j != listMotion.size() - 1) {
+          str.append("\n");
+        }
+      }
+    }
+    return str.toString();
+  }
+}
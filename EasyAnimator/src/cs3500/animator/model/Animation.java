@@ -5,7 +5,6 @@ import cs3500.animator.util.AnimationBuilder;
 import java.awt.Color;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -14,10 +13,117 @@ import java.util.Map;
  * Model representation of an animation that contains a Map of shape ids and corresponding shapes in
  * addition to a Map for the list of motions to be carried out in the animation for each shape.
  */
-public class Animation implements IAnimation {
+public class Animation extends AbstractAnimation {
 
   private final Map<String, List<Motion>> descriptions = new LinkedHashMap<>();
-  private final Map<String, ShapeType> shapeTypes = new HashMap<>();
+  private Track[] tracks;
+
+  /**
+   * A shape's id and motions together with the time index of the motions.  Kept in an array so
+   * that frames can be evaluated without going through the description map.
+   */
+  private static final class Track implements MotionTrack {
+
+    private final String name;
+    private final List<Motion> motions;
+    private MotionIndex index;
+
+    private Track(String name, List<Motion> motions) {
+      this.name = name;
+      this.motions = motions;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public ShapeType getShapeType() {
+      return motions.get(0).getStartShape().getShapeType();
+    }
+
+    @Override
+    public int size() {
+      return motions.size();
+    }
+
+    @Override
+    public int get(int motion, int field) {
+      Motion m = motions.get(motion);
+      boolean start = field < T2;
+      IShape shape = start ? m.getStartShape() : m.getEndShape();
+      switch (field % T2) {
+        case T1:
+          return start ? m.getStartTime() : m.getEndTime();
+        case X1:
+          return shape.getX();
+        case Y1:
+          return shape.getY();
+        case W1:
+          return shape.getWidth();
+        case H1:
+          return shape.getHeight();
+        case R1:
+          return shape.getColor().getRed();
+        case G1:
+          return shape.getColor().getGreen();
+        case B1:
+          return shape.getColor().getBlue();
+        default:
+          throw new IllegalArgumentException("Unknown motion field " + field);
+      }
+    }
+
+    /**
+     * "Tweens" a motion into a frame buffer, reading the values straight from the motion's shapes.
+     */
+    @Override
+    public void tween(int motion, int timeUnit, FrameBuffer frame, int slot) {
+      Motion m = motions.get(motion);
+      int t1 = m.getStartTime();
+      int t2 = m.getEndTime();
+      IShape shape1 = m.getStartShape();
+      IShape shape2 = m.getEndShape();
+      Color color1 = shape1.getColor();
+      if (t1 == t2) {
+        frame.set(slot, name, shape1.getShapeType(), shape1.getX(), shape1.getY(),
+            shape1.getWidth(), shape1.getHeight(), color1.getRGB() & 0xFFFFFF);
+        return;
+      }
+      Color color2 = shape2.getColor();
+      double newX = lerp(t1, shape1.getX(), t2, shape2.getX(), timeUnit);
+      double newY = lerp(t1, shape1.getY(), t2, shape2.getY(), timeUnit);
+      int newW = (int) lerp(t1, shape1.getWidth(), t2, shape2.getWidth(), timeUnit);
+      int newH = (int) lerp(t1, shape1.getHeight(), t2, shape2.getHeight(), timeUnit);
+      int newR = (int) lerp(t1, color1.getRed(), t2, color2.getRed(), timeUnit);
+      int newG = (int) lerp(t1, color1.getGreen(), t2, color2.getGreen(), timeUnit);
+      int newB = (int) lerp(t1, color1.getBlue(), t2, color2.getBlue(), timeUnit);
+      frame.set(slot, name, shape1.getShapeType(), (int) Math.round(newX),
+          (int) Math.round(newY), newW, newH, (newR << 16) | (newG << 8) | newB);
+    }
+
+    /**
+     * Same computation as Animation.linearInterp, so that the values match those of tweening.
+     */
+    private static double lerp(double x1, double y1, double x2, double y2, double x) {
+      return y1 + (y2 - y1) / (x2 - x1) * (x - x1);
+    }
+
+    /**
+     * Gets the time index of the motions, rebuilding it if the motion list has changed since it
+     * was last built.
+     *
+     * @return time index of the motions.
+     */
+    @Override
+    public MotionIndex index() {
+      if (index == null || index.size() != motions.size()) {
+        index = MotionIndex.of(this);
+      }
+      return index;
+    }
+  }
 
   /**
    * Builder class for the model representation of an Animation that allows contains the logic for
@@ -57,7 +163,7 @@ public class Animation implements IAnimation {
     private final double speed;
     private final Appendable ap;
     private final StringBuilder builder = new StringBuilder();
-    IAnimation animation = new Animation();
+    private final IAnimation animation;
 
     /**
      * Constructor for the Builder class that takes in the command input for speed and an Appendable
@@ -67,6 +173,18 @@ public class Animation implements IAnimation {
      * @param ap    Appendable used to output text description of an animation.
      */
     public Builder(int speed, Appendable ap) {
+      this(speed, ap, new Animation());
+    }
+
+    /**
+     * Constructor for builders of other models of an animation, which fill the given model instead
+     * of an Animation.
+     *
+     * @param speed     Desired speed of animation.
+     * @param ap        Appendable used to output text description of an animation.
+     * @param animation Empty model to fill.
+     */
+    protected Builder(int speed, Appendable ap, IAnimation animation) {
       if (speed <= 0) {
         throw new IllegalArgumentException("Speed must be greater than 0.");
       }
@@ -75,6 +193,7 @@ public class Animation implements IAnimation {
       }
       this.speed = speed;
       this.ap = ap;
+      this.animation = animation;
     }
 
     @Override
@@ -87,6 +206,10 @@ public class Animation implements IAnimation {
       } catch (NullPointerException e) {
         throw new IllegalStateException("Null Appendable.");
       }
+      if (animation instanceof AbstractAnimation) {
+        // build the keyframe timeline now rather than on the first step of discrete playback
+        ((AbstractAnimation) animation).keyframes();
+      }
       return animation;
     }
 
@@ -119,113 +242,92 @@ public class Animation implements IAnimation {
       }
       //System.out.println("addMotion");
       ShapeType type = animation.getShapeType(name);
-      switch (type) {
-        case Rectangle:
-          IShape shape1 = new Rectangle(w1, h1, new Position2D(x1, y1), 0, new Color(r1, g1, b1));
-          IShape shape2 = new Rectangle(w2, h2, new Position2D(x2, y2), 0, new Color(r2, g2, b2));
-          animation.addMotion(name, new Motion(shape1, shape2, t1, t2));
-          break;
-        case Ellipse:
-          shape1 = new Ellipse(w1, h1, new Position2D(x1, y1), 0, new Color(r1, g1, b1));
-          shape2 = new Ellipse(w2, h2, new Position2D(x2, y2), 0, new Color(r2, g2, b2));
-          animation.addMotion(name, new Motion(shape1, shape2, t1, t2));
-          break;
-        case Plus:
-          shape1 = new Plus(w1, h1, new Position2D(x1, y1), 0, new Color(r1, g1, b1));
-          shape2 = new Plus(w2, h2, new Position2D(x2, y2), 0, new Color(r2, g2, b2));
-          animation.addMotion(name, new Motion(shape1, shape2, t1, t2));
-          break;
-        default:
-          throw new IllegalArgumentException("Unsupported shape type " + type);
-      }
+      IShape shape1 = createShape(type, x1, y1, w1, h1, r1, g1, b1);
+      IShape shape2 = createShape(type, x2, y2, w2, h2, r2, g2, b2);
+      animation.addMotion(name, new Motion(shape1, shape2, t1, t2));
       return this;
     }
   }
 
-  @Override
-  public String toString() {
-    StringBuilder str = new StringBuilder();
-
-    int linecount = 0;
-    for (String id : descriptions.keySet()) {
-      List<Motion> listMotion = descriptions.get(id);
-      if (linecount++ != 0) {
-        str.append("\n");
-      }
-
-      str.append("shape ").append(id).append(" ")
-          .append(listMotion.get(0).getStartShape().getShapeType().toString().toLowerCase())
-          .append("\n");
-      for (int j = 0; j < listMotion.size(); j++) {
-        str.append("motion");
-        str.append(" ");
-        str.append(id);
-        str.append(" ");
-        str.append(listMotion.get(j).getStartTime());
-        str.append(" ");
-        str.append(listMotion.get(j).getStartShape().getX());
-        str.append(" ");
-        str.append(listMotion.get(j).getStartShape().getY());
-        str.append(" ");
-        str.append(listMotion.get(j).getStartShape().getWidth());
-        str.append(" ");
-        str.append(listMotion.get(j).getStartShape().getHeight());
-        str.append(" ");
-        str.append(listMotion.get(j).getStartShape().getColor().getRed());
-        str.append(" ");
-        str.append(listMotion.get(j).getStartShape().getColor().getGreen());
-        str.append(" ");
-        str.append(listMotion.get(j).getStartShape().getColor().getBlue());
-
-        str.append("  ");
-
-        str.append(listMotion.get(j).getEndTime());
-        str.append(" ");
-        str.append(listMotion.get(j).getEndShape().getX());
-        str.append(" ");
-        str.append(listMotion.get(j).getEndShape().getY());
-        str.append(" ");
-        str.append(listMotion.get(j).getEndShape().getWidth());
-        str.append(" ");
-        str.append(listMotion.get(j).getEndShape().getHeight());
-        str.append(" ");
-        str.append(listMotion.get(j).getEndShape().getColor().getRed());
-        str.append(" ");
-        str.append(listMotion.get(j).getEndShape().getColor().getGreen());
-        str.append(" ");
-        str.append(listMotion.get(j).getEndShape().getColor().getBlue());
-        if (j != listMotion.size() - 1) {
-          str.append("\n");
-        }
-      }
+  /**
+   * Creates a shape of the given type from the values of a motion line.
+   *
+   * @param type type of the shape.
+   * @param x    x coordinate of the shape.
+   * @param y    y coordinate of the shape.
+   * @param w    width of the shape.
+   * @param h    height of the shape.
+   * @param r    red color-value of the shape.
+   * @param g    green color-value of the shape.
+   * @param b    blue color-value of the shape.
+   * @return new shape.
+   * @throws IllegalArgumentException if the type is not supported or a value is invalid.
+   */
+  public static IShape createShape(ShapeType type, int x, int y, int w, int h, int r, int g, int b) {
+    switch (type) {
+      case Rectangle:
+        return new Rectangle(w, h, new Position2D(x, y), 0, new Color(r, g, b));
+      case Ellipse:
+        return new Ellipse(w, h, new Position2D(x, y), 0, new Color(r, g, b));
+      case Plus:
+        return new Plus(w, h, new Position2D(x, y), 0, new Color(r, g, b));
+      default:
+        throw new IllegalArgumentException("Unsupported shape type " + type);
     }
-    return str.toString();
-  }
-
-  @Override
-  public void addShape(String id, String type) {
-    String capType = type.substring(0, 1).toUpperCase() + type.substring(1);
-    this.shapeTypes.put(id, ShapeType.valueOf(capType));
-  }
-
-  @Override
-  public ShapeType getShapeType(String id) {
-    return shapeTypes.get(id);
   }
 
   @Override
   public void addMotion(String id, Motion s) {
+    if (id == null || s == null) {
+      throw new IllegalArgumentException("Motion and id cannot be null.");
+    }
     List<Motion> segList = new ArrayList<Motion>();
     if (descriptions.get(id) != null) {
       segList = descriptions.get(id);
     }
     segList.add(s);
-    descriptions.putIfAbsent(id, segList);
+    if (descriptions.putIfAbsent(id, segList) == null) {
+      tracks = null;
+    }
+    grow(s);
+    motionsChanged();
   }
 
   @Override
   public void addMotionList(String id, List<Motion> s) {
-    descriptions.putIfAbsent(id, s);
+    if (id == null || s == null || s.contains(null)) {
+      throw new IllegalArgumentException("Motions and id cannot be null.");
+    }
+    // copied so that the bounds cannot go stale by the caller adding to its list
+    List<Motion> motions = new ArrayList<>(s);
+    if (descriptions.putIfAbsent(id, motions) == null) {
+      tracks = null;
+      for (Motion motion : motions) {
+        grow(motion);
+      }
+      motionsChanged();
+    }
+  }
+
+  @Override
+  void mergeMotions(String id, int[] runs) {
+    List<Motion> motions = descriptions.get(id);
+    List<Motion> merged = new ArrayList<>(runs.length / 2);
+    for (int i = 0; i < runs.length; i += 2) {
+      Motion first = motions.get(runs[i]);
+      Motion last = motions.get(runs[i + 1]);
+      merged.add(first == last ? first : new Motion(first.getStartShape(), last.getEndShape(),
+          first.getStartTime(), last.getEndTime()));
+    }
+    descriptions.put(id, merged);
+    tracks = null;
+  }
+
+  private void grow(Motion motion) {
+    IShape start = motion.getStartShape();
+    IShape end = motion.getEndShape();
+    grow(start.getX(), start.getY(), start.getWidth(), start.getHeight(), motion.getEndTime(),
+        end.getX(), end.getY(), end.getWidth(), end.getHeight());
   }
 
   @Override
@@ -292,65 +394,32 @@ public class Animation implements IAnimation {
   @Override
   public Map<String, IShape> getFrameAt(int timeUnit) {
     Map<String, IShape> frame = new LinkedHashMap<>();
-    for (String name : descriptions.keySet()) {
-      List<Motion> motions = descriptions.get(name);
-      for (Motion motion : motions) {
-        if (motion.getStartTime() <= timeUnit && timeUnit <= motion.getEndTime()) {
-          IShape shape = tweening(motion, timeUnit);
-          frame.put(name, shape);
-        }
+    tracks();
+    for (Track track : tracks) {
+      int pos = track.index().find(timeUnit);
+      if (pos >= 0) {
+        frame.put(track.name, tweening(track.motions.get(pos), timeUnit));
       }
     }
     return frame;
   }
 
+  /**
+   * Gets the tracks of the animation in description order, rebuilding them if a shape has been
+   * added since they were last built.
+   *
+   * @return tracks of the animation.
+   */
   @Override
-  public Bounds getAnimationBounds() {
-    int minX = 9999;
-    int minY = 9999;
-    int maxX = 0;
-    int maxY = 0;
-    int maxT = 0;
-    for (List<Motion> motions : descriptions.values()) {
-      for (Motion motion : motions) {
-        IShape shape1 = motion.getStartShape();
-        IShape shape2 = motion.getEndShape();
-        if (shape1.getMinimumX() < minX) {
-          minX = shape1.getMinimumX();
-        }
-        if (shape2.getMinimumX() < minX) {
-          minX = shape2.getMinimumX();
-        }
-        if (shape1.getMinimumY() < minY) {
-          minY = shape1.getMinimumY();
-        }
-        if (shape2.getMinimumY() < minY) {
-          minY = shape2.getMinimumY();
-        }
-
-        if (shape1.getMaximumX() > maxX) {
-          maxX = shape1.getMaximumX();
-        }
-        if (shape2.getMaximumX() > maxX) {
-          maxX = shape2.getMaximumX();
-        }
-        if (shape1.getMaximumY() > maxY) {
-          maxY = shape1.getMaximumY();
-        }
-        if (shape2.getMaximumY() > maxY) {
-          maxY = shape2.getMaximumY();
-        }
-
-        if (motion.getEndTime() > maxT) {
-          maxT = motion.getEndTime();
-        }
+  MotionTrack[] tracks() {
+    if (tracks == null) {
+      Track[] built = new Track[descriptions.size()];
+      int i = 0;
+      for (Map.Entry<String, List<Motion>> entry : descriptions.entrySet()) {
+        built[i++] = new Track(entry.getKey(), entry.getValue());
       }
+      tracks = built;
     }
-    return new Bounds(minX, minY, maxX, maxY, maxT);
-  }
-
-  @Override
-  public boolean overlapWith(IShape shape1, IShape shape2) {
-    return shape1.overlapWith(shape2);
+    return tracks;
   }
 }
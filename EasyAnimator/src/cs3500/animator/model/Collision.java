@@ -0,0 +1,70 @@
+package cs3500.animator.model;
+
+/**
+ * A time when two shapes of an animation overlap: the bounding boxes of both shapes overlap, as
+ * decided by IShape.overlapWith, at every tick from the start to the end, and not at the ticks just
+ * before and after.
+ */
+public final class Collision {
+
+  private final String first;
+  private final String second;
+  private final int start;
+  private final int end;
+
+  /**
+   * Constructor for Collision that takes in the two shapes and the ticks they overlap at.
+   *
+   * @param first  id of the shape drawn first.
+   * @param second id of the shape drawn second.
+   * @param start  first tick that the shapes overlap at.
+   * @param end    last tick that the shapes overlap at.
+   */
+  public Collision(String first, String second, int start, int end) {
+    this.first = first;
+    this.second = second;
+    this.start = start;
+    this.end = end;
+  }
+
+  /**
+   * Gets the shape drawn first, below the other one.
+   *
+   * @return id of the first shape.
+   */
+  public String getFirst() {
+    return first;
+  }
+
+  /**
+   * Gets the shape drawn second, above the other one.
+   *
+   * @return id of the second shape.
+   */
+  public String getSecond() {
+    return second;
+  }
+
+  /**
+   * Gets the first tick that the shapes overlap at.
+   *
+   * @return start of the collision.
+   */
+  public int getStart() {
+    return start;
+  }
+
+  /**
+   * Gets the last tick that the shapes overlap at.
+   *
+   * @return end of the collision.
+   */
+  public int getEnd() {
+    return end;
+  }
+
+  @Override
+  public String toString() {
+    return first + " " + second + " " + start + " " + end;
+  }
+}
@@ -0,0 +1,286 @@
+package cs3500.animator.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds every time two shapes of an animation overlap, from their motions instead of from every
+ * frame.  The motions are swept in order of start time, keeping the ones that are still running,
+ * so a motion is only compared with the motions of other shapes that run at the same time and
+ * whose boxes over the whole motion overlap its own.  For each such pair, position and size are
+ * linear in time, so the four conditions for the bounding boxes to overlap are linear too, and
+ * solving them gives the window of time when the shapes overlap.
+ *
+ * <p>Frames round positions and truncate sizes, which moves each condition by less than two
+ * pixels, or not at all for values that stay the same during their motion.  The ticks where the
+ * conditions hold with that much to spare overlap for sure, and the ticks where they fail by more
+ * than it cannot overlap, so only the few ticks in between, and the ticks where one of the two
+ * motions starts or ends, are checked against the tweened shapes.  The result is the same as
+ * comparing every pair of shapes at every tick, in about O(n log n + p) for n motions and p pairs
+ * of motions that meet in time and space.  A shape whose motions overlap in time has each of its
+ * ticks checked, since any of the motions can be the one shown.</p>
+ */
+final class CollisionFinder {
+
+  private static final double SLACK = 1e-6;
+  private static final int[][] AXES = {{MotionTrack.X1, MotionTrack.W1},
+      {MotionTrack.Y1, MotionTrack.H1}};
+
+  private final MotionTrack[] tracks;
+  private final boolean[] exact;
+  private final FrameBuffer scratch = new FrameBuffer();
+  private final Map<Long, List<int[]>> runs = new HashMap<>();
+
+  /**
+   * Constructor for CollisionFinder that takes in the motions of every shape.
+   *
+   * @param tracks motions of every shape, in slot order.
+   */
+  CollisionFinder(MotionTrack[] tracks) {
+    this.tracks = tracks;
+    this.exact = new boolean[tracks.length];
+    for (int slot = 0; slot < tracks.length; slot++) {
+      exact[slot] = overlapsItself(tracks[slot]);
+    }
+  }
+
+  /**
+   * Finds every collision of the animation.
+   *
+   * @return collisions in slot order of the first shape, then of the second, then in time order.
+   */
+  List<Collision> find() {
+    int total = 0;
+    for (MotionTrack track : tracks) {
+      total += track.size();
+    }
+    int[] slots = new int[total];
+    int[] positions = new int[total];
+    int[] boxes = new int[4 * total];
+    long[] order = new long[total];
+    int id = 0;
+    for (int slot = 0; slot < tracks.length; slot++) {
+      for (int pos = 0; pos < tracks[slot].size(); pos++, id++) {
+        slots[id] = slot;
+        positions[id] = pos;
+        box(tracks[slot], pos, boxes, 4 * id);
+        order[id] = (long) tracks[slot].get(pos, MotionTrack.T1) << 32 | id;
+      }
+    }
+    Arrays.sort(order);
+
+    int[] active = new int[16];
+    int count = 0;
+    for (long key : order) {
+      int next = (int) key;
+      int start = (int) (key >> 32);
+      int kept = 0;
+      for (int i = 0; i < count; i++) {
+        int other = active[i];
+        if (tracks[slots[other]].get(positions[other], MotionTrack.T2) >= start) {
+          active[kept++] = other;
+          if (slots[other] != slots[next] && boxesOverlap(boxes, 4 * other, 4 * next)) {
+            int a = Math.min(slots[other], slots[next]);
+            solve(a, a == slots[other] ? positions[other] : positions[next],
+                a == slots[other] ? slots[next] : slots[other],
+                a == slots[other] ? positions[next] : positions[other]);
+          }
+        }
+      }
+      count = kept;
+      if (count == active.length) {
+        active = Arrays.copyOf(active, 2 * count);
+      }
+      active[count++] = next;
+    }
+    return collect();
+  }
+
+  /**
+   * Finds the ticks when a motion of one shape overlaps a motion of another, and adds them to the
+   * runs of that pair of shapes.
+   */
+  private void solve(int a, int motionA, int b, int motionB) {
+    MotionTrack trackA = tracks[a];
+    MotionTrack trackB = tracks[b];
+    int lo = Math.max(trackA.get(motionA, MotionTrack.T1), trackB.get(motionB, MotionTrack.T1));
+    int hi = Math.min(trackA.get(motionA, MotionTrack.T2), trackB.get(motionB, MotionTrack.T2));
+    // ticks where the motions start or end may show another motion, so they are always checked
+    double[] sure = exact[a] || exact[b] ? new double[]{1, 0} : new double[]{lo + 1, hi - 1};
+    double[] possible = {lo, hi};
+    for (int[] axis : AXES) {
+      for (int flip = 0; flip < 2; flip++) {
+        // the far edge of one shape minus the near edge of the other must not be negative
+        MotionTrack far = flip == 0 ? trackB : trackA;
+        MotionTrack near = flip == 0 ? trackA : trackB;
+        int farMotion = flip == 0 ? motionB : motionA;
+        int nearMotion = flip == 0 ? motionA : motionB;
+        double atLo = value(far, farMotion, axis[0], lo) + value(far, farMotion, axis[1], lo)
+            - value(near, nearMotion, axis[0], lo);
+        double atHi = value(far, farMotion, axis[0], hi) + value(far, farMotion, axis[1], hi)
+            - value(near, nearMotion, axis[0], hi);
+        // rounding a position moves it by at most half a pixel either way, and truncating a size
+        // makes it up to a pixel smaller
+        double rounding = (varies(far, farMotion, axis[0]) ? 0.5 : 0)
+            + (varies(near, nearMotion, axis[0]) ? 0.5 : 0);
+        double error = rounding + (varies(far, farMotion, axis[1]) ? 1 : 0);
+        narrow(sure, lo, hi, atLo, atHi, error == 0 ? 0 : error + SLACK);
+        narrow(possible, lo, hi, atLo, atHi, rounding == 0 ? 0 : -rounding - SLACK);
+      }
+    }
+    int first = (int) Math.ceil(possible[0]);
+    int last = (int) Math.floor(possible[1]);
+    int sureFirst = Math.max(first, (int) Math.ceil(sure[0]));
+    int sureLast = Math.min(last, (int) Math.floor(sure[1]));
+    int runStart = -1;
+    for (int t = first; t <= last; t++) {
+      boolean overlap;
+      if (t == sureFirst && sureFirst <= sureLast) {
+        if (runStart < 0) {
+          runStart = t;
+        }
+        t = sureLast;
+        overlap = true;
+      } else {
+        overlap = overlapsAt(a, b, t);
+      }
+      if (overlap && runStart < 0) {
+        runStart = t;
+      } else if (!overlap && runStart >= 0) {
+        addRun(a, b, runStart, t - 1);
+        runStart = -1;
+      }
+    }
+    if (runStart >= 0) {
+      addRun(a, b, runStart, last);
+    }
+  }
+
+  /**
+   * Shrinks an interval of time to where a condition that is linear over the window from lo to hi
+   * is at least a margin.
+   */
+  private static void narrow(double[] interval, int lo, int hi, double atLo, double atHi,
+      double margin) {
+    if (lo == hi || atLo == atHi) {
+      if (atLo < margin) {
+        interval[0] = 1;
+        interval[1] = 0;
+      }
+      return;
+    }
+    double slope = (atHi - atLo) / (hi - lo);
+    double root = lo + (margin - atLo) / slope;
+    if (slope > 0) {
+      interval[0] = Math.max(interval[0], root);
+    } else {
+      interval[1] = Math.min(interval[1], root);
+    }
+  }
+
+  private static boolean varies(MotionTrack track, int motion, int field) {
+    return track.get(motion, field) != track.get(motion, field + MotionTrack.T2);
+  }
+
+  /**
+   * Gets a value of a motion at a time inside it, before rounding, the same as tweening does.
+   */
+  private static double value(MotionTrack track, int motion, int field, int timeUnit) {
+    int t1 = track.get(motion, MotionTrack.T1);
+    int t2 = track.get(motion, MotionTrack.T2);
+    return t1 == t2 ? track.get(motion, field) : track.interp(motion, field, t1, t2, timeUnit);
+  }
+
+  /**
+   * Checks if two shapes overlap in the frame at a tick, tweened the same way as getFrameAt.
+   */
+  private boolean overlapsAt(int a, int b, int timeUnit) {
+    int posA = tracks[a].index().find(timeUnit);
+    int posB = tracks[b].index().find(timeUnit);
+    if (posA < 0 || posB < 0) {
+      return false;
+    }
+    scratch.reset(2, timeUnit);
+    tracks[a].tween(posA, timeUnit, scratch, 0);
+    tracks[b].tween(posB, timeUnit, scratch, 1);
+    return scratch.getX(0) <= scratch.getX(1) + scratch.getWidth(1)
+        && scratch.getX(1) <= scratch.getX(0) + scratch.getWidth(0)
+        && scratch.getY(0) <= scratch.getY(1) + scratch.getHeight(1)
+        && scratch.getY(1) <= scratch.getY(0) + scratch.getHeight(0);
+  }
+
+  private void addRun(int a, int b, int start, int end) {
+    runs.computeIfAbsent((long) a << 32 | b, k -> new ArrayList<>()).add(new int[]{start, end});
+  }
+
+  /**
+   * Joins the runs of each pair of shapes that touch, from motions that follow each other, and
+   * lists them in order.
+   */
+  private List<Collision> collect() {
+    long[] pairs = new long[runs.size()];
+    int i = 0;
+    for (long pair : runs.keySet()) {
+      pairs[i++] = pair;
+    }
+    Arrays.sort(pairs);
+    List<Collision> collisions = new ArrayList<>();
+    for (long pair : pairs) {
+      String first = tracks[(int) (pair >>> 32)].getName();
+      String second = tracks[(int) pair].getName();
+      List<int[]> list = runs.get(pair);
+      list.sort((r1, r2) -> Integer.compare(r1[0], r2[0]));
+      int start = list.get(0)[0];
+      int end = list.get(0)[1];
+      for (int[] run : list) {
+        if (run[0] > end + 1) {
+          collisions.add(new Collision(first, second, start, end));
+          start = run[0];
+        }
+        end = Math.max(end, run[1]);
+      }
+      collisions.add(new Collision(first, second, start, end));
+    }
+    return collisions;
+  }
+
+  /**
+   * Writes the box that a shape covers during a motion as left, top, right and bottom, with both
+   * edges included.
+   */
+  private static void box(MotionTrack track, int motion, int[] boxes, int at) {
+    boxes[at] = Math.min(track.get(motion, MotionTrack.X1), track.get(motion, MotionTrack.X2));
+    boxes[at + 1] = Math.min(track.get(motion, MotionTrack.Y1),
+        track.get(motion, MotionTrack.Y2));
+    boxes[at + 2] = Math.max(track.get(motion, MotionTrack.X1) + track.get(motion, MotionTrack.W1),
+        track.get(motion, MotionTrack.X2) + track.get(motion, MotionTrack.W2));
+    boxes[at + 3] = Math.max(track.get(motion, MotionTrack.Y1) + track.get(motion, MotionTrack.H1),
+        track.get(motion, MotionTrack.Y2) + track.get(motion, MotionTrack.H2));
+  }
+
+  private static boolean boxesOverlap(int[] boxes, int a, int b) {
+    return boxes[a] <= boxes[b + 2] && boxes[b] <= boxes[a + 2] && boxes[a + 1] <= boxes[b + 3]
+        && boxes[b + 1] <= boxes[a + 3];
+  }
+
+  /**
+   * Checks if any two motions of a shape share more than an end tick.
+   */
+  private static boolean overlapsItself(MotionTrack track) {
+    long[] spans = new long[track.size()];
+    for (int i = 0; i < spans.length; i++) {
+      spans[i] = (long) track.get(i, MotionTrack.T1) << 32
+          | (track.get(i, MotionTrack.T2) & 0xFFFFFFFFL);
+    }
+    Arrays.sort(spans);
+    for (int i = 1; i < spans.length; i++) {
+      if ((int) spans[i - 1] > (int) (spans[i] >> 32)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
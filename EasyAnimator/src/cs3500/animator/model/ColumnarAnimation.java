@@ -0,0 +1,334 @@
+package cs3500.animator.model;
+
+import cs3500.animator.util.AnimationBuilder;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Model representation of an animation that stores each shape's motions as one packed int array,
+ * sixteen values per motion in the same order as a motion line of an animation file.  A motion
+ * costs 64 bytes instead of a Motion with two Shapes, two Position2Ds and two Colors, and frame
+ * evaluation reads the values of a motion from consecutive memory.  The description map is a
+ * read-only view that creates Motion objects only when the views ask for them.
+ */
+public class ColumnarAnimation extends AbstractAnimation {
+
+  private final Map<String, Column> columns = new LinkedHashMap<>();
+  private final Map<String, List<Motion>> description = new DescriptionView();
+  private Column[] tracks;
+
+  /**
+   * Builder for a ColumnarAnimation.  Writes the values of each motion line straight into the
+   * packed arrays, without creating Shape or Motion objects.
+   */
+  public static class Builder extends Animation.Builder {
+
+    private final ColumnarAnimation columnar;
+
+    /**
+     * Constructor for the Builder class that takes in the command input for speed and an Appendable
+     * for the comprehensive textual description of a animation.
+     *
+     * @param speed Desired speed of animation.
+     * @param ap    Appendable used to output text description of an animation.
+     */
+    public Builder(int speed, Appendable ap) {
+      this(speed, ap, new ColumnarAnimation());
+    }
+
+    private Builder(int speed, Appendable ap, ColumnarAnimation columnar) {
+      super(speed, ap, columnar);
+      this.columnar = columnar;
+    }
+
+    @Override
+    public IAnimation build() {
+      columnar.trimToSize();
+      return super.build();
+    }
+
+    @Override
+    public AnimationBuilder<IAnimation> addMotion(String name, int t1, int x1, int y1, int w1,
+        int h1, int r1, int g1, int b1, int t2, int x2, int y2, int w2, int h2, int r2, int g2,
+        int b2) {
+      if (columnar.getShapeType(name) == null) {
+        throw new IllegalArgumentException("Attempted to move shape that does not exist.");
+      }
+      columnar.addMotion(name, columnar.getShapeType(name),
+          t1, x1, y1, w1, h1, r1, g1, b1, t2, x2, y2, w2, h2, r2, g2, b2);
+      return this;
+    }
+  }
+
+  /**
+   * The packed motions of one shape.
+   */
+  private static final class Column implements MotionTrack {
+
+    private final String name;
+    private final ShapeType type;
+    private int[] data = new int[FIELDS * 4];
+    private int size;
+    private MotionIndex index;
+    private final List<Motion> motions = new MotionView();
+
+    private Column(String name, ShapeType type) {
+      this.name = name;
+      this.type = type;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public ShapeType getShapeType() {
+      return type;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public int get(int motion, int field) {
+      return data[motion * FIELDS + field];
+    }
+
+    @Override
+    public MotionIndex index() {
+      if (index == null || index.size() != size) {
+        index = MotionIndex.of(this);
+      }
+      return index;
+    }
+
+    /**
+     * Appends the values of a motion straight into the array, growing it first if it is full.
+     */
+    private void add(int t1, int x1, int y1, int w1, int h1, int r1, int g1, int b1, int t2,
+        int x2, int y2, int w2, int h2, int r2, int g2, int b2) {
+      if ((size + 1) * FIELDS > data.length) {
+        data = Arrays.copyOf(data, Math.max(data.length * 2, FIELDS));
+      }
+      int base = size * FIELDS;
+      data[base + T1] = t1;
+      data[base + X1] = x1;
+      data[base + Y1] = y1;
+      data[base + W1] = w1;
+      data[base + H1] = h1;
+      data[base + R1] = r1;
+      data[base + G1] = g1;
+      data[base + B1] = b1;
+      data[base + T2] = t2;
+      data[base + X2] = x2;
+      data[base + Y2] = y2;
+      data[base + W2] = w2;
+      data[base + H2] = h2;
+      data[base + R2] = r2;
+      data[base + G2] = g2;
+      data[base + B2] = b2;
+      size++;
+    }
+
+    private void trimToSize() {
+      if (data.length != size * FIELDS) {
+        data = Arrays.copyOf(data, size * FIELDS);
+      }
+    }
+
+    /**
+     * Replaces each run of motions with one motion, in place, and releases the spare room.
+     */
+    private void merge(int[] runs) {
+      int half = FIELDS / 2;
+      for (int i = 0; i < runs.length; i += 2) {
+        System.arraycopy(data, runs[i] * FIELDS, data, i / 2 * FIELDS, half);
+        System.arraycopy(data, runs[i + 1] * FIELDS + half, data, i / 2 * FIELDS + half, half);
+      }
+      size = runs.length / 2;
+      index = null;
+      trimToSize();
+    }
+
+    /**
+     * Creates a Motion with the values of one packed motion.
+     */
+    private Motion motionAt(int motion) {
+      int base = motion * FIELDS;
+      IShape start = Animation.createShape(type, data[base + X1], data[base + Y1],
+          data[base + W1], data[base + H1], data[base + R1], data[base + G1], data[base + B1]);
+      IShape end = Animation.createShape(type, data[base + X2], data[base + Y2],
+          data[base + W2], data[base + H2], data[base + R2], data[base + G2], data[base + B2]);
+      return new Motion(start, end, data[base + T1], data[base + T2]);
+    }
+
+    /**
+     * Read-only list of the motions of the shape, created on demand.
+     */
+    private final class MotionView extends AbstractList<Motion> {
+
+      @Override
+      public Motion get(int index) {
+        if (index < 0 || index >= size) {
+          throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return motionAt(index);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    }
+  }
+
+  /**
+   * Read-only map from shape ids to the motion views of their columns, in description order.
+   */
+  private final class DescriptionView extends AbstractMap<String, List<Motion>> {
+
+    @Override
+    public List<Motion> get(Object key) {
+      Column column = columns.get(key);
+      return column == null ? null : column.motions;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return columns.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+      return columns.size();
+    }
+
+    @Override
+    public Set<Entry<String, List<Motion>>> entrySet() {
+      return new AbstractSet<Entry<String, List<Motion>>>() {
+        @Override
+        public Iterator<Entry<String, List<Motion>>> iterator() {
+          Iterator<Column> it = columns.values().iterator();
+          return new Iterator<Entry<String, List<Motion>>>() {
+            @Override
+            public boolean hasNext() {
+              return it.hasNext();
+            }
+
+            @Override
+            public Entry<String, List<Motion>> next() {
+              Column column = it.next();
+              return new SimpleImmutableEntry<>(column.name, column.motions);
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return columns.size();
+        }
+      };
+    }
+  }
+
+  @Override
+  public void addMotion(String id, Motion s) {
+    if (id == null || s == null) {
+      throw new IllegalArgumentException("Motion and id cannot be null.");
+    }
+    IShape start = s.getStartShape();
+    IShape end = s.getEndShape();
+    addMotion(id, start.getShapeType(),
+        s.getStartTime(), start.getX(), start.getY(), start.getWidth(), start.getHeight(),
+        start.getColor().getRed(), start.getColor().getGreen(), start.getColor().getBlue(),
+        s.getEndTime(), end.getX(), end.getY(), end.getWidth(), end.getHeight(),
+        end.getColor().getRed(), end.getColor().getGreen(), end.getColor().getBlue());
+  }
+
+  @Override
+  public void addMotionList(String id, List<Motion> s) {
+    if (id == null || s == null || s.contains(null)) {
+      throw new IllegalArgumentException("Motions and id cannot be null.");
+    }
+    if (!columns.containsKey(id)) {
+      for (Motion motion : s) {
+        addMotion(id, motion);
+      }
+    }
+  }
+
+  /**
+   * Adds a motion to a shape from the values of a motion line.  Checks the values the same way as
+   * the Shape and Motion constructors.
+   *
+   * @param id   id of the shape.
+   * @param type type of the shape, used if this is the first motion of the shape.
+   * @throws IllegalArgumentException if a value is invalid.
+   */
+  void addMotion(String id, ShapeType type, int t1, int x1, int y1, int w1, int h1, int r1,
+      int g1, int b1, int t2, int x2, int y2, int w2, int h2, int r2, int g2, int b2) {
+    checkColor(r1, g1, b1);
+    checkColor(r2, g2, b2);
+    if (w1 <= 0 || h1 <= 0 || w2 <= 0 || h2 <= 0) {
+      throw new IllegalArgumentException("Cannot be zero or less");
+    }
+    if (t1 < 0) {
+      throw new IllegalArgumentException("Start time cannot be negative.");
+    }
+    if (t1 > t2) {
+      throw new IllegalArgumentException("End time cannot be before start time.");
+    }
+    Column column = columns.get(id);
+    if (column == null) {
+      column = new Column(id, type);
+      columns.put(id, column);
+      tracks = null;
+    }
+    column.add(t1, x1, y1, w1, h1, r1, g1, b1, t2, x2, y2, w2, h2, r2, g2, b2);
+    grow(x1, y1, w1, h1, t2, x2, y2, w2, h2);
+    motionsChanged();
+  }
+
+  private static void checkColor(int r, int g, int b) {
+    if ((r | g | b) < 0 || r > 255 || g > 255 || b > 255) {
+      throw new IllegalArgumentException("Color parameter outside of expected range");
+    }
+  }
+
+  /**
+   * Releases the spare room at the end of every shape's array once the animation is complete.
+   */
+  void trimToSize() {
+    for (Column column : columns.values()) {
+      column.trimToSize();
+    }
+  }
+
+  @Override
+  void mergeMotions(String id, int[] runs) {
+    columns.get(id).merge(runs);
+  }
+
+  @Override
+  public Map<String, List<Motion>> getAnimationDescription() {
+    return description;
+  }
+
+  @Override
+  MotionTrack[] tracks() {
+    if (tracks == null) {
+      tracks = columns.values().toArray(new Column[0]);
+    }
+    return tracks;
+  }
+}
@@ -0,0 +1,185 @@
+package cs3500.animator.model;
+
+/**
+ * Caller-owned buffer that holds the state of every shape of an animation at one point in time.
+ * Each shape has a slot, in the same order as the animation description, with its position,
+ * dimensions and packed RGB color stored in primitive arrays.  Slots for shapes that are not on
+ * screen at that time are marked as not visible.  The arrays only grow when the number of shapes
+ * grows, so filling the same buffer frame after frame does not allocate.
+ */
+public final class FrameBuffer {
+
+  private String[] names = new String[0];
+  private ShapeType[] types = new ShapeType[0];
+  private boolean[] visible = new boolean[0];
+  private int[] xs = new int[0];
+  private int[] ys = new int[0];
+  private int[] widths = new int[0];
+  private int[] heights = new int[0];
+  private int[] colors = new int[0];
+  private int size;
+  private int time;
+
+  /**
+   * Clears the buffer and makes room for the given number of shapes.
+   *
+   * @param size     number of shapes in the animation.
+   * @param timeUnit time that the buffer will describe.
+   */
+  void reset(int size, int timeUnit) {
+    if (names.length < size) {
+      names = new String[size];
+      types = new ShapeType[size];
+      visible = new boolean[size];
+      xs = new int[size];
+      ys = new int[size];
+      widths = new int[size];
+      heights = new int[size];
+      colors = new int[size];
+    }
+    for (int i = 0; i < size; i++) {
+      visible[i] = false;
+    }
+    this.size = size;
+    this.time = timeUnit;
+  }
+
+  /**
+   * Fills a slot with the state of a shape.
+   *
+   * @param slot   slot of the shape.
+   * @param name   id of the shape.
+   * @param type   type of the shape.
+   * @param x      x coordinate of the shape.
+   * @param y      y coordinate of the shape.
+   * @param width  width of the shape.
+   * @param height height of the shape.
+   * @param rgb    color of the shape packed as 0xRRGGBB.
+   */
+  void set(int slot, String name, ShapeType type, int x, int y, int width, int height, int rgb) {
+    names[slot] = name;
+    types[slot] = type;
+    visible[slot] = true;
+    xs[slot] = x;
+    ys[slot] = y;
+    widths[slot] = width;
+    heights[slot] = height;
+    colors[slot] = rgb;
+  }
+
+  /**
+   * Marks a slot as not visible.
+   *
+   * @param slot slot of the shape.
+   */
+  void hide(int slot) {
+    visible[slot] = false;
+  }
+
+  /**
+   * Changes the time that the buffer describes, without clearing it.
+   *
+   * @param timeUnit time that the buffer describes.
+   */
+  void setTime(int timeUnit) {
+    this.time = timeUnit;
+  }
+
+  /**
+   * Gets the number of slots in the buffer, visible or not.
+   *
+   * @return number of slots.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the time that the buffer describes.
+   *
+   * @return time of the frame.
+   */
+  public int getTime() {
+    return time;
+  }
+
+  /**
+   * Checks if the shape in a slot is on screen.
+   *
+   * @param slot slot of the shape.
+   * @return true if the shape is visible, false if not.
+   */
+  public boolean isVisible(int slot) {
+    return visible[slot];
+  }
+
+  /**
+   * Gets the id of the shape in a slot.
+   *
+   * @param slot slot of the shape.
+   * @return id of the shape.
+   */
+  public String getName(int slot) {
+    return names[slot];
+  }
+
+  /**
+   * Gets the type of the shape in a slot.
+   *
+   * @param slot slot of the shape.
+   * @return type of the shape.
+   */
+  public ShapeType getShapeType(int slot) {
+    return types[slot];
+  }
+
+  /**
+   * Gets the x coordinate of the shape in a slot.
+   *
+   * @param slot slot of the shape.
+   * @return x coordinate of the shape.
+   */
+  public int getX(int slot) {
+    return xs[slot];
+  }
+
+  /**
+   * Gets the y coordinate of the shape in a slot.
+   *
+   * @param slot slot of the shape.
+   * @return y coordinate of the shape.
+   */
+  public int getY(int slot) {
+    return ys[slot];
+  }
+
+  /**
+   * Gets the width of the shape in a slot.
+   *
+   * @param slot slot of the shape.
+   * @return width of the shape.
+   */
+  public int getWidth(int slot) {
+    return widths[slot];
+  }
+
+  /**
+   * Gets the height of the shape in a slot.
+   *
+   * @param slot slot of the shape.
+   * @return height of the shape.
+   */
+  public int getHeight(int slot) {
+    return heights[slot];
+  }
+
+  /**
+   * Gets the color of the shape in a slot.
+   *
+   * @param slot slot of the shape.
+   * @return color of the shape packed as 0xRRGGBB.
+   */
+  public int getRGB(int slot) {
+    return colors[slot];
+  }
+}
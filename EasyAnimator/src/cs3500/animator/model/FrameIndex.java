@@ -0,0 +1,180 @@
+package cs3500.animator.model;
+
+import java.util.Arrays;
+
+/**
+ * Spatial index over the shapes of one frame, for finding the shapes under a point, the shapes
+ * that overlap a rectangle and every pair of shapes that overlap each other without comparing
+ * every shape with every other.  The bounding box of each visible shape is listed in a uniform
+ * grid, so each query only compares the shapes that share a cell.  Shapes overlap the same way as
+ * in IShape.overlapWith: their boxes include both edges, so shapes that only touch overlap.
+ *
+ * <p>Results are slots of the frame the index was built from, in ascending slot order, which is
+ * the order the shapes are drawn in.  The index copies what it needs, so the frame can be reused
+ * afterwards.</p>
+ */
+public final class FrameIndex {
+
+  private final int time;
+  private final String[] names;
+  private final int[] boxes;
+  private final ShapeGrid grid;
+
+  /**
+   * Constructor for FrameIndex that takes in the frame to index.
+   *
+   * @param frame frame holding the shapes.
+   */
+  public FrameIndex(FrameBuffer frame) {
+    int size = frame.size();
+    this.time = frame.getTime();
+    this.names = new String[size];
+    this.boxes = new int[4 * size];
+    int count = 0;
+    for (int slot = 0; slot < size; slot++) {
+      if (frame.isVisible(slot)) {
+        count++;
+      }
+    }
+    int[] owned = new int[4 * count];
+    int[] owners = new int[count];
+    int m = 0;
+    for (int slot = 0; slot < size; slot++) {
+      if (frame.isVisible(slot)) {
+        int x = frame.getX(slot);
+        int y = frame.getY(slot);
+        int w = frame.getWidth(slot);
+        int h = frame.getHeight(slot);
+        names[slot] = frame.getName(slot);
+        boxes[4 * slot] = Math.min(x, x + w);
+        boxes[4 * slot + 1] = Math.min(y, y + h);
+        boxes[4 * slot + 2] = Math.max(x, x + w);
+        boxes[4 * slot + 3] = Math.max(y, y + h);
+        System.arraycopy(boxes, 4 * slot, owned, 4 * m, 4);
+        owners[m++] = slot;
+      }
+    }
+    this.grid = new ShapeGrid(size, owned, owners);
+  }
+
+  /**
+   * Gets the time of the indexed frame.
+   *
+   * @return time of the frame.
+   */
+  public int getTime() {
+    return time;
+  }
+
+  /**
+   * Gets the name of a shape of the indexed frame.
+   *
+   * @param slot slot of a visible shape.
+   * @return name of the shape.
+   */
+  public String getName(int slot) {
+    return names[slot];
+  }
+
+  /**
+   * Finds the shapes whose bounding box contains a point.  The last one is drawn on top.
+   *
+   * @param x x coordinate of the point.
+   * @param y y coordinate of the point.
+   * @return slots of the shapes under the point, in ascending order.
+   */
+  public int[] shapesAt(int x, int y) {
+    int cell = grid.cellAt(x, y);
+    int[] found = new int[grid.end(cell) - grid.start(cell)];
+    int count = 0;
+    for (int i = grid.start(cell); i < grid.end(cell); i++) {
+      int slot = grid.slotAt(i);
+      if (boxes[4 * slot] <= x && x <= boxes[4 * slot + 2] && boxes[4 * slot + 1] <= y
+          && y <= boxes[4 * slot + 3]) {
+        found[count++] = slot;
+      }
+    }
+    return Arrays.copyOf(found, count);
+  }
+
+  /**
+   * Finds the shapes whose bounding box overlaps a rectangle.  The rectangle covers the same
+   * points as a shape with the same position and size.
+   *
+   * @param x      x coordinate of the rectangle.
+   * @param y      y coordinate of the rectangle.
+   * @param width  width of the rectangle.
+   * @param height height of the rectangle.
+   * @return slots of the shapes that overlap the rectangle, in ascending order.
+   */
+  public int[] shapesInRect(int x, int y, int width, int height) {
+    int left = Math.min(x, x + width);
+    int top = Math.min(y, y + height);
+    int right = Math.max(x, x + width);
+    int bottom = Math.max(y, y + height);
+    int first = grid.cellAt(left, top);
+    int last = grid.cellAt(right, bottom);
+    int columns = grid.columns();
+    int[] found = new int[16];
+    int count = 0;
+    for (int row = first / columns; row <= last / columns; row++) {
+      for (int column = first % columns; column <= last % columns; column++) {
+        int cell = row * columns + column;
+        for (int i = grid.start(cell); i < grid.end(cell); i++) {
+          int slot = grid.slotAt(i);
+          if (overlaps(slot, left, top, right, bottom)
+              // a shape in several cells is only reported in the cell where the overlap starts
+              && grid.cellAt(Math.max(left, boxes[4 * slot]),
+              Math.max(top, boxes[4 * slot + 1])) == cell) {
+            if (count == found.length) {
+              found = Arrays.copyOf(found, 2 * count);
+            }
+            found[count++] = slot;
+          }
+        }
+      }
+    }
+    found = Arrays.copyOf(found, count);
+    Arrays.sort(found);
+    return found;
+  }
+
+  /**
+   * Finds every pair of shapes whose bounding boxes overlap.
+   *
+   * @return pairs of slots, each with the lower slot first, in ascending order of the first slot
+   *     and then of the second.
+   */
+  public int[][] overlappingPairs() {
+    long[] found = new long[16];
+    int count = 0;
+    for (int cell = 0; cell < grid.cells(); cell++) {
+      for (int i = grid.start(cell); i < grid.end(cell); i++) {
+        int a = grid.slotAt(i);
+        for (int j = i + 1; j < grid.end(cell); j++) {
+          int b = grid.slotAt(j);
+          if (overlaps(b, boxes[4 * a], boxes[4 * a + 1], boxes[4 * a + 2], boxes[4 * a + 3])
+              // two shapes can share several cells, so only report them where the overlap starts
+              && grid.cellAt(Math.max(boxes[4 * a], boxes[4 * b]),
+              Math.max(boxes[4 * a + 1], boxes[4 * b + 1])) == cell) {
+            if (count == found.length) {
+              found = Arrays.copyOf(found, 2 * count);
+            }
+            found[count++] = (long) a << 32 | b;
+          }
+        }
+      }
+    }
+    Arrays.sort(found, 0, count);
+    int[][] pairs = new int[count][];
+    for (int i = 0; i < count; i++) {
+      pairs[i] = new int[]{(int) (found[i] >>> 32), (int) found[i]};
+    }
+    return pairs;
+  }
+
+  private boolean overlaps(int slot, int left, int top, int right, int bottom) {
+    return boxes[4 * slot] <= right && left <= boxes[4 * slot + 2] && boxes[4 * slot + 1] <= bottom
+        && top <= boxes[4 * slot + 3];
+  }
+}
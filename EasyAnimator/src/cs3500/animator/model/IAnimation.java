@@ -5,6 +5,13 @@ import java.util.Map;
 
 /**
  * Interface for the model representation of an animation.
+ *
+ * <p>The models build their time, keyframe and spatial indexes on first use and keep them until a
+ * motion is added, so even the methods that only read the animation write to the model.  Once
+ * prepareForConcurrentReads has returned, the methods that read frames, static spans, keyframes,
+ * bounds and shape queries can be called from several threads at once, as long as no thread adds
+ * or merges motions and each playback cursor and frame buffer is used by one thread.  The threads
+ * must be started, or handed their work, after the call, such as through an executor.</p>
  */
 public interface IAnimation {
 
@@ -46,6 +53,133 @@ public interface IAnimation {
    */
   Map<String, IShape> getFrameAt(int timeUnit);
 
+  /**
+   * get the "Cel" at given time unit t without creating any shapes.  The state of every shape is
+   * written into the given frame buffer, which is reused from frame to frame by the caller.
+   *
+   * @param timeUnit time to get "Cel" at
+   * @param reuse    frame buffer to fill, or null to create a new one
+   * @return the filled frame buffer
+   */
+  FrameBuffer getFrameAt(int timeUnit, FrameBuffer reuse);
+
+  /**
+   * get the "Cel" at given time unit t, leaving out the shapes that cannot be inside a viewport.
+   * The shapes near the viewport are found with a spatial index over the motions, so the cost
+   * depends on how many shapes move near the viewport rather than on all the shapes.  Every shape
+   * that is inside the viewport is in the frame buffer; some shapes just outside it may be too.
+   *
+   * @param timeUnit time to get "Cel" at
+   * @param reuse    frame buffer to fill, or null to create a new one
+   * @param x        x coordinate of the viewport
+   * @param y        y coordinate of the viewport
+   * @param width    width of the viewport
+   * @param height   height of the viewport
+   * @return the filled frame buffer
+   */
+  FrameBuffer getFrameAt(int timeUnit, FrameBuffer reuse, int x, int y, int width, int height);
+
+  /**
+   * Creates a cursor for playing the animation tick by tick.  Moving the cursor forward only does
+   * work for the shapes that are on screen, so it is cheaper than getFrameAt for sequential
+   * playback.
+   *
+   * @return a new cursor positioned before the start of the animation
+   */
+  PlaybackCursor getPlaybackCursor();
+
+  /**
+   * Finds the first time after t at which a motion starts or ends.
+   *
+   * @param timeUnit time to search after
+   * @return the next keyframe, or -1 if there is none after the given time
+   */
+  int nextKeyframe(int timeUnit);
+
+  /**
+   * Finds the last time before t at which a motion starts or ends.
+   *
+   * @param timeUnit time to search before
+   * @return the previous keyframe, or -1 if there is none before the given time
+   */
+  int prevKeyframe(int timeUnit);
+
+  /**
+   * Finds a window of time starting at t and the shapes that do not change during it.  The window
+   * is chosen to make the number of static shapes times its length large, so renderers can draw
+   * the static shapes once for the whole window instead of once per tick.
+   *
+   * @param timeUnit first time of the window
+   * @return the window and the shapes that are static in it
+   */
+  StaticSpan getStaticSpan(int timeUnit);
+
+  /**
+   * Gets a spatial index over the shapes at time t, for asking many questions about where the
+   * shapes are without scanning them all each time.  The index for the last time asked for is
+   * kept, so asking again about the same time does not build it again.
+   *
+   * @param timeUnit time of the frame to index
+   * @return the index of the frame at that time
+   */
+  FrameIndex getFrameIndex(int timeUnit);
+
+  /**
+   * Finds the shapes whose bounding box contains a point at time t, such as for finding the shape
+   * under a mouse click.
+   *
+   * @param x        x coordinate of the point
+   * @param y        y coordinate of the point
+   * @param timeUnit time to look at
+   * @return names of the shapes under the point, with the one drawn on top last
+   */
+  List<String> shapesAt(int x, int y, int timeUnit);
+
+  /**
+   * Finds the shapes whose bounding box overlaps a rectangle at time t.  The rectangle covers the
+   * same points as a shape with the same position and size.
+   *
+   * @param x        x coordinate of the rectangle
+   * @param y        y coordinate of the rectangle
+   * @param width    width of the rectangle
+   * @param height   height of the rectangle
+   * @param timeUnit time to look at
+   * @return names of the shapes overlapping the rectangle, in drawing order
+   */
+  List<String> shapesInRect(int x, int y, int width, int height, int timeUnit);
+
+  /**
+   * Finds every pair of shapes that overlap at time t, as overlapWith would decide for each pair.
+   *
+   * @param timeUnit time to look at
+   * @return pairs of names, each with the shape drawn first first, in drawing order
+   */
+  List<String[]> overlappingPairs(int timeUnit);
+
+  /**
+   * Finds every time two shapes overlap during the animation, as overlapWith would decide for the
+   * shapes of each frame.  Works from the motions, so it does not build every frame.
+   *
+   * @return the collisions, ordered by the first shape, then the second, then by time
+   */
+  List<Collision> getCollisions();
+
+  /**
+   * Merges consecutive motions of each shape that can be replaced by one motion without changing
+   * any frame, such as a move split into several steps along the same line.  Every frame stays
+   * the same, but the description has fewer motions to evaluate, store and write out.
+   *
+   * @return the number of motions removed
+   */
+  int coalesceMotions();
+
+  /**
+   * Builds every index that reading the animation would otherwise build on first use, so that
+   * threads started afterwards can read the animation at the same time without writing to it.
+   * Adding or merging motions drops the indexes again.
+   */
+  void prepareForConcurrentReads();
+
   /**
    * Represents the bounds of the x, y and time in an animation.
    */
@@ -77,12 +211,24 @@ public interface IAnimation {
   }
 
   /**
-   * Gets the bounds of the animation frame.
+   * Gets the bounds of the animation frame.  The bounds are kept up to date as motions are added,
+   * so this does not look at the motions.  An animation without motions has empty bounds at 0, 0.
    *
    * @return Bounds of animation.
    */
   Bounds getAnimationBounds();
 
+  /**
+   * Gets the bounds of the shapes that are on screen during a window of time, such as for fitting
+   * the view to where the shapes are.  The box contains every shape at every tick of the window,
+   * and maxT is the last tick of the window at which a shape is on screen.
+   *
+   * @param start first tick of the window
+   * @param end   last tick of the window
+   * @return bounds of the shapes in the window, or null if no shape is on screen during it
+   */
+  Bounds getBoundsDuring(int start, int end);
+
   boolean overlapWith(IShape shape1, IShape shape2);
 }
 
@@ -0,0 +1,270 @@
+package cs3500.animator.model;
+
+import cs3500.animator.util.BinaryAnimationReader;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Model representation of an animation that reads its motions straight from a memory-mapped file
+ * in the binary format written by the binary view.  Opening the file only reads the shape table,
+ * which gives the position of each shape's motions in the file, so the motions never have to be
+ * loaded onto the heap: frame evaluation reads the sixteen values of a motion from the mapping,
+ * and the operating system pages the file in and out as needed.  The time index of each shape is
+ * built the first time the shape is looked up, and the description map creates Motion objects
+ * only when the views ask for them.
+ *
+ * <p>The motions are mapped in pages of at most 2^24 motions, since a single mapping cannot be
+ * larger than 2 GB.  The animation is read-only: the file stays as it is, so adding or merging
+ * motions is not supported.</p>
+ */
+public final class MappedAnimation extends AbstractAnimation {
+
+  private static final int PAGE_SHIFT = 24;
+  private static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+  private static final long HEAD_LIMIT = 1L << 30;
+
+  private final int canvasX;
+  private final int canvasY;
+  private final int canvasWidth;
+  private final int canvasHeight;
+  private final IntBuffer[] pages;
+  private final MappedTrack[] tracks;
+  private final Map<String, List<Motion>> description;
+  private boolean bounded;
+
+  private MappedAnimation(BinaryAnimationReader.Table table, IntBuffer[] pages) {
+    this.canvasX = table.x;
+    this.canvasY = table.y;
+    this.canvasWidth = table.width;
+    this.canvasHeight = table.height;
+    this.pages = pages;
+    Map<String, List<Motion>> motions = new LinkedHashMap<>();
+    List<MappedTrack> withMotions = new ArrayList<>();
+    long first = 0;
+    for (int shape = 0; shape < table.names.length; shape++) {
+      String name = table.names[shape];
+      if (shapeTypes.containsKey(name)) {
+        throw new IllegalStateException("Shape " + name + " is listed twice");
+      }
+      shapeTypes.put(name, table.types[shape]);
+      if (table.counts[shape] > 0) {
+        MappedTrack track = new MappedTrack(name, table.types[shape], first, table.counts[shape]);
+        withMotions.add(track);
+        motions.put(name, track.motions);
+      }
+      first += table.counts[shape];
+    }
+    this.tracks = withMotions.toArray(new MappedTrack[0]);
+    this.description = Collections.unmodifiableMap(motions);
+  }
+
+  /**
+   * Opens a binary animation file and maps its motions into memory.  The file can be closed, moved
+   * or deleted afterwards, but must not be changed while the animation is in use.
+   *
+   * @param file the file to open.
+   * @return the animation in the file.
+   * @throws IOException if the file cannot be read.
+   * @throws IllegalStateException if the file is not a valid binary animation.
+   */
+  public static MappedAnimation open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file)) {
+      long size = channel.size();
+      MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+          Math.min(size, HEAD_LIMIT));
+      BinaryAnimationReader.Table table = BinaryAnimationReader.readTable(head, size);
+      long motions = table.motions();
+      IntBuffer[] pages = new IntBuffer[(int) ((motions + PAGE_MASK) >>> PAGE_SHIFT)];
+      long motionBytes = (long) BinaryAnimationReader.MOTION_INTS * Integer.BYTES;
+      for (int page = 0; page < pages.length; page++) {
+        long start = (long) page << PAGE_SHIFT;
+        long count = Math.min(motions - start, 1L << PAGE_SHIFT);
+        pages[page] = channel.map(FileChannel.MapMode.READ_ONLY,
+            table.offset + start * motionBytes, count * motionBytes)
+            .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+      }
+      return new MappedAnimation(table, pages);
+    }
+  }
+
+  /**
+   * The motions of one shape, read from the pages of the mapping.
+   */
+  private final class MappedTrack implements MotionTrack {
+
+    private final String name;
+    private final ShapeType type;
+    private final long first;
+    private final int size;
+    private final List<Motion> motions = new MotionView();
+    private MotionIndex index;
+
+    private MappedTrack(String name, ShapeType type, long first, int size) {
+      this.name = name;
+      this.type = type;
+      this.first = first;
+      this.size = size;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public ShapeType getShapeType() {
+      return type;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public int get(int motion, int field) {
+      long at = first + motion;
+      return pages[(int) (at >>> PAGE_SHIFT)].get(((int) at & PAGE_MASK) * FIELDS + field);
+    }
+
+    @Override
+    public MotionIndex index() {
+      if (index == null) {
+        index = MotionIndex.of(this);
+      }
+      return index;
+    }
+
+    /**
+     * Creates a Motion with the values of one mapped motion.
+     */
+    private Motion motionAt(int motion) {
+      IShape start = Animation.createShape(type, get(motion, X1), get(motion, Y1),
+          get(motion, W1), get(motion, H1), get(motion, R1), get(motion, G1), get(motion, B1));
+      IShape end = Animation.createShape(type, get(motion, X2), get(motion, Y2),
+          get(motion, W2), get(motion, H2), get(motion, R2), get(motion, G2), get(motion, B2));
+      return new Motion(start, end, get(motion, T1), get(motion, T2));
+    }
+
+    /**
+     * Read-only list of the motions of the shape, created on demand.
+     */
+    private final class MotionView extends AbstractList<Motion> {
+
+      @Override
+      public Motion get(int index) {
+        if (index < 0 || index >= size) {
+          throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return motionAt(index);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    }
+  }
+
+  /**
+   * Gets the x coordinate of the canvas saved with the animation.
+   *
+   * @return x coordinate of the canvas.
+   */
+  public int getCanvasX() {
+    return canvasX;
+  }
+
+  /**
+   * Gets the y coordinate of the canvas saved with the animation.
+   *
+   * @return y coordinate of the canvas.
+   */
+  public int getCanvasY() {
+    return canvasY;
+  }
+
+  /**
+   * Gets the width of the canvas saved with the animation.
+   *
+   * @return width of the canvas.
+   */
+  public int getCanvasWidth() {
+    return canvasWidth;
+  }
+
+  /**
+   * Gets the height of the canvas saved with the animation.
+   *
+   * @return height of the canvas.
+   */
+  public int getCanvasHeight() {
+    return canvasHeight;
+  }
+
+  @Override
+  public void addShape(String id, String type) {
+    throw new UnsupportedOperationException("A mapped animation cannot be changed.");
+  }
+
+  @Override
+  public void addMotion(String id, Motion s) {
+    throw new UnsupportedOperationException("A mapped animation cannot be changed.");
+  }
+
+  @Override
+  public void addMotionList(String id, List<Motion> s) {
+    throw new UnsupportedOperationException("A mapped animation cannot be changed.");
+  }
+
+  @Override
+  public int coalesceMotions() {
+    throw new UnsupportedOperationException("A mapped animation cannot be changed.");
+  }
+
+  @Override
+  void mergeMotions(String id, int[] runs) {
+    throw new UnsupportedOperationException("A mapped animation cannot be changed.");
+  }
+
+  /**
+   * Gets the bounds of every motion.  They are not saved in the file, so the first call reads
+   * every motion once.
+   */
+  @Override
+  public Bounds getAnimationBounds() {
+    if (!bounded) {
+      for (MappedTrack track : tracks) {
+        for (int m = 0; m < track.size(); m++) {
+          grow(track.get(m, MotionTrack.X1), track.get(m, MotionTrack.Y1),
+              track.get(m, MotionTrack.W1), track.get(m, MotionTrack.H1),
+              track.get(m, MotionTrack.T2), track.get(m, MotionTrack.X2),
+              track.get(m, MotionTrack.Y2), track.get(m, MotionTrack.W2),
+              track.get(m, MotionTrack.H2));
+        }
+      }
+      bounded = true;
+    }
+    return super.getAnimationBounds();
+  }
+
+  @Override
+  public Map<String, List<Motion>> getAnimationDescription() {
+    return description;
+  }
+
+  @Override
+  MotionTrack[] tracks() {
+    return tracks;
+  }
+}
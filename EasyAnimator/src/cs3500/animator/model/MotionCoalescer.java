@@ -0,0 +1,154 @@
+package cs3500.animator.model;
+
+import java.util.Arrays;
+
+/**
+ * Finds the consecutive motions of a shape that can be replaced by a single motion without
+ * changing any frame.  A run of motions can be merged when each one starts where the previous one
+ * ends, at the same time and in the same state, and the start and end of every motion lie exactly
+ * on the straight line from the start of the run to its end, in every value.  The merged motion
+ * then describes the same movement, but frames round and truncate values interpolated over a
+ * different span, so every tick of the run is also tweened both ways and compared before the run
+ * is merged.  A run that fails the comparison is shortened from its end until it passes.
+ *
+ * <p>The motion shown at a tick is the last one added that contains it, and merging consecutive
+ * motions keeps that order, so only the ticks where the run itself is shown need to be compared.
+ * </p>
+ */
+final class MotionCoalescer {
+
+  private final MotionTrack track;
+  private final FrameBuffer scratch = new FrameBuffer();
+
+  /**
+   * Constructor for MotionCoalescer that takes in the motions of one shape.
+   *
+   * @param track motions of the shape.
+   */
+  MotionCoalescer(MotionTrack track) {
+    this.track = track;
+  }
+
+  /**
+   * Splits the motions of the shape into runs that can each be replaced by one motion.
+   *
+   * @return for every run, the positions of its first and last motion, one pair after the other
+   *     in motion order.
+   */
+  int[] runs() {
+    int n = track.size();
+    int[] runs = new int[2 * n];
+    int count = 0;
+    for (int first = 0; first < n; ) {
+      int last = first;
+      while (last + 1 < n && joins(first, last + 1)) {
+        last++;
+      }
+      while (last > first && !sameFrames(first, last)) {
+        last--;
+      }
+      runs[count++] = first;
+      runs[count++] = last;
+      first = last + 1;
+    }
+    return Arrays.copyOf(runs, count);
+  }
+
+  /**
+   * Checks if a motion continues the run that starts at another one: it starts when the motion
+   * before it ends, and both ends of it, and of the first motion, lie on the line of the run.
+   */
+  private boolean joins(int first, int motion) {
+    return track.get(motion, MotionTrack.T1) == track.get(motion - 1, MotionTrack.T2)
+        && onLine(first, motion) && (motion > first + 1 || onLine(first, first));
+  }
+
+  /**
+   * Checks if both ends of a motion lie on the line from the start of a run through the end of
+   * the first motion of the run that takes time, or on its start if none of them do.
+   */
+  private boolean onLine(int first, int motion) {
+    int start = track.get(first, MotionTrack.T1);
+    int along = first;
+    while (along < motion && track.get(along, MotionTrack.T2) == start) {
+      along++;
+    }
+    long span = (long) track.get(along, MotionTrack.T2) - start;
+    for (int end = 0; end <= MotionTrack.T2; end += MotionTrack.T2) {
+      long elapsed = (long) track.get(motion, end + MotionTrack.T1) - start;
+      for (int field = MotionTrack.X1; field <= MotionTrack.B1; field++) {
+        long from = track.get(first, field);
+        long rise = track.get(along, field + MotionTrack.T2) - from;
+        long value = track.get(motion, end + field) - from;
+        if (span == 0 ? value != 0 : value * span != rise * elapsed) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks that the motion from the start of the first motion to the end of the last one gives
+   * the same state as the original motions at every tick where one of them is shown.
+   */
+  private boolean sameFrames(int first, int last) {
+    MotionTrack merged = new Merged(first, last);
+    MotionIndex index = track.index();
+    for (int t = track.get(first, MotionTrack.T1); t <= track.get(last, MotionTrack.T2); t++) {
+      int pos = index.find(t);
+      if (pos < first || pos > last) {
+        continue;
+      }
+      scratch.reset(2, t);
+      track.tween(pos, t, scratch, 0);
+      merged.tween(0, t, scratch, 1);
+      if (scratch.getX(0) != scratch.getX(1) || scratch.getY(0) != scratch.getY(1)
+          || scratch.getWidth(0) != scratch.getWidth(1)
+          || scratch.getHeight(0) != scratch.getHeight(1)
+          || scratch.getRGB(0) != scratch.getRGB(1)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A single motion from the start of one motion of the track to the end of a later one.
+   */
+  private final class Merged implements MotionTrack {
+
+    private final int first;
+    private final int last;
+
+    private Merged(int first, int last) {
+      this.first = first;
+      this.last = last;
+    }
+
+    @Override
+    public String getName() {
+      return track.getName();
+    }
+
+    @Override
+    public ShapeType getShapeType() {
+      return track.getShapeType();
+    }
+
+    @Override
+    public int size() {
+      return 1;
+    }
+
+    @Override
+    public int get(int motion, int field) {
+      return track.get(field < T2 ? first : last, field);
+    }
+
+    @Override
+    public MotionIndex index() {
+      return MotionIndex.of(this);
+    }
+  }
+}
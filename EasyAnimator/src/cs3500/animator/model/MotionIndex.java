@@ -0,0 +1,167 @@
+package cs3500.animator.model;
+
+/**
+ * Time index over the motions of a single shape.  Start and end times are kept in the order the
+ * motions were added, along with the latest end time up to each motion.  When the start times
+ * never decrease, as in files that list motions in time order, the motion active at a given time
+ * is found with a binary search instead of a scan of every motion; otherwise find checks every
+ * motion from the last one added.  When several motions contain the same time (e.g. on the
+ * boundary between two motions) the one added last wins either way, the same as a front-to-back
+ * scan of the motion list.
+ */
+final class MotionIndex {
+
+  private final int[] starts;
+  private final int[] ends;
+  private final int[] maxEnds;
+  private final int size;
+  private final boolean sorted;
+
+  /**
+   * Constructor for MotionIndex that takes in the start and end times of a shape's motions in the
+   * order they were added to the animation.
+   *
+   * @param starts start times of the motions.
+   * @param ends   end times of the motions.
+   * @param size   number of motions in the arrays.
+   */
+  MotionIndex(int[] starts, int[] ends, int size) {
+    this.starts = starts;
+    this.ends = ends;
+    this.size = size;
+    this.maxEnds = new int[size];
+    boolean inOrder = true;
+    for (int i = 0; i < size; i++) {
+      maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+      if (i > 0 && starts[i] < starts[i - 1]) {
+        inOrder = false;
+      }
+    }
+    this.sorted = inOrder;
+  }
+
+  /**
+   * Builds the index for the motions of a shape.
+   *
+   * @param track motions of a shape, in the order they were added.
+   * @return index of the motions.
+   */
+  static MotionIndex of(MotionTrack track) {
+    int n = track.size();
+    int[] starts = new int[n];
+    int[] ends = new int[n];
+    for (int i = 0; i < n; i++) {
+      starts[i] = track.get(i, MotionTrack.T1);
+      ends[i] = track.get(i, MotionTrack.T2);
+    }
+    return new MotionIndex(starts, ends, n);
+  }
+
+  /**
+   * Gets the number of motions in the index.
+   *
+   * @return number of motions.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Checks if the motions were added in order of start time.  Only then can lastStartingBy and
+   * resolve be used in place of find.
+   *
+   * @return true if the start times never decrease.
+   */
+  boolean isSorted() {
+    return sorted;
+  }
+
+  /**
+   * Gets the start time of a motion.
+   *
+   * @param pos position of the motion.
+   * @return start time of the motion.
+   */
+  int startOf(int pos) {
+    return starts[pos];
+  }
+
+  /**
+   * Gets the end time of a motion.
+   *
+   * @param pos position of the motion.
+   * @return end time of the motion.
+   */
+  int endOf(int pos) {
+    return ends[pos];
+  }
+
+  /**
+   * Gets the latest end time of the motions up to a position, so that walking back from the
+   * position can stop once no earlier motion reaches a time.
+   *
+   * @param pos position of the motion.
+   * @return latest end time of the motions from 0 to pos.
+   */
+  int maxEndUpTo(int pos) {
+    return maxEnds[pos];
+  }
+
+  /**
+   * Finds the motion that determines the state of the shape at the given time.
+   *
+   * @param timeUnit time to look up.
+   * @return position of the motion in the motion list, or -1 if the shape is not active.
+   */
+  int find(int timeUnit) {
+    if (!sorted) {
+      for (int i = size - 1; i >= 0; i--) {
+        if (starts[i] <= timeUnit && timeUnit <= ends[i]) {
+          return i;
+        }
+      }
+      return -1;
+    }
+    return resolve(lastStartingBy(timeUnit), timeUnit);
+  }
+
+  /**
+   * Binary search for the last motion that starts at or before the given time.
+   *
+   * @param timeUnit time to look up.
+   * @return position of the motion, or -1 if every motion starts later.
+   */
+  int lastStartingBy(int timeUnit) {
+    int lo = 0;
+    int hi = size - 1;
+    int found = -1;
+    while (lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      if (starts[mid] <= timeUnit) {
+        found = mid;
+        lo = mid + 1;
+      } else {
+        hi = mid - 1;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Walks back from the last motion starting at or before the given time to the last one that
+   * has not yet ended.  The running maximum of end times stops the walk as soon as no earlier
+   * motion can contain the time, so this is constant time unless motions overlap.
+   *
+   * @param pos      last motion that starts at or before the time.
+   * @param timeUnit time to look up.
+   * @return position of the motion, or -1 if the shape is not active.
+   */
+  int resolve(int pos, int timeUnit) {
+    for (int i = pos; i >= 0 && maxEnds[i] >= timeUnit; i--) {
+      if (ends[i] >= timeUnit) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,112 @@
+package cs3500.animator.model;
+
+/**
+ * The motions of a single shape, seen as rows of sixteen integers in the same order as a motion
+ * line of an animation file: the start time, x, y, width, height, red, green and blue at the start
+ * of the motion, followed by the same eight values at the end.  Lets frame evaluation work the
+ * same way whether the motions are stored as Motion objects or as packed integers.
+ */
+interface MotionTrack {
+
+  int T1 = 0;
+  int X1 = 1;
+  int Y1 = 2;
+  int W1 = 3;
+  int H1 = 4;
+  int R1 = 5;
+  int G1 = 6;
+  int B1 = 7;
+  int T2 = 8;
+  int X2 = 9;
+  int Y2 = 10;
+  int W2 = 11;
+  int H2 = 12;
+  int R2 = 13;
+  int G2 = 14;
+  int B2 = 15;
+  int FIELDS = 16;
+
+  /**
+   * Gets the id of the shape.
+   *
+   * @return id of the shape.
+   */
+  String getName();
+
+  /**
+   * Gets the type of the shape.
+   *
+   * @return type of the shape.
+   */
+  ShapeType getShapeType();
+
+  /**
+   * Gets the number of motions of the shape.
+   *
+   * @return number of motions.
+   */
+  int size();
+
+  /**
+   * Gets one value of a motion.
+   *
+   * @param motion position of the motion.
+   * @param field  one of the field constants of this interface.
+   * @return value of the field.
+   */
+  int get(int motion, int field);
+
+  /**
+   * Gets the time index of the motions.
+   *
+   * @return time index of the motions.
+   */
+  MotionIndex index();
+
+  /**
+   * "Tweens" a motion into a frame buffer.  Uses the same interpolation as Animation.tweening, so
+   * the values match the shapes of getFrameAt.
+   *
+   * @param motion   position of the motion.
+   * @param timeUnit time unit to obtain "Cel" at.
+   * @param frame    frame buffer to write the state of the shape into.
+   * @param slot     slot of the shape in the frame buffer.
+   */
+  default void tween(int motion, int timeUnit, FrameBuffer frame, int slot) {
+    int t1 = get(motion, T1);
+    int t2 = get(motion, T2);
+    if (t1 == t2) {
+      frame.set(slot, getName(), getShapeType(), get(motion, X1), get(motion, Y1),
+          get(motion, W1), get(motion, H1),
+          (get(motion, R1) << 16) | (get(motion, G1) << 8) | get(motion, B1));
+      return;
+    }
+    double newX = interp(motion, X1, t1, t2, timeUnit);
+    double newY = interp(motion, Y1, t1, t2, timeUnit);
+    int newW = (int) interp(motion, W1, t1, t2, timeUnit);
+    int newH = (int) interp(motion, H1, t1, t2, timeUnit);
+    int newR = (int) interp(motion, R1, t1, t2, timeUnit);
+    int newG = (int) interp(motion, G1, t1, t2, timeUnit);
+    int newB = (int) interp(motion, B1, t1, t2, timeUnit);
+    frame.set(slot, getName(), getShapeType(), (int) Math.round(newX), (int) Math.round(newY),
+        newW, newH, (newR << 16) | (newG << 8) | newB);
+  }
+
+  /**
+   * Linear interpolation of one value of a motion, in the same form as Animation.linearInterp.
+   *
+   * @param motion   position of the motion.
+   * @param field    field of the start value; the end value is eight fields later.
+   * @param t1       start time of the motion.
+   * @param t2       end time of the motion.
+   * @param timeUnit time to interpolate at.
+   * @return interpolated value.
+   */
+  default double interp(int motion, int field, int t1, int t2, int timeUnit) {
+    double x1 = t1;
+    double x2 = t2;
+    double y1 = get(motion, field);
+    double y2 = get(motion, field + T2);
+    return y1 + (y2 - y1) / (x2 - x1) * (timeUnit - x1);
+  }
+}
@@ -0,0 +1,274 @@
+package cs3500.animator.model;
+
+import java.util.function.Supplier;
+
+/**
+ * Stateful cursor for playing an animation from start to end.  Remembers, for every shape, the
+ * last motion that has started, and only moves it forward when a later motion starts, so moving
+ * the cursor forward by one tick only does work for the shapes that are on screen and the shapes
+ * whose next motion starts at that tick.  Shapes that are off screen wait in a queue ordered by
+ * the start of their next motion.  Moving the cursor backward, or calling reset, looks every shape
+ * up again with the time index, which costs about the same as one call to getFrameAt.
+ *
+ * <p>A viewport can be set so that the cursor only keeps track of the shapes whose motions come
+ * near it, found with the animation's spatial index.  The other shapes are left out of the frame,
+ * and cost nothing per tick.</p>
+ *
+ * <p>The cursor owns the frame buffer that it returns, and updates it in place.  Create the cursor
+ * once the animation has been fully built.</p>
+ */
+public final class PlaybackCursor {
+
+  private final MotionTrack[] tracks;
+  private final Supplier<ShapeGrid> grid;
+  private boolean[] inView;
+  private final FrameBuffer frame = new FrameBuffer();
+  private final int[] last;
+  private final int[] active;
+  private final int[] activeAt;
+  private int activeCount;
+  private final WakeQueue waiting;
+  private int time;
+  private boolean positioned;
+
+  /**
+   * Constructor for PlaybackCursor that takes in the motions of every shape of an animation, in
+   * description order.
+   *
+   * @param tracks motions of every shape.
+   * @param grid   spatial index over the motions, used when a viewport is set.
+   */
+  PlaybackCursor(MotionTrack[] tracks, Supplier<ShapeGrid> grid) {
+    this.tracks = tracks;
+    this.grid = grid;
+    int n = tracks.length;
+    this.last = new int[n];
+    this.active = new int[n];
+    this.activeAt = new int[n];
+    this.waiting = new WakeQueue(n);
+  }
+
+  /**
+   * Gets the time the cursor is at.
+   *
+   * @return time of the current frame.
+   */
+  public int getTime() {
+    return time;
+  }
+
+  /**
+   * Moves the cursor to the next tick.
+   *
+   * @return frame at the next tick.
+   */
+  public FrameBuffer advance() {
+    return seek(positioned ? time + 1 : 0);
+  }
+
+  /**
+   * Moves the cursor back to before the start of the animation.  The next call to advance returns
+   * the frame at time 0.
+   */
+  public void reset() {
+    positioned = false;
+  }
+
+  /**
+   * Limits the cursor to the shapes that can be inside a viewport.  Every shape inside the
+   * viewport is in the frames that follow; some shapes just outside it may be too.  The next move
+   * looks every shape up again.
+   *
+   * @param x      x coordinate of the viewport.
+   * @param y      y coordinate of the viewport.
+   * @param width  width of the viewport.
+   * @param height height of the viewport.
+   */
+  public void setViewport(int x, int y, int width, int height) {
+    inView = grid.get().query(x, y, width, height);
+    positioned = false;
+  }
+
+  /**
+   * Removes the viewport, so that the frames hold every shape again.  The next move looks every
+   * shape up again.
+   */
+  public void clearViewport() {
+    inView = null;
+    positioned = false;
+  }
+
+  /**
+   * Moves the cursor to the given time.  Moving forward only touches shapes that are on screen or
+   * whose next motion starts by then; moving backward looks every shape up again.
+   *
+   * @param timeUnit time to move to.
+   * @return frame at the given time.
+   */
+  public FrameBuffer seek(int timeUnit) {
+    if (!positioned || timeUnit < time) {
+      locate(timeUnit);
+    } else {
+      moveForward(timeUnit);
+    }
+    positioned = true;
+    time = timeUnit;
+    frame.setTime(timeUnit);
+    return frame;
+  }
+
+  /**
+   * Looks every shape up with the time index.
+   */
+  private void locate(int timeUnit) {
+    frame.reset(tracks.length, timeUnit);
+    activeCount = 0;
+    waiting.clear();
+    for (int slot = 0; slot < tracks.length; slot++) {
+      if (inView != null && !inView[slot]) {
+        continue;
+      }
+      MotionIndex index = tracks[slot].index();
+      last[slot] = index.isSorted() ? index.lastStartingBy(timeUnit) : -1;
+      update(slot, timeUnit);
+    }
+  }
+
+  /**
+   * Wakes the shapes whose next motion has started, and updates the shapes that are on screen.
+   */
+  private void moveForward(int timeUnit) {
+    while (!waiting.isEmpty() && waiting.peekTime() <= timeUnit) {
+      int slot = waiting.poll();
+      activate(slot);
+    }
+    int i = 0;
+    while (i < activeCount) {
+      int slot = active[i];
+      MotionTrack track = tracks[slot];
+      MotionIndex index = track.index();
+      if (index.isSorted()) {
+        while (last[slot] + 1 < index.size() && index.startOf(last[slot] + 1) <= timeUnit) {
+          last[slot]++;
+        }
+      }
+      int pos = index.isSorted() ? index.resolve(last[slot], timeUnit) : index.find(timeUnit);
+      if (pos >= 0) {
+        track.tween(pos, timeUnit, frame, slot);
+        i++;
+      } else {
+        frame.hide(slot);
+        deactivate(slot);
+        sleep(slot, index);
+        // the last active shape has been moved into position i, so look at i again
+      }
+    }
+  }
+
+  /**
+   * Works out whether a shape that has just been located is on screen, and either adds it to the
+   * active shapes or queues it until its next motion starts.
+   */
+  private void update(int slot, int timeUnit) {
+    MotionTrack track = tracks[slot];
+    MotionIndex index = track.index();
+    int pos = index.isSorted() ? index.resolve(last[slot], timeUnit) : index.find(timeUnit);
+    if (pos >= 0) {
+      track.tween(pos, timeUnit, frame, slot);
+      activate(slot);
+    } else {
+      sleep(slot, index);
+    }
+  }
+
+  /**
+   * Queues an off-screen shape until the start of its next motion.  Shapes whose motions were not
+   * added in order of start time are never queued and are looked up every tick instead.
+   */
+  private void sleep(int slot, MotionIndex index) {
+    if (!index.isSorted()) {
+      activate(slot);
+    } else if (last[slot] + 1 < index.size()) {
+      waiting.add(slot, index.startOf(last[slot] + 1));
+    }
+  }
+
+  private void activate(int slot) {
+    activeAt[slot] = activeCount;
+    active[activeCount++] = slot;
+  }
+
+  private void deactivate(int slot) {
+    int at = activeAt[slot];
+    int moved = active[--activeCount];
+    active[at] = moved;
+    activeAt[moved] = at;
+  }
+
+  /**
+   * Min-heap of shape slots, keyed by the time at which each shape's next motion starts.
+   */
+  private static final class WakeQueue {
+
+    private final int[] slots;
+    private final int[] times;
+    private int size;
+
+    private WakeQueue(int capacity) {
+      this.slots = new int[capacity];
+      this.times = new int[capacity];
+    }
+
+    private boolean isEmpty() {
+      return size == 0;
+    }
+
+    private void clear() {
+      size = 0;
+    }
+
+    private int peekTime() {
+      return times[0];
+    }
+
+    private void add(int slot, int time) {
+      int i = size++;
+      while (i > 0) {
+        int parent = (i - 1) / 2;
+        if (times[parent] <= time) {
+          break;
+        }
+        slots[i] = slots[parent];
+        times[i] = times[parent];
+        i = parent;
+      }
+      slots[i] = slot;
+      times[i] = time;
+    }
+
+    private int poll() {
+      int top = slots[0];
+      int slot = slots[--size];
+      int time = times[size];
+      int i = 0;
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && times[child + 1] < times[child]) {
+          child++;
+        }
+        if (times[child] >= time) {
+          break;
+        }
+        slots[i] = slots[child];
+        times[i] = times[child];
+        i = child;
+      }
+      slots[i] = slot;
+      times[i] = time;
+      return top;
+    }
+  }
+}
@@ -10,19 +10,54 @@ public class Plus extends Polygon {
 
   @Override
   public void setupXYCoords() {
-    int x = this.getWidth();
-    int y = this.getHeight();
-    int xstep1 = this.getWidth() / 4;
-    int xstep3 = this.getWidth() * 3 / 4;
-    int ystep1 = this.getHeight() / 4;
-    int ystep3 = this.getHeight() * 3 / 4;
+    xs = new int[12];
+    ys = new int[12];
+    plusCoords(this.getX(), this.getY(), this.getWidth(), this.getHeight(), xs, ys);
+  }
+
+  /**
+   * Computes the twelve corners of a plus sign that fills the given bounding box.
+   *
+   * @param x      x coordinate of the bounding box.
+   * @param y      y coordinate of the bounding box.
+   * @param width  width of the bounding box.
+   * @param height height of the bounding box.
+   * @param xs     array of at least twelve elements that receives the x coordinates.
+   * @param ys     array of at least twelve elements that receives the y coordinates.
+   */
+  public static void plusCoords(int x, int y, int width, int height, int[] xs, int[] ys) {
+    int xstep1 = width / 4;
+    int xstep3 = width * 3 / 4;
+    int ystep1 = height / 4;
+    int ystep3 = height * 3 / 4;
 
-    xs = new int[]{xstep1, xstep3, xstep3, x, x, xstep3, xstep3, xstep1, xstep1, 0, 0, xstep1};
-    ys = new int[]{0, 0, ystep1, ystep1, ystep3, ystep3, y, y, ystep3, ystep3, ystep1, ystep1};
-    assert (xs.length == ys.length);
-    for (int i = 0; i < xs.length; ++i) {
-      xs[i] += this.getX();
-      ys[i] += this.getY();
+    xs[0] = xstep1;
+    xs[1] = xstep3;
+    xs[2] = xstep3;
+    xs[3] = width;
+    xs[4] = width;
+    xs[5] = xstep3;
+    xs[6] = xstep3;
+    xs[7] = xstep1;
+    xs[8] = xstep1;
+    xs[9] = 0;
+    xs[10] = 0;
+    xs[11] = xstep1;
+    ys[0] = 0;
+    ys[1] = 0;
+    ys[2] = ystep1;
+    ys[3] = ystep1;
+    ys[4] = ystep3;
+    ys[5] = ystep3;
+    ys[6] = height;
+    ys[7] = height;
+    ys[8] = ystep3;
+    ys[9] = ystep3;
+    ys[10] = ystep1;
+    ys[11] = ystep1;
+    for (int i = 0; i < 12; ++i) {
+      xs[i] += x;
+      ys[i] += y;
     }
   }
 }
@@ -103,12 +103,12 @@ public abstract class Shape implements Cloneable, IShape {
 
   @Override
   public int getX() {
-    return (int) Math.round(this.getPosition().getX());
+    return (int) Math.round(this.position.getX());
   }
 
   @Override
   public int getY() {
-    return (int) Math.round(this.getPosition().getY());
+    return (int) Math.round(this.position.getY());
   }
 
   @Override
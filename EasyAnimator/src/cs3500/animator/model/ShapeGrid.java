@@ -0,0 +1,240 @@
+package cs3500.animator.model;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over boxes that belong to the shapes of an animation, such as the boxes that their
+ * motions cover or the boxes of a frame.  Each shape is listed once, in slot order, in every cell
+ * that one of its boxes covers.  Finding the shapes that can be inside a rectangle then only looks
+ * at the cells under the rectangle, instead of at every shape.  The cells are stored as one array
+ * of slots with an array of offsets, so the grid does not hold an object per cell.
+ */
+final class ShapeGrid {
+
+  private final int size;
+  private final int originX;
+  private final int originY;
+  private final int cell;
+  private final int columns;
+  private final int rows;
+  private final int[] offsets;
+  private final int[] slots;
+
+  /**
+   * Builds the grid for the motions of every shape.  Every motion covers a box, from its start
+   * state to its end state, outline included.
+   *
+   * @param tracks motions of every shape, in slot order.
+   * @return the grid over the motions.
+   */
+  static ShapeGrid of(MotionTrack[] tracks) {
+    int motions = 0;
+    for (MotionTrack track : tracks) {
+      motions += track.size();
+    }
+    int[] boxes = new int[4 * motions];
+    int[] owners = new int[motions];
+    int m = 0;
+    for (int slot = 0; slot < tracks.length; slot++) {
+      for (int pos = 0; pos < tracks[slot].size(); pos++, m++) {
+        box(tracks[slot], pos, boxes, 4 * m);
+        owners[m] = slot;
+      }
+    }
+    return new ShapeGrid(tracks.length, boxes, owners);
+  }
+
+  /**
+   * Builds the grid for a list of boxes.
+   *
+   * @param size   number of shapes in the animation.
+   * @param boxes  left, top, right and bottom of each box, all inclusive.
+   * @param owners slot of the shape that each box belongs to, in ascending order.
+   */
+  ShapeGrid(int size, int[] boxes, int[] owners) {
+    this.size = size;
+    int count = owners.length;
+    int minX = 0;
+    int minY = 0;
+    int maxX = 0;
+    int maxY = 0;
+    long area = 0;
+    for (int m = 0; m < count; m++) {
+      minX = m == 0 ? boxes[0] : Math.min(minX, boxes[4 * m]);
+      minY = m == 0 ? boxes[1] : Math.min(minY, boxes[4 * m + 1]);
+      maxX = m == 0 ? boxes[2] : Math.max(maxX, boxes[4 * m + 2]);
+      maxY = m == 0 ? boxes[3] : Math.max(maxY, boxes[4 * m + 3]);
+      area += ((long) boxes[4 * m + 2] - boxes[4 * m] + 1)
+          * ((long) boxes[4 * m + 3] - boxes[4 * m + 1] + 1);
+    }
+    this.originX = minX;
+    this.originY = minY;
+    // cells about as large as the average box, but never more than 256 cells a side
+    long spanX = (long) maxX - minX + 1;
+    long spanY = (long) maxY - minY + 1;
+    long average = count == 0 ? 1 : (long) Math.sqrt((double) area / count);
+    long limit = Math.max(spanX, spanY) / 256 + 1;
+    this.cell = (int) Math.min(Integer.MAX_VALUE, Math.max(Math.max(16, average), limit));
+    this.columns = (int) ((spanX + cell - 1) / cell);
+    this.rows = (int) ((spanY + cell - 1) / cell);
+
+    // count the shapes in each cell, then fill them in
+    int cells = columns * rows;
+    int[] counts = new int[cells + 1];
+    place(boxes, owners, counts, null, null);
+    for (int c = 0; c < cells; c++) {
+      counts[c + 1] += counts[c];
+    }
+    this.offsets = counts;
+    this.slots = new int[counts[cells]];
+    place(boxes, owners, new int[cells], offsets, slots);
+  }
+
+  /**
+   * Lists each shape once in every cell that one of its motions covers.  Without an output array
+   * only counts the shapes of each cell, one position later in the counts.
+   */
+  private void place(int[] boxes, int[] owners, int[] counts, int[] starts, int[] out) {
+    int[] last = new int[columns * rows];
+    Arrays.fill(last, -1);
+    for (int m = 0; m < owners.length; m++) {
+      int slot = owners[m];
+      for (int row = row(boxes[4 * m + 1]); row <= row(boxes[4 * m + 3]); row++) {
+        for (int column = column(boxes[4 * m]); column <= column(boxes[4 * m + 2]); column++) {
+          int c = row * columns + column;
+          if (last[c] != slot) {
+            last[c] = slot;
+            if (out == null) {
+              counts[c + 1]++;
+            } else {
+              out[starts[c] + counts[c]++] = slot;
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Finds the shapes that can be inside a rectangle at some time, because one of their motions
+   * covers a cell under it.
+   *
+   * @param x      x coordinate of the rectangle.
+   * @param y      y coordinate of the rectangle.
+   * @param width  width of the rectangle.
+   * @param height height of the rectangle.
+   * @return a mask with one entry per slot, true for the shapes that can be inside.
+   */
+  boolean[] query(int x, int y, int width, int height) {
+    boolean[] mask = new boolean[size];
+    if (width <= 0 || height <= 0) {
+      return mask;
+    }
+    int right = x + width - 1;
+    int bottom = y + height - 1;
+    for (int row = row(y); row <= row(bottom); row++) {
+      for (int column = column(x); column <= column(right); column++) {
+        int c = row * columns + column;
+        for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+          mask[slots[i]] = true;
+        }
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Gets the cell that a point falls in.  Points outside the grid fall in the nearest cell.
+   *
+   * @param x x coordinate of the point.
+   * @param y y coordinate of the point.
+   * @return index of the cell.
+   */
+  int cellAt(int x, int y) {
+    return row(y) * columns + column(x);
+  }
+
+  /**
+   * Gets the number of cells in the grid.
+   *
+   * @return number of cells.
+   */
+  int cells() {
+    return columns * rows;
+  }
+
+  /**
+   * Gets the number of cells in each row of the grid, so that the cell in a column and row is at
+   * row * columns + column.
+   *
+   * @return number of columns.
+   */
+  int columns() {
+    return columns;
+  }
+
+  /**
+   * Gets the position of the first shape listed in a cell.
+   *
+   * @param cell index of the cell.
+   * @return position of its first shape, to pass to slotAt.
+   */
+  int start(int cell) {
+    return offsets[cell];
+  }
+
+  /**
+   * Gets the position after the last shape listed in a cell.
+   *
+   * @param cell index of the cell.
+   * @return position after its last shape.
+   */
+  int end(int cell) {
+    return offsets[cell + 1];
+  }
+
+  /**
+   * Gets a shape listed in a cell.
+   *
+   * @param position position between start and end of the cell.
+   * @return slot of the shape.
+   */
+  int slotAt(int position) {
+    return slots[position];
+  }
+
+  private int column(int x) {
+    return (int) Math.max(0, Math.min(columns - 1, Math.floorDiv((long) x - originX, cell)));
+  }
+
+  private int row(int y) {
+    return (int) Math.max(0, Math.min(rows - 1, Math.floorDiv((long) y - originY, cell)));
+  }
+
+  /**
+   * Writes the box that a motion covers, outline included, as left, top, right and bottom.
+   */
+  private static void box(MotionTrack track, int motion, int[] boxes, int at) {
+    for (int end = 0; end <= MotionTrack.T2; end += MotionTrack.T2) {
+      int x = track.get(motion, end + MotionTrack.X1);
+      int y = track.get(motion, end + MotionTrack.Y1);
+      int w = track.get(motion, end + MotionTrack.W1);
+      int h = track.get(motion, end + MotionTrack.H1);
+      int left = Math.min(x, x + w);
+      int top = Math.min(y, y + h);
+      int right = Math.max(x, x + w) + 1;
+      int bottom = Math.max(y, y + h) + 1;
+      if (end == 0) {
+        boxes[at] = left;
+        boxes[at + 1] = top;
+        boxes[at + 2] = right;
+        boxes[at + 3] = bottom;
+      } else {
+        boxes[at] = Math.min(boxes[at], left);
+        boxes[at + 1] = Math.min(boxes[at + 1], top);
+        boxes[at + 2] = Math.max(boxes[at + 2], right);
+        boxes[at + 3] = Math.max(boxes[at + 3], bottom);
+      }
+    }
+  }
+}
@@ -0,0 +1,179 @@
+package cs3500.animator.model;
+
+/**
+ * The shapes of an animation that do not change during a window of time.  A shape is static in the
+ * window if it is on screen at every tick of the window and its position, size and color are the
+ * same at every tick.  For every shape that is on screen at some tick of the window, the span also
+ * holds a box that contains the shape at every tick of the window, which for a static shape is
+ * just the shape.  Slots are the same as in FrameBuffer.
+ */
+public final class StaticSpan {
+
+  private final int start;
+  private final int end;
+  private final boolean[] visible;
+  private final boolean[] still;
+  private final int[] minXs;
+  private final int[] minYs;
+  private final int[] maxXs;
+  private final int[] maxYs;
+
+  /**
+   * Constructor for StaticSpan that takes in the window and the number of shapes.  Every shape
+   * starts off screen.
+   *
+   * @param start first tick of the window.
+   * @param end   last tick of the window.
+   * @param size  number of shapes in the animation.
+   */
+  StaticSpan(int start, int end, int size) {
+    this.start = start;
+    this.end = end;
+    this.visible = new boolean[size];
+    this.still = new boolean[size];
+    this.minXs = new int[size];
+    this.minYs = new int[size];
+    this.maxXs = new int[size];
+    this.maxYs = new int[size];
+  }
+
+  /**
+   * Grows the box of a shape to contain a motion, which puts the shape on screen in the window.
+   * The box contains the shape at every tick of the motion, since the motion moves linearly
+   * between its start and end.
+   *
+   * @param slot   slot of the shape.
+   * @param track  motions of the shape.
+   * @param motion position of the motion.
+   */
+  void include(int slot, MotionTrack track, int motion) {
+    for (int at = 0; at <= MotionTrack.T2; at += MotionTrack.T2) {
+      int x = track.get(motion, at + MotionTrack.X1);
+      int y = track.get(motion, at + MotionTrack.Y1);
+      int w = track.get(motion, at + MotionTrack.W1);
+      int h = track.get(motion, at + MotionTrack.H1);
+      int minX = Math.min(x, x + w);
+      int minY = Math.min(y, y + h);
+      int maxX = Math.max(x, x + w);
+      int maxY = Math.max(y, y + h);
+      if (!visible[slot]) {
+        visible[slot] = true;
+        minXs[slot] = minX;
+        minYs[slot] = minY;
+        maxXs[slot] = maxX;
+        maxYs[slot] = maxY;
+      } else {
+        minXs[slot] = Math.min(minXs[slot], minX);
+        minYs[slot] = Math.min(minYs[slot], minY);
+        maxXs[slot] = Math.max(maxXs[slot], maxX);
+        maxYs[slot] = Math.max(maxYs[slot], maxY);
+      }
+    }
+  }
+
+  /**
+   * Marks a shape as static in the window.
+   *
+   * @param slot slot of the shape.
+   */
+  void markStatic(int slot) {
+    still[slot] = true;
+  }
+
+  /**
+   * Gets the first tick of the window.
+   *
+   * @return first tick of the window.
+   */
+  public int getStart() {
+    return start;
+  }
+
+  /**
+   * Gets the last tick of the window.
+   *
+   * @return last tick of the window.
+   */
+  public int getEnd() {
+    return end;
+  }
+
+  /**
+   * Checks if a tick is inside the window.
+   *
+   * @param timeUnit tick to check.
+   * @return true if the shapes that are static in this span are static at that tick.
+   */
+  public boolean contains(int timeUnit) {
+    return start <= timeUnit && timeUnit <= end;
+  }
+
+  /**
+   * Gets the number of slots in the span.
+   *
+   * @return number of shapes in the animation.
+   */
+  public int size() {
+    return visible.length;
+  }
+
+  /**
+   * Checks if a shape is on screen at some tick of the window.
+   *
+   * @param slot slot of the shape.
+   * @return true if the shape is on screen during the window.
+   */
+  public boolean isVisible(int slot) {
+    return visible[slot];
+  }
+
+  /**
+   * Checks if a shape is on screen and unchanged at every tick of the window.
+   *
+   * @param slot slot of the shape.
+   * @return true if the shape is static during the window.
+   */
+  public boolean isStatic(int slot) {
+    return still[slot];
+  }
+
+  /**
+   * Gets the smallest x coordinate that a shape covers during the window.
+   *
+   * @param slot slot of a visible shape.
+   * @return left edge of the box of the shape.
+   */
+  public int getMinX(int slot) {
+    return minXs[slot];
+  }
+
+  /**
+   * Gets the smallest y coordinate that a shape covers during the window.
+   *
+   * @param slot slot of a visible shape.
+   * @return top edge of the box of the shape.
+   */
+  public int getMinY(int slot) {
+    return minYs[slot];
+  }
+
+  /**
+   * Gets the largest x coordinate that a shape covers during the window.
+   *
+   * @param slot slot of a visible shape.
+   * @return right edge of the box of the shape.
+   */
+  public int getMaxX(int slot) {
+    return maxXs[slot];
+  }
+
+  /**
+   * Gets the largest y coordinate that a shape covers during the window.
+   *
+   * @param slot slot of a visible shape.
+   * @return bottom edge of the box of the shape.
+   */
+  public int getMaxY(int slot) {
+    return maxYs[slot];
+  }
+}
@@ -1,14 +1,25 @@
 package cs3500.animator.util;
 
 import java.util.Objects;
-import java.util.Scanner;
-import java.util.regex.Pattern;
 
 /**
  * A helper to read animation data and construct an animation from it.
  */
 public class AnimationReader {
 
+  static final String[] CANVAS_FIELDS = {"left", "top", "width", "height"};
+
+  static final String[] MOTION_FIELDS = {
+      "initial time",
+      "initial x-coordinate", "initial y-coordinate",
+      "initial width", "initial height",
+      "initial red value", "initial green value", "initial blue value",
+      "final time",
+      "final x-coordinate", "final y-coordinate",
+      "final width", "final height",
+      "final red value", "final green value", "final blue value",
+  };
+
   /**
    * A factory for producing new animations, given a source of shapes and a builder for constructing
    * animations.
@@ -27,6 +38,10 @@ public class AnimationReader {
    * </ul>
    * </p>
    *
+   * <p>The input is split at whitespace and # comments by an AnimationTokenizer, which parses the
+   * integers without regular expressions or intermediate Strings.  Integers are an optional sign
+   * followed by decimal digits.</p>
+   *
    * @param readable The source of data for the animation
    * @param builder  A builder for helping to construct a new animation
    * @param <K>      The main model interface type describing animations
@@ -35,91 +50,74 @@ public class AnimationReader {
   public static <K> K parseFile(Readable readable, AnimationBuilder<K> builder) {
     Objects.requireNonNull(readable, "Must have non-null readable source");
     Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
-    Scanner s = new Scanner(readable);
-    // Split at whitespace, and ignore # comment lines
-    s.useDelimiter(Pattern.compile("(\\p{Space}+|#.*)+"));
-    while (s.hasNext()) {
-      String word = s.next();
-      switch (word) {
-        case "canvas":
-          readCanvas(s, builder);
-          break;
-        case "shape":
-          readShape(s, builder);
-          break;
-        case "motion":
-          readMotion(s, builder);
-          break;
-        default:
-          throw new IllegalStateException("Unexpected keyword: " + word + s.nextLine());
+    AnimationTokenizer s = new AnimationTokenizer(readable);
+    int[] vals = new int[16];
+    while (s.next()) {
+      if (s.tokenIs("canvas")) {
+        readCanvas(s, builder, vals);
+      } else if (s.tokenIs("shape")) {
+        readShape(s, builder);
+      } else if (s.tokenIs("motion")) {
+        readMotion(s, builder, vals);
+      } else {
+        String word = s.token();
+        throw new IllegalStateException("Unexpected keyword: " + word + s.restOfLine());
       }
     }
     return builder.build();
   }
 
-  private static <K> void readCanvas(Scanner s, AnimationBuilder<K> builder) {
-    int[] vals = new int[4];
-    String[] fieldNames = {"left", "top", "width", "height"};
+  private static <K> void readCanvas(AnimationTokenizer s, AnimationBuilder<K> builder,
+      int[] vals) {
     for (int i = 0; i < 4; i++) {
-      vals[i] = getInt(s, "Canvas", fieldNames[i]);
+      vals[i] = getInt(s, "Canvas", CANVAS_FIELDS[i]);
     }
     builder.setBounds(vals[0], vals[1], vals[2], vals[3]);
   }
 
-  private static <K> void readShape(Scanner s, AnimationBuilder<K> builder) {
+  private static <K> void readShape(AnimationTokenizer s, AnimationBuilder<K> builder) {
     String name;
     String type;
-    if (s.hasNext()) {
-      name = s.next();
+    if (s.next()) {
+      name = s.name();
     } else {
       throw new IllegalStateException("Shape: Expected a name, but no more input available");
     }
-    if (s.hasNext()) {
-      type = s.next();
+    if (s.next()) {
+      type = s.name();
     } else {
       throw new IllegalStateException("Shape: Expected a type, but no more input available");
     }
     builder.declareShape(name, type);
   }
 
-  private static <K> void readMotion(Scanner s, AnimationBuilder<K> builder) {
-    String[] fieldNames = new String[]{
-        "initial time",
-        "initial x-coordinate", "initial y-coordinate",
-        "initial width", "initial height",
-        "initial red value", "initial green value", "initial blue value",
-        "final time",
-        "final x-coordinate", "final y-coordinate",
-        "final width", "final height",
-        "final red value", "final green value", "final blue value",
-    };
-    int[] vals = new int[16];
+  private static <K> void readMotion(AnimationTokenizer s, AnimationBuilder<K> builder,
+      int[] vals) {
     String name;
-    if (s.hasNext()) {
-      name = s.next();
+    if (s.next()) {
+      name = s.name();
     } else {
       throw new IllegalStateException("Motion: Expected a shape name, but no more input available");
     }
     for (int i = 0; i < 16; i++) {
-      vals[i] = getInt(s, "Motion", fieldNames[i]);
+      vals[i] = getInt(s, "Motion", MOTION_FIELDS[i]);
     }
     builder.addMotion(name,
         vals[0], vals[1], vals[2], vals[3], vals[4], vals[5], vals[6], vals[7],
         vals[8], vals[9], vals[10], vals[11], vals[12], vals[13], vals[14], vals[15]);
   }
 
-  private static int getInt(Scanner s, String label, String fieldName) {
-    if (s.hasNextInt()) {
-      return s.nextInt();
-    } else if (s.hasNext()) {
-      throw new IllegalStateException(
-          String.format("%s: expected integer for %s, got: %s", label, fieldName, s.next()));
-    } else {
+  private static int getInt(AnimationTokenizer s, String label, String fieldName) {
+    if (!s.next()) {
       throw new IllegalStateException(
           String.format("%s: expected integer for %s, but no more input available",
               label, fieldName));
     }
+    try {
+      return s.intToken();
+    } catch (NumberFormatException e) {
+      throw new IllegalStateException(
+          String.format("%s: expected integer for %s, got: %s", label, fieldName, s.token()));
+    }
   }
-
-
 }
@@ -0,0 +1,288 @@
+package cs3500.animator.util;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits animation input into tokens the same way as a Scanner with the delimiter
+ * {@code (\p{Space}+|#.*)+}, but without regular expressions.  Characters are read in large blocks
+ * into a reusable array, the current token is kept as a range of that array, and integers are
+ * parsed straight from it, so reading a motion line only creates the String for the shape name,
+ * and names that have been seen before are reused.
+ */
+final class AnimationTokenizer {
+
+  private static final int BLOCK = 1 << 16;
+
+  private final Readable readable;
+  private char[] buf = new char[BLOCK];
+  private int pos;
+  private int limit;
+  private boolean eof;
+  private int tokenStart;
+  private int tokenEnd;
+  private String[] names = new String[64];
+  private int nameCount;
+
+  /**
+   * Constructor for AnimationTokenizer that takes in the source of the animation.
+   *
+   * @param readable source of the animation.
+   */
+  AnimationTokenizer(Readable readable) {
+    this.readable = readable;
+  }
+
+  /**
+   * Moves to the next token.
+   *
+   * @return false if there are no more tokens.
+   */
+  boolean next() {
+    if (!skipDelimiters()) {
+      return false;
+    }
+    // keep the whole token in the buffer, so that it can be read as a range
+    int start = pos;
+    while (true) {
+      if (pos == limit) {
+        int shift = compact(start);
+        start -= shift;
+        if (!fill()) {
+          break;
+        }
+      }
+      char c = buf[pos];
+      if (isSpace(c) || c == '#') {
+        break;
+      }
+      pos++;
+    }
+    tokenStart = start;
+    tokenEnd = pos;
+    return true;
+  }
+
+  /**
+   * Checks if the current token is the given word.
+   *
+   * @param word word to compare with.
+   * @return true if the token has the same characters as the word.
+   */
+  boolean tokenIs(String word) {
+    int length = tokenEnd - tokenStart;
+    if (length != word.length()) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (buf[tokenStart + i] != word.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the current token as a new String.
+   *
+   * @return the current token.
+   */
+  String token() {
+    return new String(buf, tokenStart, tokenEnd - tokenStart);
+  }
+
+  /**
+   * Gets the current token as a String, reusing the String of an earlier token with the same
+   * characters.  Used for shape names, which repeat on every motion line.
+   *
+   * @return the current token.
+   */
+  String name() {
+    int length = tokenEnd - tokenStart;
+    int hash = 0;
+    for (int i = tokenStart; i < tokenEnd; i++) {
+      hash = 31 * hash + buf[i];
+    }
+    int mask = names.length - 1;
+    int slot = mix(hash) & mask;
+    while (names[slot] != null) {
+      String name = names[slot];
+      if (name.hashCode() == hash && name.length() == length && tokenIs(name)) {
+        return name;
+      }
+      slot = (slot + 1) & mask;
+    }
+    String name = token();
+    names[slot] = name;
+    if (++nameCount * 2 > names.length) {
+      growNames();
+    }
+    return name;
+  }
+
+  /**
+   * Parses the current token as an int.  Accepts an optional sign followed by decimal digits, and
+   * rejects values outside the range of an int.
+   *
+   * @return the value of the token.
+   * @throws NumberFormatException if the token is not an int.
+   */
+  int intToken() {
+    int i = tokenStart;
+    boolean negative = false;
+    if (i < tokenEnd && (buf[i] == '-' || buf[i] == '+')) {
+      negative = buf[i] == '-';
+      i++;
+    }
+    if (i == tokenEnd) {
+      throw new NumberFormatException(token());
+    }
+    // accumulate as a negative number so that Integer.MIN_VALUE fits
+    int min = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+    int value = 0;
+    for (; i < tokenEnd; i++) {
+      int digit = buf[i] - '0';
+      if (digit < 0 || digit > 9 || value < min / 10) {
+        throw new NumberFormatException(token());
+      }
+      value *= 10;
+      if (value < min + digit) {
+        throw new NumberFormatException(token());
+      }
+      value -= digit;
+    }
+    return negative ? value : -value;
+  }
+
+  /**
+   * Reads the rest of the line after the current token, the same way as Scanner.nextLine.
+   *
+   * @return the characters up to the end of the line.
+   * @throws NoSuchElementException if there is no more input at all.
+   */
+  String restOfLine() {
+    StringBuilder line = new StringBuilder();
+    boolean any = false;
+    while (pos < limit || fill()) {
+      any = true;
+      char c = buf[pos];
+      if (isLineEnd(c)) {
+        return line.toString();
+      }
+      line.append(c);
+      pos++;
+    }
+    if (!any) {
+      throw new NoSuchElementException("No line found");
+    }
+    return line.toString();
+  }
+
+  /**
+   * Skips whitespace and comments.  A comment runs from a # to the end of the line.
+   *
+   * @return false if the input ended.
+   */
+  private boolean skipDelimiters() {
+    while (pos < limit || fill()) {
+      char c = buf[pos];
+      if (c == '#') {
+        do {
+          pos++;
+        } while ((pos < limit || fill()) && !isLineEnd(buf[pos]));
+      } else if (isSpace(c)) {
+        pos++;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Moves the characters from start onwards to the front of the buffer, growing it if they already
+   * fill it.
+   *
+   * @return how far the characters were moved.
+   */
+  private int compact(int start) {
+    int kept = limit - start;
+    if (kept == buf.length) {
+      char[] bigger = new char[buf.length * 2];
+      System.arraycopy(buf, start, bigger, 0, kept);
+      buf = bigger;
+    } else {
+      System.arraycopy(buf, start, buf, 0, kept);
+    }
+    pos -= start;
+    limit = kept;
+    return start;
+  }
+
+  /**
+   * Reads more characters.  Only called once every character in the buffer has been used; the
+   * buffer starts over from the front when it is full, so a token that is still being read must be
+   * moved to the front with compact first.
+   *
+   * @return false if the input ended.
+   */
+  private boolean fill() {
+    if (eof) {
+      return false;
+    }
+    if (limit == buf.length) {
+      pos = 0;
+      limit = 0;
+    }
+    try {
+      while (true) {
+        CharBuffer target = CharBuffer.wrap(buf, limit, buf.length - limit);
+        int n = readable.read(target);
+        if (n < 0) {
+          eof = true;
+          return false;
+        }
+        if (n > 0) {
+          limit += n;
+          return true;
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Bad Readable.", e);
+    }
+  }
+
+  private void growNames() {
+    String[] old = names;
+    names = new String[old.length * 2];
+    int mask = names.length - 1;
+    for (String name : old) {
+      if (name != null) {
+        int slot = mix(name.hashCode()) & mask;
+        while (names[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        names[slot] = name;
+      }
+    }
+  }
+
+  private static int mix(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Checks for the characters of \p{Space}.
+   */
+  private static boolean isSpace(char c) {
+    return c == ' ' || (c >= '\t' && c <= '\r');
+  }
+
+  /**
+   * Checks for the characters that end a line, and so a comment.
+   */
+  private static boolean isLineEnd(char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
+}
@@ -0,0 +1,249 @@
+package cs3500.animator.util;
+
+import cs3500.animator.model.ShapeType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Reads animations saved in the binary format written by the binary view, which loads much faster
+ * than the text format because nothing has to be tokenized or parsed.  All numbers are 32 bit
+ * little-endian integers:
+ *
+ * <ul>
+ *   <li>a header of nine integers: the magic number, the format version, the x, y, width and
+ *   height of the canvas, the number of shapes, the number of motions, and the offset in bytes
+ *   from the start of the file to the first motion;</li>
+ *   <li>the shape table, one entry per shape: the ordinal of its ShapeType, its number of motions,
+ *   and the length in bytes of its UTF-8 name followed by the name, padded with zeros to a
+ *   multiple of four bytes;</li>
+ *   <li>the motions, sixteen integers each in the order of AnimationBuilder.addMotion, all the
+ *   motions of the first shape in the table first, then those of the second shape, and so on.</li>
+ * </ul>
+ *
+ * <p>Each name is stored once, and every motion of a shape is added with the same String.  A file
+ * with a different version is refused rather than guessed at, so the version must be increased
+ * whenever the layout changes.</p>
+ */
+public final class BinaryAnimationReader {
+
+  /**
+   * The first four bytes of every binary animation, "EANB" in ASCII.
+   */
+  public static final int MAGIC = 0x424E4145;
+
+  /**
+   * The version of the format that this class reads and the binary view writes.
+   */
+  public static final int VERSION = 1;
+
+  /**
+   * The number of bytes in the header.
+   */
+  public static final int HEADER_BYTES = 9 * Integer.BYTES;
+
+  /**
+   * The number of integers in each motion.
+   */
+  public static final int MOTION_INTS = 16;
+
+  /**
+   * The canvas and shape table of a binary animation, for readers that read the motions
+   * themselves.
+   */
+  public static final class Table {
+
+    public final int x;
+    public final int y;
+    public final int width;
+    public final int height;
+    public final String[] names;
+    public final ShapeType[] types;
+    public final int[] counts;
+    public final int offset;
+
+    private Table(int x, int y, int width, int height, String[] names, ShapeType[] types,
+        int[] counts, int offset) {
+      this.x = x;
+      this.y = y;
+      this.width = width;
+      this.height = height;
+      this.names = names;
+      this.types = types;
+      this.counts = counts;
+      this.offset = offset;
+    }
+
+    /**
+     * Gets the number of motions of all the shapes together.
+     *
+     * @return number of motions in the file.
+     */
+    public long motions() {
+      long total = 0;
+      for (int count : counts) {
+        total += count;
+      }
+      return total;
+    }
+  }
+
+  private BinaryAnimationReader() {
+  }
+
+  /**
+   * Gets the number of bytes that a name takes up in the shape table, padding included.
+   *
+   * @param length length of the name in bytes.
+   * @return length rounded up to a multiple of four.
+   */
+  public static int padded(int length) {
+    return (length + 3) & ~3;
+  }
+
+  /**
+   * Checks if a file starts with the magic number of a binary animation.
+   *
+   * @param file the file to check.
+   * @return true if the file looks like a binary animation.
+   * @throws IOException if the file cannot be read.
+   */
+  public static boolean isBinary(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      while (magic.hasRemaining() && channel.read(magic) >= 0) {
+        // keep reading until the magic number is complete or the file ends
+      }
+      return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+    }
+  }
+
+  /**
+   * Reads a binary animation file and builds the animation with the given builder.  The whole
+   * file is read into one buffer through a FileChannel and decoded from there.
+   *
+   * @param file    the file to read.
+   * @param builder a builder to help construct the animation.
+   * @param <Doc>   the main model interface type describing animations.
+   * @return the animation built by the builder.
+   * @throws IOException if the file cannot be read.
+   * @throws IllegalStateException if the file is not a valid binary animation.
+   */
+  public static <Doc> Doc readFile(Path file, AnimationBuilder<Doc> builder) throws IOException {
+    Objects.requireNonNull(file, "Must have non-null file");
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IllegalStateException("Binary animation is too large: " + size + " bytes");
+      }
+      ByteBuffer buffer = ByteBuffer.allocate((int) size);
+      while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+        // keep reading until the buffer is full or the file ends
+      }
+      buffer.flip();
+      return read(buffer, builder);
+    }
+  }
+
+  /**
+   * Builds an animation from a binary animation held in a buffer, starting at its position.  The
+   * position and byte order of the buffer are left unchanged.
+   *
+   * @param buffer  the binary animation.
+   * @param builder a builder to help construct the animation.
+   * @param <Doc>   the main model interface type describing animations.
+   * @return the animation built by the builder.
+   * @throws IllegalStateException if the buffer does not hold a valid binary animation.
+   */
+  public static <Doc> Doc read(ByteBuffer buffer, AnimationBuilder<Doc> builder) {
+    Objects.requireNonNull(buffer, "Must have non-null buffer");
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    ByteBuffer in = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    Table table = readTable(in, in.limit());
+    builder.setBounds(table.x, table.y, table.width, table.height);
+    for (int shape = 0; shape < table.names.length; shape++) {
+      builder.declareShape(table.names[shape], table.types[shape].toString());
+    }
+
+    in.position(table.offset);
+    IntBuffer records = in.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    int[] m = new int[MOTION_INTS];
+    for (int shape = 0; shape < table.names.length; shape++) {
+      String name = table.names[shape];
+      for (int i = 0; i < table.counts[shape]; i++) {
+        records.get(m);
+        builder.addMotion(name, m[0], m[1], m[2], m[3], m[4], m[5], m[6], m[7],
+            m[8], m[9], m[10], m[11], m[12], m[13], m[14], m[15]);
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Reads the header and shape table of a binary animation, and checks that the file is long
+   * enough to hold all of its motions.
+   *
+   * @param buffer the start of the binary animation from its position, at least up to the first
+   *               motion.  The position and byte order of the buffer are left unchanged.
+   * @param size   length of the whole binary animation in bytes.
+   * @return the canvas and shape table.
+   * @throws IllegalStateException if the buffer does not start a valid binary animation.
+   */
+  public static Table readTable(ByteBuffer buffer, long size) {
+    ByteBuffer in = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC) {
+      throw new IllegalStateException("Not a binary animation");
+    }
+    int version = in.getInt();
+    if (version != VERSION) {
+      throw new IllegalStateException("Unsupported binary animation version: " + version);
+    }
+    int x = in.getInt();
+    int y = in.getInt();
+    int width = in.getInt();
+    int height = in.getInt();
+    int shapes = in.getInt();
+    int motions = in.getInt();
+    int offset = in.getInt();
+    if (shapes < 0 || motions < 0 || offset < HEADER_BYTES || offset > in.limit()
+        || offset + (long) motions * MOTION_INTS * Integer.BYTES > size) {
+      throw new IllegalStateException("Binary animation is truncated");
+    }
+
+    ShapeType[] all = ShapeType.values();
+    String[] names = new String[shapes];
+    ShapeType[] types = new ShapeType[shapes];
+    int[] counts = new int[shapes];
+    long total = 0;
+    for (int shape = 0; shape < shapes; shape++) {
+      if (in.position() + 3L * Integer.BYTES > offset) {
+        throw new IllegalStateException("Binary animation is truncated");
+      }
+      int type = in.getInt();
+      counts[shape] = in.getInt();
+      int length = in.getInt();
+      if (type < 0 || type >= all.length || counts[shape] < 0 || length < 0
+          || in.position() + (long) padded(length) > offset) {
+        throw new IllegalStateException("Shape " + shape + ": invalid entry in shape table");
+      }
+      byte[] name = new byte[length];
+      in.get(name);
+      in.position(in.position() + padded(length) - length);
+      names[shape] = new String(name, StandardCharsets.UTF_8);
+      types[shape] = all[type];
+      total += counts[shape];
+    }
+    if (total != motions) {
+      throw new IllegalStateException("Shape table lists " + total + " motions instead of "
+          + motions);
+    }
+    return new Table(x, y, width, height, names, types, counts, offset);
+  }
+}
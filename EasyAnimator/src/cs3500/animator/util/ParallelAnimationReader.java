@@ -0,0 +1,302 @@
+package cs3500.animator.util;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Reads large animation files on several threads.  The file is memory-mapped and split into
+ * chunks that each start at the beginning of a line, and each chunk is parsed by
+ * AnimationReader.parseFile on the common fork-join pool into a buffer of its own that records
+ * every command.  The buffers are then replayed into the builder one chunk after the other, so the
+ * builder sees the same calls in the same order as when the file is read in one piece: a motion
+ * is only added after the shape line that declares it, and the motions of each shape keep their
+ * order in the file.
+ *
+ * <p>A command can span lines, so a chunk boundary can fall inside one.  The chunk before it then
+ * runs out of input in the middle of the command, so whenever any chunk fails to parse, the whole
+ * file is read again in one piece, which gives exactly the error that the sequential reader
+ * reports.  Files smaller than two chunks are always read in one piece.  The file is decoded as
+ * UTF-8, whose line ends cannot be part of another character.</p>
+ */
+public final class ParallelAnimationReader {
+
+  private static final long MIN_CHUNK = 1 << 20;
+  private static final long MAX_CHUNK = 1 << 30;
+
+  private ParallelAnimationReader() {
+  }
+
+  /**
+   * Reads an animation file and builds the animation with the given builder, parsing chunks of
+   * the file in parallel on the common fork-join pool when the file is large enough.
+   *
+   * @param file    the file to read.
+   * @param builder a builder to help construct the animation.
+   * @param <Doc>   the main model interface type describing animations.
+   * @return the animation built by the builder.
+   * @throws IOException if the file cannot be read.
+   * @throws IllegalStateException if the file is not a valid animation.
+   */
+  public static <Doc> Doc parseFile(Path file, AnimationBuilder<Doc> builder)
+      throws IOException {
+    int chunks = 4 * ForkJoinPool.getCommonPoolParallelism();
+    return parseFile(file, builder, chunks, MIN_CHUNK);
+  }
+
+  /**
+   * Reads an animation file in at most the given number of chunks, none smaller than the given
+   * size unless the file is.
+   *
+   * @param file     the file to read.
+   * @param builder  a builder to help construct the animation.
+   * @param chunks   largest number of chunks to split the file into.
+   * @param minChunk smallest size of a chunk in bytes.
+   * @param <Doc>    the main model interface type describing animations.
+   * @return the animation built by the builder.
+   * @throws IOException if the file cannot be read.
+   */
+  static <Doc> Doc parseFile(Path file, AnimationBuilder<Doc> builder, int chunks,
+      long minChunk) throws IOException {
+    Objects.requireNonNull(file, "Must have non-null file");
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long count = Math.max(Math.min(chunks, size / minChunk),
+          (size + MAX_CHUNK - 1) / MAX_CHUNK);
+      long[] bounds = boundaries(channel, size, (int) count);
+      if (bounds.length <= 2) {
+        return parseSequential(file, builder);
+      }
+      Recorder[] recorders = new Recorder[bounds.length - 1];
+      List<ForkJoinTask<?>> tasks = new ArrayList<>();
+      for (int i = 0; i < recorders.length; i++) {
+        ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, bounds[i],
+            bounds[i + 1] - bounds[i]);
+        Recorder recorder = new Recorder();
+        recorders[i] = recorder;
+        tasks.add(new RecursiveAction() {
+          @Override
+          protected void compute() {
+            recorder.parse(chunk);
+          }
+        });
+      }
+      ForkJoinTask.invokeAll(tasks);
+      for (Recorder recorder : recorders) {
+        if (recorder.failed) {
+          return parseSequential(file, builder);
+        }
+      }
+      for (Recorder recorder : recorders) {
+        recorder.replay(builder);
+      }
+      return builder.build();
+    }
+  }
+
+  private static <Doc> Doc parseSequential(Path file, AnimationBuilder<Doc> builder)
+      throws IOException {
+    try (Reader reader = new InputStreamReader(Files.newInputStream(file),
+        StandardCharsets.UTF_8)) {
+      return AnimationReader.parseFile(reader, builder);
+    }
+  }
+
+  /**
+   * Splits a file into chunks of about the same size that each start at the beginning of a line.
+   *
+   * @return the offsets where the chunks start, followed by the size of the file, without empty
+   *     chunks.
+   */
+  private static long[] boundaries(FileChannel channel, long size, int count)
+      throws IOException {
+    long[] bounds = new long[Math.max(count, 1) + 1];
+    int n = 1;
+    ByteBuffer window = ByteBuffer.allocate(4096);
+    for (int i = 1; i < count; i++) {
+      long at = Math.max(bounds[n - 1], size / count * i);
+      // move forward to just after the next line end
+      long start = size;
+      while (at < size && start == size) {
+        window.clear();
+        int read = channel.read(window, at);
+        if (read <= 0) {
+          break;
+        }
+        for (int j = 0; j < read; j++) {
+          if (window.get(j) == '\n') {
+            start = at + j + 1;
+            break;
+          }
+        }
+        at += read;
+      }
+      if (start > bounds[n - 1] && start < size) {
+        bounds[n++] = start;
+      }
+    }
+    bounds[n++] = size;
+    return Arrays.copyOf(bounds, n);
+  }
+
+  /**
+   * Builder that records the commands of one chunk, to be replayed into the real builder once
+   * every chunk has been parsed.  Names and types are kept in one list, and the canvas, shape and
+   * motion commands are written to an int array as a code followed by their integers.
+   */
+  private static final class Recorder implements AnimationBuilder<Recorder> {
+
+    private static final int CANVAS = 0;
+    private static final int SHAPE = 1;
+    private static final int MOTION = 2;
+
+    private int[] ops = new int[1 << 12];
+    private int size;
+    private final List<String> names = new ArrayList<>();
+    private boolean failed;
+
+    /**
+     * Parses a chunk, remembering whether it could be parsed on its own.  A chunk that starts in
+     * the middle of a command can fail in any way the reader can, such as with a
+     * NoSuchElementException when it holds only the last line of a command and no line end.
+     */
+    private void parse(ByteBuffer chunk) {
+      try {
+        AnimationReader.parseFile(new ByteReadable(chunk), this);
+      } catch (RuntimeException e) {
+        failed = true;
+      }
+    }
+
+    private void ensure(int more) {
+      if (size + more > ops.length) {
+        ops = Arrays.copyOf(ops, Math.max(2 * ops.length, size + more));
+      }
+    }
+
+    @Override
+    public Recorder build() {
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<Recorder> setBounds(int x, int y, int width, int height) {
+      ensure(5);
+      ops[size++] = CANVAS;
+      ops[size++] = x;
+      ops[size++] = y;
+      ops[size++] = width;
+      ops[size++] = height;
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<Recorder> declareShape(String name, String type) {
+      ensure(1);
+      ops[size++] = SHAPE;
+      names.add(name);
+      names.add(type);
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<Recorder> addMotion(String name, int t1, int x1, int y1, int w1,
+        int h1, int r1, int g1, int b1, int t2, int x2, int y2, int w2, int h2, int r2, int g2,
+        int b2) {
+      ensure(17);
+      ops[size++] = MOTION;
+      ops[size++] = t1;
+      ops[size++] = x1;
+      ops[size++] = y1;
+      ops[size++] = w1;
+      ops[size++] = h1;
+      ops[size++] = r1;
+      ops[size++] = g1;
+      ops[size++] = b1;
+      ops[size++] = t2;
+      ops[size++] = x2;
+      ops[size++] = y2;
+      ops[size++] = w2;
+      ops[size++] = h2;
+      ops[size++] = r2;
+      ops[size++] = g2;
+      ops[size++] = b2;
+      names.add(name);
+      return this;
+    }
+
+    /**
+     * Makes the recorded calls on another builder, in the order they were recorded.
+     */
+    private void replay(AnimationBuilder<?> builder) {
+      int[] o = ops;
+      int name = 0;
+      for (int i = 0; i < size; ) {
+        switch (o[i]) {
+          case CANVAS:
+            builder.setBounds(o[i + 1], o[i + 2], o[i + 3], o[i + 4]);
+            i += 5;
+            break;
+          case SHAPE:
+            builder.declareShape(names.get(name), names.get(name + 1));
+            name += 2;
+            i += 1;
+            break;
+          default:
+            builder.addMotion(names.get(name++), o[i + 1], o[i + 2], o[i + 3], o[i + 4],
+                o[i + 5], o[i + 6], o[i + 7], o[i + 8], o[i + 9], o[i + 10], o[i + 11],
+                o[i + 12], o[i + 13], o[i + 14], o[i + 15], o[i + 16]);
+            i += 17;
+            break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Readable that decodes a buffer of UTF-8 bytes.
+   */
+  private static final class ByteReadable implements Readable {
+
+    private final ByteBuffer bytes;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private boolean flushed;
+
+    private ByteReadable(ByteBuffer bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    public int read(CharBuffer target) {
+      if (flushed) {
+        return -1;
+      }
+      int start = target.position();
+      decoder.decode(bytes, target, true);
+      if (!bytes.hasRemaining() && decoder.flush(target).isUnderflow()) {
+        flushed = true;
+      }
+      int read = target.position() - start;
+      return read == 0 && flushed ? -1 : read;
+    }
+  }
+}
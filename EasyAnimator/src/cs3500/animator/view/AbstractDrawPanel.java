@@ -1,17 +1,12 @@
 package cs3500.animator.view;
 
+import cs3500.animator.model.FrameBuffer;
 import cs3500.animator.model.IAnimation;
-import cs3500.animator.model.IShape;
-import cs3500.animator.model.Motion;
-import cs3500.animator.model.Polygon;
+import cs3500.animator.model.PlaybackCursor;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Rectangle;
 import java.awt.event.ActionListener;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 import javax.swing.Timer;
@@ -29,7 +24,11 @@ public abstract class AbstractDrawPanel extends JPanel implements ActionListener
   protected IAnimation model;
   protected int speed;
   protected IAnimation.Bounds bounds;
-  Map<String, IShape> shapes;
+  protected FrameBuffer frame;
+  private final PlaybackCursor cursor;
+  private final FrameLayer layer;
+  private Rectangle culled;
+  private Rectangle dirty;
   protected int n;
   protected Timer tm;
   private boolean fill = true;
@@ -49,52 +48,65 @@ public abstract class AbstractDrawPanel extends JPanel implements ActionListener
     this.model = model;
     this.speed = speed;
     this.bounds = bounds;
-    this.shapes = model.getFrameAt(count);
+    this.cursor = model.getPlaybackCursor();
+    this.layer = new FrameLayer(model);
+    this.frame = cursor.seek(count);
+    layer.update(this.frame);
     this.n = 1000 / speed;
     this.tm = new Timer(n, this);
   }
 
+  /**
+   * Draws the panel from its offscreen layer, after redrawing the parts of the layer that changed
+   * since the last frame.  Only the region being repainted is copied to the screen.
+   */
   @Override
   public void paintComponent(Graphics g) {
-    super.paintComponent(g);
-    for (IShape shape : shapes.values()) {
-      g.setColor(shape.getColor());
-      switch (shape.getShapeType()) {
-        case Rectangle:
-          if (fill) {
-            g.fillRect(shape.getX(), shape.getY(), shape.getWidth(), shape.getHeight());
-          } else {
-            g.drawRect(shape.getX(), shape.getY(), shape.getWidth(), shape.getHeight());
-          }
-          break;
-        case Ellipse:
-          // x, y are corner position; width and height are diameters
-          if (fill) {
-            g.fillOval(shape.getX(), shape.getY(), shape.getWidth(), shape.getHeight());
-          } else {
-            g.drawOval(shape.getX(), shape.getY(), shape.getWidth(), shape.getHeight());
-          }
-          break;
-        case Plus:
-          Polygon ps = (Polygon) shape;
-          ps.setupXYCoords();
-          int[] xs = ps.getXCoords();
-          int[] ys = ps.getYCoords();
-          if (fill) {
-            g.fillPolygon(xs, ys, xs.length);
-          } else {
-            g.drawPolygon(xs, ys, xs.length);
-          }
-          break;
-        default:
-          break;
-      }
+    if (getWidth() <= 0 || getHeight() <= 0) {
+      return;
     }
+    cull(getVisibleRect());
+    g.drawImage(layer.draw(getWidth(), getHeight(), frame, fill, getBackground()), 0, 0, null);
     tm.start();
   }
 
+  /**
+   * Limits the frames to the shapes that can be inside the part of the panel that the scroll pane
+   * shows.  The shapes are looked up with a margin of half the visible size on every side, so
+   * scrolling only looks them up again, and redraws the whole layer, once the visible part leaves
+   * that margin.  When the whole panel is visible every shape is kept.
+   *
+   * @param visible part of the panel that is visible.
+   */
+  private void cull(Rectangle visible) {
+    Rectangle whole = new Rectangle(0, 0, getWidth(), getHeight());
+    Rectangle next;
+    if (visible.contains(whole)) {
+      next = null;
+    } else if (culled != null && culled.contains(visible)) {
+      return;
+    } else {
+      next = new Rectangle(visible);
+      next.grow(visible.width / 2, visible.height / 2);
+    }
+    if (next == null ? culled == null : next.equals(culled)) {
+      return;
+    }
+    culled = next;
+    if (next == null) {
+      cursor.clearViewport();
+    } else {
+      cursor.setViewport(next.x, next.y, next.width, next.height);
+    }
+    this.frame = cursor.seek(frame.getTime());
+    layer.update(frame);
+    layer.invalidate();
+    dirty = null;
+  }
+
   public void fill() {
     this.fill = !this.fill;
+    layer.invalidate();
   }
 
 
@@ -121,16 +133,32 @@ public abstract class AbstractDrawPanel extends JPanel implements ActionListener
 
   @Override
   public Dimension getPreferredSize() {
-    return new Dimension(bounds.maxX + 50, bounds.maxY + 50);
+    return new Dimension(Math.max(0, bounds.maxX) + 50, Math.max(0, bounds.maxY) + 50);
   }
 
   /**
-   * Sets the Map of IShape shapes and their ids being animated.
+   * Moves the playback cursor to the given time and shows its frame.  Moving forward one tick only
+   * updates the shapes that are on screen; moving back, when restarting or looping, looks every
+   * shape up again.
    *
-   * @param shapes Map of shape ids and IShape shapes.
+   * @param timeUnit time of the frame to show.
    */
-  protected void setShapes(Map<String, IShape> shapes) {
-    this.shapes = shapes;
+  protected void showFrame(int timeUnit) {
+    this.frame = cursor.seek(timeUnit);
+    dirty = layer.update(frame);
+  }
+
+  /**
+   * Repaints the part of the panel that changed in the frame last shown: the union of the old and
+   * new bounding boxes of the shapes that changed, nothing if no shape changed, or the whole panel
+   * if the layer has to be redrawn.
+   */
+  protected void repaintFrame() {
+    if (layer.isStale()) {
+      repaint();
+    } else if (dirty != null) {
+      repaint(dirty);
+    }
   }
 
   protected boolean looping = false;
@@ -0,0 +1,166 @@
+package cs3500.animator.view;
+
+import cs3500.animator.model.FrameBuffer;
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.model.PlaybackCursor;
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+import javax.swing.JFrame;
+
+/**
+ * Represents a visual view of an animation that draws with active rendering instead of a Swing
+ * timer.  A dedicated thread draws each frame into the back buffer of a BufferStrategy and shows
+ * it, and works out which tick to draw from the time elapsed since playback started, measured
+ * with System.nanoTime.  When the thread falls behind, or the speed is higher than the frame
+ * rate, the ticks in between are skipped, so playback keeps to wall-clock time at any speed.
+ * Like VisualViewI, it plays the animation once and then keeps showing the last frame.
+ */
+public final class ActiveVisualViewI extends JFrame implements IAnimationView {
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+  private static final int MAX_FRAMES_PER_SECOND = 120;
+  private static final long IDLE_NANOS = 50_000_000L;
+
+  private final IAnimation model;
+  private final int speed;
+  private final IAnimation.Bounds bounds;
+  private final Canvas canvas = new Canvas();
+  private volatile boolean running;
+
+  /**
+   * Constructor for ActiveVisualViewI that takes in the parameters required to create a visual
+   * representation of the animation, the same as VisualViewI.
+   *
+   * @param model IAnimation model that the visual view is being created for.
+   * @param ap    Appendable to display textual information.
+   * @param x     x coordinate of canvas.
+   * @param y     y coordinate of canvas.
+   * @param w     width of canvas.
+   * @param h     height of canvas.
+   * @param speed speed of animation in ticks per second.
+   */
+  public ActiveVisualViewI(IAnimation model, Appendable ap, int x, int y, int w, int h,
+      int speed) {
+    super(String.format("Animator. (%d, %d)  %d x %d", x, y, w, h));
+    if (model == null) {
+      throw new IllegalArgumentException("Model cannot be null.");
+    }
+    if (ap == null) {
+      throw new IllegalArgumentException("Appendable cannot be null.");
+    }
+    if (w <= 0 || h <= 0) {
+      throw new IllegalArgumentException("Canvas dimensions must be greater than 0.");
+    }
+    if (speed <= 0) {
+      throw new IllegalArgumentException("Speed must be greater than 0.");
+    }
+    this.model = model;
+    this.speed = speed;
+    this.bounds = model.getAnimationBounds();
+    canvas.setPreferredSize(new Dimension(Math.max(0, bounds.maxX) + 50,
+        Math.max(0, bounds.maxY) + 50));
+    canvas.setIgnoreRepaint(true);
+    this.setIgnoreRepaint(true);
+    this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+    this.setResizable(false);
+    this.add(canvas);
+    this.pack();
+    this.setLocationRelativeTo(null);
+  }
+
+  @Override
+  public void render() {
+    this.setVisible(true);
+    canvas.createBufferStrategy(2);
+    running = true;
+    Thread thread = new Thread(this::renderLoop, "animation-render");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public void dispose() {
+    running = false;
+    super.dispose();
+  }
+
+  /**
+   * Gets the tick to show after some time has passed since playback started.
+   *
+   * @param elapsedNanos nanoseconds since playback started.
+   * @param speed        ticks per second.
+   * @return the tick to show.
+   */
+  static long tickAt(long elapsedNanos, int speed) {
+    // split the multiplication so that long playbacks at high speeds do not overflow
+    long seconds = elapsedNanos / NANOS_PER_SECOND;
+    long nanos = elapsedNanos % NANOS_PER_SECOND;
+    return seconds * speed + nanos * speed / NANOS_PER_SECOND;
+  }
+
+  /**
+   * Gets the time at which a tick starts, measured from the start of playback.
+   *
+   * @param tick  tick to find the start of.
+   * @param speed ticks per second.
+   * @return nanoseconds from the start of playback until the tick starts.
+   */
+  static long startOf(long tick, int speed) {
+    long seconds = tick / speed;
+    long rest = tick % speed;
+    return seconds * NANOS_PER_SECOND + (rest * NANOS_PER_SECOND + speed - 1) / speed;
+  }
+
+  /**
+   * Draws frames until the window is closed.  Sleeps until the next tick starts, but never draws
+   * more than MAX_FRAMES_PER_SECOND frames a second.  Once the last tick has been shown it only
+   * redraws occasionally, in case the window was covered.
+   */
+  private void renderLoop() {
+    BufferStrategy strategy = canvas.getBufferStrategy();
+    PlaybackCursor cursor = model.getPlaybackCursor();
+    StaticLayers layers = new StaticLayers(model);
+    long lastTick = bounds.maxT + 2;
+    long minFrameNanos = NANOS_PER_SECOND / MAX_FRAMES_PER_SECOND;
+    long start = System.nanoTime();
+    while (running) {
+      long frameStart = System.nanoTime();
+      long tick = Math.min(tickAt(frameStart - start, speed), lastTick);
+      draw(strategy, layers, cursor.seek((int) tick));
+      long wake;
+      if (tick >= lastTick) {
+        wake = frameStart + IDLE_NANOS;
+      } else {
+        wake = Math.max(start + startOf(tick + 1, speed), frameStart + minFrameNanos);
+      }
+      long sleep = wake - System.nanoTime();
+      if (sleep > 0) {
+        LockSupport.parkNanos(sleep);
+      }
+    }
+  }
+
+  /**
+   * Draws one frame into the back buffer and shows it, drawing again if the buffer was lost.
+   */
+  private void draw(BufferStrategy strategy, StaticLayers layers, FrameBuffer frame) {
+    do {
+      do {
+        Graphics g = strategy.getDrawGraphics();
+        try {
+          Color background = canvas.getBackground() == null ? Color.WHITE : canvas.getBackground();
+          layers.paint(g, frame, true, background, canvas.getWidth(), canvas.getHeight(), null);
+        } finally {
+          g.dispose();
+        }
+      } while (strategy.contentsRestored());
+      strategy.show();
+    } while (strategy.contentsLost());
+    Toolkit.getDefaultToolkit().sync();
+  }
+}
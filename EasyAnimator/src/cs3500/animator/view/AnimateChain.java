@@ -0,0 +1,195 @@
+package cs3500.animator.view;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The animations of one attribute of a shape, collected so that they can be written as few
+ * animate elements as possible.  Each animation that starts from the value the previous one ended
+ * on continues the same element, with the time in between held at that value, and is written as
+ * one more entry of its values and keyTimes lists.  An entry that lies exactly on the line between
+ * its neighbours is dropped, since the attribute is interpolated through it anyway, and an element
+ * with only two entries left is written with from and to like a single animation.  An animation
+ * that takes no time jumps to its end value, so it becomes two entries at the same time, and is
+ * skipped altogether when it starts an element, where the value is set at the start anyway.  Times
+ * are kept in ticks and only converted to milliseconds when the element is written, so each key
+ * time is within half a millisecond of the tick it stands for.
+ *
+ * <p>Points are only joined when one animation starts as the last one ends, since holding a list of
+ * corners for a while costs about as much as starting a new element.</p>
+ */
+final class AnimateChain {
+
+  /**
+   * The kind of value that an attribute holds, which decides how its values are written.
+   */
+  enum Kind {
+    NUMBER(1), COLOR(3), POINTS(24);
+
+    private final int width;
+
+    Kind(int width) {
+      this.width = width;
+    }
+  }
+
+  private final String attribute;
+  private final Kind kind;
+  private final double msPerUnit;
+  private final int width;
+  private int[] times = new int[8];
+  private int[] values;
+  private int count;
+
+  /**
+   * Constructor for AnimateChain that takes in the attribute it animates.
+   *
+   * @param attribute name of the attribute.
+   * @param kind      kind of value the attribute holds.
+   * @param msPerUnit milliseconds per tick of the animation.
+   */
+  AnimateChain(String attribute, Kind kind, double msPerUnit) {
+    this.attribute = attribute;
+    this.kind = kind;
+    this.msPerUnit = msPerUnit;
+    this.width = kind.width;
+    this.values = new int[8 * width];
+  }
+
+  /**
+   * Adds an animation of the attribute, writing out the element so far if the animation does not
+   * continue it.  Animations must be added in order of time, without overlapping.
+   *
+   * @param out  Writer for the SVG text.
+   * @param t1   start time of the animation, in ticks.
+   * @param t2   end time of the animation, in ticks.
+   * @param from value at the start of the animation.
+   * @param to   value at the end of the animation.
+   * @throws IOException for bad appendable.
+   */
+  void add(SVGWriter out, int t1, int t2, int[] from, int[] to) throws IOException {
+    if (count > 0 && (t1 < times[count - 1] || !endsOn(from)
+        || kind == Kind.POINTS && t1 > times[count - 1])) {
+      flush(out);
+    }
+    if (count == 0 || t1 > times[count - 1]) {
+      push(t1, from);
+    }
+    push(t2, to);
+  }
+
+  /**
+   * Writes out the element collected so far, if there is one.
+   *
+   * @param out Writer for the SVG text.
+   * @throws IOException for bad appendable.
+   */
+  void flush(SVGWriter out) throws IOException {
+    if (count >= 2) {
+      write(out);
+    }
+    count = 0;
+  }
+
+  /**
+   * Checks if the last entry has the given value.
+   */
+  private boolean endsOn(int[] value) {
+    int base = (count - 1) * width;
+    for (int i = 0; i < width; i++) {
+      if (values[base + i] != value[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Adds an entry, first dropping the last one if it lies on the line from the one before it to
+   * the new one.
+   */
+  private void push(int time, int[] value) {
+    if (count >= 2 && between(time, value)) {
+      count--;
+    }
+    if (count == times.length) {
+      times = Arrays.copyOf(times, 2 * count);
+      values = Arrays.copyOf(values, 2 * count * width);
+    }
+    times[count] = time;
+    System.arraycopy(value, 0, values, count * width, width);
+    count++;
+  }
+
+  /**
+   * Checks if the last entry lies exactly on the line from the entry before it to a new one.
+   */
+  private boolean between(int time, int[] value) {
+    long t0 = times[count - 2];
+    long span = time - t0;
+    long elapsed = times[count - 1] - t0;
+    int before = (count - 2) * width;
+    int last = (count - 1) * width;
+    for (int i = 0; i < width; i++) {
+      long v0 = values[before + i];
+      if ((values[last + i] - v0) * span != (value[i] - v0) * elapsed) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void write(SVGWriter out) throws IOException {
+    int skip = 0;
+    while (count - skip > 2 && times[skip] == times[skip + 1]) {
+      skip++;
+    }
+    int first = times[skip];
+    int last = times[count - 1];
+    out.append("<animate attributeType=\"xml\" begin=\"").append((int) (first * msPerUnit))
+        .append("ms\" dur=\"").append((int) ((last - first) * msPerUnit))
+        .append("ms\" attributeName=\"").append(attribute);
+    if (count - skip == 2) {
+      if (kind != Kind.POINTS || skip > 0) {
+        out.append("\" from=\"");
+        value(out, skip);
+      }
+      out.append("\" to=\"");
+      value(out, skip + 1);
+    } else {
+      out.append("\" values=\"");
+      for (int i = skip; i < count; i++) {
+        if (i > skip) {
+          out.append(';');
+        }
+        value(out, i);
+      }
+      out.append("\" keyTimes=\"");
+      for (int i = skip; i < count; i++) {
+        if (i > skip) {
+          out.append(';');
+        }
+        out.appendFraction(times[i] - first, last - first,
+            (int) Math.ceil((last - first) * msPerUnit));
+      }
+    }
+    out.append("\" fill=\"freeze\" />\n");
+  }
+
+  private void value(SVGWriter out, int entry) throws IOException {
+    int base = entry * width;
+    switch (kind) {
+      case COLOR:
+        out.appendRgb(values[base], values[base + 1], values[base + 2]);
+        break;
+      case POINTS:
+        for (int i = 0; i < width; i += 2) {
+          out.append(values[base + i]).append(',').append(values[base + i + 1]).append(' ');
+        }
+        break;
+      default:
+        out.append(values[base]);
+        break;
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package cs3500.animator.view;
+
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.model.IShape;
+import cs3500.animator.model.Motion;
+import cs3500.animator.util.BinaryAnimationReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a view of an animation that saves it to a file in the binary format read by
+ * BinaryAnimationReader, so that it can be loaded again without parsing any text.  The canvas,
+ * every shape and every motion are saved, but not the speed, which is chosen when the animation is
+ * shown, just like for the text format.  The file is written through a FileChannel from one
+ * buffer that is reused until the whole file is written.
+ */
+public final class BinaryViewI implements IAnimationView {
+
+  private static final int BUFFER = 1 << 16;
+
+  private final IAnimation model;
+  private final int x;
+  private final int y;
+  private final int width;
+  private final int height;
+  private final Path file;
+
+  /**
+   * Constructor for BinaryViewI that takes in the canvas of the animation and the file to save
+   * it to.
+   *
+   * @param model  IAnimation model to save.
+   * @param x      x coordinate of the canvas.
+   * @param y      y coordinate of the canvas.
+   * @param width  width of the canvas.
+   * @param height height of the canvas.
+   * @param file   name of the file to write, replaced if it exists.
+   */
+  public BinaryViewI(IAnimation model, int x, int y, int width, int height, String file) {
+    if (model == null) {
+      throw new IllegalArgumentException("Model cannot be null.");
+    }
+    if (file == null) {
+      throw new IllegalArgumentException("File cannot be null.");
+    }
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Canvas dimensions must be greater than 0.");
+    }
+    this.model = model;
+    this.x = x;
+    this.y = y;
+    this.width = width;
+    this.height = height;
+    this.file = Paths.get(file);
+  }
+
+  @Override
+  public void render() throws IOException {
+    Map<String, List<Motion>> description = model.getAnimationDescription();
+    byte[][] names = new byte[description.size()][];
+    int shape = 0;
+    int motions = 0;
+    int offset = BinaryAnimationReader.HEADER_BYTES;
+    for (Map.Entry<String, List<Motion>> entry : description.entrySet()) {
+      names[shape] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+      offset += 3 * Integer.BYTES + BinaryAnimationReader.padded(names[shape].length);
+      motions += entry.getValue().size();
+      shape++;
+    }
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer out = ByteBuffer.allocate(BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+      out.putInt(BinaryAnimationReader.MAGIC).putInt(BinaryAnimationReader.VERSION)
+          .putInt(x).putInt(y).putInt(width).putInt(height)
+          .putInt(description.size()).putInt(motions).putInt(offset);
+      shape = 0;
+      for (Map.Entry<String, List<Motion>> entry : description.entrySet()) {
+        byte[] name = names[shape++];
+        out = room(channel, out, 3 * Integer.BYTES + BinaryAnimationReader.padded(name.length));
+        out.putInt(model.getShapeType(entry.getKey()).ordinal()).putInt(entry.getValue().size())
+            .putInt(name.length).put(name);
+        for (int pad = name.length; pad < BinaryAnimationReader.padded(name.length); pad++) {
+          out.put((byte) 0);
+        }
+      }
+      for (List<Motion> list : description.values()) {
+        for (Motion motion : list) {
+          out = room(channel, out, BinaryAnimationReader.MOTION_INTS * Integer.BYTES);
+          out.putInt(motion.getStartTime());
+          put(out, motion.getStartShape());
+          out.putInt(motion.getEndTime());
+          put(out, motion.getEndShape());
+        }
+      }
+      drain(channel, out);
+    }
+  }
+
+  /**
+   * Writes the state of a shape at one end of a motion, in the order of addMotion.
+   */
+  private static void put(ByteBuffer out, IShape shape) {
+    out.putInt(shape.getX()).putInt(shape.getY()).putInt(shape.getWidth())
+        .putInt(shape.getHeight()).putInt(shape.getColor().getRed())
+        .putInt(shape.getColor().getGreen()).putInt(shape.getColor().getBlue());
+  }
+
+  /**
+   * Makes sure that the buffer has room for a number of bytes, writing out what it holds if not.
+   * Returns a larger buffer if even an empty one would be too small.
+   */
+  private static ByteBuffer room(FileChannel channel, ByteBuffer out, int bytes)
+      throws IOException {
+    if (out.remaining() >= bytes) {
+      return out;
+    }
+    drain(channel, out);
+    if (out.capacity() < bytes) {
+      return ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return out;
+  }
+
+  private static void drain(FileChannel channel, ByteBuffer out) throws IOException {
+    out.flip();
+    while (out.hasRemaining()) {
+      channel.write(out);
+    }
+    out.clear();
+  }
+}
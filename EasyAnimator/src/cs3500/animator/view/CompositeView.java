@@ -2,7 +2,6 @@ package cs3500.animator.view;
 
 import cs3500.animator.model.IAnimation;
 import cs3500.animator.model.IAnimation.Bounds;
-import cs3500.animator.model.Motion;
 import cs3500.animator.util.SlomoReader;
 
 import java.awt.*;
@@ -15,7 +14,6 @@ import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import java.awt.event.ItemListener;
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 /**
@@ -317,7 +315,6 @@ public class CompositeView extends AbstractViews implements ActionListener, Chan
      */
     private List<SlomoReader.SlowMotion> slowMotions = new ArrayList();
     private boolean fastFwd = false;
-    private List<Integer> orderedFrames = null;
 
     DrawPanelComposite(JFrame frame, IAnimation model, int speed, Bounds bounds, Readable slomoRd) {
       super(frame, model, speed, bounds);
@@ -325,21 +322,13 @@ public class CompositeView extends AbstractViews implements ActionListener, Chan
     }
 //
     private int getNextFrame() {
-      ++count;
       if (!fastFwd) {
-        return count;
-      } else {
-        // find the first start/end frame number in the future, and move current frame to it
-        for (int frame : orderedFrames) {
-          if (frame < count) {
-            continue;
-          } else {
-            count = frame;
-            break;
-          }
-        }
-        return count;
+        return ++count;
       }
+      // move to the first start/end frame number in the future, if there is one
+      int next = model.nextKeyframe(count);
+      count = next < 0 ? count + 1 : next;
+      return count;
     }
 
     private void setSlomoInput(Readable slomoRd) {
@@ -361,24 +350,6 @@ public class CompositeView extends AbstractViews implements ActionListener, Chan
 
     public void discrete(boolean fastFwd) {
       this.fastFwd = fastFwd;
-      if (this.fastFwd && this.orderedFrames == null) {
-        orderedFrames = getFastForwardFrames();
-      }
-    }
-
-    private List<Integer> getFastForwardFrames() {
-      Map<String, List<Motion>> animation = model.getAnimationDescription();
-      List<Integer> frames = new ArrayList<>();
-      for (List<Motion> motions : animation.values()) {
-        for (Motion motion : motions) {
-          frames.add(motion.getStartTime());
-          frames.add(motion.getEndTime());
-        }
-      }
-      // remove possible duplicates
-      frames = frames.stream().distinct().collect(Collectors.toList());
-      Collections.sort(frames);
-      return frames;
     }
 
     private int discreteCounter = 0;
@@ -413,13 +384,13 @@ public class CompositeView extends AbstractViews implements ActionListener, Chan
             tm.addActionListener(this);
           }
           if (discrete) {
-            shapes = model.getFrameAt(bounds.maxT);
-            repaint();
+            showFrame(bounds.maxT);
+            repaintFrame();
           }
         } else {
           this.done = false;
-            shapes = model.getFrameAt(frameNum);
-            repaint();
+            showFrame(frameNum);
+            repaintFrame();
         }
       }
     }
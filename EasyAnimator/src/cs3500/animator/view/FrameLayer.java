@@ -0,0 +1,203 @@
+package cs3500.animator.view;
+
+import cs3500.animator.model.FrameBuffer;
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.model.ShapeType;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+/**
+ * Offscreen image of the frames shown by a draw panel, updated one changed region at a time.  Each
+ * new frame is compared with the previous one, and the union of the old and new bounding boxes of
+ * every shape that moved, resized, changed color, appeared or disappeared is marked as dirty.
+ * When the image is next drawn only the dirty region is cleared, and the shapes that overlap it
+ * are drawn again in slot order, clipped to it, so shapes that did not change stay in the image
+ * from earlier frames.  Shapes that are static for a while are not drawn again either but copied
+ * from the cached layers of StaticLayers.  The panel only needs to repaint the dirty region from
+ * the image.
+ */
+final class FrameLayer {
+
+  private final StaticLayers layers;
+  private BufferedImage image;
+  private Graphics2D g;
+  private boolean stale = true;
+  private final Rectangle clip = new Rectangle();
+
+  // dirty region as its edges, the maximums one past its last pixels, empty while min > max
+  private int dirtyMinX = Integer.MAX_VALUE;
+  private int dirtyMinY = Integer.MAX_VALUE;
+  private int dirtyMaxX = Integer.MIN_VALUE;
+  private int dirtyMaxY = Integer.MIN_VALUE;
+
+  // region changed by the frame being compared, kept the same way
+  private int minX;
+  private int minY;
+  private int maxX;
+  private int maxY;
+
+  private int size = -1;
+  private ShapeType[] types = new ShapeType[0];
+  private boolean[] visible = new boolean[0];
+  private int[] xs = new int[0];
+  private int[] ys = new int[0];
+  private int[] widths = new int[0];
+  private int[] heights = new int[0];
+  private int[] colors = new int[0];
+
+  /**
+   * Constructor for FrameLayer that takes in the animation whose frames it shows.
+   *
+   * @param model animation to ask for the static shapes.
+   */
+  FrameLayer(IAnimation model) {
+    this.layers = new StaticLayers(model);
+  }
+
+  /**
+   * Compares a frame with the previous one and marks the regions that changed as dirty.
+   *
+   * @param frame the new frame.
+   * @return the region that changed in this frame, or null if the whole image must be redrawn or
+   *     nothing changed.
+   */
+  Rectangle update(FrameBuffer frame) {
+    if (frame.size() != size) {
+      remember(frame);
+      stale = true;
+      return null;
+    }
+    minX = Integer.MAX_VALUE;
+    minY = Integer.MAX_VALUE;
+    maxX = Integer.MIN_VALUE;
+    maxY = Integer.MIN_VALUE;
+    for (int slot = 0; slot < size; slot++) {
+      boolean shown = frame.isVisible(slot);
+      if (!shown && !visible[slot]) {
+        continue;
+      }
+      if (shown && visible[slot] && types[slot] == frame.getShapeType(slot)
+          && xs[slot] == frame.getX(slot) && ys[slot] == frame.getY(slot)
+          && widths[slot] == frame.getWidth(slot) && heights[slot] == frame.getHeight(slot)
+          && colors[slot] == frame.getRGB(slot)) {
+        continue;
+      }
+      if (visible[slot]) {
+        union(xs[slot], ys[slot], widths[slot], heights[slot]);
+      }
+      if (shown) {
+        union(frame.getX(slot), frame.getY(slot), frame.getWidth(slot), frame.getHeight(slot));
+      }
+      copy(frame, slot);
+    }
+    if (stale || minX > maxX) {
+      return null;
+    }
+    dirtyMinX = Math.min(dirtyMinX, minX);
+    dirtyMinY = Math.min(dirtyMinY, minY);
+    dirtyMaxX = Math.max(dirtyMaxX, maxX);
+    dirtyMaxY = Math.max(dirtyMaxY, maxY);
+    return new Rectangle(minX, minY, maxX - minX, maxY - minY);
+  }
+
+  /**
+   * Marks the whole image as dirty, such as when the shapes switch between filled and outlined or
+   * the frames start leaving out different shapes.
+   */
+  void invalidate() {
+    stale = true;
+    clearDirty();
+    layers.invalidate();
+  }
+
+  /**
+   * Checks if the whole image will be redrawn the next time it is drawn.
+   *
+   * @return true if the whole image is dirty.
+   */
+  boolean isStale() {
+    return stale;
+  }
+
+  /**
+   * Brings the image up to date with a frame, redrawing only the dirty region, and returns it.  The
+   * frame must be the one last passed to update.
+   *
+   * @param width      width of the image.
+   * @param height     height of the image.
+   * @param frame      frame to draw.
+   * @param fill       true to fill the shapes, false to only draw their outlines.
+   * @param background color behind the shapes.
+   * @return the image, which stays owned by this layer.
+   */
+  BufferedImage draw(int width, int height, FrameBuffer frame, boolean fill, Color background) {
+    if (image == null || image.getWidth() != width || image.getHeight() != height) {
+      if (g != null) {
+        g.dispose();
+      }
+      image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+      g = image.createGraphics();
+      stale = true;
+    }
+    if (stale) {
+      g.setClip(null);
+      layers.paint(g, frame, fill, background, width, height, null);
+      stale = false;
+    } else if (dirtyMinX <= dirtyMaxX) {
+      clip.setBounds(dirtyMinX, dirtyMinY, dirtyMaxX - dirtyMinX, dirtyMaxY - dirtyMinY);
+      g.setClip(clip);
+      layers.paint(g, frame, fill, background, width, height, clip);
+    }
+    clearDirty();
+    return image;
+  }
+
+  private void clearDirty() {
+    dirtyMinX = Integer.MAX_VALUE;
+    dirtyMinY = Integer.MAX_VALUE;
+    dirtyMaxX = Integer.MIN_VALUE;
+    dirtyMaxY = Integer.MIN_VALUE;
+  }
+
+  /**
+   * Adds the pixels covered by a shape's bounding box to the region changed by the frame being
+   * compared.  Outlines are one pixel wider and taller than the shape, and shapes with a negative
+   * width or height are flipped.
+   */
+  private void union(int x, int y, int width, int height) {
+    minX = Math.min(minX, Math.min(x, x + width));
+    minY = Math.min(minY, Math.min(y, y + height));
+    maxX = Math.max(maxX, Math.max(x, x + width) + 1);
+    maxY = Math.max(maxY, Math.max(y, y + height) + 1);
+  }
+
+  private void remember(FrameBuffer frame) {
+    size = frame.size();
+    types = new ShapeType[size];
+    visible = new boolean[size];
+    xs = new int[size];
+    ys = new int[size];
+    widths = new int[size];
+    heights = new int[size];
+    colors = new int[size];
+    for (int slot = 0; slot < size; slot++) {
+      if (frame.isVisible(slot)) {
+        copy(frame, slot);
+      }
+    }
+  }
+
+  private void copy(FrameBuffer frame, int slot) {
+    visible[slot] = frame.isVisible(slot);
+    if (visible[slot]) {
+      types[slot] = frame.getShapeType(slot);
+      xs[slot] = frame.getX(slot);
+      ys[slot] = frame.getY(slot);
+      widths[slot] = frame.getWidth(slot);
+      heights[slot] = frame.getHeight(slot);
+      colors[slot] = frame.getRGB(slot);
+    }
+  }
+}
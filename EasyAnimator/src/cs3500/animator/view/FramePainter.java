@@ -0,0 +1,131 @@
+package cs3500.animator.view;
+
+import cs3500.animator.model.FrameBuffer;
+import cs3500.animator.model.Plus;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+
+/**
+ * Draws the shapes of a frame buffer onto a Graphics.  Colors and the corner arrays used for plus
+ * signs are cached between frames, so painting the same animation over and over does not allocate
+ * once every shape has been drawn in each of its colors.
+ */
+final class FramePainter {
+
+  private final int[] plusXs = new int[12];
+  private final int[] plusYs = new int[12];
+  private Color[] colors = new Color[0];
+
+  /**
+   * Draws every visible shape of a frame, in slot order.
+   *
+   * @param g     Graphics to draw on.
+   * @param frame frame buffer holding the shapes to draw.
+   * @param fill  true to fill the shapes, false to only draw their outlines.
+   */
+  void paint(Graphics g, FrameBuffer frame, boolean fill) {
+    if (colors.length < frame.size()) {
+      colors = new Color[frame.size()];
+    }
+    for (int slot = 0; slot < frame.size(); slot++) {
+      if (frame.isVisible(slot)) {
+        paintShape(g, frame, slot, fill);
+      }
+    }
+  }
+
+  /**
+   * Draws the visible shapes of a frame whose bounding boxes overlap a region, in slot order.
+   *
+   * @param g      Graphics to draw on.
+   * @param frame  frame buffer holding the shapes to draw.
+   * @param fill   true to fill the shapes, false to only draw their outlines.
+   * @param region region of the frame to draw.
+   */
+  void paint(Graphics g, FrameBuffer frame, boolean fill, Rectangle region) {
+    if (colors.length < frame.size()) {
+      colors = new Color[frame.size()];
+    }
+    for (int slot = 0; slot < frame.size(); slot++) {
+      if (frame.isVisible(slot) && overlaps(frame, slot, region)) {
+        paintShape(g, frame, slot, fill);
+      }
+    }
+  }
+
+  /**
+   * Checks if the pixels that a shape can cover, outline included, overlap a region.
+   */
+  static boolean overlaps(FrameBuffer frame, int slot, Rectangle region) {
+    int x = frame.getX(slot);
+    int y = frame.getY(slot);
+    int w = frame.getWidth(slot);
+    int h = frame.getHeight(slot);
+    int left = Math.min(x, x + w);
+    int top = Math.min(y, y + h);
+    return left <= region.x + region.width - 1 && region.x <= left + Math.abs(w)
+        && top <= region.y + region.height - 1 && region.y <= top + Math.abs(h);
+  }
+
+  /**
+   * Draws the shape in one slot of a frame.
+   *
+   * @param g     Graphics to draw on.
+   * @param frame frame buffer holding the shape.
+   * @param slot  slot of the shape.
+   * @param fill  true to fill the shape, false to only draw its outline.
+   */
+  void paintShape(Graphics g, FrameBuffer frame, int slot, boolean fill) {
+    g.setColor(colorOf(frame, slot));
+    int x = frame.getX(slot);
+    int y = frame.getY(slot);
+    int w = frame.getWidth(slot);
+    int h = frame.getHeight(slot);
+    switch (frame.getShapeType(slot)) {
+      case Rectangle:
+        if (fill) {
+          g.fillRect(x, y, w, h);
+        } else {
+          g.drawRect(x, y, w, h);
+        }
+        break;
+      case Ellipse:
+        // x, y are corner position; width and height are diameters
+        if (fill) {
+          g.fillOval(x, y, w, h);
+        } else {
+          g.drawOval(x, y, w, h);
+        }
+        break;
+      case Plus:
+        Plus.plusCoords(x, y, w, h, plusXs, plusYs);
+        if (fill) {
+          g.fillPolygon(plusXs, plusYs, plusXs.length);
+        } else {
+          g.drawPolygon(plusXs, plusYs, plusXs.length);
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Gets the Color for a slot, reusing the one from the previous frame if it has not changed.
+   */
+  private Color colorOf(FrameBuffer frame, int slot) {
+    if (colors.length <= slot) {
+      Color[] grown = new Color[frame.size()];
+      System.arraycopy(colors, 0, grown, 0, colors.length);
+      colors = grown;
+    }
+    int rgb = frame.getRGB(slot);
+    Color color = colors[slot];
+    if (color == null || (color.getRGB() & 0xFFFFFF) != rgb) {
+      color = new Color(rgb);
+      colors[slot] = color;
+    }
+    return color;
+  }
+}
@@ -0,0 +1,275 @@
+package cs3500.animator.view;
+
+import cs3500.animator.model.FrameBuffer;
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.model.PlaybackCursor;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Represents a headless view of an animation that draws every tick, or every nth tick, into an
+ * image and writes the images to a directory as numbered PNG files.  Uses the same drawing code as
+ * the visual views but no Swing components or timers, so it runs without a display and as fast as
+ * the frames can be drawn and encoded.  The image is reused for every frame, the shapes are drawn
+ * on a white background, and the image is as large as the canvas including its offset, like the
+ * SVG view.
+ *
+ * <p>With more than one thread the frames are rendered by a pipeline: each worker thread takes the
+ * next frame number, moves its own playback cursor there, draws into its own image and encodes
+ * the PNG into memory, and the thread that called render writes the encoded frames to disk in
+ * order.  Encoding takes most of the time, so it is done by the workers rather than the writer.
+ * At most a fixed number of frames can be taken but not yet written, so workers wait when the
+ * writer falls behind, and the lowest frame not yet written has always been taken by a worker,
+ * so the writer never waits for a frame that no worker can start.</p>
+ */
+public final class FramesViewI implements IAnimationView {
+
+  private final IAnimation model;
+  private final int width;
+  private final int height;
+  private final File directory;
+  private final int step;
+  private final int threads;
+
+  /**
+   * Constructor for FramesViewI that takes in the canvas of the animation, the directory to write
+   * the frames to, and how many ticks apart the frames are.
+   *
+   * @param model     IAnimation model to draw.
+   * @param x         x coordinate of the canvas.
+   * @param y         y coordinate of the canvas.
+   * @param width     width of the canvas.
+   * @param height    height of the canvas.
+   * @param directory directory to write the PNG files to, created if it does not exist.
+   * @param step      number of ticks between frames, 1 to write every tick.
+   */
+  public FramesViewI(IAnimation model, int x, int y, int width, int height, String directory,
+      int step) {
+    this(model, x, y, width, height, directory, step, 1);
+  }
+
+  /**
+   * Constructor for FramesViewI that can also render the frames on several threads.
+   *
+   * @param model     IAnimation model to draw.
+   * @param x         x coordinate of the canvas.
+   * @param y         y coordinate of the canvas.
+   * @param width     width of the canvas.
+   * @param height    height of the canvas.
+   * @param directory directory to write the PNG files to, created if it does not exist.
+   * @param step      number of ticks between frames, 1 to write every tick.
+   * @param threads   number of threads that draw and encode frames, 1 to render on the calling
+   *                  thread.
+   */
+  public FramesViewI(IAnimation model, int x, int y, int width, int height, String directory,
+      int step, int threads) {
+    if (model == null) {
+      throw new IllegalArgumentException("Model cannot be null.");
+    }
+    if (directory == null) {
+      throw new IllegalArgumentException("Directory cannot be null.");
+    }
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Canvas dimensions must be greater than 0.");
+    }
+    if (step <= 0) {
+      throw new IllegalArgumentException("Step must be greater than 0.");
+    }
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Threads must be greater than 0.");
+    }
+    this.model = model;
+    this.width = width + x;
+    this.height = height + y;
+    this.directory = new File(directory);
+    this.step = step;
+    this.threads = threads;
+  }
+
+  @Override
+  public void render() throws IOException {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Cannot create directory " + directory + ".");
+    }
+    int maxT = model.getAnimationBounds().maxT;
+    int frames = maxT / step + 1;
+    if (threads == 1) {
+      renderSequential(frames);
+    } else {
+      renderPipelined(frames);
+    }
+  }
+
+  private void renderSequential(int frames) throws IOException {
+    ImageWriter writer = pngWriter();
+    FrameRenderer renderer = new FrameRenderer();
+    try {
+      for (int number = 0; number < frames; number++) {
+        renderer.draw(number);
+        File file = fileFor(number, frames);
+        // delete first, as the stream does not truncate an existing file
+        if (file.exists() && !file.delete()) {
+          throw new IOException("Cannot replace " + file + ".");
+        }
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file)) {
+          writer.setOutput(out);
+          writer.write(renderer.image);
+        }
+      }
+    } finally {
+      writer.dispose();
+      renderer.dispose();
+    }
+  }
+
+  private void renderPipelined(int frames) throws IOException {
+    // the workers only read the model once its lazy indexes are built
+    model.prepareForConcurrentReads();
+    int inFlight = 2 * threads;
+    Semaphore permits = new Semaphore(inFlight);
+    BlockingQueue<Encoded> done = new ArrayBlockingQueue<>(inFlight);
+    AtomicInteger next = new AtomicInteger();
+    ExecutorService workers = Executors.newFixedThreadPool(threads, task -> {
+      Thread thread = new Thread(task, "frames-worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      for (int i = 0; i < threads; i++) {
+        workers.execute(() -> work(frames, permits, next, done));
+      }
+      Map<Integer, byte[]> waiting = new HashMap<>();
+      for (int number = 0; number < frames; number++) {
+        byte[] png = waiting.remove(number);
+        while (png == null) {
+          Encoded encoded = done.take();
+          if (encoded.error != null) {
+            throw new IOException("Failed to render frame " + encoded.number + ".",
+                encoded.error);
+          }
+          if (encoded.number == number) {
+            png = encoded.png;
+          } else {
+            waiting.put(encoded.number, encoded.png);
+          }
+        }
+        try (OutputStream out = new FileOutputStream(fileFor(number, frames))) {
+          out.write(png);
+        }
+        permits.release();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while rendering frames.", e);
+    } finally {
+      workers.shutdownNow();
+    }
+  }
+
+  /**
+   * Loop of one worker thread: takes a permit, then the next frame number, and hands the encoded
+   * frame to the writer.  Taking the permit first means every frame number that has been taken
+   * is sure to be finished.
+   */
+  private void work(int frames, Semaphore permits, AtomicInteger next,
+      BlockingQueue<Encoded> done) {
+    FrameRenderer renderer = new FrameRenderer();
+    ImageWriter writer = null;
+    int number = -1;
+    try {
+      writer = pngWriter();
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      while (true) {
+        permits.acquire();
+        number = next.getAndIncrement();
+        if (number >= frames) {
+          return;
+        }
+        renderer.draw(number);
+        bytes.reset();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+          writer.setOutput(out);
+          writer.write(renderer.image);
+        }
+        done.put(new Encoded(number, bytes.toByteArray(), null));
+      }
+    } catch (InterruptedException e) {
+      // the writer has stopped
+    } catch (IOException | RuntimeException e) {
+      done.offer(new Encoded(number, null, e));
+    } finally {
+      if (writer != null) {
+        writer.dispose();
+      }
+      renderer.dispose();
+    }
+  }
+
+  private File fileFor(int number, int frames) {
+    int digits = Math.max(5, Integer.toString(frames - 1).length());
+    return new File(directory, String.format("frame-%0" + digits + "d.png", number));
+  }
+
+  private static ImageWriter pngWriter() throws IOException {
+    Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("png");
+    if (!writers.hasNext()) {
+      throw new IOException("No PNG encoder available.");
+    }
+    return writers.next();
+  }
+
+  /**
+   * Draws frames into one reused image, for one thread.
+   */
+  private final class FrameRenderer {
+
+    private final BufferedImage image =
+        new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    private final Graphics2D g = image.createGraphics();
+    private final StaticLayers layers = new StaticLayers(model);
+    private final PlaybackCursor cursor = model.getPlaybackCursor();
+
+    private void draw(int number) {
+      FrameBuffer frame = cursor.seek(number * step);
+      layers.paint(g, frame, true, Color.WHITE, width, height, null);
+    }
+
+    private void dispose() {
+      g.dispose();
+    }
+  }
+
+  /**
+   * A frame encoded as PNG by a worker, or the error that stopped the worker.
+   */
+  private static final class Encoded {
+
+    private final int number;
+    private final byte[] png;
+    private final Exception error;
+
+    private Encoded(int number, byte[] png, Exception error) {
+      this.number = number;
+      this.png = png;
+      this.error = error;
+    }
+  }
+}
@@ -3,27 +3,49 @@ package cs3500.animator.view;
 import cs3500.animator.model.IAnimation;
 import cs3500.animator.model.IShape;
 import cs3500.animator.model.Motion;
+import cs3500.animator.model.Plus;
+import cs3500.animator.model.ShapeType;
 
-import cs3500.animator.model.Polygon;
 import java.awt.Color;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Represents an SVG view of an animation by creating a textual description of the animation that is
  * compliant with the SVG file format.  The SVG file format is an XML-based format that is used to
- * describe the animations.
+ * describe the animations.  The text is written through an SVGWriter, which copies names and
+ * numbers straight into a buffer instead of formatting a String for every element.
+ *
+ * <p>In parallel mode the elements of the shapes are written into separate buffers on the common
+ * fork-join pool, and the buffers are then written out in the order of the animation description,
+ * so the output is the same as in sequential mode.  The whole output is held in memory until
+ * every shape is done.</p>
+ *
+ * <p>In minimal mode the animations of each attribute of a shape are joined into as few animate
+ * elements as possible by AnimateChain, using values and keyTimes lists, and animations that take
+ * no time are left out.  A shape whose motions overlap in time is written as usual, since which of
+ * its animations wins then depends on when each one begins.  Once the file is written, its size
+ * and the size it would have had without minimal mode can be compared with getWrittenSize and
+ * getPlainSize.</p>
  */
 public final class SVGViewI implements IAnimationView {
 
   private final IAnimation model;
   private final Appendable ap;
+  private final SVGWriter out;
+  private final boolean parallel;
+  private final boolean minimal;
   private final int canvas_x;
   private final int canvas_y;
   private final int canvas_width;
   private final int canvas_height;
   protected final double msPerUnit;
+  private long writtenSize = 0;
+  private long plainSize = -1;
 
   /**
    * Constructor for SVGViewI that takes in the necessary parameters in order to create the SVG
@@ -40,6 +62,42 @@ public final class SVGViewI implements IAnimationView {
    * @param speed  speed of the animation.
    */
   public SVGViewI(IAnimation model, Appendable ap, int x, int y, int width, int height, int speed) {
+    this(model, ap, x, y, width, height, speed, false, false);
+  }
+
+  /**
+   * Constructor for SVGViewI that can also write the shapes in parallel.
+   *
+   * @param model    IAnimation model that the textual view will be a description of.
+   * @param ap       Appendable to print the table of the textual description of the animation.
+   * @param x        x coordinate of the canvas.
+   * @param y        y coordinate of the canvas.
+   * @param width    width of the canvas.
+   * @param height   height of the canvas.
+   * @param speed    speed of the animation.
+   * @param parallel true to write the elements of the shapes on the fork-join pool.
+   */
+  public SVGViewI(IAnimation model, Appendable ap, int x, int y, int width, int height, int speed,
+      boolean parallel) {
+    this(model, ap, x, y, width, height, speed, parallel, false);
+  }
+
+  /**
+   * Constructor for SVGViewI that can also write the shapes in parallel and join their animations
+   * into fewer elements.
+   *
+   * @param model    IAnimation model that the textual view will be a description of.
+   * @param ap       Appendable to print the table of the textual description of the animation.
+   * @param x        x coordinate of the canvas.
+   * @param y        y coordinate of the canvas.
+   * @param width    width of the canvas.
+   * @param height   height of the canvas.
+   * @param speed    speed of the animation.
+   * @param parallel true to write the elements of the shapes on the fork-join pool.
+   * @param minimal  true to write the animations of each attribute as few elements as possible.
+   */
+  public SVGViewI(IAnimation model, Appendable ap, int x, int y, int width, int height, int speed,
+      boolean parallel, boolean minimal) {
     if (model == null) {
       throw new IllegalArgumentException("Model cannot be null.");
     }
@@ -54,83 +112,120 @@ public final class SVGViewI implements IAnimationView {
     }
     this.model = model;
     this.ap = ap;
+    this.out = new SVGWriter(ap);
     this.canvas_x = x;
     this.canvas_y = y;
     this.canvas_width = width;
     this.canvas_height = height;
     msPerUnit = 1000.0 / speed;
+    this.parallel = parallel;
+    this.minimal = minimal;
+  }
+
+  /**
+   * Writes one element of the SVG file.
+   */
+  private interface Element {
+
+    void write(SVGWriter out) throws IOException;
+  }
+
+  /**
+   * Writes a single element into a String, for the methods that return the text of an element.
+   */
+  private static String text(Element element) {
+    StringBuilder builder = new StringBuilder();
+    SVGWriter writer = new SVGWriter(builder);
+    try {
+      element.write(writer);
+      writer.flush();
+    } catch (IOException e) {
+      throw new IllegalStateException("StringBuilder cannot fail to append.", e);
+    }
+    return builder.toString();
   }
 
   /**
    * Adapts motions for Rectangle class shapes into XML compliant SVG file format.
    *
+   * @param out     Writer for the SVG text.
    * @param name    Unique id of the Rectangle.
    * @param motions Corresponding list of motions of the Rectangle in the animation.
    * @throws IOException for bad appendable.
    */
-  protected void rectangleSVG(String name, List<Motion> motions) throws IOException {
-    ap.append(openRectangle(name, motions.get(0).getStartShape()));
-    ap.append(appear((int) (motions.get(0).getStartTime() * msPerUnit)));
+  protected void rectangleSVG(SVGWriter out, String name, List<Motion> motions)
+      throws IOException {
+    writeRectangle(out, name, motions.get(0).getStartShape());
+    writeAppear(out, (int) (motions.get(0).getStartTime() * msPerUnit));
     for (Motion motion : motions) {
-      int tstart = (int) (motion.getStartTime() * msPerUnit);
-      int duration = (int) ((motion.getEndTime() - motion.getStartTime()) * msPerUnit);
-      if (motion.getStartShape().getX() != motion.getEndShape().getX()) {
-        ap.append(animateMotion("x", duration, tstart, motion.getStartShape().getX(),
-            motion.getEndShape().getX()));
-      }
-      if (motion.getStartShape().getY() != motion.getEndShape().getY()) {
-        ap.append(animateMotion("y", duration, tstart, motion.getStartShape().getY(),
-            motion.getEndShape().getY()));
-      }
-      if (!motion.getStartShape().getColor().equals(motion.getEndShape().getColor())) {
-        ap.append(animateMotion("fill", duration, tstart, motion.getStartShape().getColor(),
-            motion.getEndShape().getColor()));
-      }
-      if (motion.getStartShape().getWidth() != motion.getEndShape().getWidth()) {
-        ap.append(animateMotion("width", duration, tstart, motion.getStartShape().getWidth(),
-            motion.getEndShape().getWidth()));
-      }
-      if (motion.getStartShape().getHeight() != motion.getEndShape().getHeight()) {
-        ap.append(animateMotion("height", duration, tstart, motion.getStartShape().getHeight(),
-            motion.getEndShape().getHeight()));
-      }
+      rectangleMotion(out, motion, msPerUnit);
     }
-    ap.append(closeRectangle());
+    out.append("</rect>\n");
   }
 
-  protected void polygonSVG(String name, List<Motion> motions) throws IOException {
-    ap.append(openPolygon(name, motions.get(0).getStartShape()));
-    ap.append(appear((int) (motions.get(0).getStartTime() * msPerUnit)));
+  private static void rectangleMotion(SVGWriter out, Motion motion, double msPerUnit)
+      throws IOException {
+    int tstart = (int) (motion.getStartTime() * msPerUnit);
+    int duration = (int) ((motion.getEndTime() - motion.getStartTime()) * msPerUnit);
+    IShape start = motion.getStartShape();
+    IShape end = motion.getEndShape();
+    if (start.getX() != end.getX()) {
+      writeAnimate(out, "x", duration, tstart, start.getX(), end.getX());
+    }
+    if (start.getY() != end.getY()) {
+      writeAnimate(out, "y", duration, tstart, start.getY(), end.getY());
+    }
+    if (!start.getColor().equals(end.getColor())) {
+      writeAnimate(out, "fill", duration, tstart, start.getColor(), end.getColor());
+    }
+    if (start.getWidth() != end.getWidth()) {
+      writeAnimate(out, "width", duration, tstart, start.getWidth(), end.getWidth());
+    }
+    if (start.getHeight() != end.getHeight()) {
+      writeAnimate(out, "height", duration, tstart, start.getHeight(), end.getHeight());
+    }
+  }
+
+  protected void polygonSVG(SVGWriter out, String name, List<Motion> motions)
+      throws IOException {
+    writePolygon(out, name, motions.get(0).getStartShape());
+    writeAppear(out, (int) (motions.get(0).getStartTime() * msPerUnit));
     for (Motion motion : motions) {
-      int tstart = (int) (motion.getStartTime() * msPerUnit);
-      int duration = (int) ((motion.getEndTime() - motion.getStartTime()) * msPerUnit);
-      if (motion.getStartShape().getX() != motion.getEndShape().getX()
-          || motion.getStartShape().getY() != motion.getEndShape().getY()
-          || motion.getStartShape().getWidth() != motion.getEndShape().getWidth()
-          || motion.getStartShape().getHeight() != motion.getEndShape().getHeight()) {
-        Polygon ps = (Polygon) motion.getEndShape();
-        ps.setupXYCoords();
-        String pointString = polygonPointString(ps.getXCoords(), ps.getYCoords());
-        ap.append(animateMotion("points", duration, tstart, pointString));
-      }
-      if (!motion.getStartShape().getColor().equals(motion.getEndShape().getColor())) {
-        ap.append(animateMotion("fill", duration, tstart, motion.getStartShape().getColor(),
-            motion.getEndShape().getColor()));
-      }
+      polygonMotion(out, motion, msPerUnit);
+    }
+    out.append("</polygon>\n");
+  }
 
+  private static void polygonMotion(SVGWriter out, Motion motion, double msPerUnit)
+      throws IOException {
+    int tstart = (int) (motion.getStartTime() * msPerUnit);
+    int duration = (int) ((motion.getEndTime() - motion.getStartTime()) * msPerUnit);
+    IShape start = motion.getStartShape();
+    IShape end = motion.getEndShape();
+    if (start.getX() != end.getX()
+        || start.getY() != end.getY()
+        || start.getWidth() != end.getWidth()
+        || start.getHeight() != end.getHeight()) {
+      out.append("<animate attributeType=\"xml\" begin=\"").append(tstart)
+          .append("ms\" dur=\"").append(duration)
+          .append("ms\" attributeName=\"points\" to=\"");
+      out.appendPlusPoints(end.getX(), end.getY(), end.getWidth(), end.getHeight());
+      out.append("\" fill=\"freeze\" />\n");
+    }
+    if (!start.getColor().equals(end.getColor())) {
+      writeAnimate(out, "fill", duration, tstart, start.getColor(), end.getColor());
     }
-    ap.append(closePolygon());
   }
 
   public String openPolygon(String name, IShape s) {
-    Polygon ps = (Polygon) s;
-    ps.setupXYCoords();
-    String string = String.format(
-        "<polygon id=\"%s\" points=\"%s\" fill=\"rgb(%d,%d,%d)\" visibility=\"hidden\" >",
-        name, polygonPointString(ps.getXCoords(), ps.getYCoords()), s.getColor().getRed(),
-        s.getColor().getGreen(),
-        s.getColor().getBlue());
-    return string + "\n";
+    return text(writer -> writePolygon(writer, name, s));
+  }
+
+  private static void writePolygon(SVGWriter out, String name, IShape s) throws IOException {
+    out.append("<polygon id=\"").append(name).append("\" points=\"");
+    out.appendPlusPoints(s.getX(), s.getY(), s.getWidth(), s.getHeight());
+    out.append("\" fill=\"").appendRgb(s.getColor().getRed(), s.getColor().getGreen(),
+        s.getColor().getBlue()).append("\" visibility=\"hidden\" >\n");
   }
 
   public String closePolygon() {
@@ -139,42 +234,101 @@ public final class SVGViewI implements IAnimationView {
 
   protected String polygonPointString(int[] xs, int[] ys) {
     assert (xs.length == ys.length);
-    StringBuilder builder = new StringBuilder();
-    for (int i = 0; i < xs.length; ++i) {
-      builder.append(String.format("%d,%d ", xs[i], ys[i]));
-    }
-    return builder.toString();
+    return text(writer -> writer.appendPoints(xs, ys));
   }
 
   /**
    * Adapts motions for Ellipse class shapes into XML compliant SVG file format.
    *
+   * @param out     Writer for the SVG text.
    * @param name    Unique id of the Ellipse.
    * @param motions Corresponding list of motions of the Ellipse in the animation.
    * @throws IOException for bad appendable.
    */
-  protected void ellipseSVG(String name, List<Motion> motions) throws IOException {
-    ap.append(openEllipse(name, motions.get(0).getStartShape()));
-    ap.append(appear((int) (motions.get(0).getStartTime() * msPerUnit)));
+  protected void ellipseSVG(SVGWriter out, String name, List<Motion> motions)
+      throws IOException {
+    writeEllipse(out, name, motions.get(0).getStartShape());
+    writeAppear(out, (int) (motions.get(0).getStartTime() * msPerUnit));
     for (Motion motion : motions) {
-      int tstart = (int) (motion.getStartTime() * msPerUnit);
-      int duration = (int) ((motion.getEndTime() - motion.getStartTime()) * msPerUnit);
-      if (motion.getStartShape().getX() != motion.getEndShape().getX()) {
-        ap.append(animateMotion("cx", duration, tstart,
-            motion.getStartShape().getX() + motion.getStartShape().getWidth() / 2,
-            motion.getEndShape().getX() + motion.getEndShape().getWidth() / 2));
-      }
-      if (motion.getStartShape().getY() != motion.getEndShape().getY()) {
-        ap.append(animateMotion("cy", duration, tstart,
-            motion.getStartShape().getY() + motion.getStartShape().getHeight() / 2,
-            motion.getEndShape().getY() + motion.getEndShape().getHeight() / 2));
-      }
-      if (!motion.getStartShape().getColor().equals(motion.getEndShape().getColor())) {
-        ap.append(animateMotion("fill", duration, tstart, motion.getStartShape().getColor(),
-            motion.getEndShape().getColor()));
-      }
+      ellipseMotion(out, motion, msPerUnit);
+    }
+    out.append("</ellipse>\n");
+  }
+
+  private static void ellipseMotion(SVGWriter out, Motion motion, double msPerUnit)
+      throws IOException {
+    int tstart = (int) (motion.getStartTime() * msPerUnit);
+    int duration = (int) ((motion.getEndTime() - motion.getStartTime()) * msPerUnit);
+    IShape start = motion.getStartShape();
+    IShape end = motion.getEndShape();
+    if (start.getX() != end.getX()) {
+      writeAnimate(out, "cx", duration, tstart,
+          start.getX() + start.getWidth() / 2,
+          end.getX() + end.getWidth() / 2);
+    }
+    if (start.getY() != end.getY()) {
+      writeAnimate(out, "cy", duration, tstart,
+          start.getY() + start.getHeight() / 2,
+          end.getY() + end.getHeight() / 2);
+    }
+    if (!start.getColor().equals(end.getColor())) {
+      writeAnimate(out, "fill", duration, tstart, start.getColor(), end.getColor());
+    }
+  }
+
+  /**
+   * Writes the opening tag of a shape's element and the animation that makes it appear, for
+   * writing the element one motion at a time with motionSVG and closeShapeSVG.  The text is the
+   * same as that of rectangleSVG, ellipseSVG and polygonSVG.
+   *
+   * @param out       Writer for the SVG text.
+   * @param name      Unique id of the shape.
+   * @param first     first motion of the shape.
+   * @param msPerUnit milliseconds per tick.
+   * @throws IOException for bad appendable.
+   */
+  static void openShapeSVG(SVGWriter out, String name, Motion first, double msPerUnit)
+      throws IOException {
+    IShape s = first.getStartShape();
+    if (s.getShapeType() == ShapeType.Rectangle) {
+      writeRectangle(out, name, s);
+    } else if (s.getShapeType() == ShapeType.Ellipse) {
+      writeEllipse(out, name, s);
+    } else {
+      writePolygon(out, name, s);
+    }
+    writeAppear(out, (int) (first.getStartTime() * msPerUnit));
+  }
+
+  /**
+   * Writes the animations of one motion of a shape whose element is open.
+   *
+   * @param out       Writer for the SVG text.
+   * @param motion    motion to write.
+   * @param msPerUnit milliseconds per tick.
+   * @throws IOException for bad appendable.
+   */
+  static void motionSVG(SVGWriter out, Motion motion, double msPerUnit) throws IOException {
+    ShapeType type = motion.getStartShape().getShapeType();
+    if (type == ShapeType.Rectangle) {
+      rectangleMotion(out, motion, msPerUnit);
+    } else if (type == ShapeType.Ellipse) {
+      ellipseMotion(out, motion, msPerUnit);
+    } else {
+      polygonMotion(out, motion, msPerUnit);
     }
-    ap.append(closeEllipse());
+  }
+
+  /**
+   * Writes the closing tag of a shape's element.
+   *
+   * @param out  Writer for the SVG text.
+   * @param type type of the shape.
+   * @throws IOException for bad appendable.
+   */
+  static void closeShapeSVG(SVGWriter out, ShapeType type) throws IOException {
+    out.append(type == ShapeType.Rectangle ? "</rect>\n"
+        : type == ShapeType.Ellipse ? "</ellipse>\n" : "</polygon>\n");
   }
 
   /**
@@ -184,32 +338,223 @@ public final class SVGViewI implements IAnimationView {
    * @return Code that makes the shape visible.
    */
   protected String appear(int time) {
-    String string = String.format(
-        "<animate attributeType=\"xml\" begin=\"%dms\" dur=\"1ms\" attributeName=\"visibility\" "
-            + "from=\"hidden\" to=\"visible\" fill=\"freeze\" />", time);
-    return string + "\n";
+    return text(writer -> writeAppear(writer, time));
+  }
+
+  private static void writeAppear(SVGWriter out, int time) throws IOException {
+    out.append("<animate attributeType=\"xml\" begin=\"").append(time)
+        .append("ms\" dur=\"1ms\" attributeName=\"visibility\" "
+            + "from=\"hidden\" to=\"visible\" fill=\"freeze\" />\n");
+  }
+
+  /**
+   * Writes the animations of a shape with the animations of each attribute joined into as few
+   * elements as possible.  An attribute is animated for the same motions and with the same values
+   * as by rectangleSVG, ellipseSVG and polygonSVG, so the picture is the same at every tick.
+   *
+   * @param out     Writer for the SVG text.
+   * @param name    Unique id of the shape.
+   * @param motions Corresponding list of motions of the shape in the animation.
+   * @throws IOException for bad appendable.
+   */
+  private void minimalSVG(SVGWriter out, String name, List<Motion> motions) throws IOException {
+    IShape first = motions.get(0).getStartShape();
+    ShapeType type = first.getShapeType();
+    AnimateChain fill = new AnimateChain("fill", AnimateChain.Kind.COLOR, msPerUnit);
+    AnimateChain[] chains;
+    if (type == ShapeType.Rectangle) {
+      writeRectangle(out, name, first);
+      chains = new AnimateChain[]{number("x"), number("y"), fill, number("width"),
+          number("height")};
+    } else if (type == ShapeType.Ellipse) {
+      writeEllipse(out, name, first);
+      chains = new AnimateChain[]{number("cx"), number("cy"), fill};
+    } else {
+      writePolygon(out, name, first);
+      chains = new AnimateChain[]{new AnimateChain("points", AnimateChain.Kind.POINTS, msPerUnit),
+          fill};
+    }
+    writeAppear(out, (int) (motions.get(0).getStartTime() * msPerUnit));
+    for (Motion motion : motions) {
+      int t1 = motion.getStartTime();
+      int t2 = motion.getEndTime();
+      IShape start = motion.getStartShape();
+      IShape end = motion.getEndShape();
+      if (type == ShapeType.Rectangle) {
+        chain(out, chains[0], t1, t2, start.getX(), end.getX());
+        chain(out, chains[1], t1, t2, start.getY(), end.getY());
+        chain(out, chains[3], t1, t2, start.getWidth(), end.getWidth());
+        chain(out, chains[4], t1, t2, start.getHeight(), end.getHeight());
+      } else if (type == ShapeType.Ellipse) {
+        if (start.getX() != end.getX()) {
+          chains[0].add(out, t1, t2, new int[]{start.getX() + start.getWidth() / 2},
+              new int[]{end.getX() + end.getWidth() / 2});
+        }
+        if (start.getY() != end.getY()) {
+          chains[1].add(out, t1, t2, new int[]{start.getY() + start.getHeight() / 2},
+              new int[]{end.getY() + end.getHeight() / 2});
+        }
+      } else if (start.getX() != end.getX() || start.getY() != end.getY()
+          || start.getWidth() != end.getWidth() || start.getHeight() != end.getHeight()) {
+        chains[0].add(out, t1, t2, plusPoints(start), plusPoints(end));
+      }
+      if (!start.getColor().equals(end.getColor())) {
+        fill.add(out, t1, t2, rgb(start.getColor()), rgb(end.getColor()));
+      }
+    }
+    for (AnimateChain chain : chains) {
+      chain.flush(out);
+    }
+    out.append(type == ShapeType.Rectangle ? "</rect>\n"
+        : type == ShapeType.Ellipse ? "</ellipse>\n" : "</polygon>\n");
+  }
+
+  private AnimateChain number(String attribute) {
+    return new AnimateChain(attribute, AnimateChain.Kind.NUMBER, msPerUnit);
+  }
+
+  private static void chain(SVGWriter out, AnimateChain chain, int t1, int t2, int from, int to)
+      throws IOException {
+    if (from != to) {
+      chain.add(out, t1, t2, new int[]{from}, new int[]{to});
+    }
+  }
+
+  private static int[] rgb(Color color) {
+    return new int[]{color.getRed(), color.getGreen(), color.getBlue()};
+  }
+
+  /**
+   * Gets the corners of the plus sign for a shape, as x and y of each corner in turn.
+   */
+  private static int[] plusPoints(IShape s) {
+    int[] xs = new int[12];
+    int[] ys = new int[12];
+    Plus.plusCoords(s.getX(), s.getY(), s.getWidth(), s.getHeight(), xs, ys);
+    int[] points = new int[24];
+    for (int i = 0; i < 12; i++) {
+      points[2 * i] = xs[i];
+      points[2 * i + 1] = ys[i];
+    }
+    return points;
+  }
+
+  /**
+   * Checks if the motions of a shape are in order of time and do not overlap, so that its
+   * animations can be joined.
+   */
+  private static boolean inOrder(List<Motion> motions) {
+    for (int i = 1; i < motions.size(); i++) {
+      if (motions.get(i).getStartTime() < motions.get(i - 1).getEndTime()) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
   public void render() throws IOException {
-    ap.append(openSVG());
+    writeOpenSVG(out);
     Map<String, List<Motion>> animation = model.getAnimationDescription();
-    for (String name : animation.keySet()) {
-      List<Motion> motions = animation.get(name);
-      String type = motions.get(0).getStartShape().getShapeType().toString();
-      if (type.equals("Rectangle")) {
-        rectangleSVG(name, motions);
-      } else if (type.equals("Ellipse")) {
-        ellipseSVG(name, motions);
-      } else if (type.equals("Plus")) {
-        polygonSVG(name, motions);
-      } else {
-        System.err.println("Unsupported shape : " + type);
+    if (parallel) {
+      List<Map.Entry<String, List<Motion>>> shapes = new ArrayList<>(animation.entrySet());
+      int grain = Math.max(1, shapes.size() / (8 * ForkJoinPool.getCommonPoolParallelism()));
+      List<ForkJoinTask<StringBuilder>> ranges = new ArrayList<>();
+      for (int from = 0; from < shapes.size(); from += grain) {
+        int start = from;
+        int end = Math.min(shapes.size(), from + grain);
+        ranges.add(ForkJoinTask.adapt(() -> rangeSVG(shapes, start, end)));
+      }
+      ForkJoinTask.invokeAll(ranges);
+      for (ForkJoinTask<StringBuilder> range : ranges) {
+        out.append(range.join());
+      }
+    } else {
+      for (Map.Entry<String, List<Motion>> entry : animation.entrySet()) {
+        shapeSVG(out, entry.getKey(), entry.getValue(), minimal);
+      }
+    }
+    out.append(closeSVG());
+    out.flush();
+    writtenSize = out.written();
+  }
+
+  /**
+   * Gets the number of characters written by render so far.
+   *
+   * @return number of characters written.
+   */
+  public long getWrittenSize() {
+    return writtenSize;
+  }
+
+  /**
+   * Gets the number of characters the SVG has without minimal mode.  The first call measures it
+   * by writing the shapes again to a writer that only counts, so it is only worth asking for when
+   * the size is reported.
+   *
+   * @return number of characters of the SVG without minimal mode.
+   * @throws IOException if the SVG cannot be written.
+   */
+  public long getPlainSize() throws IOException {
+    if (plainSize < 0) {
+      SVGWriter plain = new SVGWriter(null);
+      writeOpenSVG(plain);
+      for (Map.Entry<String, List<Motion>> entry : model.getAnimationDescription().entrySet()) {
+        shapeSVG(plain, entry.getKey(), entry.getValue(), false);
+      }
+      plain.append(closeSVG());
+      plainSize = plain.written();
+    }
+    return plainSize;
+  }
+
+  /**
+   * Writes the element of one shape and its animations.
+   *
+   * @param out     Writer for the SVG text.
+   * @param name    Unique id of the shape.
+   * @param motions Corresponding list of motions of the shape in the animation.
+   * @param minimal true to join the animations of each attribute when the motions allow it.
+   * @throws IOException for bad appendable.
+   */
+  private void shapeSVG(SVGWriter out, String name, List<Motion> motions, boolean minimal)
+      throws IOException {
+    String type = motions.get(0).getStartShape().getShapeType().toString();
+    if (minimal && inOrder(motions)) {
+      minimalSVG(out, name, motions);
+    } else if (type.equals("Rectangle")) {
+      rectangleSVG(out, name, motions);
+    } else if (type.equals("Ellipse")) {
+      ellipseSVG(out, name, motions);
+    } else if (type.equals("Plus")) {
+      polygonSVG(out, name, motions);
+    } else {
+      System.err.println("Unsupported shape : " + type);
+    }
+  }
+
+  /**
+   * Writes the elements of a range of shapes into a buffer of their own, so that ranges can be
+   * written on separate threads and their buffers written out in the original order.
+   *
+   * @param shapes entries of the animation description.
+   * @param from   first shape of the range.
+   * @param to     shape after the last one of the range.
+   * @return the elements of the shapes.
+   */
+  private StringBuilder rangeSVG(List<Map.Entry<String, List<Motion>>> shapes, int from, int to) {
+    StringBuilder part = new StringBuilder();
+    SVGWriter writer = new SVGWriter(part);
+    try {
+      for (int i = from; i < to; i++) {
+        shapeSVG(writer, shapes.get(i).getKey(), shapes.get(i).getValue(), minimal);
       }
+      writer.flush();
+    } catch (IOException e) {
+      throw new IllegalStateException("StringBuilder cannot fail to append.", e);
     }
-    ap.append(closeSVG());
-    String string = ap.toString();
-    //System.out.println(string);
+    return part;
   }
 
   /**
@@ -218,10 +563,18 @@ public final class SVGViewI implements IAnimationView {
    * @return code to begin generating animation.
    */
   public String openSVG() {
-    String string = String.format(
-        "<svg width=\"%d\" height=\"%d\" version=\"1.1\"\n xmlns=\"http://www.w3.org/2000/svg\">\n",
-        this.canvas_width + this.canvas_x, this.canvas_height + this.canvas_y);
-    return string;
+    return text(this::writeOpenSVG);
+  }
+
+  private void writeOpenSVG(SVGWriter out) throws IOException {
+    writeOpenSVG(out, canvas_x, canvas_y, canvas_width, canvas_height);
+  }
+
+  static void writeOpenSVG(SVGWriter out, int x, int y, int width, int height)
+      throws IOException {
+    out.append("<svg width=\"").append(width + x)
+        .append("\" height=\"").append(height + y)
+        .append("\" version=\"1.1\"\n xmlns=\"http://www.w3.org/2000/svg\">\n");
   }
 
   /**
@@ -241,13 +594,18 @@ public final class SVGViewI implements IAnimationView {
    * @return Code to open creation of Rectangle in SVG animation.
    */
   public String openRectangle(String name, IShape s) {
-    String string = String.format(
-        "<rect id=\"%s\" x=\"%d\" y=\"%d\" width=\"%d\" height=\"%d\" fill=\"rgb(%d,%d,%d)\" "
-            + "visibility=\"hidden\" >",
-        name, s.getX(), s.getY(), s.getWidth(), s.getHeight(), s.getColor().getRed(),
-        s.getColor().getGreen(),
-        s.getColor().getBlue());
-    return string + "\n";
+    return text(writer -> writeRectangle(writer, name, s));
+  }
+
+  private static void writeRectangle(SVGWriter out, String name, IShape s) throws IOException {
+    out.append("<rect id=\"").append(name)
+        .append("\" x=\"").append(s.getX())
+        .append("\" y=\"").append(s.getY())
+        .append("\" width=\"").append(s.getWidth())
+        .append("\" height=\"").append(s.getHeight())
+        .append("\" fill=\"").appendRgb(s.getColor().getRed(), s.getColor().getGreen(),
+            s.getColor().getBlue())
+        .append("\" visibility=\"hidden\" >\n");
   }
 
   /**
@@ -267,13 +625,18 @@ public final class SVGViewI implements IAnimationView {
    * @return Code to open creation of Ellipse in SVG animation.
    */
   public String openEllipse(String name, IShape s) {
-    String string = String.format(
-        "<ellipse id=\"%s\" cx=\"%d\" cy=\"%d\" rx=\"%d\" ry=\"%d\" fill=\"rgb(%d,%d,%d)\" "
-            + "visibility=\"hidden\" >",
-        name, s.getX() + s.getWidth() / 2, s.getY() + s.getHeight() / 2, s.getWidth() / 2,
-        s.getHeight() / 2,
-        s.getColor().getRed(), s.getColor().getGreen(), s.getColor().getBlue());
-    return string + "\n";
+    return text(writer -> writeEllipse(writer, name, s));
+  }
+
+  private static void writeEllipse(SVGWriter out, String name, IShape s) throws IOException {
+    out.append("<ellipse id=\"").append(name)
+        .append("\" cx=\"").append(s.getX() + s.getWidth() / 2)
+        .append("\" cy=\"").append(s.getY() + s.getHeight() / 2)
+        .append("\" rx=\"").append(s.getWidth() / 2)
+        .append("\" ry=\"").append(s.getHeight() / 2)
+        .append("\" fill=\"").appendRgb(s.getColor().getRed(), s.getColor().getGreen(),
+            s.getColor().getBlue())
+        .append("\" visibility=\"hidden\" >\n");
   }
 
   /**
@@ -287,11 +650,17 @@ public final class SVGViewI implements IAnimationView {
    * @return Code for adding a motion into the SVG view animation for position changes.
    */
   public String animateMotion(String attribute, int duration, int tstart, int from, int to) {
-    String string = String.format(
-        "<animate attributeType=\"xml\" begin=\"%dms\" dur=\"%dms\" attributeName=\"%s\" "
-            + "from=\"%d\" to=\"%d\" fill=\"freeze\" />",
-        tstart, duration, attribute, from, to);
-    return string + "\n";
+    return text(writer -> writeAnimate(writer, attribute, duration, tstart, from, to));
+  }
+
+  private static void writeAnimate(SVGWriter out, String attribute, int duration, int tstart,
+      int from, int to) throws IOException {
+    out.append("<animate attributeType=\"xml\" begin=\"").append(tstart)
+        .append("ms\" dur=\"").append(duration)
+        .append("ms\" attributeName=\"").append(attribute)
+        .append("\" from=\"").append(from)
+        .append("\" to=\"").append(to)
+        .append("\" fill=\"freeze\" />\n");
   }
 
   /**
@@ -305,19 +674,25 @@ public final class SVGViewI implements IAnimationView {
    * @return Code for adding a motion into the SVG view animation for color changes.
    */
   public String animateMotion(String attribute, int duration, int tstart, Color from, Color to) {
-    String string = String.format(
-        "<animate attributeType=\"xml\" begin=\"%dms\" dur=\"%dms\" attributeName=\"%s\" "
-            + "from=\"rgb(%d,%d,%d)\" to=\"rgb(%d,%d,%d)\" fill=\"freeze\" />",
-        tstart, duration, attribute, from.getRed(), from.getGreen(), from.getBlue(), to.getRed(),
-        to.getGreen(), to.getBlue());
-    return string + "\n";
+    return text(writer -> writeAnimate(writer, attribute, duration, tstart, from, to));
+  }
+
+  private static void writeAnimate(SVGWriter out, String attribute, int duration, int tstart,
+      Color from, Color to) throws IOException {
+    out.append("<animate attributeType=\"xml\" begin=\"").append(tstart)
+        .append("ms\" dur=\"").append(duration)
+        .append("ms\" attributeName=\"").append(attribute)
+        .append("\" from=\"").appendRgb(from.getRed(), from.getGreen(), from.getBlue())
+        .append("\" to=\"").appendRgb(to.getRed(), to.getGreen(), to.getBlue())
+        .append("\" fill=\"freeze\" />\n");
   }
 
   public String animateMotion(String attribute, int duration, int tstart, String to) {
-    String string = String.format(
-        "<animate attributeType=\"xml\" begin=\"%dms\" dur=\"%dms\" attributeName=\"%s\" to=\"%s\" fill=\"freeze\" />",
-        tstart, duration, attribute, to);
-    return string + "\n";
+    return text(writer -> writer.append("<animate attributeType=\"xml\" begin=\"").append(tstart)
+        .append("ms\" dur=\"").append(duration)
+        .append("ms\" attributeName=\"").append(attribute)
+        .append("\" to=\"").append(to)
+        .append("\" fill=\"freeze\" />\n"));
   }
 
   /**
@@ -0,0 +1,239 @@
+package cs3500.animator.view;
+
+import cs3500.animator.model.Plus;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * Buffered writer for the text of an SVG file.  Fixed fragments, names and numbers are copied
+ * straight into a reusable char array, which is passed on to the Appendable when it fills up and
+ * when flush is called, so writing an element does not create any Strings.  Numbers are written
+ * the same way as %d in String.format.  The writer also counts the characters it has been given,
+ * and without an Appendable only counts them, such as to measure the size of some text.
+ */
+final class SVGWriter {
+
+  private static final int SIZE = 8192;
+
+  private final Appendable out;
+  private final char[] buf = new char[SIZE];
+  private int count;
+  private long written;
+  private final int[] xs = new int[12];
+  private final int[] ys = new int[12];
+
+  /**
+   * Constructor for SVGWriter that takes in the Appendable to write to.
+   *
+   * @param out Appendable that receives the text, or null to only count the characters.
+   */
+  SVGWriter(Appendable out) {
+    this.out = out;
+  }
+
+  /**
+   * Writes a String.
+   *
+   * @param text text to write.
+   * @return this writer.
+   * @throws IOException for bad appendable.
+   */
+  SVGWriter append(String text) throws IOException {
+    int length = text.length();
+    int start = 0;
+    while (length - start > SIZE - count) {
+      int part = SIZE - count;
+      text.getChars(start, start + part, buf, count);
+      count += part;
+      start += part;
+      flushBuffer();
+    }
+    text.getChars(start, length, buf, count);
+    count += length - start;
+    return this;
+  }
+
+  /**
+   * Writes the contents of a StringBuilder.
+   *
+   * @param text text to write.
+   * @return this writer.
+   * @throws IOException for bad appendable.
+   */
+  SVGWriter append(StringBuilder text) throws IOException {
+    int length = text.length();
+    int start = 0;
+    while (length - start > SIZE - count) {
+      int part = SIZE - count;
+      text.getChars(start, start + part, buf, count);
+      count += part;
+      start += part;
+      flushBuffer();
+    }
+    text.getChars(start, length, buf, count);
+    count += length - start;
+    return this;
+  }
+
+  /**
+   * Writes a single character.
+   *
+   * @param c character to write.
+   * @return this writer.
+   * @throws IOException for bad appendable.
+   */
+  SVGWriter append(char c) throws IOException {
+    if (count == SIZE) {
+      flushBuffer();
+    }
+    buf[count++] = c;
+    return this;
+  }
+
+  /**
+   * Writes an int in decimal.
+   *
+   * @param value number to write.
+   * @return this writer.
+   * @throws IOException for bad appendable.
+   */
+  SVGWriter append(int value) throws IOException {
+    if (value == Integer.MIN_VALUE) {
+      return append(Integer.toString(value));
+    }
+    if (SIZE - count < 11) {
+      flushBuffer();
+    }
+    if (value < 0) {
+      buf[count++] = '-';
+      value = -value;
+    }
+    int digits = 1;
+    for (int rest = value / 10; rest != 0; rest /= 10) {
+      digits++;
+    }
+    int end = count + digits;
+    for (int i = end - 1; i >= count; i--) {
+      buf[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+    count = end;
+    return this;
+  }
+
+  /**
+   * Writes a color as rgb(r,g,b).
+   *
+   * @param red   red value.
+   * @param green green value.
+   * @param blue  blue value.
+   * @return this writer.
+   * @throws IOException for bad appendable.
+   */
+  SVGWriter appendRgb(int red, int green, int blue) throws IOException {
+    return append("rgb(").append(red).append(',').append(green).append(',').append(blue)
+        .append(')');
+  }
+
+  /**
+   * Writes a fraction between 0 and 1 in decimal, with enough digits that scaling it back up by
+   * the given amount is off by less than a half, and without trailing zeros.
+   *
+   * @param numerator   numerator of the fraction, from 0 to the denominator.
+   * @param denominator denominator of the fraction, greater than 0.
+   * @param scale       largest amount the fraction will be scaled by.
+   * @return this writer.
+   * @throws IOException for bad appendable.
+   */
+  SVGWriter appendFraction(long numerator, long denominator, int scale) throws IOException {
+    int digits = 1;
+    long unit = 10;
+    while (unit <= scale && digits < 9) {
+      digits++;
+      unit *= 10;
+    }
+    long scaled = (2 * numerator * unit + denominator) / (2 * denominator);
+    if (scaled >= unit) {
+      return append('1');
+    } else if (scaled == 0) {
+      return append('0');
+    }
+    while (scaled % 10 == 0) {
+      scaled /= 10;
+      unit /= 10;
+    }
+    append('0').append('.');
+    for (unit /= 10; unit > 0; unit /= 10) {
+      append((char) ('0' + scaled / unit % 10));
+    }
+    return this;
+  }
+
+  /**
+   * Writes the corners of a plus sign that fills the given bounding box, as "x,y " pairs.  The
+   * corners are computed into arrays that the writer reuses.
+   *
+   * @param x      x coordinate of the bounding box.
+   * @param y      y coordinate of the bounding box.
+   * @param width  width of the bounding box.
+   * @param height height of the bounding box.
+   * @return this writer.
+   * @throws IOException for bad appendable.
+   */
+  SVGWriter appendPlusPoints(int x, int y, int width, int height) throws IOException {
+    Plus.plusCoords(x, y, width, height, xs, ys);
+    return appendPoints(xs, ys);
+  }
+
+  /**
+   * Writes the corners of a polygon as "x,y " pairs.
+   *
+   * @param xs x coordinates of the corners.
+   * @param ys y coordinates of the corners.
+   * @return this writer.
+   * @throws IOException for bad appendable.
+   */
+  SVGWriter appendPoints(int[] xs, int[] ys) throws IOException {
+    for (int i = 0; i < xs.length; ++i) {
+      append(xs[i]).append(',').append(ys[i]).append(' ');
+    }
+    return this;
+  }
+
+  /**
+   * Gets the number of characters written so far.
+   *
+   * @return number of characters.
+   */
+  long written() {
+    return written + count;
+  }
+
+  /**
+   * Passes everything written so far on to the Appendable.
+   *
+   * @throws IOException for bad appendable.
+   */
+  void flush() throws IOException {
+    if (count > 0) {
+      flushBuffer();
+    }
+  }
+
+  private void flushBuffer() throws IOException {
+    written += count;
+    if (out == null) {
+      count = 0;
+      return;
+    }
+    if (out instanceof Writer) {
+      ((Writer) out).write(buf, 0, count);
+    } else if (out instanceof StringBuilder) {
+      ((StringBuilder) out).append(buf, 0, count);
+    } else {
+      out.append(CharBuffer.wrap(buf, 0, count));
+    }
+    count = 0;
+  }
+}
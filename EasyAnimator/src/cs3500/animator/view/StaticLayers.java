@@ -0,0 +1,291 @@
+package cs3500.animator.view;
+
+import cs3500.animator.model.FrameBuffer;
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.model.ShapeType;
+import cs3500.animator.model.StaticSpan;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Draws frames with the shapes that do not change cached in two images.  For each window between
+ * keyframes the model gives the shapes that are static in it, and those that can be moved out of
+ * slot order without changing the picture are drawn once: a bottom layer, with the background,
+ * holds the static shapes that no lower changing shape can touch, and a transparent top layer
+ * holds the static shapes that no higher shape outside it can touch.  Each frame then copies the
+ * bottom layer, draws the remaining shapes in slot order and copies the top layer over them.  The
+ * layers are built again when the frame leaves the window, and whenever the size, background or
+ * fill changes.
+ *
+ * <p>Whether two shapes can touch is decided on a grid of 8 pixel cells over the boxes that the
+ * model gives for the whole window, so a shape is only moved into a layer when that is safe.</p>
+ *
+ * <p>Copying an image costs about twice as much as filling the same area, and blending the
+ * transparent top layer about five times as much, so a layer is only used for a window when
+ * drawing its shapes would cost more.  The cost of a shape is estimated in filled pixels: its
+ * area plus a fixed cost per call, which is much higher for ellipses and plus signs.  Otherwise
+ * its shapes are drawn in slot order with the others.</p>
+ */
+final class StaticLayers {
+
+  private static final int CELL = 8;
+  private static final int BLEND_COST = 5;
+
+  private final IAnimation model;
+  private final FramePainter painter = new FramePainter();
+  private StaticSpan span;
+  private boolean[] bottom = new boolean[0];
+  private boolean[] top = new boolean[0];
+  private boolean[] cells = new boolean[0];
+  private int columns;
+  private int rows;
+  private BufferedImage below;
+  private BufferedImage above;
+  private Rectangle aboveBox;
+  private boolean useBelow;
+  private int width;
+  private int height;
+  private boolean fill;
+  private Color background;
+
+  /**
+   * Constructor for StaticLayers that takes in the animation whose frames will be drawn.
+   *
+   * @param model animation to ask for the static shapes.
+   */
+  StaticLayers(IAnimation model) {
+    this.model = model;
+  }
+
+  /**
+   * Draws a frame, or the part of it inside a region.  The result is the same as filling the
+   * background and drawing every visible shape in slot order.
+   *
+   * @param g          Graphics to draw on.
+   * @param frame      frame to draw.
+   * @param fill       true to fill the shapes, false to only draw their outlines.
+   * @param background color behind the shapes.
+   * @param width      width of the area to draw.
+   * @param height     height of the area to draw.
+   * @param region     part of the area to draw, which g must already be clipped to, or null to
+   *                   draw all of it.
+   */
+  void paint(Graphics g, FrameBuffer frame, boolean fill, Color background, int width,
+      int height, Rectangle region) {
+    prepare(frame, fill, background, width, height);
+    if (useBelow) {
+      g.drawImage(below, 0, 0, null);
+    } else {
+      g.setColor(background);
+      if (region == null) {
+        g.fillRect(0, 0, width, height);
+      } else {
+        g.fillRect(region.x, region.y, region.width, region.height);
+      }
+    }
+    for (int slot = 0; slot < frame.size(); slot++) {
+      if (frame.isVisible(slot) && !bottom[slot] && !top[slot]
+          && (region == null || FramePainter.overlaps(frame, slot, region))) {
+        painter.paintShape(g, frame, slot, fill);
+      }
+    }
+    if (aboveBox != null && (region == null || aboveBox.intersects(region))) {
+      g.drawImage(above, aboveBox.x, aboveBox.y, aboveBox.x + aboveBox.width,
+          aboveBox.y + aboveBox.height, aboveBox.x, aboveBox.y, aboveBox.x + aboveBox.width,
+          aboveBox.y + aboveBox.height, null);
+    }
+  }
+
+  /**
+   * Builds the layers again the next time a frame is drawn, such as when the frames leave out
+   * shapes outside a different viewport.
+   */
+  void invalidate() {
+    span = null;
+  }
+
+  /**
+   * Builds the layers again if the frame is outside the window they were built for or the way
+   * they are drawn has changed.
+   */
+  private void prepare(FrameBuffer frame, boolean fill, Color background, int width,
+      int height) {
+    int t = frame.getTime();
+    if (span != null && span.contains(t) && this.fill == fill
+        && background.equals(this.background) && this.width == width
+        && this.height == height) {
+      return;
+    }
+    if (this.width != width || this.height != height) {
+      below = null;
+      above = null;
+      aboveBox = null;
+    }
+    this.span = model.getStaticSpan(t);
+    this.fill = fill;
+    this.background = background;
+    this.width = width;
+    this.height = height;
+    if (bottom.length != frame.size()) {
+      bottom = new boolean[frame.size()];
+      top = new boolean[frame.size()];
+    } else {
+      Arrays.fill(bottom, false);
+      Arrays.fill(top, false);
+    }
+    if (span.size() != frame.size()) {
+      // shapes were added after the frame was made, so draw everything in slot order
+      useBelow = false;
+      aboveBox = null;
+      return;
+    }
+    classify(frame);
+    drawLayers(frame);
+  }
+
+  /**
+   * Chooses the static shapes for each layer.  Going up in slot order, a static shape goes into
+   * the bottom layer if it does not touch any lower shape outside the bottom layer.  Going down, a
+   * static shape not in the bottom layer goes into the top layer if it does not touch any higher
+   * shape outside the top layer.  Each layer is then dropped again if it would not pay for itself.
+   */
+  private void classify(FrameBuffer frame) {
+    int size = span.size();
+    columns = Math.max(1, (width + CELL - 1) / CELL);
+    rows = Math.max(1, (height + CELL - 1) / CELL);
+    if (cells.length < columns * rows) {
+      cells = new boolean[columns * rows];
+    } else {
+      Arrays.fill(cells, false);
+    }
+    long saved = 0;
+    for (int slot = 0; slot < size; slot++) {
+      if (span.isVisible(slot)) {
+        if (span.isStatic(slot) && !touches(slot, false)) {
+          bottom[slot] = true;
+          saved += cost(frame, slot);
+        } else {
+          touches(slot, true);
+        }
+      }
+    }
+    // copying the layer costs one more pass over the area than filling the background
+    useBelow = saved > (long) width * height;
+    if (!useBelow) {
+      Arrays.fill(bottom, false);
+    }
+    Arrays.fill(cells, false);
+    saved = 0;
+    Rectangle box = null;
+    for (int slot = size - 1; slot >= 0; slot--) {
+      if (span.isVisible(slot)) {
+        if (span.isStatic(slot) && !bottom[slot] && !touches(slot, false)) {
+          top[slot] = true;
+          saved += cost(frame, slot);
+          Rectangle shape = new Rectangle(span.getMinX(slot), span.getMinY(slot),
+              span.getMaxX(slot) - span.getMinX(slot) + 2,
+              span.getMaxY(slot) - span.getMinY(slot) + 2);
+          box = box == null ? shape : box.union(shape);
+        } else {
+          touches(slot, true);
+        }
+      }
+    }
+    if (box != null) {
+      box = box.intersection(new Rectangle(0, 0, width, height));
+    }
+    if (box == null || box.isEmpty()
+        || saved <= (long) BLEND_COST * box.width * box.height) {
+      Arrays.fill(top, false);
+      box = null;
+    }
+    if (aboveBox != null && above != null) {
+      // clear what the last top layer drew, the rest of the image is still transparent
+      Graphics2D g = above.createGraphics();
+      g.setBackground(new Color(0, 0, 0, 0));
+      g.clearRect(aboveBox.x, aboveBox.y, aboveBox.width, aboveBox.height);
+      g.dispose();
+    }
+    aboveBox = box;
+  }
+
+  /**
+   * Estimates the cost of drawing a static shape, in filled pixels.
+   */
+  private long cost(FrameBuffer frame, int slot) {
+    long w = Math.max(0, Math.min(width, span.getMaxX(slot) + 1) - Math.max(0,
+        span.getMinX(slot)));
+    long h = Math.max(0, Math.min(height, span.getMaxY(slot) + 1) - Math.max(0,
+        span.getMinY(slot)));
+    long area = fill ? w * h : 2 * (w + h);
+    ShapeType type = frame.getShapeType(slot);
+    if (type == ShapeType.Ellipse) {
+      return 8000 + 4 * area;
+    } else if (type == ShapeType.Plus) {
+      return 6000 + area;
+    }
+    return 1000 + area;
+  }
+
+  /**
+   * Checks if any cell under the box of a shape is marked, or marks them all.  Outlines are one
+   * pixel wider and taller than the box, and boxes outside the grid are clamped to its edges.
+   */
+  private boolean touches(int slot, boolean mark) {
+    int left = cell(span.getMinX(slot), columns);
+    int right = cell(span.getMaxX(slot) + 1, columns);
+    int upper = cell(span.getMinY(slot), rows);
+    int lower = cell(span.getMaxY(slot) + 1, rows);
+    for (int row = upper; row <= lower; row++) {
+      for (int column = left; column <= right; column++) {
+        if (mark) {
+          cells[row * columns + column] = true;
+        } else if (cells[row * columns + column]) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static int cell(int pixel, int count) {
+    return Math.max(0, Math.min(count - 1, Math.floorDiv(pixel, CELL)));
+  }
+
+  /**
+   * Draws the static shapes of the frame into the layers that are used.  Shapes that the frame
+   * left out, being outside its viewport, are left out of the layers too.
+   */
+  private void drawLayers(FrameBuffer frame) {
+    if (useBelow) {
+      if (below == null) {
+        below = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+      }
+      Graphics2D g = below.createGraphics();
+      g.setColor(background);
+      g.fillRect(0, 0, width, height);
+      for (int slot = 0; slot < bottom.length; slot++) {
+        if (bottom[slot] && frame.isVisible(slot)) {
+          painter.paintShape(g, frame, slot, fill);
+        }
+      }
+      g.dispose();
+    }
+    if (aboveBox != null) {
+      if (above == null) {
+        above = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+      }
+      Graphics2D g = above.createGraphics();
+      for (int slot = 0; slot < top.length; slot++) {
+        if (top[slot] && frame.isVisible(slot)) {
+          painter.paintShape(g, frame, slot, fill);
+        }
+      }
+      g.dispose();
+    }
+  }
+}
@@ -0,0 +1,212 @@
+package cs3500.animator.view;
+
+import cs3500.animator.model.Animation;
+import cs3500.animator.model.Motion;
+import cs3500.animator.model.ShapeType;
+import cs3500.animator.util.AnimationBuilder;
+import cs3500.animator.util.AnimationReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Represents an SVG view that writes the SVG of an animation file while the file is read, without
+ * loading the animation into a model.  The reader passes each command straight to a builder that
+ * writes it: a shape's element is opened at its first motion and closed at the first motion of
+ * another shape or at the end of the file, so only the canvas and the names and types of the
+ * shapes are kept in memory, however many motions there are.
+ *
+ * <p>The SVG view writes the shapes in the order of their first motion, and the motions of each
+ * shape together, so the text is only the same when the file lists the motions of each shape
+ * together, after the canvas and the shape lines they need, as the text view does.  canStream
+ * reads the file once without writing anything to check this, along with every error that
+ * loading the animation would report, so that render never stops part way through the output.
+ * Files whose motions are sorted by time, as most of the bundled inputs are, cannot be streamed
+ * and have to be loaded instead.</p>
+ */
+public final class StreamingSVGViewI implements IAnimationView {
+
+  private final Path file;
+  private final Appendable ap;
+  private final double msPerUnit;
+  private boolean checked;
+
+  /**
+   * Constructor for StreamingSVGViewI that takes in the file to convert and the speed from the
+   * command line input.  The canvas is read from the file.
+   *
+   * @param file  text animation file to convert.
+   * @param ap    Appendable to write the SVG to.
+   * @param speed speed of the animation.
+   */
+  public StreamingSVGViewI(Path file, Appendable ap, int speed) {
+    if (file == null) {
+      throw new IllegalArgumentException("File cannot be null.");
+    }
+    if (ap == null) {
+      throw new IllegalArgumentException("Appendable cannot be null.");
+    }
+    if (speed <= 0) {
+      throw new IllegalArgumentException("Speed must be greater than 0.");
+    }
+    this.file = file;
+    this.ap = ap;
+    this.msPerUnit = 1000.0 / speed;
+  }
+
+  /**
+   * Checks if the file can be converted while it is read, giving the same SVG as loading it and
+   * using the SVG view.  The file must be a valid animation that gives its canvas before the
+   * first motion and lists the motions of each shape together.
+   *
+   * @return true if render writes the same SVG as the SVG view.
+   * @throws IOException if the file cannot be read.
+   */
+  public boolean canStream() throws IOException {
+    try {
+      check();
+      return true;
+    } catch (IllegalStateException | IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Converts the file, checking it first unless canStream already has, so nothing is written
+   * when the file cannot be converted.
+   *
+   * @throws IOException if the file cannot be read or for bad appendable.
+   * @throws IllegalStateException if the motions of a shape are not listed together, or the file
+   *     is not a valid animation.
+   * @throws IllegalArgumentException if a shape or motion is invalid.
+   */
+  @Override
+  public void render() throws IOException {
+    if (!checked) {
+      check();
+    }
+    convert(new SVGWriter(ap));
+  }
+
+  /**
+   * Converts the file without writing anything, which throws the same errors as converting it.
+   */
+  private void check() throws IOException {
+    convert(new SVGWriter(null));
+    checked = true;
+  }
+
+  private void convert(SVGWriter out) throws IOException {
+    try (Reader reader = new InputStreamReader(Files.newInputStream(file),
+        StandardCharsets.UTF_8)) {
+      AnimationReader.parseFile(reader, new Converter(out));
+    }
+  }
+
+  /**
+   * Builder that writes each command as it is parsed.  Checks the shapes and motions the same way
+   * as Animation.Builder, and keeps the declared shapes in an Animation without any motions.
+   */
+  private final class Converter implements AnimationBuilder<Long> {
+
+    private final SVGWriter out;
+    private final Animation shapes = new Animation();
+    private final Set<String> written = new HashSet<>();
+    private int[] canvas;
+    private boolean opened;
+    private String current;
+    private ShapeType type;
+
+    private Converter(SVGWriter out) {
+      this.out = out;
+    }
+
+    /**
+     * Writes the opening tag of the file, once the first element is about to be written.
+     */
+    private void openFile() throws IOException {
+      if (!opened) {
+        if (canvas == null) {
+          throw new IllegalStateException("The canvas must be given before the motions.");
+        }
+        SVGViewI.writeOpenSVG(out, canvas[0], canvas[1], canvas[2], canvas[3]);
+        opened = true;
+      }
+    }
+
+    /**
+     * Closes the element of the current shape, if there is one.
+     */
+    private void closeShape() throws IOException {
+      if (current != null) {
+        SVGViewI.closeShapeSVG(out, type);
+        written.add(current);
+        current = null;
+      }
+    }
+
+    @Override
+    public Long build() {
+      try {
+        openFile();
+        closeShape();
+        out.append("</svg>");
+        out.flush();
+      } catch (IOException e) {
+        throw new IllegalStateException("Bad Appendable.", e);
+      }
+      return out.written();
+    }
+
+    @Override
+    public AnimationBuilder<Long> setBounds(int x, int y, int width, int height) {
+      if (width <= 0 || height <= 0) {
+        throw new IllegalArgumentException("Canvas dimensions must be greater than 0.");
+      }
+      if (opened) {
+        throw new IllegalStateException("The canvas must be given before the motions.");
+      }
+      canvas = new int[]{x, y, width, height};
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<Long> declareShape(String name, String type) {
+      shapes.addShape(name, type);
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<Long> addMotion(String name, int t1, int x1, int y1, int w1, int h1,
+        int r1, int g1, int b1, int t2, int x2, int y2, int w2, int h2, int r2, int g2, int b2) {
+      ShapeType shapeType = shapes.getShapeType(name);
+      if (shapeType == null) {
+        throw new IllegalArgumentException("Attempted to move shape that does not exist.");
+      }
+      Motion motion = new Motion(Animation.createShape(shapeType, x1, y1, w1, h1, r1, g1, b1),
+          Animation.createShape(shapeType, x2, y2, w2, h2, r2, g2, b2), t1, t2);
+      try {
+        if (!name.equals(current)) {
+          if (written.contains(name)) {
+            throw new IllegalStateException("Motions of shape " + name
+                + " are not listed together.");
+          }
+          closeShape();
+          openFile();
+          SVGViewI.openShapeSVG(out, name, motion, msPerUnit);
+          current = name;
+          type = shapeType;
+        }
+        SVGViewI.motionSVG(out, motion, msPerUnit);
+      } catch (IOException e) {
+        throw new IllegalStateException("Bad Appendable.", e);
+      }
+      return this;
+    }
+  }
+}
@@ -5,12 +5,14 @@ import cs3500.animator.model.IShape;
 import cs3500.animator.model.Motion;
 
 import java.io.IOException;
+import java.util.Formatter;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Represents a textual view of an animation by printing a table that provides a comprehensive
- * description of all the shapes and motions within an animation.
+ * description of all the shapes and motions within an animation.  The table is formatted line by
+ * line straight into the Appendable, so a large animation is never held in memory as one String.
  */
 public final class TextualViewI implements IAnimationView {
 
@@ -66,34 +68,42 @@ public final class TextualViewI implements IAnimationView {
    */
   public String toString() {
     StringBuilder builder = new StringBuilder("");
-    builder.append(
-        String.format("canvas %d %d %d %d\n", canvas_x, canvas_y, canvas_width, canvas_height));
+    writeTable(new Formatter(builder));
+    return builder.toString();
+  }
+
+  /**
+   * Formats the table into a Formatter, one line at a time.
+   *
+   * @param out Formatter that receives the table.
+   */
+  private void writeTable(Formatter out) {
+    out.format("canvas %d %d %d %d\n", canvas_x, canvas_y, canvas_width, canvas_height);
 
     Map<String, List<Motion>> description = model.getAnimationDescription();
     for (String name : description.keySet()) {
-      builder.append(
-          String.format("shape %s %s\n", name, model.getShapeType(name).toString().toLowerCase()));
+      out.format("shape %s %s\n", name, model.getShapeType(name).toString().toLowerCase());
       List<Motion> motions = description.get(name);
       for (Motion motion : motions) {
         IShape s1 = motion.getStartShape();
         IShape s2 = motion.getEndShape();
-        String string = String
-            .format("motion %s %.2f %d %d %d %d %d %d %d %.2f %d %d %d %d %d %d %d\n",
-                name, (double) motion.getStartTime() / speed, s1.getX(), s1.getY(), s1.getWidth(),
-                s1.getHeight(), s1.getColor().getRed(), s1.getColor().getGreen(),
-                s1.getColor().getBlue(),
-                (double) motion.getEndTime() / speed, s2.getX(), s2.getY(), s2.getWidth(),
-                s2.getHeight(), s2.getColor().getRed(), s2.getColor().getGreen(),
-                s2.getColor().getBlue());
-        builder.append(string);
+        out.format("motion %s %.2f %d %d %d %d %d %d %d %.2f %d %d %d %d %d %d %d\n",
+            name, (double) motion.getStartTime() / speed, s1.getX(), s1.getY(), s1.getWidth(),
+            s1.getHeight(), s1.getColor().getRed(), s1.getColor().getGreen(),
+            s1.getColor().getBlue(),
+            (double) motion.getEndTime() / speed, s2.getX(), s2.getY(), s2.getWidth(),
+            s2.getHeight(), s2.getColor().getRed(), s2.getColor().getGreen(),
+            s2.getColor().getBlue());
       }
     }
-    return builder.toString();
   }
 
   @Override
   public void render() throws IOException {
-    String string = toString();
-    this.ap.append(string);
+    Formatter out = new Formatter(ap);
+    writeTable(out);
+    if (out.ioException() != null) {
+      throw out.ioException();
+    }
   }
 }
@@ -15,7 +15,9 @@ public class ViewFactory {
     TEXT("TEXT"),
     VISUAL("VISUAL"),
     SVG("SVG"),
-    INTERACTIVE("INTERACTIVE");
+    INTERACTIVE("INTERACTIVE"),
+    FRAMES("FRAMES"),
+    BINARY("BINARY");
 
     private final String viewName;
 
@@ -56,6 +58,7 @@ public class ViewFactory {
   private final int h;
   private final int speed;
   private final Readable slomoRd;
+  private ViewOptions options = new ViewOptions();
 
   /**
    * Constructor for ViewFactory that generates a supported view based on the inputted parameters.
@@ -82,6 +85,18 @@ public class ViewFactory {
     this.slomoRd=slomoRd;
   }
 
+  /**
+   * Sets the optional settings used by the views that this factory creates.
+   *
+   * @param options optional view settings.
+   */
+  public void setOptions(ViewOptions options) {
+    if (options == null) {
+      throw new IllegalArgumentException("Options cannot be null.");
+    }
+    this.options = options;
+  }
+
   /**
    * Method to create a view for an animation based on the user command input of view type. Utilizes
    * the fields initialized in the constructor to generate the view with the proper specifications.
@@ -91,11 +106,20 @@ public class ViewFactory {
       case TEXT:
         return new TextualViewI(model, ap, x, y, w, h, speed);
       case VISUAL:
+        if (options.isActiveRendering()) {
+          return new ActiveVisualViewI(model, ap, x, y, w, h, speed);
+        }
         return new VisualViewI(model, ap, x, y, w, h, speed);
       case SVG:
-        return new SVGViewI(model, ap, x, y, w, h, speed);
+        return new SVGViewI(model, ap, x, y, w, h, speed, options.isParallelSVG(),
+            options.isMinimalSVG());
       case INTERACTIVE:
         return new CompositeView(model, ap, x, y, w, h, speed, slomoRd);
+      case FRAMES:
+        return new FramesViewI(model, x, y, w, h, options.getFramesDirectory(),
+            options.getFrameStep(), options.getFrameThreads());
+      case BINARY:
+        return new BinaryViewI(model, x, y, w, h, options.getBinaryFile());
       default:
         throw new IllegalArgumentException("Unsupported view name: " + name);
     }
@@ -0,0 +1,195 @@
+package cs3500.animator.view;
+
+/**
+ * Optional settings for the views that are not needed by every view, such as how the SVG view
+ * writes its output.  Every setting starts at the behaviour the views had before it existed, so a
+ * default ViewOptions changes nothing.
+ */
+public final class ViewOptions {
+
+  private boolean parallelSVG = false;
+  private boolean minimalSVG = false;
+  private boolean streamingSVG = false;
+  private String framesDirectory = "frames";
+  private int frameStep = 1;
+  private int frameThreads = 1;
+  private boolean activeRendering = false;
+  private String binaryFile = "animation.eab";
+
+  /**
+   * Chooses whether the SVG view writes the elements of the shapes in parallel.  The output is
+   * the same either way.
+   *
+   * @param parallelSVG true to write the shapes on the fork-join pool.
+   * @return these options.
+   */
+  public ViewOptions setParallelSVG(boolean parallelSVG) {
+    this.parallelSVG = parallelSVG;
+    return this;
+  }
+
+  /**
+   * Checks if the SVG view writes the elements of the shapes in parallel.
+   *
+   * @return true if the shapes are written on the fork-join pool.
+   */
+  public boolean isParallelSVG() {
+    return parallelSVG;
+  }
+
+  /**
+   * Chooses whether the SVG view joins the animations of each attribute of a shape into as few
+   * animate elements as possible.  The picture is the same either way, but the file is smaller.
+   *
+   * @param minimalSVG true to write values and keyTimes lists instead of one element per motion.
+   * @return these options.
+   */
+  public ViewOptions setMinimalSVG(boolean minimalSVG) {
+    this.minimalSVG = minimalSVG;
+    return this;
+  }
+
+  /**
+   * Checks if the SVG view joins the animations of each attribute into as few elements as possible.
+   *
+   * @return true if the SVG view writes values and keyTimes lists.
+   */
+  public boolean isMinimalSVG() {
+    return minimalSVG;
+  }
+
+  /**
+   * Chooses whether the SVG of a text file is written while the file is read, without loading the
+   * animation into a model.  The output is the same either way: a file that does not list the
+   * motions of each shape together is loaded as usual.
+   *
+   * @param streamingSVG true to write the SVG straight from the parsed commands.
+   * @return these options.
+   */
+  public ViewOptions setStreamingSVG(boolean streamingSVG) {
+    this.streamingSVG = streamingSVG;
+    return this;
+  }
+
+  /**
+   * Checks if the SVG of a text file is written while the file is read.
+   *
+   * @return true if the SVG is written straight from the parsed commands.
+   */
+  public boolean isStreamingSVG() {
+    return streamingSVG;
+  }
+
+  /**
+   * Sets the directory that the frames view writes its PNG files to.
+   *
+   * @param framesDirectory directory for the frames.
+   * @return these options.
+   */
+  public ViewOptions setFramesDirectory(String framesDirectory) {
+    if (framesDirectory == null) {
+      throw new IllegalArgumentException("Directory cannot be null.");
+    }
+    this.framesDirectory = framesDirectory;
+    return this;
+  }
+
+  /**
+   * Gets the directory that the frames view writes its PNG files to.
+   *
+   * @return directory for the frames.
+   */
+  public String getFramesDirectory() {
+    return framesDirectory;
+  }
+
+  /**
+   * Sets how many ticks apart the frames written by the frames view are.
+   *
+   * @param frameStep number of ticks between frames, 1 to write every tick.
+   * @return these options.
+   */
+  public ViewOptions setFrameStep(int frameStep) {
+    if (frameStep <= 0) {
+      throw new IllegalArgumentException("Step must be greater than 0.");
+    }
+    this.frameStep = frameStep;
+    return this;
+  }
+
+  /**
+   * Gets how many ticks apart the frames written by the frames view are.
+   *
+   * @return number of ticks between frames.
+   */
+  public int getFrameStep() {
+    return frameStep;
+  }
+
+  /**
+   * Sets how many threads the frames view uses to draw and encode frames.
+   *
+   * @param frameThreads number of threads, 1 to render on the calling thread.
+   * @return these options.
+   */
+  public ViewOptions setFrameThreads(int frameThreads) {
+    if (frameThreads <= 0) {
+      throw new IllegalArgumentException("Threads must be greater than 0.");
+    }
+    this.frameThreads = frameThreads;
+    return this;
+  }
+
+  /**
+   * Gets how many threads the frames view uses to draw and encode frames.
+   *
+   * @return number of threads.
+   */
+  public int getFrameThreads() {
+    return frameThreads;
+  }
+
+  /**
+   * Chooses whether the visual view is drawn by its own render thread, which skips ticks when it
+   * falls behind the clock, instead of by a Swing timer.
+   *
+   * @param activeRendering true to use ActiveVisualViewI for the visual view.
+   * @return these options.
+   */
+  public ViewOptions setActiveRendering(boolean activeRendering) {
+    this.activeRendering = activeRendering;
+    return this;
+  }
+
+  /**
+   * Checks if the visual view is drawn by its own render thread.
+   *
+   * @return true if ActiveVisualViewI is used for the visual view.
+   */
+  public boolean isActiveRendering() {
+    return activeRendering;
+  }
+
+  /**
+   * Sets the file that the binary view saves the animation to.
+   *
+   * @param binaryFile name of the file.
+   * @return these options.
+   */
+  public ViewOptions setBinaryFile(String binaryFile) {
+    if (binaryFile == null) {
+      throw new IllegalArgumentException("File cannot be null.");
+    }
+    this.binaryFile = binaryFile;
+    return this;
+  }
+
+  /**
+   * Gets the file that the binary view saves the animation to.
+   *
+   * @return name of the file.
+   */
+  public String getBinaryFile() {
+    return binaryFile;
+  }
+}
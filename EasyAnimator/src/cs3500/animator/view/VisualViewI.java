@@ -63,8 +63,8 @@ public class VisualViewI extends AbstractViews {
         tm.removeActionListener(this);
         this.count = 0;
       } else {
-        shapes = model.getFrameAt(count);
-        repaint();
+        showFrame(count);
+        repaintFrame();
       }
     }
   }
@@ -0,0 +1,150 @@
+package cs3500.animator.controller;
+
+import static org.junit.Assert.assertEquals;
+
+import cs3500.animator.model.Animation;
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.util.AnimationReader;
+import cs3500.animator.util.BinaryAnimationReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.junit.Test;
+
+/**
+ * Test class for AnimationCache.  Checks how entries are named, that the controller loads an
+ * animation from its entry once it has been parsed, replaces entries that cannot be read, and that
+ * the entries used longest ago are deleted first.
+ */
+public class AnimationCacheTests {
+
+  private static final String INPUT = "canvas 10 20 400 300\n"
+      + "shape r rectangle\n"
+      + "shape e ellipse\n"
+      + "motion r 1 200 200 50 100 255 0 0  10 10 200 50 100 255 0 0\n"
+      + "motion e 2 5 6 7 8 0 0 255  20 -5 -6 70 80 0 128 255\n";
+
+  private static final String OTHER = "canvas 0 0 100 100\n"
+      + "shape p plus\n"
+      + "motion p 3 1 1 9 9 1 2 3  30 1 1 9 9 1 2 3\n";
+
+  private static Path write(Path directory, String name, String input) throws IOException {
+    return Files.write(directory.resolve(name), input.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String text(Path file, Path cache) {
+    StringBuilder out = new StringBuilder();
+    AnimationController controller = new AnimationController(file, out, null);
+    controller.useCache(cache, 1 << 20);
+    controller.animate(1, "text");
+    return out.toString();
+  }
+
+  private static void store(AnimationCache cache, Path entry, String input) throws IOException {
+    Animation.Builder builder = new Animation.Builder(1, new StringBuilder());
+    IAnimation model = AnimationReader.parseFile(new StringReader(input), builder);
+    cache.store(entry, model, builder.getCanvasX(), builder.getCanvasY(),
+        builder.getCanvasWidth(), builder.getCanvasHeight());
+  }
+
+  @Test
+  public void testEntryKeyedByContent() throws IOException {
+    Path directory = Files.createTempDirectory("cache");
+    AnimationCache cache = new AnimationCache(directory.resolve("entries"), 1 << 20);
+    Path entry = cache.entry(write(directory, "a.txt", INPUT));
+    assertEquals(entry, cache.entry(write(directory, "b.txt", INPUT)));
+    assertEquals(false, entry.equals(cache.entry(write(directory, "c.txt", OTHER))));
+    assertEquals(directory.resolve("entries"), entry.getParent());
+    assertEquals(true, entry.getFileName().toString()
+        .endsWith("-v" + BinaryAnimationReader.VERSION + ".eab"));
+    assertEquals(false, cache.contains(entry));
+  }
+
+  @Test
+  public void testStampAvoidsHashing() throws IOException {
+    Path directory = Files.createTempDirectory("cache");
+    AnimationCache cache = new AnimationCache(directory.resolve("entries"), 1 << 20);
+    Path file = write(directory, "a.txt", INPUT);
+    FileTime old = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+    Files.setLastModifiedTime(file, old);
+    Path entry = cache.entry(file);
+    // same size and modification time, so the stamp is trusted without reading the file
+    write(directory, "a.txt", INPUT.replace("ellipse", "rectang"));
+    Files.setLastModifiedTime(file, old);
+    assertEquals(entry, cache.entry(file));
+    Files.setLastModifiedTime(file, FileTime.fromMillis(old.toMillis() + 1000));
+    assertEquals(false, entry.equals(cache.entry(file)));
+  }
+
+  @Test
+  public void testLoadsFromEntry() throws IOException {
+    Path directory = Files.createTempDirectory("cache");
+    Path file = write(directory, "input.txt", INPUT);
+    Path cache = directory.resolve("cache");
+    String expected = text(file, null);
+    assertEquals(expected, text(file, cache));
+    Path entry = new AnimationCache(cache, 1 << 20).entry(file);
+    assertEquals(true, BinaryAnimationReader.isBinary(entry));
+    assertEquals(expected, text(file, cache));
+    // an entry is only read back, so a different animation saved in its place is what loads
+    store(new AnimationCache(cache, 1 << 20), entry, OTHER);
+    assertEquals(text(write(directory, "other.txt", OTHER), null), text(file, cache));
+  }
+
+  @Test
+  public void testUnreadableEntryReplaced() throws IOException {
+    Path directory = Files.createTempDirectory("cache");
+    Path file = write(directory, "input.txt", INPUT);
+    Path cache = directory.resolve("cache");
+    Files.createDirectories(cache);
+    Path entry = new AnimationCache(cache, 1 << 20).entry(file);
+    Files.write(entry, new byte[]{'E', 'A', 'N', 'B', 7, 0, 0, 0});
+    assertEquals(text(file, null), text(file, cache));
+    assertEquals(true, BinaryAnimationReader.isBinary(entry));
+    assertEquals(true, Files.size(entry) > 8);
+  }
+
+  @Test
+  public void testBadMotionInEntryReplaced() throws IOException {
+    Path directory = Files.createTempDirectory("cache");
+    Path file = write(directory, "input.txt", INPUT);
+    Path cache = directory.resolve("cache");
+    String expected = text(file, null);
+    assertEquals(expected, text(file, cache));
+    // the header and shape table are fine, but the second motion starts at a negative time
+    Path entry = new AnimationCache(cache, 1 << 20).entry(file);
+    ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(entry)).order(ByteOrder.LITTLE_ENDIAN);
+    bytes.putInt(bytes.getInt(8 * Integer.BYTES)
+        + BinaryAnimationReader.MOTION_INTS * Integer.BYTES, -1);
+    Files.write(entry, bytes.array());
+    assertEquals(expected, text(file, cache));
+    assertEquals(expected, text(file, cache));
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed() throws IOException {
+    Path directory = Files.createTempDirectory("cache");
+    Path a = write(directory, "a.txt", INPUT);
+    Path b = write(directory, "b.txt", OTHER);
+    Path c = write(directory, "c.txt", INPUT + "shape x ellipse\n");
+    AnimationCache unlimited = new AnimationCache(directory.resolve("cache"), 1 << 20);
+    store(unlimited, unlimited.entry(a), INPUT);
+    store(unlimited, unlimited.entry(b), OTHER);
+    // room for the entries of a and c, which hold the same animation
+    long size = 2 * Files.size(unlimited.entry(a));
+    Files.setLastModifiedTime(unlimited.entry(a), FileTime.fromMillis(1000));
+    Files.setLastModifiedTime(unlimited.entry(b), FileTime.fromMillis(2000));
+    assertEquals(true, unlimited.contains(unlimited.entry(a)));
+
+    AnimationCache cache = new AnimationCache(directory.resolve("cache"), size);
+    store(cache, cache.entry(c), INPUT);
+    assertEquals(true, Files.exists(cache.entry(a)));
+    assertEquals(false, Files.exists(cache.entry(b)));
+    assertEquals(true, Files.exists(cache.entry(c)));
+  }
+}
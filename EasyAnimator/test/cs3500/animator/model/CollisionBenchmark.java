@@ -0,0 +1,86 @@
+package cs3500.animator.model;
+
+import cs3500.animator.util.AnimationReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Benchmark for finding collisions.  Times finding every collision from the motions against
+ * comparing every pair of shapes at every tick, for inputs with at most a thousand shapes: in
+ * big-bang-big-crunch every particle starts on top of every other, so there are millions of
+ * collisions however they are found.  Run from the EasyAnimator directory so that the input
+ * files can be found.
+ */
+public final class CollisionBenchmark {
+
+  private static final String[] INPUTS = {"src/inputs/toh-12.txt",
+      "src/inputs/big-bang-big-crunch.txt"};
+
+  /**
+   * Runs the benchmark for each input file.
+   *
+   * @param args optional list of input files to use instead of the defaults.
+   * @throws IOException if an input file cannot be read.
+   */
+  public static void main(String[] args) throws IOException {
+    String[] inputs = args.length > 0 ? args : INPUTS;
+    for (String input : inputs) {
+      IAnimation model = load(input);
+      int maxT = model.getAnimationBounds().maxT;
+      int shapes = model.getAnimationDescription().size();
+      if (shapes > 1000) {
+        System.out.printf("%s: %d shapes, skipped%n", input, shapes);
+        continue;
+      }
+      for (int round = 0; round < 3; round++) {
+        long start = System.nanoTime();
+        int swept = model.getCollisions().size();
+        long middle = System.nanoTime();
+        int scanned = collisionsByFrame(model, maxT);
+        long end = System.nanoTime();
+        if (swept != scanned) {
+          throw new IllegalStateException("Different collisions: " + swept + " vs " + scanned);
+        }
+        System.out.printf("%s (round %d): %d collisions, motions %.1f ms, every frame %.1f ms "
+                + "(%.1fx)%n", input, round, swept, (middle - start) / 1e6, (end - middle) / 1e6,
+            (double) (end - middle) / (middle - start));
+      }
+    }
+  }
+
+  private static IAnimation load(String input) throws IOException {
+    try (Reader reader = new FileReader(input)) {
+      return AnimationReader.parseFile(reader,
+          new ColumnarAnimation.Builder(1, new StringBuilder()));
+    }
+  }
+
+  /**
+   * Counts collisions by comparing the boxes of every pair of shapes at every tick, the way they
+   * would be found without CollisionFinder.
+   */
+  private static int collisionsByFrame(IAnimation model, int maxT) {
+    FrameBuffer frame = null;
+    int size = model.getAnimationDescription().size();
+    boolean[] touching = new boolean[size * size];
+    int collisions = 0;
+    for (int t = 0; t <= maxT + 1; t++) {
+      frame = model.getFrameAt(t, frame);
+      for (int a = 0; a < size; a++) {
+        for (int b = a + 1; b < size; b++) {
+          boolean overlap = frame.isVisible(a) && frame.isVisible(b)
+              && frame.getX(a) <= frame.getX(b) + frame.getWidth(b)
+              && frame.getX(b) <= frame.getX(a) + frame.getWidth(a)
+              && frame.getY(a) <= frame.getY(b) + frame.getHeight(b)
+              && frame.getY(b) <= frame.getY(a) + frame.getHeight(a);
+          if (overlap && !touching[a * size + b]) {
+            collisions++;
+          }
+          touching[a * size + b] = overlap;
+        }
+      }
+    }
+    return collisions;
+  }
+}
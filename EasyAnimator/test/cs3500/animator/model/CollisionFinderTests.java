@@ -0,0 +1,122 @@
+package cs3500.animator.model;
+
+import static org.junit.Assert.assertEquals;
+
+import cs3500.animator.util.AnimationReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Test class for the collisions found by CollisionFinder.  Checks a small scene by hand, and random
+ * scenes against comparing every pair of shapes with overlapWith at every tick.
+ */
+public class CollisionFinderTests {
+
+  private static IAnimation load(String input, Animation.Builder builder) {
+    return AnimationReader.parseFile(new StringReader(input), builder);
+  }
+
+  private static List<String> strings(List<Collision> collisions) {
+    List<String> result = new ArrayList<>();
+    for (Collision collision : collisions) {
+      result.add(collision.toString());
+    }
+    return result;
+  }
+
+  @Test
+  public void testCollisions() {
+    String input = "canvas 0 0 200 200\n"
+        + "shape left rectangle\n"
+        + "shape right ellipse\n"
+        + "shape wall rectangle\n"
+        + "motion left 0 0 0 10 10 255 0 0  20 100 0 10 10 255 0 0\n"
+        + "motion right 0 100 0 10 10 0 0 255  20 0 0 10 10 0 0 255\n"
+        + "motion wall 0 45 0 10 10 0 0 0  8 45 0 10 10 0 0 0\n"
+        + "motion wall 8 45 0 10 10 0 0 0  40 45 64 10 10 0 0 0\n";
+    for (Animation.Builder builder : new Animation.Builder[]{
+        new Animation.Builder(1, new StringBuilder()),
+        new ColumnarAnimation.Builder(1, new StringBuilder())}) {
+      IAnimation model = load(input, builder);
+      // left and right close in at 10 pixels a tick and are within 10 pixels from tick 9 to 11;
+      // the wall waits, then sinks out of their row after tick 13
+      assertEquals(Arrays.asList("left right 9 11", "left wall 7 11", "right wall 9 13"),
+          strings(model.getCollisions()));
+      Collision first = model.getCollisions().get(0);
+      assertEquals("left", first.getFirst());
+      assertEquals("right", first.getSecond());
+      assertEquals(9, first.getStart());
+      assertEquals(11, first.getEnd());
+    }
+  }
+
+  @Test
+  public void testSameAsEveryFrame() {
+    Random random = new Random(3);
+    for (int scene = 0; scene < 20; scene++) {
+      StringBuilder input = new StringBuilder("canvas 0 0 300 300\n");
+      for (int i = 0; i < 30; i++) {
+        input.append("shape s").append(i).append(i % 2 == 0 ? " rectangle\n" : " ellipse\n");
+        int t = random.nextInt(5);
+        int[] state = {random.nextInt(300), random.nextInt(300), 1 + random.nextInt(60),
+            1 + random.nextInt(60)};
+        for (int m = 0; m < 1 + random.nextInt(4); m++) {
+          int end = t + random.nextInt(25);
+          int[] next = random.nextInt(4) == 0 ? state.clone() : new int[]{random.nextInt(300),
+              random.nextInt(300), 1 + random.nextInt(60), 1 + random.nextInt(60)};
+          input.append("motion s").append(i).append(' ').append(t);
+          for (int value : state) {
+            input.append(' ').append(value);
+          }
+          input.append(" 0 0 0 ").append(end);
+          for (int value : next) {
+            input.append(' ').append(value);
+          }
+          input.append(" 0 0 0\n");
+          // leave a gap now and then, and let motions overlap in time now and then
+          t = Math.max(0, end + (random.nextInt(5) == 0 ? 3 : 0)
+              - (random.nextInt(8) == 0 ? 2 : 0));
+          state = next;
+        }
+      }
+      IAnimation model = load(input.toString(),
+          new ColumnarAnimation.Builder(1, new StringBuilder()));
+      assertEquals("scene " + scene, everyFrame(model), strings(model.getCollisions()));
+    }
+  }
+
+  /**
+   * Finds the collisions by comparing every pair of shapes at every tick.
+   */
+  private static List<String> everyFrame(IAnimation model) {
+    List<String> names = new ArrayList<>(model.getAnimationDescription().keySet());
+    int maxT = model.getAnimationBounds().maxT;
+    List<String> collisions = new ArrayList<>();
+    List<Map<String, IShape>> frames = new ArrayList<>();
+    for (int t = 0; t <= maxT + 1; t++) {
+      frames.add(model.getFrameAt(t));
+    }
+    for (int i = 0; i < names.size(); i++) {
+      for (int j = i + 1; j < names.size(); j++) {
+        int start = -1;
+        for (int t = 0; t <= maxT + 1; t++) {
+          IShape a = frames.get(t).get(names.get(i));
+          IShape b = frames.get(t).get(names.get(j));
+          boolean overlap = a != null && b != null && model.overlapWith(a, b);
+          if (overlap && start < 0) {
+            start = t;
+          } else if (!overlap && start >= 0) {
+            collisions.add(names.get(i) + " " + names.get(j) + " " + start + " " + (t - 1));
+            start = -1;
+          }
+        }
+      }
+    }
+    return collisions;
+  }
+}
@@ -0,0 +1,342 @@
+package cs3500.animator.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import cs3500.animator.util.AnimationReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+/**
+ * Test class for ColumnarAnimation.  Checks that it describes and plays an animation the same way
+ * as Animation.
+ */
+public class ColumnarAnimationTests {
+
+  private static final String INPUT = "canvas 0 0 400 400\n"
+      + "shape r rectangle\n"
+      + "shape e ellipse\n"
+      + "motion r 1 200 200 50 100 255 0 0  10 10 200 50 100 255 0 0\n"
+      + "motion r 10 10 200 50 100 255 0 0  50 300 300 25 100 0 0 255\n"
+      + "motion e 5 50 100 25 40 0 0 255  5 50 100 25 40 0 0 255\n"
+      + "motion e 5 50 100 25 40 0 0 255  70 200 55 25 40 0 255 0\n";
+
+  private IAnimation load(Animation.Builder builder) {
+    return AnimationReader.parseFile(new StringReader(INPUT), builder);
+  }
+
+  @Test
+  public void testSameDescriptionAsAnimation() {
+    IAnimation expected = load(new Animation.Builder(1, new StringBuilder()));
+    IAnimation actual = load(new ColumnarAnimation.Builder(1, new StringBuilder()));
+    assertEquals(expected.toString(), actual.toString());
+    assertEquals(expected.getAnimationDescription().keySet(),
+        actual.getAnimationDescription().keySet());
+    assertNull(actual.getAnimationDescription().get("missing"));
+  }
+
+  @Test
+  public void testSameFramesAsAnimation() {
+    IAnimation expected = load(new Animation.Builder(1, new StringBuilder()));
+    IAnimation actual = load(new ColumnarAnimation.Builder(1, new StringBuilder()));
+    for (int t = 0; t <= 71; t++) {
+      Map<String, IShape> frame1 = expected.getFrameAt(t);
+      Map<String, IShape> frame2 = actual.getFrameAt(t);
+      assertEquals(frame1.keySet(), frame2.keySet());
+      for (String name : frame1.keySet()) {
+        IShape s1 = frame1.get(name);
+        IShape s2 = frame2.get(name);
+        assertEquals(s1.getX(), s2.getX());
+        assertEquals(s1.getY(), s2.getY());
+        assertEquals(s1.getWidth(), s2.getWidth());
+        assertEquals(s1.getHeight(), s2.getHeight());
+        assertEquals(s1.getColor(), s2.getColor());
+        assertEquals(s1.getShapeType(), s2.getShapeType());
+      }
+    }
+  }
+
+  @Test
+  public void testCursorMatchesGetFrameAt() {
+    IAnimation model = load(new ColumnarAnimation.Builder(1, new StringBuilder()));
+    PlaybackCursor cursor = model.getPlaybackCursor();
+    for (int t = 0; t <= 71; t++) {
+      assertSameFrame(model.getFrameAt(t, null), cursor.advance());
+    }
+    int[] seeks = {3, 60, 10, 0, 50, 51, 5, 71, 9};
+    for (int t : seeks) {
+      assertSameFrame(model.getFrameAt(t, null), cursor.seek(t));
+    }
+  }
+
+  @Test
+  public void testCursorReset() {
+    IAnimation model = load(new Animation.Builder(1, new StringBuilder()));
+    PlaybackCursor cursor = model.getPlaybackCursor();
+    assertFalse(cursor.seek(60).isVisible(0));
+    cursor.reset();
+    assertEquals(0, cursor.advance().getTime());
+    assertFalse(cursor.seek(0).isVisible(0));
+    assertEquals(200, cursor.seek(1).getX(0));
+  }
+
+  @Test
+  public void testKeyframes() {
+    for (IAnimation model : new IAnimation[]{load(new Animation.Builder(1, new StringBuilder())),
+        load(new ColumnarAnimation.Builder(1, new StringBuilder()))}) {
+      assertEquals(1, model.nextKeyframe(0));
+      assertEquals(5, model.nextKeyframe(1));
+      assertEquals(10, model.nextKeyframe(7));
+      assertEquals(50, model.nextKeyframe(10));
+      assertEquals(70, model.nextKeyframe(50));
+      assertEquals(-1, model.nextKeyframe(70));
+      assertEquals(-1, model.prevKeyframe(1));
+      assertEquals(1, model.prevKeyframe(5));
+      assertEquals(50, model.prevKeyframe(70));
+      assertEquals(70, model.prevKeyframe(500));
+    }
+  }
+
+  @Test
+  public void testKeyframesAfterAddMotion() {
+    IAnimation model = load(new ColumnarAnimation.Builder(1, new StringBuilder()));
+    assertEquals(-1, model.nextKeyframe(70));
+    IShape shape = new Rectangle(50, 100, new Position2D(200, 200), 0, java.awt.Color.red);
+    model.addMotion("r", new Motion(shape, shape, 80, 90));
+    assertEquals(80, model.nextKeyframe(70));
+    assertEquals(90, model.prevKeyframe(95));
+  }
+
+  @Test
+  public void testStaticSpan() {
+    String input = "canvas 0 0 400 400\n"
+        + "shape a rectangle\n"
+        + "shape b ellipse\n"
+        + "motion a 0 10 10 20 20 255 0 0  10 10 10 20 20 255 0 0\n"
+        + "motion a 10 10 10 20 20 255 0 0  30 10 10 20 20 255 0 0\n"
+        + "motion a 30 10 10 20 20 255 0 0  40 50 10 20 20 255 0 0\n"
+        + "motion b 0 100 100 10 10 0 0 255  20 100 100 10 10 0 0 255\n"
+        + "motion b 20 100 100 10 10 0 0 255  40 200 100 10 10 0 0 255\n";
+    for (Animation.Builder builder : new Animation.Builder[]{
+        new Animation.Builder(1, new StringBuilder()),
+        new ColumnarAnimation.Builder(1, new StringBuilder())}) {
+      IAnimation model = AnimationReader.parseFile(new StringReader(input), builder);
+      // both shapes still for 20 ticks beats one shape still for 30
+      StaticSpan span = model.getStaticSpan(0);
+      assertEquals(0, span.getStart());
+      assertEquals(19, span.getEnd());
+      assertTrue(span.isStatic(0));
+      assertTrue(span.isStatic(1));
+      assertEquals(10, span.getMinX(0));
+      assertEquals(30, span.getMaxY(0));
+
+      span = model.getStaticSpan(20);
+      assertEquals(29, span.getEnd());
+      assertTrue(span.isStatic(0));
+      assertFalse(span.isStatic(1));
+      assertTrue(span.isVisible(1));
+      assertEquals(100, span.getMinX(1));
+      assertEquals(210, span.getMaxX(1));
+
+      span = model.getStaticSpan(35);
+      assertEquals(35, span.getEnd());
+      assertFalse(span.isStatic(0));
+      assertEquals(70, span.getMaxX(0));
+
+      span = model.getStaticSpan(50);
+      assertFalse(span.isVisible(0));
+      assertFalse(span.isVisible(1));
+    }
+  }
+
+  @Test
+  public void testStaticSpanToEndOfTime() {
+    String input = "canvas 0 0 400 400\n"
+        + "shape a rectangle\n"
+        + "shape b ellipse\n"
+        + "motion a 0 10 10 20 20 255 0 0  2147483647 10 10 20 20 255 0 0\n"
+        + "motion b 0 100 100 10 10 0 0 255  10 100 100 10 10 0 0 255\n";
+    for (Animation.Builder builder : new Animation.Builder[]{
+        new Animation.Builder(1, new StringBuilder()),
+        new ColumnarAnimation.Builder(1, new StringBuilder())}) {
+      IAnimation model = AnimationReader.parseFile(new StringReader(input), builder);
+      // one shape still until the last tick there is beats both shapes still for 11 ticks
+      StaticSpan span = model.getStaticSpan(0);
+      assertEquals(Integer.MAX_VALUE, span.getEnd());
+      assertTrue(span.isStatic(0));
+      assertFalse(span.isStatic(1));
+    }
+  }
+
+  @Test
+  public void testViewport() {
+    StringBuilder input = new StringBuilder("canvas 0 0 2000 2000\n");
+    for (int i = 0; i < 100; i++) {
+      int x = (i % 10) * 200;
+      int y = (i / 10) * 200;
+      input.append("shape s").append(i).append(i % 2 == 0 ? " rectangle\n" : " ellipse\n");
+      input.append("motion s").append(i).append(" 0 ").append(x).append(' ').append(y)
+          .append(" 30 30 255 0 0  40 ").append(x + 120 * (i % 3)).append(' ').append(y)
+          .append(" 30 30 0 0 255\n");
+    }
+    for (Animation.Builder builder : new Animation.Builder[]{
+        new Animation.Builder(1, new StringBuilder()),
+        new ColumnarAnimation.Builder(1, new StringBuilder())}) {
+      IAnimation model = AnimationReader.parseFile(new StringReader(input.toString()), builder);
+      PlaybackCursor cursor = model.getPlaybackCursor();
+      cursor.setViewport(150, 150, 300, 300);
+      FrameBuffer clipped = null;
+      for (int t = 0; t <= 40; t++) {
+        FrameBuffer full = model.getFrameAt(t, null);
+        assertInViewport(full, cursor.advance(), 150, 150, 300, 300);
+        clipped = model.getFrameAt(t, clipped, 150, 150, 300, 300);
+        assertInViewport(full, clipped, 150, 150, 300, 300);
+      }
+      // shapes far from the viewport are left out
+      assertFalse(cursor.seek(20).isVisible(99));
+      assertFalse(clipped.isVisible(99));
+      cursor.setViewport(1700, 1700, 100, 100);
+      assertTrue(cursor.seek(20).isVisible(99));
+      assertFalse(cursor.seek(20).isVisible(0));
+      cursor.clearViewport();
+      assertSameFrame(model.getFrameAt(20, null), cursor.seek(20));
+    }
+  }
+
+  /**
+   * Checks that every shape of a full frame that overlaps a viewport is in the culled frame, and
+   * that every shape of the culled frame is the same as in the full one.
+   */
+  private static void assertInViewport(FrameBuffer full, FrameBuffer culled, int x, int y,
+      int width, int height) {
+    assertEquals(full.getTime(), culled.getTime());
+    for (int slot = 0; slot < full.size(); slot++) {
+      boolean inside = full.isVisible(slot) && full.getX(slot) <= x + width
+          && x <= full.getX(slot) + full.getWidth(slot) && full.getY(slot) <= y + height
+          && y <= full.getY(slot) + full.getHeight(slot);
+      if (inside) {
+        assertTrue(culled.isVisible(slot));
+      }
+      if (culled.isVisible(slot)) {
+        assertEquals(full.getX(slot), culled.getX(slot));
+        assertEquals(full.getY(slot), culled.getY(slot));
+        assertEquals(full.getWidth(slot), culled.getWidth(slot));
+        assertEquals(full.getHeight(slot), culled.getHeight(slot));
+        assertEquals(full.getRGB(slot), culled.getRGB(slot));
+      }
+    }
+  }
+
+  @Test
+  public void testBounds() {
+    String input = "canvas -50 -50 200 200\n"
+        + "shape a rectangle\n"
+        + "motion a 0 -40 -30 10 10 255 0 0  10 -20 -30 10 10 255 0 0\n"
+        + "motion a 10 -20 -30 10 10 255 0 0  20 -20 -30 10 10 255 0 0\n";
+    for (Animation.Builder builder : new Animation.Builder[]{
+        new Animation.Builder(1, new StringBuilder()),
+        new ColumnarAnimation.Builder(1, new StringBuilder())}) {
+      IAnimation model = AnimationReader.parseFile(new StringReader(input), builder);
+      // every shape is left of and above the origin
+      assertBounds(-40, -30, -10, -20, 20, model.getAnimationBounds());
+
+      IShape start = new Ellipse(10, 10, new Position2D(30, 40), 0, java.awt.Color.blue);
+      IShape end = new Ellipse(30, 10, new Position2D(50, 40), 0, java.awt.Color.blue);
+      model.addMotion("b", new Motion(start, end, 5, 15));
+      assertBounds(-40, -30, 80, 50, 20, model.getAnimationBounds());
+
+      assertBounds(-40, -30, -22, -20, 4, model.getBoundsDuring(0, 4));
+      // b is 24 wide at x 44 at tick 12
+      assertBounds(-20, -30, 80, 50, 20, model.getBoundsDuring(12, 30));
+      assertBounds(-20, -30, 68, 50, 12, model.getBoundsDuring(12, 12));
+      assertNull(model.getBoundsDuring(21, 30));
+    }
+    IAnimation empty = AnimationReader.parseFile(new StringReader("canvas 0 0 10 10\n"),
+        new ColumnarAnimation.Builder(1, new StringBuilder()));
+    assertBounds(0, 0, 0, 0, 0, empty.getAnimationBounds());
+    assertNull(empty.getBoundsDuring(0, 100));
+  }
+
+  @Test
+  public void testBoundsOfMotionList() {
+    IShape start = new Rectangle(10, 10, new Position2D(0, 0), 0, java.awt.Color.red);
+    IShape end = new Rectangle(10, 10, new Position2D(20, 0), 0, java.awt.Color.red);
+    IShape far = new Rectangle(10, 10, new Position2D(500, 0), 0, java.awt.Color.red);
+    for (IAnimation model : new IAnimation[]{new Animation(), new ColumnarAnimation()}) {
+      List<Motion> motions = new ArrayList<>();
+      motions.add(new Motion(start, end, 0, 10));
+      model.addMotionList("a", motions);
+      // the model keeps its own copy, so a motion added to the list afterwards is not in it
+      motions.add(new Motion(end, far, 10, 20));
+      assertBounds(0, 0, 30, 10, 10, model.getAnimationBounds());
+      assertEquals(1, model.getAnimationDescription().get("a").size());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullInMotionList() {
+    List<Motion> motions = new ArrayList<>();
+    motions.add(null);
+    new Animation().addMotionList("a", motions);
+  }
+
+  private static void assertBounds(int minX, int minY, int maxX, int maxY, int maxT,
+      IAnimation.Bounds bounds) {
+    assertEquals(minX, bounds.minX);
+    assertEquals(minY, bounds.minY);
+    assertEquals(maxX, bounds.maxX);
+    assertEquals(maxY, bounds.maxY);
+    assertEquals(maxT, bounds.maxT);
+  }
+
+  private static void assertSameFrame(FrameBuffer expected, FrameBuffer actual) {
+    assertEquals(expected.getTime(), actual.getTime());
+    assertEquals(expected.size(), actual.size());
+    for (int slot = 0; slot < expected.size(); slot++) {
+      assertEquals(expected.isVisible(slot), actual.isVisible(slot));
+      if (expected.isVisible(slot)) {
+        assertEquals(expected.getX(slot), actual.getX(slot));
+        assertEquals(expected.getY(slot), actual.getY(slot));
+        assertEquals(expected.getWidth(slot), actual.getWidth(slot));
+        assertEquals(expected.getHeight(slot), actual.getHeight(slot));
+        assertEquals(expected.getRGB(slot), actual.getRGB(slot));
+      }
+    }
+  }
+
+  @Test
+  public void testMotionsAddedAsObjects() {
+    IAnimation model = new ColumnarAnimation();
+    IShape shape1 = new Rectangle(50, 100, new Position2D(200, 200), 0, java.awt.Color.red);
+    IShape shape2 = new Rectangle(50, 100, new Position2D(10, 200), 0, java.awt.Color.red);
+    model.addMotion("a", new Motion(shape1, shape2, 1, 10));
+    List<Motion> motions = model.getAnimationDescription().get("a");
+    assertEquals(1, motions.size());
+    assertEquals(10, motions.get(0).getEndShape().getX());
+    assertEquals(116, model.getFrameAt(5).get("a").getX());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidWidth() {
+    ColumnarAnimation.Builder builder = new ColumnarAnimation.Builder(1, new StringBuilder());
+    builder.declareShape("r", "rectangle");
+    builder.addMotion("r", 0, 0, 0, 10, 10, 0, 0, 0, 10, 0, 0, -1, 10, 0, 0, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUndeclaredShape() {
+    ColumnarAnimation.Builder builder = new ColumnarAnimation.Builder(1, new StringBuilder());
+    builder.addMotion("r", 0, 0, 0, 10, 10, 0, 0, 0, 10, 0, 0, 10, 10, 0, 0, 0);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testDescriptionIsReadOnly() {
+    IAnimation model = load(new ColumnarAnimation.Builder(1, new StringBuilder()));
+    model.getAnimationDescription().get("r").clear();
+  }
+}
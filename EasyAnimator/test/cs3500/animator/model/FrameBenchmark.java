@@ -0,0 +1,159 @@
+package cs3500.animator.model;
+
+import cs3500.animator.util.AnimationReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+
+/**
+ * Benchmark for frame evaluation.  Compares the indexed Animation.getFrameAt against a full scan
+ * of every motion of every shape, which is how frames were evaluated before the time index was
+ * added, and against filling a reused FrameBuffer from both the Animation and the ColumnarAnimation
+ * models, after checking that they give the same frames.  Also reports the heap used by each model.
+ * Run from the EasyAnimator directory so that the input files can be found.
+ */
+public final class FrameBenchmark {
+
+  private static final String[] INPUTS = {"src/inputs/toh-12.txt",
+      "src/inputs/big-bang-big-crunch.txt"};
+
+  /**
+   * Runs the benchmark for each input file.
+   *
+   * @param args optional list of input files to use instead of the defaults.
+   * @throws IOException if an input file cannot be read.
+   */
+  public static void main(String[] args) throws IOException {
+    String[] inputs = args.length > 0 ? args : INPUTS;
+    for (String input : inputs) {
+      long objectHeap = heapUsedBy(input, false);
+      long columnarHeap = heapUsedBy(input, true);
+      System.out.printf("%s: Animation %d KB, ColumnarAnimation %d KB (%.1fx smaller)%n",
+          input, objectHeap / 1024, columnarHeap / 1024, (double) objectHeap / columnarHeap);
+      Animation model = load(input);
+      IAnimation columnar = loadColumnar(input);
+      int maxT = model.getAnimationBounds().maxT;
+      checkSameFrames(model, maxT);
+      for (int round = 0; round < 3; round++) {
+        double scan = framesPerSecond(model, maxT, true);
+        double indexed = framesPerSecond(model, maxT, false);
+        double buffered = bufferedFramesPerSecond(model, maxT);
+        double packed = bufferedFramesPerSecond(columnar, maxT);
+        System.out.printf("%s (round %d): scan %.0f frames/s, indexed %.0f frames/s (%.1fx), "
+                + "buffered %.0f frames/s (%.1fx), columnar %.0f frames/s (%.1fx)%n",
+            input, round, scan, indexed, indexed / scan, buffered, buffered / scan,
+            packed, packed / scan);
+      }
+    }
+  }
+
+  private static Animation load(String input) throws IOException {
+    try (Reader reader = new FileReader(input)) {
+      return (Animation) AnimationReader.parseFile(reader,
+          new Animation.Builder(1, new StringBuilder()));
+    }
+  }
+
+  private static IAnimation loadColumnar(String input) throws IOException {
+    try (Reader reader = new FileReader(input)) {
+      return AnimationReader.parseFile(reader,
+          new ColumnarAnimation.Builder(1, new StringBuilder()));
+    }
+  }
+
+  private static long heapUsedBy(String input, boolean columnar) throws IOException {
+    long before = usedHeap();
+    IAnimation model = columnar ? loadColumnar(input) : load(input);
+    long after = usedHeap();
+    if (model.getAnimationDescription().isEmpty()) {
+      System.out.println("empty animation");
+    }
+    return after - before;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static void checkSameFrames(Animation model, int maxT) {
+    FrameBuffer buffer = new FrameBuffer();
+    for (int t = 0; t <= maxT + 1; t++) {
+      Map<String, IShape> expected = FrameScan.scanFrameAt(model, t);
+      Map<String, IShape> actual = model.getFrameAt(t);
+      if (!expected.keySet().equals(actual.keySet())) {
+        throw new IllegalStateException("Different shapes at time " + t);
+      }
+      for (String name : expected.keySet()) {
+        IShape a = expected.get(name);
+        IShape b = actual.get(name);
+        if (a.getX() != b.getX() || a.getY() != b.getY() || a.getWidth() != b.getWidth()
+            || a.getHeight() != b.getHeight() || !a.getColor().equals(b.getColor())) {
+          throw new IllegalStateException("Different state for " + name + " at time " + t);
+        }
+      }
+      buffer = model.getFrameAt(t, buffer);
+      int visible = 0;
+      for (int slot = 0; slot < buffer.size(); slot++) {
+        if (!buffer.isVisible(slot)) {
+          continue;
+        }
+        visible++;
+        IShape a = expected.get(buffer.getName(slot));
+        if (a == null || a.getX() != buffer.getX(slot) || a.getY() != buffer.getY(slot)
+            || a.getWidth() != buffer.getWidth(slot) || a.getHeight() != buffer.getHeight(slot)
+            || (a.getColor().getRGB() & 0xFFFFFF) != buffer.getRGB(slot)
+            || a.getShapeType() != buffer.getShapeType(slot)) {
+          throw new IllegalStateException(
+              "Different buffered state for " + buffer.getName(slot) + " at time " + t);
+        }
+      }
+      if (visible != expected.size()) {
+        throw new IllegalStateException("Different buffered shapes at time " + t);
+      }
+    }
+  }
+
+  private static double framesPerSecond(Animation model, int maxT, boolean scan) {
+    long frames = 0;
+    long sink = 0;
+    long start = System.nanoTime();
+    long deadline = start + 2_000_000_000L;
+    while (System.nanoTime() < deadline) {
+      for (int t = 0; t <= maxT; t += 7) {
+        Map<String, IShape> frame = scan ? FrameScan.scanFrameAt(model, t) : model.getFrameAt(t);
+        sink += frame.size();
+        frames++;
+      }
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    if (sink < 0) {
+      System.out.println(sink);
+    }
+    return frames / seconds;
+  }
+
+  private static double bufferedFramesPerSecond(IAnimation model, int maxT) {
+    FrameBuffer buffer = new FrameBuffer();
+    long frames = 0;
+    long sink = 0;
+    long start = System.nanoTime();
+    long deadline = start + 2_000_000_000L;
+    while (System.nanoTime() < deadline) {
+      for (int t = 0; t <= maxT; t += 7) {
+        buffer = model.getFrameAt(t, buffer);
+        sink += buffer.getX(0);
+        frames++;
+      }
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    if (sink == Long.MIN_VALUE) {
+      System.out.println(sink);
+    }
+    return frames / seconds;
+  }
+}
@@ -0,0 +1,140 @@
+package cs3500.animator.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import cs3500.animator.util.AnimationReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Test class for FrameIndex and the spatial queries of IAnimation.  Checks the queries on a small
+ * scene by hand, and on a large random scene against comparing every pair of shapes with
+ * overlapWith.
+ */
+public class FrameIndexTests {
+
+  private static final String INPUT = "canvas 0 0 200 200\n"
+      + "shape back rectangle\n"
+      + "shape ball ellipse\n"
+      + "shape box rectangle\n"
+      + "shape far plus\n"
+      + "motion back 0 0 0 100 100 0 0 0  10 0 0 100 100 0 0 0\n"
+      + "motion ball 0 20 20 10 10 255 0 0  10 110 100 10 10 255 0 0\n"
+      + "motion box 0 100 100 20 20 0 255 0  10 100 100 20 20 0 255 0\n"
+      + "motion far 0 150 150 30 30 0 0 255  5 150 150 30 30 0 0 255\n";
+
+  private static IAnimation load(String input) {
+    return AnimationReader.parseFile(new StringReader(input),
+        new ColumnarAnimation.Builder(1, new StringBuilder()));
+  }
+
+  @Test
+  public void testShapesAt() {
+    IAnimation model = load(INPUT);
+    assertEquals(Arrays.asList("back", "ball"), model.shapesAt(25, 25, 0));
+    assertEquals(Arrays.asList("back"), model.shapesAt(25, 25, 10));
+    // edges belong to the shape, so back and box touch at 100, 100
+    assertEquals(Arrays.asList("back", "box"), model.shapesAt(100, 100, 0));
+    assertEquals(Arrays.asList("far"), model.shapesAt(180, 180, 5));
+    assertEquals(Arrays.asList(), model.shapesAt(180, 180, 6));
+    assertEquals(Arrays.asList(), model.shapesAt(-5, 500, 0));
+  }
+
+  @Test
+  public void testShapesInRect() {
+    IAnimation model = load(INPUT);
+    assertEquals(Arrays.asList("back", "ball", "box", "far"),
+        model.shapesInRect(0, 0, 200, 200, 0));
+    assertEquals(Arrays.asList("ball", "box"), model.shapesInRect(110, 20, 10, 80, 10));
+    assertEquals(Arrays.asList("box", "far"), model.shapesInRect(150, 150, -40, -40, 0));
+    assertEquals(Arrays.asList(), model.shapesInRect(300, 300, 10, 10, 0));
+  }
+
+  @Test
+  public void testOverlappingPairs() {
+    IAnimation model = load(INPUT);
+    List<String[]> pairs = model.overlappingPairs(0);
+    assertEquals(2, pairs.size());
+    assertArrayEquals(new String[]{"back", "ball"}, pairs.get(0));
+    assertArrayEquals(new String[]{"back", "box"}, pairs.get(1));
+    pairs = model.overlappingPairs(10);
+    assertEquals(2, pairs.size());
+    assertArrayEquals(new String[]{"back", "box"}, pairs.get(0));
+    assertArrayEquals(new String[]{"ball", "box"}, pairs.get(1));
+  }
+
+  @Test
+  public void testIndexKeptForSameTime() {
+    IAnimation model = load(INPUT);
+    FrameIndex index = model.getFrameIndex(3);
+    assertEquals(index, model.getFrameIndex(3));
+    assertEquals(4, model.getFrameIndex(4).getTime());
+    assertEquals(Arrays.asList(), model.shapesAt(25, 25, 25));
+    IShape shape = new Rectangle(10, 10, new Position2D(20, 20), 0, java.awt.Color.red);
+    model.addMotion("far", new Motion(shape, shape, 20, 30));
+    assertEquals(Arrays.asList("far"), model.shapesAt(25, 25, 25));
+  }
+
+  @Test
+  public void testSameAsOverlapWith() {
+    Random random = new Random(7);
+    StringBuilder input = new StringBuilder("canvas 0 0 1000 1000\n");
+    String[] types = {"rectangle", "ellipse", "plus"};
+    for (int i = 0; i < 400; i++) {
+      input.append("shape s").append(i).append(' ').append(types[i % 3]).append('\n');
+      int start = random.nextInt(10);
+      input.append("motion s").append(i).append(' ').append(start).append(' ')
+          .append(random.nextInt(1000)).append(' ').append(random.nextInt(1000)).append(' ')
+          .append(1 + random.nextInt(120)).append(' ').append(1 + random.nextInt(120))
+          .append(" 0 0 0  ").append(start + 10 + random.nextInt(10)).append(' ')
+          .append(random.nextInt(1000)).append(' ').append(random.nextInt(1000)).append(' ')
+          .append(1 + random.nextInt(120)).append(' ').append(1 + random.nextInt(120))
+          .append(" 0 0 0\n");
+    }
+    IAnimation model = load(input.toString());
+    for (int t = 0; t <= 30; t += 3) {
+      Map<String, IShape> frame = model.getFrameAt(t);
+      List<String> names = new ArrayList<>();
+      for (String name : model.getAnimationDescription().keySet()) {
+        if (frame.containsKey(name)) {
+          names.add(name);
+        }
+      }
+      List<String> expected = new ArrayList<>();
+      for (int i = 0; i < names.size(); i++) {
+        for (int j = i + 1; j < names.size(); j++) {
+          if (model.overlapWith(frame.get(names.get(i)), frame.get(names.get(j)))) {
+            expected.add(names.get(i) + " " + names.get(j));
+          }
+        }
+      }
+      List<String> actual = new ArrayList<>();
+      for (String[] pair : model.overlappingPairs(t)) {
+        actual.add(pair[0] + " " + pair[1]);
+      }
+      assertEquals(expected, actual);
+
+      IShape probe = new Rectangle(150, 90, new Position2D(400, 300), 0, java.awt.Color.red);
+      List<String> inRect = new ArrayList<>();
+      List<String> atPoint = new ArrayList<>();
+      for (String name : names) {
+        IShape shape = frame.get(name);
+        if (probe.overlapWith(shape)) {
+          inRect.add(name);
+        }
+        if (shape.getMinimumX() <= 430 && 430 <= shape.getMaximumX()
+            && shape.getMinimumY() <= 333 && 333 <= shape.getMaximumY()) {
+          atPoint.add(name);
+        }
+      }
+      assertEquals(inRect, model.shapesInRect(400, 300, 150, 90, t));
+      assertEquals(atPoint, model.shapesAt(430, 333, t));
+    }
+  }
+}
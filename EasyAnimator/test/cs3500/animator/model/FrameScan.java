@@ -0,0 +1,35 @@
+package cs3500.animator.model;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helper for the tests and benchmarks of frame evaluation, which check frames against finding
+ * them without the time index.
+ */
+final class FrameScan {
+
+  private FrameScan() {
+  }
+
+  /**
+   * Frame evaluation as it was done before the time index: every motion of every shape is checked
+   * and the last one containing the time wins.
+   *
+   * @param model    animation to evaluate.
+   * @param timeUnit time of the frame.
+   * @return shapes of the frame by name.
+   */
+  static Map<String, IShape> scanFrameAt(Animation model, int timeUnit) {
+    Map<String, IShape> frame = new LinkedHashMap<>();
+    for (Map.Entry<String, List<Motion>> entry : model.getAnimationDescription().entrySet()) {
+      for (Motion motion : entry.getValue()) {
+        if (motion.getStartTime() <= timeUnit && timeUnit <= motion.getEndTime()) {
+          frame.put(entry.getKey(), model.tweening(motion, timeUnit));
+        }
+      }
+    }
+    return frame;
+  }
+}
@@ -0,0 +1,100 @@
+package cs3500.animator.model;
+
+import static org.junit.Assert.assertEquals;
+
+import cs3500.animator.util.AnimationReader;
+import cs3500.animator.view.BinaryViewI;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.Test;
+
+/**
+ * Test class for MappedAnimation.  Checks that an animation mapped from a binary file gives the
+ * same frames, description and bounds as the same animation loaded into an Animation.
+ */
+public class MappedAnimationTests {
+
+  private static final String INPUT = "canvas 10 20 400 300\n"
+      + "shape r rectangle\n"
+      + "shape e ellipse\n"
+      + "shape p plus\n"
+      + "motion r 1 200 200 50 100 255 0 0  10 10 200 50 100 255 0 0\n"
+      + "motion e 2 5 6 7 8 0 0 255  20 -5 -6 70 80 0 128 255\n"
+      + "motion r 10 10 200 50 100 255 0 0  50 300 300 25 100 0 0 255\n"
+      + "motion r 30 40 40 10 10 0 255 0  35 40 40 10 10 0 255 0\n"
+      + "motion p 3 1 1 9 9 1 2 3  3 1 1 9 9 1 2 3\n";
+
+  private final IAnimation model = AnimationReader.parseFile(new StringReader(INPUT),
+      new Animation.Builder(1, new StringBuilder()));
+
+  private MappedAnimation map() throws IOException {
+    Path file = Files.createTempFile("mapped", ".eab");
+    file.toFile().deleteOnExit();
+    new BinaryViewI(model, 10, 20, 400, 300, file.toString()).render();
+    return MappedAnimation.open(file);
+  }
+
+  private static String frame(IAnimation animation, int t) {
+    FrameBuffer frame = animation.getFrameAt(t, null);
+    StringBuilder out = new StringBuilder();
+    for (int slot = 0; slot < frame.size(); slot++) {
+      if (frame.isVisible(slot)) {
+        out.append(frame.getName(slot)).append(' ').append(frame.getShapeType(slot)).append(' ')
+            .append(frame.getX(slot)).append(' ').append(frame.getY(slot)).append(' ')
+            .append(frame.getWidth(slot)).append(' ').append(frame.getHeight(slot)).append(' ')
+            .append(frame.getRGB(slot)).append('\n');
+      }
+    }
+    return out.toString();
+  }
+
+  @Test
+  public void testSameFrames() throws IOException {
+    MappedAnimation mapped = map();
+    for (int t = 0; t <= 51; t++) {
+      assertEquals(frame(model, t), frame(mapped, t));
+      assertEquals(model.nextKeyframe(t), mapped.nextKeyframe(t));
+    }
+    assertEquals(model.getFrameAt(12).keySet(), mapped.getFrameAt(12).keySet());
+  }
+
+  @Test
+  public void testDescription() throws IOException {
+    MappedAnimation mapped = map();
+    assertEquals(model.toString(), mapped.toString());
+    assertEquals(Arrays.asList("r", "e", "p"),
+        Arrays.asList(mapped.getAnimationDescription().keySet().toArray()));
+    assertEquals(3, mapped.getAnimationDescription().get("r").size());
+    assertEquals(ShapeType.Ellipse, mapped.getShapeType("e"));
+  }
+
+  @Test
+  public void testBounds() throws IOException {
+    MappedAnimation mapped = map();
+    assertEquals(Arrays.asList(10, 20, 400, 300), Arrays.asList(mapped.getCanvasX(),
+        mapped.getCanvasY(), mapped.getCanvasWidth(), mapped.getCanvasHeight()));
+    IAnimation.Bounds expected = model.getAnimationBounds();
+    IAnimation.Bounds actual = mapped.getAnimationBounds();
+    assertEquals(Arrays.asList(expected.minX, expected.minY, expected.maxX, expected.maxY,
+        expected.maxT), Arrays.asList(actual.minX, actual.minY, actual.maxX, actual.maxY,
+        actual.maxT));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testReadOnly() throws IOException {
+    map().addMotion("r", model.getAnimationDescription().get("r").get(0));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testTruncated() throws IOException {
+    Path file = Files.createTempFile("mapped", ".eab");
+    file.toFile().deleteOnExit();
+    new BinaryViewI(model, 10, 20, 400, 300, file.toString()).render();
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+    MappedAnimation.open(file);
+  }
+}
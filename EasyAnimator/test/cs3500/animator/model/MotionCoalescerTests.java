@@ -0,0 +1,138 @@
+package cs3500.animator.model;
+
+import static org.junit.Assert.assertEquals;
+
+import cs3500.animator.util.AnimationReader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Test class for merging redundant motions with coalesceMotions.  Checks which motions of a small
+ * scene are merged, and that random scenes give the same frames before and after.
+ */
+public class MotionCoalescerTests {
+
+  private static IAnimation load(String input, boolean columnar) {
+    Animation.Builder builder = columnar ? new ColumnarAnimation.Builder(1, new StringBuilder())
+        : new Animation.Builder(1, new StringBuilder());
+    return AnimationReader.parseFile(new StringReader(input), builder);
+  }
+
+  private static String times(IAnimation model, String id) {
+    StringBuilder str = new StringBuilder();
+    for (Motion motion : model.getAnimationDescription().get(id)) {
+      str.append(motion.getStartTime()).append('-').append(motion.getEndTime()).append(' ');
+    }
+    return str.toString().trim();
+  }
+
+  @Test
+  public void testCoalesce() {
+    String input = "canvas 0 0 200 200\n"
+        + "shape mover rectangle\n"
+        + "shape fader ellipse\n"
+        + "shape jumper rectangle\n"
+        + "motion mover 0 0 0 10 10 0 0 0  10 10 5 10 10 0 0 0\n"
+        + "motion mover 10 10 5 10 10 0 0 0  30 30 15 10 10 0 0 0\n"
+        + "motion mover 30 30 15 10 10 0 0 0  40 30 15 10 10 0 0 0\n"
+        + "motion fader 0 50 50 20 20 0 0 0  0 50 50 20 20 0 0 0\n"
+        + "motion fader 0 50 50 20 20 0 0 0  10 50 50 20 20 100 0 0\n"
+        + "motion fader 10 50 50 20 20 100 0 0  20 50 50 20 20 200 0 0\n"
+        + "motion fader 20 50 50 20 20 200 0 0  20 50 50 20 20 200 0 0\n"
+        + "motion jumper 0 0 100 10 10 0 0 0  10 10 100 10 10 0 0 0\n"
+        + "motion jumper 10 50 100 10 10 0 0 0  20 60 100 10 10 0 0 0\n";
+    for (boolean columnar : new boolean[]{false, true}) {
+      IAnimation model = load(input, columnar);
+      IAnimation original = load(input, columnar);
+      // the mover stops at tick 30 and the jumper jumps at tick 10, so neither merges there
+      assertEquals(4, model.coalesceMotions());
+      assertEquals("0-30 30-40", times(model, "mover"));
+      assertEquals("0-20", times(model, "fader"));
+      assertEquals("0-10 10-20", times(model, "jumper"));
+      assertSameFrames(original, model);
+      assertEquals(0, model.coalesceMotions());
+    }
+  }
+
+  @Test
+  public void testSameFrames() {
+    Random random = new Random(11);
+    for (int scene = 0; scene < 40; scene++) {
+      StringBuilder input = new StringBuilder("canvas 0 0 300 300\n");
+      for (int i = 0; i < 10; i++) {
+        input.append("shape s").append(i).append(i % 2 == 0 ? " rectangle\n" : " ellipse\n");
+        int t = random.nextInt(5);
+        int[] state = {random.nextInt(100), random.nextInt(100), 20 + random.nextInt(20),
+            20 + random.nextInt(20), 100 + random.nextInt(50), random.nextInt(256), 0};
+        int[] step = new int[state.length];
+        int duration = 0;
+        for (int m = 0; m < 1 + random.nextInt(8); m++) {
+          // keep going the same way now and then, so that some motions can be merged
+          if (m == 0 || random.nextInt(3) == 0) {
+            duration = random.nextInt(4) * (1 + random.nextInt(4));
+            for (int k = 0; k < step.length; k++) {
+              step[k] = random.nextInt(3) - 1;
+            }
+          }
+          int end = t + duration;
+          int[] next = new int[state.length];
+          for (int k = 0; k < state.length; k++) {
+            next[k] = Math.max(k < 4 ? 1 : 0, Math.min(255, state[k] + step[k] * duration));
+          }
+          if (random.nextInt(6) == 0) {
+            next[random.nextInt(2)] += 1;
+          }
+          input.append("motion s").append(i).append(' ').append(t);
+          for (int value : state) {
+            input.append(' ').append(value);
+          }
+          input.append(' ').append(end);
+          for (int value : next) {
+            input.append(' ').append(value);
+          }
+          input.append('\n');
+          // let motions overlap in time now and then
+          t = Math.max(0, end - (random.nextInt(10) == 0 ? 2 : 0));
+          state = next;
+        }
+      }
+      for (boolean columnar : new boolean[]{false, true}) {
+        IAnimation model = load(input.toString(), columnar);
+        int before = count(model);
+        int removed = model.coalesceMotions();
+        assertEquals(before - removed, count(model));
+        assertSameFrames(load(input.toString(), columnar), model);
+      }
+    }
+  }
+
+  private static int count(IAnimation model) {
+    int count = 0;
+    for (List<Motion> motions : model.getAnimationDescription().values()) {
+      count += motions.size();
+    }
+    return count;
+  }
+
+  private static void assertSameFrames(IAnimation expected, IAnimation actual) {
+    FrameBuffer want = null;
+    FrameBuffer got = null;
+    for (int t = 0; t <= expected.getAnimationBounds().maxT + 1; t++) {
+      want = expected.getFrameAt(t, want);
+      got = actual.getFrameAt(t, got);
+      for (int slot = 0; slot < want.size(); slot++) {
+        String at = "tick " + t + " slot " + slot;
+        assertEquals(at, want.isVisible(slot), got.isVisible(slot));
+        if (want.isVisible(slot)) {
+          assertEquals(at, want.getX(slot), got.getX(slot));
+          assertEquals(at, want.getY(slot), got.getY(slot));
+          assertEquals(at, want.getWidth(slot), got.getWidth(slot));
+          assertEquals(at, want.getHeight(slot), got.getHeight(slot));
+          assertEquals(at, want.getRGB(slot), got.getRGB(slot));
+        }
+      }
+    }
+  }
+}
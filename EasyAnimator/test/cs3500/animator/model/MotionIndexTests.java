@@ -0,0 +1,168 @@
+package cs3500.animator.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Test class for the time index behind Animation.getFrameAt.  Checks motions that overlap, motions
+ * added out of order and motions that take no time against checking every motion of every shape,
+ * which is how frames were found before the index, and that the index is rebuilt once a motion is
+ * added after it was used, and that the frames are the same when read from several threads once
+ * the model is prepared for it.
+ */
+public class MotionIndexTests {
+
+  /**
+   * Checks every time from before the first motion to after the last against the full scan.
+   */
+  private static void checkFrames(Animation model, int maxT) {
+    for (int t = -1; t <= maxT + 1; t++) {
+      Map<String, IShape> expected = FrameScan.scanFrameAt(model, t);
+      Map<String, IShape> actual = model.getFrameAt(t);
+      assertEquals("shapes at " + t, expected.keySet(), actual.keySet());
+      for (String name : expected.keySet()) {
+        assertEquals(name + " at " + t, describe(expected.get(name)), describe(actual.get(name)));
+      }
+    }
+  }
+
+  private static String describe(IShape s) {
+    return s.getShapeType() + " " + s.getX() + " " + s.getY() + " " + s.getWidth() + " "
+        + s.getHeight() + " " + s.getColor();
+  }
+
+  @Test
+  public void testOverlappingMotions() {
+    // the first motion outlasts the two after it, so finding it means walking back past them
+    Animation model = new Animation();
+    model.addShape("r", "rectangle");
+    add(model, "r", 0, 0, 30, 100);
+    add(model, "r", 5, 10, 8, 20);
+    add(model, "r", 10, 20, 12, 40);
+    add(model, "r", 12, 50, 14, 60);
+    model.addShape("e", "ellipse");
+    add(model, "e", 0, 0, 10, 10);
+    add(model, "e", 10, 10, 20, 20);
+    add(model, "e", 10, 90, 15, 95);
+    checkFrames(model, 30);
+    assertEquals(30, model.getFrameAt(9).get("r").getX());
+    assertEquals(90, model.getFrameAt(10).get("e").getX());
+    assertEquals(16, model.getFrameAt(16).get("e").getX());
+  }
+
+  @Test
+  public void testMotionsOutOfOrder() {
+    Animation model = new Animation();
+    model.addShape("r", "rectangle");
+    add(model, "r", 20, 20, 30, 30);
+    add(model, "r", 0, 0, 10, 10);
+    add(model, "r", 10, 10, 20, 20);
+    add(model, "r", 40, 40, 50, 50);
+    add(model, "r", 5, 70, 25, 90);
+    checkFrames(model, 50);
+    assertEquals(false, model.getFrameAt(35).containsKey("r"));
+  }
+
+  @Test
+  public void testMotionsTakingNoTime() {
+    Animation model = new Animation();
+    model.addShape("r", "rectangle");
+    add(model, "r", 0, 0, 5, 5);
+    add(model, "r", 5, 50, 5, 50);
+    add(model, "r", 5, 5, 10, 10);
+    model.addShape("p", "plus");
+    add(model, "p", 3, 30, 3, 30);
+    add(model, "p", 8, 80, 8, 80);
+    checkFrames(model, 10);
+    assertEquals(30, model.getFrameAt(3).get("p").getX());
+    assertEquals(false, model.getFrameAt(4).containsKey("p"));
+  }
+
+  @Test
+  public void testIndexRebuiltAfterAdding() {
+    Animation model = new Animation();
+    model.addShape("r", "rectangle");
+    add(model, "r", 0, 0, 10, 10);
+    add(model, "r", 10, 10, 20, 20);
+    checkFrames(model, 20);
+    // builds the index, which must not be used for the motions added next
+    add(model, "r", 15, 70, 25, 80);
+    checkFrames(model, 25);
+    add(model, "r", 2, 40, 4, 40);
+    model.addShape("e", "ellipse");
+    add(model, "e", 0, 0, 0, 0);
+    checkFrames(model, 25);
+  }
+
+  @Test
+  public void testRandomMotions() {
+    Random random = new Random(7);
+    Animation model = new Animation();
+    for (int s = 0; s < 20; s++) {
+      String name = "s" + s;
+      model.addShape(name, s % 2 == 0 ? "rectangle" : "ellipse");
+      int motions = 1 + random.nextInt(8);
+      for (int m = 0; m < motions; m++) {
+        int t1 = random.nextInt(60);
+        int t2 = t1 + random.nextInt(4) * random.nextInt(10);
+        add(model, name, t1, random.nextInt(200), t2, random.nextInt(200));
+      }
+      checkFrames(model, 70);
+    }
+  }
+
+  @Test
+  public void testConcurrentReadsAfterPrepare() throws InterruptedException {
+    Random random = new Random(11);
+    Animation model = new Animation();
+    for (int s = 0; s < 50; s++) {
+      String name = "s" + s;
+      model.addShape(name, "rectangle");
+      for (int t = 0; t < 40; t += 1 + random.nextInt(5)) {
+        add(model, name, t, random.nextInt(200), t + random.nextInt(6), random.nextInt(200));
+      }
+    }
+    model.prepareForConcurrentReads();
+    String[] frames = new String[4 * 50];
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; i++) {
+      int first = i;
+      threads[i] = new Thread(() -> {
+        PlaybackCursor cursor = model.getPlaybackCursor();
+        for (int t = first; t < frames.length; t += threads.length) {
+          frames[t] = describe(cursor.seek(t % 50), model.getStaticSpan(t % 50));
+        }
+      });
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (int t = 0; t < frames.length; t++) {
+      assertEquals(describe(model.getFrameAt(t % 50, null), model.getStaticSpan(t % 50)),
+          frames[t]);
+    }
+  }
+
+  private static String describe(FrameBuffer frame, StaticSpan span) {
+    StringBuilder text = new StringBuilder();
+    for (int slot = 0; slot < frame.size(); slot++) {
+      if (frame.isVisible(slot)) {
+        text.append(frame.getName(slot)).append(' ').append(frame.getX(slot)).append(' ');
+      }
+    }
+    return text.append(span.getEnd()).toString();
+  }
+
+  /**
+   * Adds a motion of a shape from one position to another, with the same size and color.
+   */
+  private static void add(Animation model, String name, int t1, int x1, int t2, int x2) {
+    ShapeType type = model.getShapeType(name);
+    model.addMotion(name, new Motion(Animation.createShape(type, x1, x1, 10, 10, 0, 0, 0),
+        Animation.createShape(type, x2, x2, 10, 10, 0, 0, 0), t1, t2));
+  }
+}
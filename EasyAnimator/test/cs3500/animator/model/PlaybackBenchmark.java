@@ -0,0 +1,192 @@
+package cs3500.animator.model;
+
+import cs3500.animator.util.AnimationReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark for playing an animation.  Compares playing every tick in order with getFrameAt
+ * against a PlaybackCursor, after checking that they give the same frames, and against a cursor
+ * limited to a quarter of the shapes' bounds.  Also times stepping from keyframe to keyframe the
+ * way the interactive view's discrete mode used to against the keyframe timeline.  Run from the
+ * EasyAnimator directory so that the input files can be found.
+ */
+public final class PlaybackBenchmark {
+
+  private static final String[] INPUTS = {"src/inputs/toh-12.txt",
+      "src/inputs/big-bang-big-crunch.txt"};
+
+  /**
+   * Runs the benchmark for each input file.
+   *
+   * @param args optional list of input files to use instead of the defaults.
+   * @throws IOException if an input file cannot be read.
+   */
+  public static void main(String[] args) throws IOException {
+    String[] inputs = args.length > 0 ? args : INPUTS;
+    for (String input : inputs) {
+      IAnimation model = load(input);
+      int maxT = model.getAnimationBounds().maxT;
+      checkSameCursorFrames(model, maxT);
+      for (int round = 0; round < 3; round++) {
+        double buffered = sequentialFramesPerSecond(model, maxT, false);
+        double cursor = sequentialFramesPerSecond(model, maxT, true);
+        System.out.printf("%s (round %d): every tick, getFrameAt %.0f frames/s, "
+            + "cursor %.0f frames/s (%.1fx)%n", input, round, buffered, cursor, cursor / buffered);
+      }
+      IAnimation.Bounds bounds = model.getAnimationBounds();
+      for (int round = 0; round < 3; round++) {
+        double all = sequentialFramesPerSecond(model, maxT, true);
+        double culled = culledFramesPerSecond(model, bounds);
+        System.out.printf("%s (round %d): every tick, cursor %.0f frames/s, "
+            + "quarter viewport %.0f frames/s (%.1fx)%n", input, round, all, culled, culled / all);
+      }
+      long listSteps = stepWithList(model);
+      long timelineSteps = stepWithTimeline(model);
+      System.out.printf("%s: keyframe steps, list %.1f us/step, timeline %.3f us/step%n", input,
+          listSteps / 1e3, timelineSteps / 1e3);
+    }
+  }
+
+  private static IAnimation load(String input) throws IOException {
+    try (Reader reader = new FileReader(input)) {
+      return AnimationReader.parseFile(reader,
+          new ColumnarAnimation.Builder(1, new StringBuilder()));
+    }
+  }
+
+  /**
+   * Checks that a cursor gives the same frames as getFrameAt when played in order, when jumping
+   * forward and when seeking back.
+   */
+  private static void checkSameCursorFrames(IAnimation model, int maxT) {
+    PlaybackCursor cursor = model.getPlaybackCursor();
+    FrameBuffer expected = new FrameBuffer();
+    for (int t = 0; t <= maxT + 1; t++) {
+      compare(model.getFrameAt(t, expected), cursor.advance());
+    }
+    Random random = new Random(42);
+    for (int i = 0; i < 200; i++) {
+      int t = random.nextInt(maxT + 2);
+      compare(model.getFrameAt(t, expected), cursor.seek(t));
+      t = Math.min(maxT + 1, t + random.nextInt(40));
+      compare(model.getFrameAt(t, expected), cursor.seek(t));
+    }
+  }
+
+  private static void compare(FrameBuffer expected, FrameBuffer actual) {
+    if (expected.size() != actual.size() || expected.getTime() != actual.getTime()) {
+      throw new IllegalStateException("Different cursor frame at time " + actual.getTime());
+    }
+    for (int slot = 0; slot < expected.size(); slot++) {
+      if (expected.isVisible(slot) != actual.isVisible(slot)) {
+        throw new IllegalStateException("Different cursor shapes at time " + actual.getTime());
+      }
+      if (expected.isVisible(slot) && (expected.getX(slot) != actual.getX(slot)
+          || expected.getY(slot) != actual.getY(slot)
+          || expected.getWidth(slot) != actual.getWidth(slot)
+          || expected.getHeight(slot) != actual.getHeight(slot)
+          || expected.getRGB(slot) != actual.getRGB(slot))) {
+        throw new IllegalStateException("Different cursor state for " + actual.getName(slot)
+            + " at time " + actual.getTime());
+      }
+    }
+  }
+
+  private static double sequentialFramesPerSecond(IAnimation model, int maxT, boolean cursor) {
+    FrameBuffer buffer = new FrameBuffer();
+    PlaybackCursor playback = model.getPlaybackCursor();
+    long frames = 0;
+    long sink = 0;
+    long start = System.nanoTime();
+    long deadline = start + 2_000_000_000L;
+    while (System.nanoTime() < deadline) {
+      playback.reset();
+      for (int t = 0; t <= maxT; t++) {
+        buffer = cursor ? playback.advance() : model.getFrameAt(t, buffer);
+        sink += buffer.getX(0);
+        frames++;
+      }
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    if (sink == Long.MIN_VALUE) {
+      System.out.println(sink);
+    }
+    return frames / seconds;
+  }
+
+  private static double culledFramesPerSecond(IAnimation model, IAnimation.Bounds bounds) {
+    PlaybackCursor playback = model.getPlaybackCursor();
+    playback.setViewport(bounds.minX, bounds.minY, (bounds.maxX - bounds.minX) / 2,
+        (bounds.maxY - bounds.minY) / 2);
+    long frames = 0;
+    long sink = 0;
+    long start = System.nanoTime();
+    long deadline = start + 2_000_000_000L;
+    while (System.nanoTime() < deadline) {
+      playback.reset();
+      for (int t = 0; t <= bounds.maxT; t++) {
+        sink += playback.advance().getX(0);
+        frames++;
+      }
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    if (sink == Long.MIN_VALUE) {
+      System.out.println(sink);
+    }
+    return frames / seconds;
+  }
+
+  /**
+   * Steps through every keyframe the way DrawPanelComposite did before the timeline: builds a
+   * boxed, sorted list of start and end times and scans it from the start on every step.
+   *
+   * @return average nanoseconds per step.
+   */
+  private static long stepWithList(IAnimation model) {
+    long start = System.nanoTime();
+    List<Integer> frames = new ArrayList<>();
+    for (List<Motion> motions : model.getAnimationDescription().values()) {
+      for (Motion motion : motions) {
+        frames.add(motion.getStartTime());
+        frames.add(motion.getEndTime());
+      }
+    }
+    frames = frames.stream().distinct().collect(Collectors.toList());
+    Collections.sort(frames);
+    int count = 0;
+    int steps = 0;
+    int last = frames.get(frames.size() - 1);
+    while (count < last) {
+      ++count;
+      for (int frame : frames) {
+        if (frame >= count) {
+          count = frame;
+          break;
+        }
+      }
+      steps++;
+    }
+    return (System.nanoTime() - start) / steps;
+  }
+
+  /**
+   * Steps through every keyframe with IAnimation.nextKeyframe.
+   *
+   * @return average nanoseconds per step.
+   */
+  private static long stepWithTimeline(IAnimation model) {
+    long start = System.nanoTime();
+    int steps = 0;
+    for (int t = model.nextKeyframe(-1); t >= 0; t = model.nextKeyframe(t)) {
+      steps++;
+    }
+    return (System.nanoTime() - start) / steps;
+  }
+}
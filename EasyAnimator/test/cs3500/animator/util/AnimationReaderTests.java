@@ -0,0 +1,72 @@
+package cs3500.animator.util;
+
+import static org.junit.Assert.assertEquals;
+
+import cs3500.animator.model.Animation;
+import cs3500.animator.model.IAnimation;
+import java.io.StringReader;
+import org.junit.Test;
+
+/**
+ * Test class for AnimationReader.  Checks that parseFile reads the same animations and reports the
+ * same errors as the Scanner-based ScannerAnimationReader.
+ */
+public class AnimationReaderTests {
+
+  private static final String INPUT = "# a comment line\n"
+      + "canvas 0 0 400 400\n"
+      + "shape r rectangle# a comment after a token\n"
+      + "motion r 1 200 200 50 100 255 0 0  10 10 200 50 100 255 0 0\n"
+      + "motion\tr 10 10 200 50 100 255 0 0\r\n50 300 300 25 100 0 0 +255";
+
+  private static String read(String input, boolean scanner) {
+    try {
+      IAnimation model = scanner
+          ? ScannerAnimationReader.parseFile(new StringReader(input),
+          new Animation.Builder(1, new StringBuilder()))
+          : AnimationReader.parseFile(new StringReader(input),
+              new Animation.Builder(1, new StringBuilder()));
+      return model.toString();
+    } catch (IllegalStateException e) {
+      return e.getMessage();
+    }
+  }
+
+  @Test
+  public void testSameAnimationAsScanner() {
+    assertEquals(read(INPUT, true), read(INPUT, false));
+    assertEquals("shape r rectangle\n"
+            + "motion r 1 200 200 50 100 255 0 0  10 10 200 50 100 255 0 0\n"
+            + "motion r 10 10 200 50 100 255 0 0  50 300 300 25 100 0 0 255",
+        read(INPUT, false));
+  }
+
+  @Test
+  public void testNotAnInteger() {
+    String input = "canvas 0 0 400 400\nshape r rectangle\nmotion r 1 2 3 4x 5";
+    assertEquals("Motion: expected integer for initial width, got: 4x", read(input, false));
+    assertEquals(read(input, true), read(input, false));
+  }
+
+  @Test
+  public void testIntegerTooLarge() {
+    String input = "canvas 0 0 2147483648 400";
+    assertEquals("Canvas: expected integer for width, got: 2147483648", read(input, false));
+    assertEquals(read(input, true), read(input, false));
+  }
+
+  @Test
+  public void testNoMoreInput() {
+    String input = "canvas 0 0 400";
+    assertEquals("Canvas: expected integer for height, but no more input available",
+        read(input, false));
+    assertEquals(read(input, true), read(input, false));
+  }
+
+  @Test
+  public void testUnexpectedKeyword() {
+    String input = "canvas 0 0 400 400\nrectangle r 1 2 # comment\nshape r rectangle";
+    assertEquals("Unexpected keyword: rectangle r 1 2 # comment", read(input, false));
+    assertEquals(read(input, true), read(input, false));
+  }
+}
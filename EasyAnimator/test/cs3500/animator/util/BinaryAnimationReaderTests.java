@@ -0,0 +1,138 @@
+package cs3500.animator.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import cs3500.animator.model.Animation;
+import cs3500.animator.model.ColumnarAnimation;
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.view.BinaryViewI;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.Test;
+
+/**
+ * Test class for BinaryAnimationReader.  Checks that an animation saved by the binary view loads
+ * back into the same animation, and that files that are not valid binary animations are refused.
+ */
+public class BinaryAnimationReaderTests {
+
+  private static final String INPUT = "canvas 10 20 400 300\n"
+      + "shape r rectangle\n"
+      + "shape e\u00e9 ellipse\n"
+      + "motion r 1 200 200 50 100 255 0 0  10 10 200 50 100 255 0 0\n"
+      + "motion e\u00e9 2 5 6 7 8 0 0 255  20 -5 -6 70 80 0 128 255\n"
+      + "motion r 10 10 200 50 100 255 0 0  50 300 300 25 100 0 0 255\n"
+      + "shape p plus\n"
+      + "motion p 3 1 1 9 9 1 2 3  3 1 1 9 9 1 2 3\n";
+
+  private static Path save(String input) throws IOException {
+    Animation.Builder builder = new Animation.Builder(1, new StringBuilder());
+    IAnimation model = AnimationReader.parseFile(new StringReader(input), builder);
+    Path file = Files.createTempFile("animation", ".eab");
+    file.toFile().deleteOnExit();
+    new BinaryViewI(model, builder.getCanvasX(), builder.getCanvasY(), builder.getCanvasWidth(),
+        builder.getCanvasHeight(), file.toString()).render();
+    return file;
+  }
+
+  private static String read(Path file) throws IOException {
+    try {
+      return BinaryAnimationReader.readFile(file, new Animation.Builder(1, new StringBuilder()))
+          .toString();
+    } catch (IllegalStateException e) {
+      return e.getMessage();
+    }
+  }
+
+  private static Path modified(Path file, int at, int value) throws IOException {
+    ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+    bytes.putInt(at, value);
+    Files.write(file, bytes.array());
+    return file;
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    Path file = save(INPUT);
+    assertTrue(BinaryAnimationReader.isBinary(file));
+    Animation.Builder builder = new Animation.Builder(1, new StringBuilder());
+    IAnimation model = BinaryAnimationReader.readFile(file, builder);
+    assertEquals(AnimationReader.parseFile(new StringReader(INPUT),
+        new Animation.Builder(1, new StringBuilder())).toString(), model.toString());
+    assertArrayEquals(new int[]{10, 20, 400, 300}, new int[]{builder.getCanvasX(),
+        builder.getCanvasY(), builder.getCanvasWidth(), builder.getCanvasHeight()});
+
+    IAnimation columnar = BinaryAnimationReader.readFile(file,
+        new ColumnarAnimation.Builder(1, new StringBuilder()));
+    assertEquals(model.toString(), columnar.toString());
+  }
+
+  @Test
+  public void testLayout() throws IOException {
+    ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(save(INPUT)))
+        .order(ByteOrder.LITTLE_ENDIAN);
+    // header, three shape entries with names of 1, 3 and 1 bytes, four motions
+    int offset = BinaryAnimationReader.HEADER_BYTES + 3 * 12 + 4 + 4 + 4;
+    assertEquals(offset + 4 * 64, bytes.limit());
+    assertEquals("EANB", new String(bytes.array(), 0, 4, StandardCharsets.US_ASCII));
+    assertArrayEquals(new int[]{BinaryAnimationReader.VERSION, 10, 20, 400, 300, 3, 4, offset},
+        new int[]{bytes.getInt(4), bytes.getInt(8), bytes.getInt(12), bytes.getInt(16),
+            bytes.getInt(20), bytes.getInt(24), bytes.getInt(28), bytes.getInt(32)});
+    // the rectangle comes first, with both of its motions, and its name padded
+    assertArrayEquals(new int[]{0, 2, 1, 'r'}, new int[]{bytes.getInt(36), bytes.getInt(40),
+        bytes.getInt(44), bytes.getInt(48)});
+    assertEquals(10, bytes.getInt(offset + 64));
+    assertEquals(255, bytes.getInt(offset + 64 + 60));
+  }
+
+  @Test
+  public void testEmptyAnimation() throws IOException {
+    Path file = save("canvas 0 0 100 100\nshape r rectangle\n");
+    assertEquals(BinaryAnimationReader.HEADER_BYTES, Files.size(file));
+    assertEquals("", read(file));
+  }
+
+  @Test
+  public void testNotBinary() throws IOException {
+    Path file = Files.createTempFile("animation", ".txt");
+    file.toFile().deleteOnExit();
+    Files.write(file, INPUT.getBytes(StandardCharsets.UTF_8));
+    assertFalse(BinaryAnimationReader.isBinary(file));
+    assertEquals("Not a binary animation", read(file));
+    Files.write(file, new byte[]{'E', 'A'});
+    assertFalse(BinaryAnimationReader.isBinary(file));
+  }
+
+  @Test
+  public void testOtherVersion() throws IOException {
+    Path file = modified(save(INPUT), 4, BinaryAnimationReader.VERSION + 1);
+    assertTrue(BinaryAnimationReader.isBinary(file));
+    assertEquals("Unsupported binary animation version: " + (BinaryAnimationReader.VERSION + 1),
+        read(file));
+  }
+
+  @Test
+  public void testTruncated() throws IOException {
+    Path file = save(INPUT);
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+    assertEquals("Binary animation is truncated", read(file));
+  }
+
+  @Test
+  public void testBadShapeTable() throws IOException {
+    assertEquals("Shape 0: invalid entry in shape table",
+        read(modified(save(INPUT), BinaryAnimationReader.HEADER_BYTES, 7)));
+    assertEquals("Shape table lists 5 motions instead of 4",
+        read(modified(save(INPUT), BinaryAnimationReader.HEADER_BYTES + 4, 3)));
+  }
+}
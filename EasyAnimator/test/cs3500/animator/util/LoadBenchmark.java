@@ -0,0 +1,99 @@
+package cs3500.animator.util;
+
+import cs3500.animator.model.Animation;
+import cs3500.animator.model.ColumnarAnimation;
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.view.BinaryViewI;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Benchmark for loading animations from files.  Saves each input in the binary format, then
+ * compares loading the text file with AnimationReader.parseFile against loading the binary file
+ * with BinaryAnimationReader.readFile, both including opening and reading the file.  Each is timed
+ * into the counting builder of ParserBenchmark, which measures the readers alone, and into both
+ * models.  Run from the EasyAnimator directory so that the input files can be found.
+ */
+public final class LoadBenchmark {
+
+  private static final String[] INPUTS = {"src/inputs/big-bang-big-crunch.txt",
+      "src/inputs/toh-12.txt", "src/inputs/hanoi.txt"};
+
+  private static final String[] TARGETS = {"counter", "object", "columnar"};
+
+  /**
+   * Runs the benchmark for each input file.
+   *
+   * @param args optional list of input files to use instead of the defaults.
+   * @throws IOException if an input file cannot be read or the binary file cannot be written.
+   */
+  public static void main(String[] args) throws IOException {
+    String[] inputs = args.length > 0 ? args : INPUTS;
+    for (String input : inputs) {
+      Path text = Paths.get(input);
+      Path binary = Files.createTempFile("load", ".eab");
+      binary.toFile().deleteOnExit();
+      Animation.Builder builder = new Animation.Builder(1, new StringBuilder());
+      IAnimation model = load(text, false, builder);
+      new BinaryViewI(model, builder.getCanvasX(), builder.getCanvasY(),
+          builder.getCanvasWidth(), builder.getCanvasHeight(), binary.toString()).render();
+      if (!model.toString().equals(load(binary, true,
+          new Animation.Builder(1, new StringBuilder())).toString())) {
+        throw new IllegalStateException("Different animation loaded for " + input);
+      }
+      System.out.printf("%s: %d bytes of text, %d bytes binary%n", input, Files.size(text),
+          Files.size(binary));
+      for (int round = 0; round < 3; round++) {
+        for (String target : TARGETS) {
+          double textMs = millisPerLoad(text, false, target);
+          double binaryMs = millisPerLoad(binary, true, target);
+          System.out.printf("%s (round %d, %s): text %.2f ms, binary %.2f ms (%.1fx)%n", input,
+              round, target, textMs, binaryMs, textMs / binaryMs);
+        }
+      }
+    }
+  }
+
+  private static <Doc> Doc load(Path file, boolean binary, AnimationBuilder<Doc> builder)
+      throws IOException {
+    if (binary) {
+      return BinaryAnimationReader.readFile(file, builder);
+    }
+    try (Reader reader = Files.newBufferedReader(file)) {
+      return AnimationReader.parseFile(reader, builder);
+    }
+  }
+
+  private static long loadOnce(Path file, boolean binary, String target) throws IOException {
+    switch (target) {
+      case "counter":
+        return load(file, binary, new ParserBenchmark.Counter()).checksum;
+      case "object":
+        return load(file, binary, new Animation.Builder(1, new StringBuilder()))
+            .getAnimationDescription().size();
+      default:
+        return load(file, binary, new ColumnarAnimation.Builder(1, new StringBuilder()))
+            .getAnimationDescription().size();
+    }
+  }
+
+  private static double millisPerLoad(Path file, boolean binary, String target)
+      throws IOException {
+    long loads = 0;
+    long sink = 0;
+    long start = System.nanoTime();
+    long deadline = start + 2_000_000_000L;
+    while (System.nanoTime() < deadline) {
+      sink += loadOnce(file, binary, target);
+      loads++;
+    }
+    double millis = (System.nanoTime() - start) / 1e6;
+    if (sink == Long.MIN_VALUE) {
+      System.out.println(sink);
+    }
+    return millis / loads;
+  }
+}
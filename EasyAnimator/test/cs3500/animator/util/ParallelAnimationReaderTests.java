@@ -0,0 +1,138 @@
+package cs3500.animator.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import cs3500.animator.model.Animation;
+import cs3500.animator.model.ColumnarAnimation;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Test class for ParallelAnimationReader.  Splits small files into many chunks and checks that
+ * the builder sees the same calls, and the same errors are reported, as with
+ * AnimationReader.parseFile.
+ */
+public class ParallelAnimationReaderTests {
+
+  private static Path write(String input) throws IOException {
+    Path file = Files.createTempFile("parallel", ".txt");
+    file.toFile().deleteOnExit();
+    Files.write(file, input.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+
+  private static String sequential(String input) {
+    try {
+      return Long.toString(AnimationReader.parseFile(new StringReader(input),
+          new ParserBenchmark.Counter()).checksum);
+    } catch (IllegalStateException | IllegalArgumentException e) {
+      return e.getMessage();
+    }
+  }
+
+  private static String parallel(String input, int chunks) throws IOException {
+    try {
+      return Long.toString(ParallelAnimationReader.parseFile(write(input),
+          new ParserBenchmark.Counter(), chunks, 1).checksum);
+    } catch (IllegalStateException | IllegalArgumentException e) {
+      return e.getMessage();
+    }
+  }
+
+  /**
+   * Makes an animation with shapes declared throughout, comments and blank lines.
+   */
+  private static String scene(long seed, int shapes) {
+    Random random = new Random(seed);
+    StringBuilder out = new StringBuilder("# generated\ncanvas 0 0 640 480\n");
+    for (int s = 0; s < shapes; s++) {
+      out.append("shape s").append(s).append(random.nextBoolean() ? " rectangle" : " ellipse")
+          .append('\n');
+      for (int m = 0; m < 1 + random.nextInt(6); m++) {
+        out.append(random.nextInt(4) == 0 ? "\n# a comment\r\n" : "");
+        out.append("motion s").append(random.nextInt(s + 1));
+        for (int i = 0; i < 16; i++) {
+          out.append(' ').append(i % 8 == 0 ? 10 * m + i / 8 : 1 + random.nextInt(255));
+        }
+        out.append('\n');
+      }
+    }
+    return out.toString();
+  }
+
+  @Test
+  public void testSameCallsAsSequential() throws IOException {
+    for (long seed = 0; seed < 5; seed++) {
+      String input = scene(seed, 40);
+      for (int chunks : new int[]{1, 2, 3, 7, 50, 1000}) {
+        assertEquals(sequential(input), parallel(input, chunks));
+      }
+    }
+  }
+
+  @Test
+  public void testSameAnimationAsSequential() throws IOException {
+    String input = scene(7, 100);
+    String expected = AnimationReader.parseFile(new StringReader(input),
+        new ColumnarAnimation.Builder(1, new StringBuilder())).toString();
+    assertEquals(expected, ParallelAnimationReader.parseFile(write(input),
+        new ColumnarAnimation.Builder(1, new StringBuilder()), 16, 1).toString());
+    assertEquals(expected, ParallelAnimationReader.parseFile(write(input),
+        new Animation.Builder(1, new StringBuilder()), 16, 1).toString());
+  }
+
+  @Test
+  public void testCommandAcrossLines() throws IOException {
+    String input = "canvas 0 0 400 400\nshape r rectangle\n"
+        + "motion r 1 200 200 50 100 255 0 0\n10 10 200 50 100 255 0 0\n"
+        + "motion\tr 10 10 200 50 100 255 0 0\r\n50 300 300 25 100 0 0 +255\n";
+    for (int chunks = 1; chunks < 12; chunks++) {
+      assertEquals(sequential(input), parallel(input, chunks));
+    }
+  }
+
+  @Test
+  public void testSplitCommandWithoutLastLineEnd() throws IOException {
+    StringBuilder input = new StringBuilder("canvas 0 0 400 400\nshape r rectangle\n");
+    for (int m = 0; m < 42; m++) {
+      // the last value of each motion is alone on a line, and the file ends right after it
+      input.append("motion r ").append(m).append(" 1 2 3 4 5 6 7\n")
+          .append(m + 1).append(" 1 2 3 4 5 6\n7");
+      input.append(m < 41 ? "\n" : "");
+    }
+    String expected = sequential(input.toString());
+    for (int chunks = 1; chunks <= 256; chunks++) {
+      assertEquals(expected, parallel(input.toString(), chunks));
+    }
+  }
+
+  @Test
+  public void testSameErrors() throws IOException {
+    String input = scene(3, 30);
+    int middle = input.indexOf("\nmotion", input.length() / 2) + 1;
+    String badInt = input.substring(0, middle) + "motion s1 1 2 3 4x 5\n"
+        + input.substring(middle);
+    String badKeyword = input.substring(0, middle) + "move s1 1\n" + input.substring(middle);
+    String undeclared = input.substring(0, middle) + "motion zz 1 2 3 4 5 6 7 8 9 1 2 3 4 5 6 7\n"
+        + input.substring(middle);
+    for (String bad : new String[]{badInt, badKeyword, undeclared}) {
+      for (int chunks : new int[]{1, 4, 30}) {
+        assertEquals(sequential(bad), parallel(bad, chunks));
+      }
+    }
+    assertEquals("Motion: expected integer for initial width, got: 4x", parallel(badInt, 4));
+    try {
+      ParallelAnimationReader.parseFile(write(undeclared),
+          new Animation.Builder(1, new StringBuilder()), 30, 1);
+      fail("Motion of an undeclared shape was added.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Attempted to move shape that does not exist.", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package cs3500.animator.util;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Benchmark for reading animation files.  Compares AnimationReader.parseFile, which uses the
+ * hand-written tokenizer, against the Scanner-based ScannerAnimationReader, in MB/s and motions/s.
+ * The builder only counts and checksums the callbacks, so the numbers measure the parser alone.
+ * Run from the EasyAnimator directory so that the input files can be found.
+ */
+public final class ParserBenchmark {
+
+  private static final String[] INPUTS = {"src/inputs/big-bang-big-crunch.txt",
+      "src/inputs/toh-12.txt", "src/inputs/hanoi.txt"};
+
+  /**
+   * Runs the benchmark for each input file.
+   *
+   * @param args optional list of input files to use instead of the defaults.
+   * @throws IOException if an input file cannot be read.
+   */
+  public static void main(String[] args) throws IOException {
+    String[] inputs = args.length > 0 ? args : INPUTS;
+    for (String input : inputs) {
+      String text = new String(Files.readAllBytes(Paths.get(input)), StandardCharsets.UTF_8);
+      long expected = parse(text, false).checksum;
+      long actual = parse(text, true).checksum;
+      if (expected != actual) {
+        throw new IllegalStateException("Different callbacks for " + input);
+      }
+      double megabytes = text.length() / (1024.0 * 1024.0);
+      for (int round = 0; round < 3; round++) {
+        double scanner = parsesPerSecond(text, false);
+        double tokenizer = parsesPerSecond(text, true);
+        long motions = parse(text, true).motions;
+        System.out.printf("%s (round %d): Scanner %.1f MB/s %.0f motions/s, "
+                + "tokenizer %.1f MB/s %.0f motions/s (%.1fx)%n", input, round,
+            scanner * megabytes, scanner * motions, tokenizer * megabytes, tokenizer * motions,
+            tokenizer / scanner);
+      }
+    }
+  }
+
+  private static Counter parse(String text, boolean tokenizer) {
+    Counter counter = new Counter();
+    if (tokenizer) {
+      return AnimationReader.parseFile(new StringReader(text), counter);
+    }
+    return ScannerAnimationReader.parseFile(new StringReader(text), counter);
+  }
+
+  private static double parsesPerSecond(String text, boolean tokenizer) {
+    long parses = 0;
+    long sink = 0;
+    long start = System.nanoTime();
+    long deadline = start + 2_000_000_000L;
+    while (System.nanoTime() < deadline) {
+      sink += parse(text, tokenizer).checksum;
+      parses++;
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    if (sink == Long.MIN_VALUE) {
+      System.out.println(sink);
+    }
+    return parses / seconds;
+  }
+
+  /**
+   * Builder that counts motions and folds every callback argument into a checksum.
+   */
+  static final class Counter implements AnimationBuilder<Counter> {
+
+    long checksum = 17;
+    long motions;
+
+    private void mix(long value) {
+      checksum = checksum * 31 + value;
+    }
+
+    @Override
+    public Counter build() {
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<Counter> setBounds(int x, int y, int width, int height) {
+      mix(x);
+      mix(y);
+      mix(width);
+      mix(height);
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<Counter> declareShape(String name, String type) {
+      mix(name.hashCode());
+      mix(type.hashCode());
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<Counter> addMotion(String name, int t1, int x1, int y1, int w1,
+        int h1, int r1, int g1, int b1, int t2, int x2, int y2, int w2, int h2, int r2, int g2,
+        int b2) {
+      motions++;
+      mix(name.hashCode());
+      int[] values = {t1, x1, y1, w1, h1, r1, g1, b1, t2, x2, y2, w2, h2, r2, g2, b2};
+      for (int value : values) {
+        mix(value);
+      }
+      return this;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package cs3500.animator.util;
+
+import java.util.Objects;
+import java.util.Scanner;
+import java.util.regex.Pattern;
+
+/**
+ * Reads animations with a Scanner, as AnimationReader did before it had its own tokenizer.  Kept
+ * as a reference for checking and benchmarking the tokenizer.
+ */
+final class ScannerAnimationReader {
+
+  private ScannerAnimationReader() {
+  }
+
+  /**
+   * Reads an animation the same way as AnimationReader.parseFile, but splits the input with a
+   * Scanner and a regular expression.
+   *
+   * @param readable The source of data for the animation
+   * @param builder  A builder for helping to construct a new animation
+   * @param <K>      The main model interface type describing animations
+   * @return the animation built by the builder
+   */
+  static <K> K parseFile(Readable readable, AnimationBuilder<K> builder) {
+    Objects.requireNonNull(readable, "Must have non-null readable source");
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    Scanner s = new Scanner(readable);
+    // Split at whitespace, and ignore # comment lines
+    s.useDelimiter(Pattern.compile("(\\p{Space}+|#.*)+"));
+    while (s.hasNext()) {
+      String word = s.next();
+      switch (word) {
+        case "canvas":
+          readCanvas(s, builder);
+          break;
+        case "shape":
+          readShape(s, builder);
+          break;
+        case "motion":
+          readMotion(s, builder);
+          break;
+        default:
+          throw new IllegalStateException("Unexpected keyword: " + word + s.nextLine());
+      }
+    }
+    return builder.build();
+  }
+
+  private static <K> void readCanvas(Scanner s, AnimationBuilder<K> builder) {
+    int[] vals = new int[4];
+    for (int i = 0; i < 4; i++) {
+      vals[i] = getInt(s, "Canvas", AnimationReader.CANVAS_FIELDS[i]);
+    }
+    builder.setBounds(vals[0], vals[1], vals[2], vals[3]);
+  }
+
+  private static <K> void readShape(Scanner s, AnimationBuilder<K> builder) {
+    String name;
+    String type;
+    if (s.hasNext()) {
+      name = s.next();
+    } else {
+      throw new IllegalStateException("Shape: Expected a name, but no more input available");
+    }
+    if (s.hasNext()) {
+      type = s.next();
+    } else {
+      throw new IllegalStateException("Shape: Expected a type, but no more input available");
+    }
+    builder.declareShape(name, type);
+  }
+
+  private static <K> void readMotion(Scanner s, AnimationBuilder<K> builder) {
+    int[] vals = new int[16];
+    String name;
+    if (s.hasNext()) {
+      name = s.next();
+    } else {
+      throw new IllegalStateException("Motion: Expected a shape name, but no more input available");
+    }
+    for (int i = 0; i < 16; i++) {
+      vals[i] = getInt(s, "Motion", AnimationReader.MOTION_FIELDS[i]);
+    }
+    builder.addMotion(name,
+        vals[0], vals[1], vals[2], vals[3], vals[4], vals[5], vals[6], vals[7],
+        vals[8], vals[9], vals[10], vals[11], vals[12], vals[13], vals[14], vals[15]);
+  }
+
+  private static int getInt(Scanner s, String label, String fieldName) {
+    if (s.hasNextInt()) {
+      return s.nextInt();
+    } else if (s.hasNext()) {
+      throw new IllegalStateException(
+          String.format("%s: expected integer for %s, got: %s", label, fieldName, s.next()));
+    } else {
+      throw new IllegalStateException(
+          String.format("%s: expected integer for %s, but no more input available",
+              label, fieldName));
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package cs3500.animator.view;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Test class for the pacing of ActiveVisualViewI, which works out the tick to draw from the time
+ * since playback started.
+ */
+public class ActiveVisualViewTests {
+
+  @Test
+  public void testTickAt() {
+    assertEquals(0, ActiveVisualViewI.tickAt(0, 20));
+    assertEquals(0, ActiveVisualViewI.tickAt(49_999_999L, 20));
+    assertEquals(1, ActiveVisualViewI.tickAt(50_000_000L, 20));
+    assertEquals(20, ActiveVisualViewI.tickAt(1_000_000_000L, 20));
+    // ticks in between frames are skipped rather than played late
+    assertEquals(5000, ActiveVisualViewI.tickAt(1_000_000_000L, 5000));
+  }
+
+  @Test
+  public void testTickAtDoesNotOverflow() {
+    long day = 86_400L * 1_000_000_000L;
+    assertEquals(86_400L * 1_000_000, ActiveVisualViewI.tickAt(day, 1_000_000));
+  }
+
+  @Test
+  public void testStartOfIsFirstNanoOfTick() {
+    int[] speeds = {1, 3, 7, 20, 60, 1000, 999_983};
+    for (int speed : speeds) {
+      for (long tick = 1; tick < 500; tick++) {
+        long start = ActiveVisualViewI.startOf(tick, speed);
+        assertEquals(tick, ActiveVisualViewI.tickAt(start, speed));
+        assertEquals(tick - 1, ActiveVisualViewI.tickAt(start - 1, speed));
+      }
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package cs3500.animator.view;
+
+import static org.junit.Assert.assertEquals;
+
+import cs3500.animator.model.FrameBuffer;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Helpers for the tests of the layers that draw frames, which check an image against drawing
+ * every shape of the frame in slot order.
+ */
+final class FrameImages {
+
+  private FrameImages() {
+  }
+
+  /**
+   * Draws every visible shape of a frame in slot order on a white image.
+   *
+   * @param frame  frame to draw.
+   * @param fill   true to fill the shapes, false to only draw their outlines.
+   * @param width  width of the image.
+   * @param height height of the image.
+   * @return the image.
+   */
+  static BufferedImage drawAll(FrameBuffer frame, boolean fill, int width, int height) {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    g.setColor(Color.WHITE);
+    g.fillRect(0, 0, width, height);
+    new FramePainter().paint(g, frame, fill);
+    g.dispose();
+    return image;
+  }
+
+  /**
+   * Checks that two images have the same pixels.
+   *
+   * @param expected image drawn by drawAll.
+   * @param actual   image to check.
+   * @param t        tick of the frame, for the failure message.
+   */
+  static void assertSamePixels(BufferedImage expected, BufferedImage actual, int t) {
+    for (int y = 0; y < expected.getHeight(); y++) {
+      for (int x = 0; x < expected.getWidth(); x++) {
+        assertEquals("pixel " + x + "," + y + " at tick " + t, expected.getRGB(x, y),
+            actual.getRGB(x, y));
+      }
+    }
+  }
+}
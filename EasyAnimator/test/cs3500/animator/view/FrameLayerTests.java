@@ -0,0 +1,99 @@
+package cs3500.animator.view;
+
+import static cs3500.animator.view.FrameImages.assertSamePixels;
+import static cs3500.animator.view.FrameImages.drawAll;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import cs3500.animator.model.Animation;
+import cs3500.animator.model.FrameBuffer;
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.model.PlaybackCursor;
+import cs3500.animator.util.AnimationReader;
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.StringReader;
+import org.junit.Test;
+
+/**
+ * Test class for FrameLayer.  Checks the regions it marks as dirty, and that redrawing only those
+ * regions gives the same pixels as drawing every frame from scratch.
+ */
+public class FrameLayerTests {
+
+  private static final String INPUT = "canvas 0 0 120 100\n"
+      + "shape still rectangle\n"
+      + "shape mover ellipse\n"
+      + "shape top plus\n"
+      + "shape late rectangle\n"
+      + "motion still 0 10 10 60 60 0 0 255  40 10 10 60 60 0 0 255\n"
+      + "motion mover 0 0 30 20 20 255 0 0  20 80 30 20 20 255 0 0\n"
+      + "motion mover 20 80 30 20 20 255 0 0  40 80 30 40 10 0 255 0\n"
+      + "motion top 0 40 40 30 30 0 128 0  10 40 40 30 30 0 128 0\n"
+      + "motion top 10 40 40 30 30 0 128 0  40 40 40 30 30 0 128 0\n"
+      + "motion late 15 5 70 30 20 200 200 0  25 5 70 30 20 200 200 0\n";
+
+  private static IAnimation model() {
+    return AnimationReader.parseFile(new StringReader(INPUT),
+        new Animation.Builder(1, new StringBuilder()));
+  }
+
+  @Test
+  public void testDirtyRegion() {
+    IAnimation model = model();
+    PlaybackCursor cursor = model.getPlaybackCursor();
+    FrameLayer layer = new FrameLayer(model);
+    FrameBuffer frame = cursor.seek(0);
+    assertNull(layer.update(frame));
+    assertTrue(layer.isStale());
+    layer.draw(120, 100, frame, true, Color.WHITE);
+    // only the ellipse moves, from x 0 to x 4
+    assertEquals(new Rectangle(0, 30, 25, 21), layer.update(cursor.seek(1)));
+    // the plus starts a new motion but stays where it is, so only the ellipse is dirty
+    layer.update(cursor.seek(9));
+    layer.draw(120, 100, frame, true, Color.WHITE);
+    assertEquals(new Rectangle(36, 30, 25, 21), layer.update(cursor.seek(10)));
+  }
+
+  @Test
+  public void testNothingChanged() {
+    IAnimation model = model();
+    PlaybackCursor cursor = model.getPlaybackCursor();
+    FrameLayer layer = new FrameLayer(model);
+    layer.update(cursor.seek(20));
+    layer.draw(120, 100, cursor.seek(20), true, Color.WHITE);
+    assertNull(layer.update(cursor.seek(20)));
+    assertTrue(!layer.isStale());
+  }
+
+  @Test
+  public void testSamePixelsAsFullRedraw() {
+    for (boolean fill : new boolean[]{true, false}) {
+      IAnimation model = model();
+      PlaybackCursor cursor = model.getPlaybackCursor();
+      FrameLayer layer = new FrameLayer(model);
+      for (int t = 0; t <= 42; t++) {
+        FrameBuffer frame = cursor.seek(t);
+        layer.update(frame);
+        BufferedImage image = layer.draw(120, 100, frame, fill, Color.WHITE);
+        assertSamePixels(drawAll(frame, fill, 120, 100), image, t);
+      }
+    }
+  }
+
+  @Test
+  public void testInvalidate() {
+    IAnimation model = model();
+    PlaybackCursor cursor = model.getPlaybackCursor();
+    FrameLayer layer = new FrameLayer(model);
+    FrameBuffer frame = cursor.seek(5);
+    layer.update(frame);
+    layer.draw(120, 100, frame, true, Color.WHITE);
+    layer.invalidate();
+    assertTrue(layer.isStale());
+    assertSamePixels(drawAll(frame, false, 120, 100),
+        layer.draw(120, 100, frame, false, Color.WHITE), 5);
+  }
+}
@@ -0,0 +1,71 @@
+package cs3500.animator.view;
+
+import cs3500.animator.model.ColumnarAnimation;
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.util.AnimationReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * Benchmark for the frames view.  Renders an input with one thread, two threads and one thread per
+ * core, checks that every run writes the same files, and reports frames per second.  Run from the
+ * EasyAnimator directory so that the input files can be found.
+ */
+public final class FramesBenchmark {
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional input file and number of frames, by default 1000 frames spread over
+   *             toh-12.
+   * @throws IOException if an input or output file cannot be used.
+   */
+  public static void main(String[] args) throws IOException {
+    String input = args.length > 0 ? args[0] : "src/inputs/toh-12.txt";
+    int frames = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+    IAnimation model;
+    try (Reader reader = new FileReader(input)) {
+      model = AnimationReader.parseFile(reader,
+          new ColumnarAnimation.Builder(1, new StringBuilder()));
+    }
+    IAnimation.Bounds bounds = model.getAnimationBounds();
+    int step = Math.max(1, bounds.maxT / frames);
+    TreeSet<Integer> threadCounts = new TreeSet<>(
+        Arrays.asList(1, 2, Runtime.getRuntime().availableProcessors()));
+    File reference = null;
+    for (int threads : threadCounts) {
+      File directory = Files.createTempDirectory("frames").toFile();
+      long start = System.nanoTime();
+      new FramesViewI(model, 0, 0, bounds.maxX, bounds.maxY, directory.getPath(), step, threads)
+          .render();
+      double seconds = (System.nanoTime() - start) / 1e9;
+      int written = directory.list().length;
+      System.out.printf("%s: %d frames every %d ticks, %d thread(s): %.1f frames/s%n", input,
+          written, step, threads, written / seconds);
+      if (reference == null) {
+        reference = directory;
+      } else {
+        checkSame(reference, directory);
+      }
+    }
+  }
+
+  private static void checkSame(File expected, File actual) throws IOException {
+    String[] names = expected.list();
+    Arrays.sort(names);
+    for (String name : names) {
+      if (!Arrays.equals(Files.readAllBytes(new File(expected, name).toPath()),
+          Files.readAllBytes(new File(actual, name).toPath()))) {
+        throw new IllegalStateException("Different frame " + name);
+      }
+    }
+    if (names.length != actual.list().length) {
+      throw new IllegalStateException("Different number of frames");
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package cs3500.animator.view;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import cs3500.animator.model.Animation;
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.util.AnimationReader;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import javax.imageio.ImageIO;
+import org.junit.Test;
+
+/**
+ * Test class for FramesViewI.  Renders a small animation to a temporary directory and checks the
+ * files and pixels that it writes.
+ */
+public class FramesViewTests {
+
+  private static final String INPUT = "canvas 0 0 100 80\n"
+      + "shape r rectangle\n"
+      + "motion r 0 10 10 20 20 255 0 0  20 50 10 20 20 255 0 0\n";
+
+  private static File render(int step) throws IOException {
+    return render(step, 1);
+  }
+
+  private static File render(int step, int threads) throws IOException {
+    IAnimation model = AnimationReader.parseFile(new StringReader(INPUT),
+        new Animation.Builder(1, new StringBuilder()));
+    File directory = Files.createTempDirectory("frames").toFile();
+    new FramesViewI(model, 0, 0, 100, 80, directory.getPath(), step, threads).render();
+    return directory;
+  }
+
+  @Test
+  public void testEveryTick() throws IOException {
+    File directory = render(1);
+    assertEquals(21, directory.list().length);
+    BufferedImage first = ImageIO.read(new File(directory, "frame-00000.png"));
+    assertEquals(100, first.getWidth());
+    assertEquals(80, first.getHeight());
+    assertEquals(0xFF0000, first.getRGB(15, 15) & 0xFFFFFF);
+    assertEquals(0xFFFFFF, first.getRGB(55, 15) & 0xFFFFFF);
+    BufferedImage last = ImageIO.read(new File(directory, "frame-00020.png"));
+    assertEquals(0xFFFFFF, last.getRGB(15, 15) & 0xFFFFFF);
+    assertEquals(0xFF0000, last.getRGB(55, 15) & 0xFFFFFF);
+  }
+
+  @Test
+  public void testStep() throws IOException {
+    File directory = render(8);
+    assertEquals(3, directory.list().length);
+    BufferedImage second = ImageIO.read(new File(directory, "frame-00001.png"));
+    assertEquals(0xFF0000, second.getRGB(30, 15) & 0xFFFFFF);
+  }
+
+  @Test
+  public void testThreadsWriteSameFiles() throws IOException {
+    File expected = render(1, 1);
+    File actual = render(1, 3);
+    String[] names = expected.list();
+    assertEquals(names.length, actual.list().length);
+    for (String name : names) {
+      assertArrayEquals(Files.readAllBytes(new File(expected, name).toPath()),
+          Files.readAllBytes(new File(actual, name).toPath()));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidStep() {
+    new FramesViewI(new Animation(), 0, 0, 100, 80, "frames", 0);
+  }
+}
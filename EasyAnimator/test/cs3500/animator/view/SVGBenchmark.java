@@ -0,0 +1,112 @@
+package cs3500.animator.view;
+
+import cs3500.animator.model.Animation;
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.util.AnimationReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Benchmark for the SVG view.  Renders each input to a Writer that only counts characters, so the
+ * numbers measure the cost of producing the text rather than of writing it to disk.  Compares the
+ * sequential and parallel modes after checking that they write the same text, and reports how
+ * much smaller the minimal mode makes each file.  Run from the EasyAnimator directory so that the
+ * input files can be found.
+ */
+public final class SVGBenchmark {
+
+  private static final String[] INPUTS = {"src/inputs/big-bang-big-crunch.txt",
+      "src/inputs/toh-12.txt"};
+
+  /**
+   * Runs the benchmark for each input file.
+   *
+   * @param args optional list of input files to use instead of the defaults.
+   * @throws IOException if an input file cannot be read.
+   */
+  public static void main(String[] args) throws IOException {
+    String[] inputs = args.length > 0 ? args : INPUTS;
+    for (String input : inputs) {
+      IAnimation model;
+      try (Reader reader = new FileReader(input)) {
+        model = AnimationReader.parseFile(reader, new Animation.Builder(20, new StringBuilder()));
+      }
+      IAnimation.Bounds bounds = model.getAnimationBounds();
+      if (!render(model, bounds, false).equals(render(model, bounds, true))) {
+        throw new IllegalStateException("Parallel output differs for " + input);
+      }
+      StringBuilder minimal = new StringBuilder();
+      new SVGViewI(model, minimal, bounds.minX, bounds.minY, bounds.maxX - bounds.minX,
+          bounds.maxY - bounds.minY, 20, false, true).render();
+      System.out.printf("%s: %d characters, %d in minimal mode%n", input,
+          render(model, bounds, false).length(), minimal.length());
+      for (int round = 0; round < 3; round++) {
+        double sequential = msPerRender(model, bounds, false);
+        double parallel = msPerRender(model, bounds, true);
+        System.out.printf("%s (round %d): sequential %.1f ms per render, "
+                + "parallel %.1f ms per render (%.1fx)%n", input, round, sequential, parallel,
+            sequential / parallel);
+      }
+    }
+  }
+
+  private static String render(IAnimation model, IAnimation.Bounds bounds, boolean parallel)
+      throws IOException {
+    StringBuilder out = new StringBuilder();
+    view(model, out, bounds, parallel).render();
+    return out.toString();
+  }
+
+  private static SVGViewI view(IAnimation model, Appendable out, IAnimation.Bounds bounds,
+      boolean parallel) {
+    return new SVGViewI(model, out, bounds.minX, bounds.minY, bounds.maxX - bounds.minX,
+        bounds.maxY - bounds.minY, 20, parallel);
+  }
+
+  private static double msPerRender(IAnimation model, IAnimation.Bounds bounds, boolean parallel)
+      throws IOException {
+    CountingWriter writer = new CountingWriter();
+    long renders = 0;
+    long start = System.nanoTime();
+    long deadline = start + 2_000_000_000L;
+    while (System.nanoTime() < deadline) {
+      view(model, writer, bounds, parallel).render();
+      renders++;
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    if (writer.chars == 0) {
+      System.out.println("empty output");
+    }
+    return seconds * 1000 / renders;
+  }
+
+  /**
+   * Writer that discards its input and counts the characters.
+   */
+  private static final class CountingWriter extends Writer {
+
+    private long chars;
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+      chars += len;
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+      chars += len;
+    }
+
+    @Override
+    public void flush() {
+      // nothing to flush
+    }
+
+    @Override
+    public void close() {
+      // nothing to close
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package cs3500.animator.view;
+
+import static org.junit.Assert.assertEquals;
+
+import cs3500.animator.model.Animation;
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.util.AnimationReader;
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.Test;
+
+/**
+ * Test class for SVGViewI.  Checks the text of single elements, that the parallel mode writes
+ * the same file as the sequential mode, and how the minimal mode joins animations.
+ */
+public class SVGViewTests {
+
+  private static final String INPUT = "canvas 0 0 400 400\n"
+      + "shape r rectangle\n"
+      + "shape e ellipse\n"
+      + "shape p plus\n"
+      + "motion r 1 200 200 50 100 255 0 0  10 10 200 50 100 255 0 0\n"
+      + "motion r 10 10 200 50 100 255 0 0  50 300 300 25 100 0 0 255\n"
+      + "motion e 5 50 100 25 40 0 0 255  70 200 55 25 40 0 255 0\n"
+      + "motion p 2 10 10 40 40 0 255 0  20 -30 60 40 80 0 255 0\n";
+
+  private static String render(boolean parallel) throws IOException {
+    return render(parallel, false);
+  }
+
+  private static String render(boolean parallel, boolean minimal) throws IOException {
+    StringBuilder input = new StringBuilder(INPUT);
+    for (int i = 0; i < 50; i++) {
+      input.append("shape r").append(i).append(" rectangle\n")
+          .append("motion r").append(i).append(" 1 0 0 10 10 0 0 0  ").append(i + 2)
+          .append(" 0 ").append(i).append(" 10 10 0 0 0\n");
+    }
+    IAnimation model = AnimationReader.parseFile(new StringReader(input.toString()),
+        new Animation.Builder(1, new StringBuilder()));
+    StringBuilder out = new StringBuilder();
+    new SVGViewI(model, out, 0, 0, 400, 400, 10, parallel, minimal).render();
+    return out.toString();
+  }
+
+  @Test
+  public void testParallelSameAsSequential() throws IOException {
+    assertEquals(render(false), render(true));
+  }
+
+  @Test
+  public void testSequentialOutput() throws IOException {
+    String svg = render(false);
+    assertEquals(true, svg.startsWith("<svg width=\"400\" height=\"400\" version=\"1.1\"\n"));
+    assertEquals(true, svg.contains("<rect id=\"r\" x=\"200\" y=\"200\" width=\"50\" height=\"100\" "
+        + "fill=\"rgb(255,0,0)\" visibility=\"hidden\" >\n"));
+    assertEquals(true, svg.contains("<polygon id=\"p\" points=\"20,10 40,10 40,20 50,20 50,40 "
+        + "40,40 40,50 20,50 20,40 10,40 10,20 20,20 \" fill=\"rgb(0,255,0)\""));
+    assertEquals(true, svg.contains("</ellipse>\n<polygon id=\"p\""));
+    assertEquals(true, svg.endsWith("</rect>\n</svg>"));
+  }
+
+  @Test
+  public void testMinimalParallelSameAsSequential() throws IOException {
+    assertEquals(render(false, true), render(true, true));
+  }
+
+  @Test
+  public void testMinimalOutput() throws IOException {
+    String input = "canvas 0 0 100 100\n"
+        + "shape m rectangle\n"
+        + "motion m 0 0 0 10 10 0 0 0  10 10 0 10 10 0 0 0\n"
+        + "motion m 10 10 0 10 10 0 0 0  20 20 0 10 10 0 0 0\n"
+        + "motion m 20 20 0 10 10 0 0 0  30 20 10 10 10 0 0 0\n"
+        + "motion m 30 20 10 10 10 0 0 0  40 0 10 10 10 0 0 0\n";
+    IAnimation model = AnimationReader.parseFile(new StringReader(input),
+        new Animation.Builder(1, new StringBuilder()));
+    StringBuilder out = new StringBuilder();
+    SVGViewI view = new SVGViewI(model, out, 0, 0, 100, 100, 10, false, true);
+    view.render();
+    // x goes right in two steps along one line, waits while y moves, then comes back
+    assertEquals("<svg width=\"100\" height=\"100\" version=\"1.1\"\n"
+        + " xmlns=\"http://www.w3.org/2000/svg\">\n"
+        + "<rect id=\"m\" x=\"0\" y=\"0\" width=\"10\" height=\"10\" fill=\"rgb(0,0,0)\" "
+        + "visibility=\"hidden\" >\n"
+        + "<animate attributeType=\"xml\" begin=\"0ms\" dur=\"1ms\" attributeName=\"visibility\" "
+        + "from=\"hidden\" to=\"visible\" fill=\"freeze\" />\n"
+        + "<animate attributeType=\"xml\" begin=\"0ms\" dur=\"4000ms\" attributeName=\"x\" "
+        + "values=\"0;20;20;0\" keyTimes=\"0;0.5;0.75;1\" fill=\"freeze\" />\n"
+        + "<animate attributeType=\"xml\" begin=\"2000ms\" dur=\"1000ms\" attributeName=\"y\" "
+        + "from=\"0\" to=\"10\" fill=\"freeze\" />\n"
+        + "</rect>\n</svg>", out.toString());
+
+    StringBuilder plain = new StringBuilder();
+    new SVGViewI(model, plain, 0, 0, 100, 100, 10).render();
+    assertEquals(out.length(), view.getWrittenSize());
+    assertEquals(plain.length(), view.getPlainSize());
+  }
+
+  @Test
+  public void testAnimateElement() {
+    SVGViewI view = new SVGViewI(new Animation(), new StringBuilder(), 0, 0, 10, 10, 1);
+    assertEquals("<animate attributeType=\"xml\" begin=\"100ms\" dur=\"2000ms\" "
+            + "attributeName=\"x\" from=\"-5\" to=\"2147483647\" fill=\"freeze\" />\n",
+        view.animateMotion("x", 2000, 100, -5, Integer.MAX_VALUE));
+  }
+}
@@ -0,0 +1,176 @@
+package cs3500.animator.view;
+
+import static org.junit.Assert.assertEquals;
+
+import cs3500.animator.model.Animation;
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.model.IShape;
+import cs3500.animator.model.Motion;
+import cs3500.animator.model.Polygon;
+import java.awt.Color;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+/**
+ * Test class for SVGWriter.  Checks that numbers are written the same as %d in String.format, and
+ * that the SVG view writes rectangles, ellipses and pluses the same as when every element was
+ * formatted with String.format, including for negative numbers and Integer.MIN_VALUE.
+ */
+public class SVGWriterTests {
+
+  private static final int MIN = Integer.MIN_VALUE;
+  private static final int MAX = Integer.MAX_VALUE;
+
+  /**
+   * Writes an animation the way SVGViewI did before it used SVGWriter, one String.format per
+   * element.
+   */
+  private static String formatted(IAnimation model, int x, int y, int width, int height,
+      int speed) {
+    double msPerUnit = 1000.0 / speed;
+    StringBuilder ap = new StringBuilder(String.format(
+        "<svg width=\"%d\" height=\"%d\" version=\"1.1\"\n xmlns=\"http://www.w3.org/2000/svg\">\n",
+        width + x, height + y));
+    for (Map.Entry<String, List<Motion>> entry : model.getAnimationDescription().entrySet()) {
+      String name = entry.getKey();
+      List<Motion> motions = entry.getValue();
+      IShape s = motions.get(0).getStartShape();
+      String type = s.getShapeType().toString();
+      if (type.equals("Rectangle")) {
+        ap.append(String.format(
+            "<rect id=\"%s\" x=\"%d\" y=\"%d\" width=\"%d\" height=\"%d\" fill=\"rgb(%d,%d,%d)\" "
+                + "visibility=\"hidden\" >\n", name, s.getX(), s.getY(), s.getWidth(),
+            s.getHeight(), s.getColor().getRed(), s.getColor().getGreen(),
+            s.getColor().getBlue()));
+      } else if (type.equals("Ellipse")) {
+        ap.append(String.format(
+            "<ellipse id=\"%s\" cx=\"%d\" cy=\"%d\" rx=\"%d\" ry=\"%d\" fill=\"rgb(%d,%d,%d)\" "
+                + "visibility=\"hidden\" >\n", name, s.getX() + s.getWidth() / 2,
+            s.getY() + s.getHeight() / 2, s.getWidth() / 2, s.getHeight() / 2,
+            s.getColor().getRed(), s.getColor().getGreen(), s.getColor().getBlue()));
+      } else {
+        ap.append(String.format(
+            "<polygon id=\"%s\" points=\"%s\" fill=\"rgb(%d,%d,%d)\" visibility=\"hidden\" >\n",
+            name, points((Polygon) s), s.getColor().getRed(), s.getColor().getGreen(),
+            s.getColor().getBlue()));
+      }
+      ap.append(String.format(
+          "<animate attributeType=\"xml\" begin=\"%dms\" dur=\"1ms\" attributeName=\"visibility\" "
+              + "from=\"hidden\" to=\"visible\" fill=\"freeze\" />\n",
+          (int) (motions.get(0).getStartTime() * msPerUnit)));
+      for (Motion motion : motions) {
+        int tstart = (int) (motion.getStartTime() * msPerUnit);
+        int duration = (int) ((motion.getEndTime() - motion.getStartTime()) * msPerUnit);
+        IShape a = motion.getStartShape();
+        IShape b = motion.getEndShape();
+        if (type.equals("Rectangle")) {
+          if (a.getX() != b.getX()) {
+            ap.append(animate("x", duration, tstart, a.getX(), b.getX()));
+          }
+          if (a.getY() != b.getY()) {
+            ap.append(animate("y", duration, tstart, a.getY(), b.getY()));
+          }
+          if (!a.getColor().equals(b.getColor())) {
+            ap.append(animate("fill", duration, tstart, a.getColor(), b.getColor()));
+          }
+          if (a.getWidth() != b.getWidth()) {
+            ap.append(animate("width", duration, tstart, a.getWidth(), b.getWidth()));
+          }
+          if (a.getHeight() != b.getHeight()) {
+            ap.append(animate("height", duration, tstart, a.getHeight(), b.getHeight()));
+          }
+        } else if (type.equals("Ellipse")) {
+          if (a.getX() != b.getX()) {
+            ap.append(animate("cx", duration, tstart, a.getX() + a.getWidth() / 2,
+                b.getX() + b.getWidth() / 2));
+          }
+          if (a.getY() != b.getY()) {
+            ap.append(animate("cy", duration, tstart, a.getY() + a.getHeight() / 2,
+                b.getY() + b.getHeight() / 2));
+          }
+          if (!a.getColor().equals(b.getColor())) {
+            ap.append(animate("fill", duration, tstart, a.getColor(), b.getColor()));
+          }
+        } else {
+          if (a.getX() != b.getX() || a.getY() != b.getY() || a.getWidth() != b.getWidth()
+              || a.getHeight() != b.getHeight()) {
+            ap.append(String.format(
+                "<animate attributeType=\"xml\" begin=\"%dms\" dur=\"%dms\" attributeName=\"%s\" "
+                    + "to=\"%s\" fill=\"freeze\" />\n",
+                tstart, duration, "points", points((Polygon) b)));
+          }
+          if (!a.getColor().equals(b.getColor())) {
+            ap.append(animate("fill", duration, tstart, a.getColor(), b.getColor()));
+          }
+        }
+      }
+      ap.append(type.equals("Rectangle") ? "</rect>\n"
+          : type.equals("Ellipse") ? "</ellipse>\n" : "</polygon>\n");
+    }
+    return ap.append("</svg>").toString();
+  }
+
+  private static String points(Polygon s) {
+    s.setupXYCoords();
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < s.getXCoords().length; ++i) {
+      builder.append(String.format("%d,%d ", s.getXCoords()[i], s.getYCoords()[i]));
+    }
+    return builder.toString();
+  }
+
+  private static String animate(String attribute, int duration, int tstart, int from, int to) {
+    return String.format(
+        "<animate attributeType=\"xml\" begin=\"%dms\" dur=\"%dms\" attributeName=\"%s\" "
+            + "from=\"%d\" to=\"%d\" fill=\"freeze\" />\n",
+        tstart, duration, attribute, from, to);
+  }
+
+  private static String animate(String attribute, int duration, int tstart, Color from,
+      Color to) {
+    return String.format(
+        "<animate attributeType=\"xml\" begin=\"%dms\" dur=\"%dms\" attributeName=\"%s\" "
+            + "from=\"rgb(%d,%d,%d)\" to=\"rgb(%d,%d,%d)\" fill=\"freeze\" />\n",
+        tstart, duration, attribute, from.getRed(), from.getGreen(), from.getBlue(), to.getRed(),
+        to.getGreen(), to.getBlue());
+  }
+
+  @Test
+  public void testNumbers() throws IOException {
+    int[] values = {0, 1, -1, 9, 10, -10, 99, -100, 123456789, -987654321, MAX, MIN, MIN + 1};
+    for (int value : values) {
+      StringBuilder out = new StringBuilder();
+      SVGWriter writer = new SVGWriter(out);
+      writer.append(value);
+      writer.flush();
+      assertEquals(String.format("%d", value), out.toString());
+      assertEquals(out.length(), writer.written());
+    }
+  }
+
+  @Test
+  public void testSameAsStringFormat() throws IOException {
+    Animation.Builder builder = new Animation.Builder(1, new StringBuilder());
+    builder.setBounds(-50, -20, 400, 300);
+    builder.declareShape("r", "rectangle");
+    builder.declareShape("e", "ellipse");
+    builder.declareShape("p", "plus");
+    builder.declareShape("far", "rectangle");
+    builder.addMotion("r", 1, -200, 200, 50, 100, 255, 0, 0, 10, 10, -200, 51, 99, 255, 0, 0);
+    builder.addMotion("r", 10, 10, -200, 51, 99, 255, 0, 0, 50, -300, -300, 25, 100, 0, 0, 255);
+    builder.addMotion("e", 5, -50, -100, 25, 41, 0, 0, 255, 70, 200, -55, 25, 40, 0, 255, 0);
+    builder.addMotion("e", 70, 200, -55, 25, 40, 0, 255, 0, 71, MIN, MIN, 3, 3, 0, 255, 0);
+    builder.addMotion("p", 2, 10, 10, 40, 40, 0, 255, 0, 20, -30, 60, 40, 80, 0, 255, 0);
+    builder.addMotion("p", 20, -30, 60, 40, 80, 0, 255, 0, 33, MIN, -7, 41, 81, 1, 2, 3);
+    builder.addMotion("far", 0, MIN, MIN, MAX, MAX, 0, 0, 0, 3, MAX, MIN + 1, 1, MAX, 9, 9, 9);
+    IAnimation model = builder.build();
+
+    for (int speed : new int[]{1, 7, 20}) {
+      StringBuilder out = new StringBuilder();
+      new SVGViewI(model, out, -50, -20, 400, 300, speed).render();
+      assertEquals(formatted(model, -50, -20, 400, 300, speed), out.toString());
+    }
+  }
+}
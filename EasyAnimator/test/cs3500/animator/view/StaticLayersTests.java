@@ -0,0 +1,82 @@
+package cs3500.animator.view;
+
+import static cs3500.animator.view.FrameImages.assertSamePixels;
+import static cs3500.animator.view.FrameImages.drawAll;
+import static org.junit.Assert.assertEquals;
+
+import cs3500.animator.model.Animation;
+import cs3500.animator.model.FrameBuffer;
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.model.PlaybackCursor;
+import cs3500.animator.util.AnimationReader;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.StringReader;
+import org.junit.Test;
+
+/**
+ * Test class for StaticLayers.  Draws a scene whose static shapes end up in both the bottom and the
+ * top layer, and checks every tick against drawing all the shapes in slot order.
+ */
+public class StaticLayersTests {
+
+  private static final String INPUT = "canvas 0 0 100 80\n"
+      + "shape sky rectangle\n"
+      + "shape sun ellipse\n"
+      + "shape cloud ellipse\n"
+      + "shape car rectangle\n"
+      + "shape tree ellipse\n"
+      + "shape bush plus\n"
+      + "shape rock ellipse\n"
+      + "motion sky 0 0 0 100 80 200 220 255  40 0 0 100 80 200 220 255\n"
+      + "motion sun 0 5 2 20 20 255 200 0  40 5 2 20 20 255 200 0\n"
+      + "motion cloud 0 40 5 30 12 255 255 255  20 40 5 30 12 255 255 255\n"
+      + "motion cloud 20 40 5 30 12 255 255 255  40 60 5 30 12 255 255 255\n"
+      + "motion car 0 0 40 20 10 255 0 0  40 80 40 20 10 255 0 0\n"
+      + "motion tree 0 30 30 15 25 0 120 0  40 30 30 15 25 0 120 0\n"
+      + "motion bush 0 60 35 12 12 0 90 0  25 60 35 12 12 0 90 0\n"
+      + "motion bush 25 60 35 12 12 0 90 0  40 60 35 12 12 200 90 0\n"
+      + "motion rock 0 80 65 15 10 120 120 120  40 80 65 15 10 120 120 120\n";
+
+  @Test
+  public void testSamePixelsAsSlotOrder() {
+    IAnimation model = AnimationReader.parseFile(new StringReader(INPUT),
+        new Animation.Builder(1, new StringBuilder()));
+    for (boolean fill : new boolean[]{true, false}) {
+      PlaybackCursor cursor = model.getPlaybackCursor();
+      StaticLayers layers = new StaticLayers(model);
+      BufferedImage image = new BufferedImage(100, 80, BufferedImage.TYPE_INT_RGB);
+      Graphics2D g = image.createGraphics();
+      for (int t = 0; t <= 42; t++) {
+        FrameBuffer frame = cursor.seek(t);
+        layers.paint(g, frame, fill, Color.WHITE, 100, 80, null);
+        assertSamePixels(drawAll(frame, fill, 100, 80), image, t);
+      }
+      g.dispose();
+    }
+  }
+
+  @Test
+  public void testRegionAndSeekingBack() {
+    IAnimation model = AnimationReader.parseFile(new StringReader(INPUT),
+        new Animation.Builder(1, new StringBuilder()));
+    PlaybackCursor cursor = model.getPlaybackCursor();
+    StaticLayers layers = new StaticLayers(model);
+    BufferedImage image = new BufferedImage(100, 80, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    layers.paint(g, cursor.seek(30), true, Color.WHITE, 100, 80, null);
+    FrameBuffer frame = cursor.seek(10);
+    Rectangle region = new Rectangle(20, 30, 40, 30);
+    g.setClip(region);
+    layers.paint(g, frame, true, Color.WHITE, 100, 80, region);
+    g.dispose();
+    BufferedImage expected = drawAll(frame, true, 100, 80);
+    for (int y = region.y; y < region.y + region.height; y++) {
+      for (int x = region.x; x < region.x + region.width; x++) {
+        assertEquals(expected.getRGB(x, y), image.getRGB(x, y));
+      }
+    }
+  }
+}
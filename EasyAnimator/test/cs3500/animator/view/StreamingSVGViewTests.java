@@ -0,0 +1,130 @@
+package cs3500.animator.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import cs3500.animator.controller.AnimationController;
+import cs3500.animator.model.Animation;
+import cs3500.animator.model.IAnimation;
+import cs3500.animator.util.AnimationReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Test;
+
+/**
+ * Test class for StreamingSVGViewI.  Checks that a file that lists the motions of each shape
+ * together is written the same as by SVGViewI, and that every other file fails with the error
+ * found before anything is written.
+ */
+public class StreamingSVGViewTests {
+
+  private static final String INPUT = "# shapes first, then the motions of each shape\n"
+      + "canvas 10 20 400 400\n"
+      + "shape r rectangle\n"
+      + "shape e ellipse\n"
+      + "shape p plus\n"
+      + "shape unused rectangle\n"
+      + "motion e 5 50 100 25 40 0 0 255  70 200 55 25 40 0 255 0\n"
+      + "motion r 1 200 200 50 100 255 0 0  10 10 200 50 100 255 0 0\n"
+      + "motion r 10 10 200 50 100 255 0 0  50 300 300 25 100 0 0 255\n"
+      + "shape late rectangle\n"
+      + "motion late 3 1 2 3 4 5 6 7  9 1 2 30 40 5 6 7\n"
+      + "motion p 2 10 10 40 40 0 255 0  20 -30 60 40 80 0 255 0\n";
+
+  private static StreamingSVGViewI view(String input, Appendable out) throws IOException {
+    Path file = Files.createTempFile("streaming", ".txt");
+    file.toFile().deleteOnExit();
+    Files.write(file, input.getBytes(StandardCharsets.UTF_8));
+    return new StreamingSVGViewI(file, out, 10);
+  }
+
+  /**
+   * Streams a file that cannot be streamed, and gives the error it fails with.
+   */
+  private static String error(String input) throws IOException {
+    StringBuilder out = new StringBuilder();
+    StreamingSVGViewI view = view(input, out);
+    assertEquals(false, view.canStream());
+    try {
+      view.render();
+      fail("A file that cannot be streamed was written.");
+      return null;
+    } catch (IllegalStateException | IllegalArgumentException e) {
+      assertEquals("", out.toString());
+      return e.getMessage();
+    }
+  }
+
+  private static String expected(String input) throws IOException {
+    Animation.Builder builder = new Animation.Builder(10, new StringBuilder());
+    IAnimation model = AnimationReader.parseFile(new StringReader(input), builder);
+    StringBuilder out = new StringBuilder();
+    new SVGViewI(model, out, builder.getCanvasX(), builder.getCanvasY(),
+        builder.getCanvasWidth(), builder.getCanvasHeight(), 10).render();
+    return out.toString();
+  }
+
+  @Test
+  public void testSameAsSVGView() throws IOException {
+    StringBuilder out = new StringBuilder();
+    StreamingSVGViewI view = view(INPUT, out);
+    assertEquals(true, view.canStream());
+    view.render();
+    assertEquals(expected(INPUT), out.toString());
+  }
+
+  @Test
+  public void testShapeDeclaredTwice() throws IOException {
+    // the reader lets a later line declare a shape again, and streaming does the same
+    String input = INPUT + "shape r ellipse\n";
+    StringBuilder out = new StringBuilder();
+    view(input, out).render();
+    assertEquals(expected(input), out.toString());
+  }
+
+  @Test
+  public void testEmptyAnimation() throws IOException {
+    String input = "canvas 0 0 40 50\nshape r rectangle\n";
+    StringBuilder out = new StringBuilder();
+    view(input, out).render();
+    assertEquals(expected(input), out.toString());
+  }
+
+  @Test
+  public void testMotionsNotTogether() throws IOException {
+    String input = INPUT + "motion r 50 300 300 25 100 0 0 255  60 0 0 25 100 0 0 255\n";
+    assertEquals("Motions of shape r are not listed together.", error(input));
+  }
+
+  @Test
+  public void testControllerLoadsFileThatCannotBeStreamed() throws IOException {
+    String input = INPUT + "motion r 50 300 300 25 100 0 0 255  60 0 0 25 100 0 0 255\n";
+    Path file = Files.createTempFile("streaming", ".txt");
+    file.toFile().deleteOnExit();
+    Files.write(file, input.getBytes(StandardCharsets.UTF_8));
+    StringBuilder out = new StringBuilder();
+    AnimationController controller = new AnimationController(file, out, null);
+    controller.setViewOptions(new ViewOptions().setStreamingSVG(true));
+    controller.animate(10, "svg");
+    assertEquals(expected(input), out.toString());
+  }
+
+  @Test
+  public void testInvalidFiles() throws IOException {
+    assertEquals("The canvas must be given before the motions.",
+        error(INPUT.replace("canvas 10 20 400 400\n", "")));
+    assertEquals("The canvas must be given before the motions.",
+        error(INPUT + "canvas 0 0 100 100\n"));
+    assertEquals("Canvas dimensions must be greater than 0.",
+        error(INPUT.replace("400 400", "0 400")));
+    assertEquals("Attempted to move shape that does not exist.",
+        error(INPUT.replace("shape p plus\n", "")));
+    assertEquals("End time cannot be before start time.",
+        error(INPUT.replace("motion r 1 200", "motion r 11 200")));
+    error(INPUT.replace("shape p plus", "shape p star"));
+    error(INPUT.replace("70 200 55", "70x 200 55"));
+  }
+}